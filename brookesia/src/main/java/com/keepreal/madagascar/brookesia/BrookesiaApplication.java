@@ -2,11 +2,13 @@ package com.keepreal.madagascar.brookesia;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Represents the Brookesia spring boot service entry.
  */
 @SpringBootApplication
+@EnableScheduling
 public class BrookesiaApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,35 @@
+package com.keepreal.madagascar.brookesia.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Represents the stats event ingest buffer configurations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ingest-buffer", ignoreUnknownFields = false)
+@Data
+public class IngestBufferConfiguration {
+
+    /**
+     * Max events buffered, consumers block once full so the consumption slows down with mongo.
+     */
+    private Integer capacity = 10000;
+
+    /**
+     * Max events written in one unordered bulk insert.
+     */
+    private Integer batchSize = 500;
+
+    /**
+     * Max time an event waits in the buffer for its batch to fill up.
+     */
+    private Long maxWaitInMs = 100L;
+
+    /**
+     * Max time a consumer waits for buffer space and for its flush, before the message is reconsumed later.
+     */
+    private Long timeoutInMs = 10000L;
+
+}
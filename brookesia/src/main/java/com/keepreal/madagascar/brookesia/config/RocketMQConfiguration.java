@@ -1,8 +1,8 @@
 package com.keepreal.madagascar.brookesia.config;
 
-import com.aliyun.openservices.ons.api.MessageListener;
 import com.aliyun.openservices.ons.api.PropertyKeyConst;
-import com.aliyun.openservices.ons.api.bean.ConsumerBean;
+import com.aliyun.openservices.ons.api.batch.BatchMessageListener;
+import com.aliyun.openservices.ons.api.bean.BatchConsumerBean;
 import com.aliyun.openservices.ons.api.bean.Subscription;
 import com.keepreal.madagascar.brookesia.consumer.StatsEventListener;
 import lombok.Data;
@@ -29,25 +29,29 @@ public class RocketMQConfiguration {
     private String topic;
     private String groupId;
     private String tag;
+    private Integer consumeThreadNums = 20;
+    private Integer consumeMessageBatchMaxSize = 32;
 
     /**
-     * Constructs the consumer bean {@link ConsumerBean}.
+     * Constructs the batch consumer bean {@link BatchConsumerBean}, whose batches are coalesced
+     * across consumer threads by the ingest buffer.
      *
-     * @return {@link ConsumerBean}.
+     * @return {@link BatchConsumerBean}.
      */
     @Bean(initMethod = "start", destroyMethod = "shutdown")
-    public ConsumerBean buildConsumer() {
-        ConsumerBean consumerBean = new ConsumerBean();
+    public BatchConsumerBean buildConsumer() {
+        BatchConsumerBean consumerBean = new BatchConsumerBean();
 
         Properties properties = new Properties();
         properties.setProperty(PropertyKeyConst.AccessKey, this.accessKey);
         properties.setProperty(PropertyKeyConst.SecretKey, this.secretKey);
         properties.setProperty(PropertyKeyConst.NAMESRV_ADDR, this.nameSrvAddr);
         properties.setProperty(PropertyKeyConst.GROUP_ID, this.getGroupId());
-        properties.setProperty(PropertyKeyConst.ConsumeThreadNums, "20");
+        properties.setProperty(PropertyKeyConst.ConsumeThreadNums, String.valueOf(this.consumeThreadNums));
+        properties.setProperty(PropertyKeyConst.ConsumeMessageBatchMaxSize, String.valueOf(this.consumeMessageBatchMaxSize));
         consumerBean.setProperties(properties);
 
-        Map<Subscription, MessageListener> subscriptionTable = new HashMap<>();
+        Map<Subscription, BatchMessageListener> subscriptionTable = new HashMap<>();
         Subscription subscription = new Subscription();
         subscription.setTopic(this.getTopic());
         subscription.setExpression(this.getTag());
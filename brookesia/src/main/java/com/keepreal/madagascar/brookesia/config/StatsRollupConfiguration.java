@@ -0,0 +1,54 @@
+package com.keepreal.madagascar.brookesia.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the stats rollup configurations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stats-rollup", ignoreUnknownFields = false)
+@Data
+public class StatsRollupConfiguration {
+
+    /**
+     * Days a raw stats event is kept before mongo expires it, 0 keeps it forever.
+     */
+    private Integer rawRetentionInDays = 30;
+
+    /**
+     * Days a minute rollup is kept, 0 keeps it forever.
+     */
+    private Integer minuteRetentionInDays = 7;
+
+    /**
+     * Days an hour rollup is kept, 0 keeps it forever.
+     */
+    private Integer hourRetentionInDays = 180;
+
+    /**
+     * Days a day rollup is kept, 0 keeps it forever.
+     */
+    private Integer dayRetentionInDays = 0;
+
+    /**
+     * Zone offset the day buckets are aligned to.
+     */
+    private Integer zoneOffsetInHours = 8;
+
+    /**
+     * Max buckets one query may span, so a dashboard read stays bounded.
+     */
+    private Integer maxBucketsPerQuery = 1440;
+
+    /**
+     * Events whose value is a metric, as category:action, e.g. STATS_CAT_ISLAND:STATS_ACT_RETRIEVE. The values of
+     * the other events, e.g. user ids or error codes, are not aggregated.
+     */
+    private List<String> metricEvents = new ArrayList<>();
+
+}
@@ -4,6 +4,7 @@ import com.aliyun.openservices.ons.api.Action;
 import com.aliyun.openservices.ons.api.ConsumeContext;
 import com.aliyun.openservices.ons.api.Message;
 import com.aliyun.openservices.ons.api.MessageListener;
+import com.aliyun.openservices.ons.api.batch.BatchMessageListener;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.keepreal.madagascar.brookesia.StatsEventMessage;
 import com.keepreal.madagascar.brookesia.factory.StatsEventFactory;
@@ -13,6 +14,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -20,7 +23,7 @@ import java.util.Objects;
  */
 @Component
 @Slf4j
-public class StatsEventListener implements MessageListener {
+public class StatsEventListener implements MessageListener, BatchMessageListener {
 
     private final StatsEventService statsEventService;
     private final StatsEventFactory statsEventFactory;
@@ -68,4 +71,42 @@ public class StatsEventListener implements MessageListener {
         }
     }
 
+    /**
+     * Implements the batched stats event consumption logic. The batch is committed only once all its events
+     * are persisted, and reconsumed as a whole otherwise.
+     *
+     * @param messages Messages in binary.
+     * @param context  Context.
+     * @return {@link Action}.
+     */
+    @Override
+    public Action consume(List<Message> messages, ConsumeContext context) {
+        if (Objects.isNull(messages) || messages.isEmpty()) {
+            return Action.CommitMessage;
+        }
+
+        List<StatsEvent> statsEvents = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            if (Objects.isNull(message) || Objects.isNull(message.getBody())) {
+                continue;
+            }
+
+            try {
+                statsEvents.add(this.statsEventFactory.valueOf(StatsEventMessage.parseFrom(message.getBody())));
+            } catch (InvalidProtocolBufferException e) {
+                log.warn("Bad formatted notification event, skipped.");
+            }
+        }
+
+        try {
+            if (!statsEvents.isEmpty()) {
+                this.statsEventService.insertAll(statsEvents);
+            }
+            return Action.CommitMessage;
+        } catch (Exception e) {
+            log.warn("Failed to persist {} stats events, reconsume later.", statsEvents.size());
+            return Action.ReconsumeLater;
+        }
+    }
+
 }
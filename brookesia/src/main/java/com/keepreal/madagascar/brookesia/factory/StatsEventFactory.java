@@ -4,6 +4,7 @@ import com.keepreal.madagascar.brookesia.StatsEventMessage;
 import com.keepreal.madagascar.brookesia.model.StatsEvent;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
 import java.util.Objects;
 
 /**
@@ -32,6 +33,7 @@ public class StatsEventFactory {
                 .label(event.getLabel())
                 .succeed(event.getSucceed())
                 .metadata(event.getMetadata())
+                .createdAt(new Date(event.getTimestamp()))
                 .build();
     }
 
@@ -0,0 +1,96 @@
+package com.keepreal.madagascar.brookesia.grpcController;
+
+import com.keepreal.madagascar.brookesia.RetrieveStatsRollupsRequest;
+import com.keepreal.madagascar.brookesia.StatsRollupMessage;
+import com.keepreal.madagascar.brookesia.StatsRollupServiceGrpc;
+import com.keepreal.madagascar.brookesia.StatsRollupsResponse;
+import com.keepreal.madagascar.brookesia.config.StatsRollupConfiguration;
+import com.keepreal.madagascar.brookesia.model.StatsRollup;
+import com.keepreal.madagascar.brookesia.service.StatsRollupService;
+import com.keepreal.madagascar.brookesia.util.CommonStatusUtils;
+import com.keepreal.madagascar.common.exceptions.ErrorCode;
+import io.grpc.stub.StreamObserver;
+import org.lognet.springboot.grpc.GRpcService;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the stats rollup GRpc controller.
+ */
+@GRpcService
+public class StatsRollupGRpcController extends StatsRollupServiceGrpc.StatsRollupServiceImplBase {
+
+    private final StatsRollupService statsRollupService;
+    private final int maxBucketsPerQuery;
+
+    /**
+     * Constructs the stats rollup grpc controller.
+     *
+     * @param statsRollupService       {@link StatsRollupService}.
+     * @param statsRollupConfiguration {@link StatsRollupConfiguration}.
+     */
+    public StatsRollupGRpcController(StatsRollupService statsRollupService,
+                                     StatsRollupConfiguration statsRollupConfiguration) {
+        this.statsRollupService = statsRollupService;
+        this.maxBucketsPerQuery = statsRollupConfiguration.getMaxBucketsPerQuery();
+    }
+
+    /**
+     * Implements the retrieve stats rollups method, rejecting ranges spanning more buckets than allowed.
+     *
+     * @param request          {@link RetrieveStatsRollupsRequest}.
+     * @param responseObserver {@link StreamObserver} Callback.
+     */
+    @Override
+    public void retrieveStatsRollups(RetrieveStatsRollupsRequest request,
+                                     StreamObserver<StatsRollupsResponse> responseObserver) {
+        long startTimestamp = request.getStartTimestamp();
+        long endTimestamp = request.getEndTimestamp();
+        if (startTimestamp >= endTimestamp
+                || (endTimestamp - startTimestamp) / StatsRollupService.bucketSizeInMs(request.getGranularity())
+                > this.maxBucketsPerQuery) {
+            StatsRollupsResponse response = StatsRollupsResponse.newBuilder()
+                    .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_INVALID_ARGUMENT))
+                    .build();
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+            return;
+        }
+
+        List<StatsRollup> rollups = this.statsRollupService.retrieve(request.getGranularity(),
+                request.getCategory(),
+                request.getAction(),
+                request.hasLabel() ? request.getLabel().getValue() : null,
+                this.statsRollupService.bucketOf(request.getGranularity(), startTimestamp),
+                endTimestamp);
+
+        StatsRollupsResponse response = StatsRollupsResponse.newBuilder()
+                .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC))
+                .addAllRollups(rollups.stream()
+                        .map(this::toMessage)
+                        .collect(Collectors.toList()))
+                .build();
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private StatsRollupMessage toMessage(StatsRollup rollup) {
+        StatsRollupMessage.Builder builder = StatsRollupMessage.newBuilder()
+                .setBucketTimestamp(rollup.getBucketTimestamp())
+                .setCategory(rollup.getCategory())
+                .setAction(rollup.getAction())
+                .setLabel(rollup.getLabel())
+                .setCount(rollup.getCount())
+                .setSuccessCount(rollup.getSuccessCount())
+                .setValueCount(rollup.getValueCount())
+                .setValueSum(rollup.getValueSum());
+        if (Objects.nonNull(rollup.getValueMin())) {
+            builder.setValueMin(rollup.getValueMin())
+                    .setValueMax(rollup.getValueMax());
+        }
+        return builder.build();
+    }
+
+}
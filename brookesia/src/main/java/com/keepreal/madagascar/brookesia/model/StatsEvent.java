@@ -7,6 +7,8 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Date;
+
 /**
  * Represents the stats event model.
  */
@@ -24,5 +26,6 @@ public class StatsEvent {
     private String value;
     private Boolean succeed;
     private String metadata;
+    private Date createdAt;
 
 }
\ No newline at end of file
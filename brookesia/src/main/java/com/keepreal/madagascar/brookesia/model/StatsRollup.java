@@ -0,0 +1,46 @@
+package com.keepreal.madagascar.brookesia.model;
+
+import com.keepreal.madagascar.brookesia.StatsEventAction;
+import com.keepreal.madagascar.brookesia.StatsEventCategory;
+import com.keepreal.madagascar.brookesia.StatsRollupGranularity;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Represents the stats rollup model, the aggregate of the events of one category, action and label in one
+ * time bucket.
+ */
+@Builder
+@Data
+@Document("stats-rollup")
+@CompoundIndex(name = "granularity_category_action_label_bucket",
+        def = "{'granularity': 1, 'category': 1, 'action': 1, 'label': 1, 'bucketTimestamp': 1}")
+public class StatsRollup {
+
+    @Id
+    private String id;
+    private StatsRollupGranularity granularity;
+    private Long bucketTimestamp;
+    private StatsEventCategory category;
+    private StatsEventAction action;
+    private String label;
+    private Long count;
+    private Long successCount;
+    private Long valueCount;
+    private Double valueSum;
+    private Double valueMin;
+    private Double valueMax;
+    @Indexed(expireAfterSeconds = 0)
+    private Date expireAt;
+    /**
+     * Bumped by every increment, so the compaction only overwrites a rollup no increment has touched since it read it.
+     */
+    private Long version;
+
+}
@@ -0,0 +1,82 @@
+package com.keepreal.madagascar.brookesia.schedule;
+
+import com.keepreal.madagascar.brookesia.StatsRollupGranularity;
+import com.keepreal.madagascar.brookesia.service.StatsRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the scheduler that recomputes the closed rollup buckets from the raw events, so anything the
+ * incremental path missed, e.g. a failed rollup upsert, does not outlive the compaction. Only the instance holding
+ * the compaction lock of a range compacts it.
+ */
+@Service
+@Slf4j
+public class StatsRollupCompactionScheduler {
+
+    private static final String LOCK_KEY_PREFIX = "stats-rollup:compaction-lock:";
+    private static final long LOCK_LEASE_IN_MS = TimeUnit.MINUTES.toMillis(30L);
+
+    private final StatsRollupService statsRollupService;
+    private final RedissonClient redissonClient;
+
+    /**
+     * Constructs the stats rollup compaction scheduler.
+     *
+     * @param statsRollupService {@link StatsRollupService}.
+     * @param redissonClient     {@link RedissonClient}.
+     */
+    public StatsRollupCompactionScheduler(StatsRollupService statsRollupService,
+                                          RedissonClient redissonClient) {
+        this.statsRollupService = statsRollupService;
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * Recomputes the minute and hour rollups of the previous hour, every hour at minute 5 so late events have landed.
+     */
+    @Scheduled(cron = "0 5 * * * ?")
+    public void compactHour() {
+        this.compact(StatsRollupGranularity.STATS_ROLLUP_HOUR,
+                StatsRollupGranularity.STATS_ROLLUP_MINUTE, StatsRollupGranularity.STATS_ROLLUP_HOUR);
+    }
+
+    /**
+     * Recomputes the day rollups of the previous day, every day at 4:10.
+     */
+    @Scheduled(cron = "0 10 4 * * ?")
+    public void compactDay() {
+        this.compact(StatsRollupGranularity.STATS_ROLLUP_DAY, StatsRollupGranularity.STATS_ROLLUP_DAY);
+    }
+
+    private void compact(StatsRollupGranularity range, StatsRollupGranularity... granularities) {
+        RLock lock = this.redissonClient.getLock(StatsRollupCompactionScheduler.LOCK_KEY_PREFIX + range.name());
+        try {
+            if (!lock.tryLock(0L, StatsRollupCompactionScheduler.LOCK_LEASE_IN_MS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        long endTimestamp = this.statsRollupService.bucketOf(range, System.currentTimeMillis());
+        long startTimestamp = endTimestamp - StatsRollupService.bucketSizeInMs(range);
+        try {
+            int written = this.statsRollupService.rebuild(startTimestamp, endTimestamp, granularities);
+            log.info("Compacted {} stats rollups in [{}, {}).", written, startTimestamp, endTimestamp);
+        } catch (Exception e) {
+            log.error("Failed to compact stats rollups in [{}, {}).", startTimestamp, endTimestamp, e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.keepreal.madagascar.brookesia.service;
+
+import com.keepreal.madagascar.brookesia.config.IngestBufferConfiguration;
+import com.keepreal.madagascar.brookesia.model.StatsEvent;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the bounded buffer coalescing the stats events of all consumer threads into unordered bulk inserts,
+ * flushed once a batch fills up or its oldest event waited long enough. Callers are released only after the flush
+ * holding their event succeeded, so a message is committed only once it is persisted.
+ */
+@Component
+@Slf4j
+public class StatsEventIngestBuffer implements InitializingBean, DisposableBean {
+
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final StatsRollupService statsRollupService;
+    private final int batchSize;
+    private final long maxWaitInMs;
+    private final long timeoutInMs;
+    private final BlockingQueue<PendingEvent> queue;
+    private final Thread flusher;
+    private volatile boolean running;
+
+    /**
+     * Constructs the stats event ingest buffer.
+     *
+     * @param mongoTemplate             {@link MongoTemplate}.
+     * @param statsRollupService        {@link StatsRollupService}.
+     * @param ingestBufferConfiguration {@link IngestBufferConfiguration}.
+     */
+    public StatsEventIngestBuffer(MongoTemplate mongoTemplate,
+                                  StatsRollupService statsRollupService,
+                                  IngestBufferConfiguration ingestBufferConfiguration) {
+        this.mongoTemplate = mongoTemplate;
+        this.statsRollupService = statsRollupService;
+        this.batchSize = ingestBufferConfiguration.getBatchSize();
+        this.maxWaitInMs = ingestBufferConfiguration.getMaxWaitInMs();
+        this.timeoutInMs = ingestBufferConfiguration.getTimeoutInMs();
+        this.queue = new ArrayBlockingQueue<>(ingestBufferConfiguration.getCapacity());
+        this.flusher = new Thread(this::run, "stats-event-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        this.running = true;
+        this.flusher.start();
+    }
+
+    /**
+     * Stops accepting flush rounds and flushes what is left in the buffer.
+     *
+     * @throws InterruptedException Interrupted while waiting for the flusher.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        this.running = false;
+        this.flusher.join(this.timeoutInMs);
+
+        List<PendingEvent> batch = new ArrayList<>();
+        while (this.queue.drainTo(batch, this.batchSize) > 0) {
+            this.flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Buffers the events and waits until they are all persisted, duplicates counting as persisted.
+     *
+     * @param events {@link StatsEvent}.
+     * @throws IllegalStateException If the buffer stays full, or a flush failed or timed out.
+     */
+    public void insertAll(List<StatsEvent> events) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeoutInMs);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(events.size());
+            for (StatsEvent event : events) {
+                PendingEvent pendingEvent = new PendingEvent(event);
+                if (!this.queue.offer(pendingEvent, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new IllegalStateException("Stats event buffer is full.");
+                }
+                futures.add(pendingEvent.future);
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } catch (TimeoutException exception) {
+            throw new IllegalStateException("Stats event flush timed out.", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    private void run() {
+        List<PendingEvent> batch = new ArrayList<>(this.batchSize);
+        while (this.running) {
+            try {
+                PendingEvent first = this.queue.poll(this.maxWaitInMs, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.maxWaitInMs);
+                while (batch.size() < this.batchSize) {
+                    this.queue.drainTo(batch, this.batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= this.batchSize || remaining <= 0L) {
+                        break;
+                    }
+
+                    PendingEvent next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (Objects.isNull(next)) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                this.flush(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception exception) {
+                log.error("Unexpected stats event flush failure.", exception);
+                batch.forEach(pendingEvent -> pendingEvent.future.completeExceptionally(exception));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch in one unordered bulk insert. Duplicates count as persisted, any other write error
+     * fails its own event only, and a failure of the whole bulk fails every event. The events actually inserted
+     * are then added onto the rollups, so a redelivered duplicate is never counted twice.
+     *
+     * @param batch Pending events.
+     */
+    void flush(List<PendingEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<StatsEvent> events = batch.stream()
+                .map(pendingEvent -> pendingEvent.event)
+                .collect(Collectors.toList());
+
+        try {
+            this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatsEvent.class)
+                    .insert(events)
+                    .execute();
+        } catch (BulkOperationException exception) {
+            Map<Integer, BulkWriteError> errors = exception.getErrors().stream()
+                    .filter(error -> StatsEventIngestBuffer.DUPLICATE_KEY_ERROR_CODE != error.getCode())
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity(), (error1, error2) -> error1));
+            if (!errors.isEmpty()) {
+                log.error("{} of {} stats events failed to insert.", errors.size(), batch.size());
+            }
+
+            Set<Integer> rejected = exception.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+            List<StatsEvent> inserted = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                BulkWriteError error = errors.get(i);
+                if (Objects.isNull(error)) {
+                    batch.get(i).future.complete(null);
+                } else {
+                    batch.get(i).future.completeExceptionally(new IllegalStateException(error.getMessage()));
+                }
+                if (!rejected.contains(i)) {
+                    inserted.add(events.get(i));
+                }
+            }
+            this.rollup(inserted);
+            return;
+        } catch (Exception exception) {
+            log.error("Failed to insert {} stats events.", batch.size(), exception);
+            batch.forEach(pendingEvent -> pendingEvent.future.completeExceptionally(exception));
+            return;
+        }
+
+        batch.forEach(pendingEvent -> pendingEvent.future.complete(null));
+        this.rollup(events);
+    }
+
+    /**
+     * Adds the inserted events onto the rollups. A failure only costs rollup accuracy until the next compaction,
+     * so it never fails the events already persisted.
+     *
+     * @param events Inserted events.
+     */
+    private void rollup(List<StatsEvent> events) {
+        try {
+            this.statsRollupService.increment(events);
+        } catch (Exception exception) {
+            log.error("Failed to roll up {} stats events.", events.size(), exception);
+        }
+    }
+
+    /**
+     * Represents a buffered event and the completion its consumer waits on.
+     */
+    static class PendingEvent {
+
+        private final StatsEvent event;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingEvent(StatsEvent event) {
+            this.event = event;
+        }
+
+    }
+
+}
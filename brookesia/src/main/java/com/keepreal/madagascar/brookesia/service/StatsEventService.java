@@ -1,10 +1,12 @@
 package com.keepreal.madagascar.brookesia.service;
 
 import com.keepreal.madagascar.brookesia.model.StatsEvent;
-import com.keepreal.madagascar.brookesia.repository.StatsEventRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Represents the stats event service.
  */
@@ -12,24 +14,33 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class StatsEventService {
 
-    private final StatsEventRepository statsEventRepository;
+    private final StatsEventIngestBuffer statsEventIngestBuffer;
 
     /**
      * Constructs the stats event service.
      *
-     * @param statsEventRepository {@link StatsEventRepository}.
+     * @param statsEventIngestBuffer {@link StatsEventIngestBuffer}.
      */
-    public StatsEventService(StatsEventRepository statsEventRepository) {
-        this.statsEventRepository = statsEventRepository;
+    public StatsEventService(StatsEventIngestBuffer statsEventIngestBuffer) {
+        this.statsEventIngestBuffer = statsEventIngestBuffer;
     }
 
     /**
-     * Inserts a new event.
+     * Inserts a new event through the ingest buffer, returns once it is persisted.
      *
      * @param event Event to insert.
      */
     public void insert(StatsEvent event) {
-        this.statsEventRepository.insert(event);
+        this.statsEventIngestBuffer.insertAll(Collections.singletonList(event));
+    }
+
+    /**
+     * Inserts new events through the ingest buffer, returns once they are all persisted.
+     *
+     * @param events Events to insert.
+     */
+    public void insertAll(List<StatsEvent> events) {
+        this.statsEventIngestBuffer.insertAll(events);
     }
 
 }
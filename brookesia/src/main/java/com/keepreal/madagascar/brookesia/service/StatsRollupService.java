@@ -0,0 +1,380 @@
+package com.keepreal.madagascar.brookesia.service;
+
+import com.keepreal.madagascar.brookesia.StatsEventAction;
+import com.keepreal.madagascar.brookesia.StatsEventCategory;
+import com.keepreal.madagascar.brookesia.StatsRollupGranularity;
+import com.keepreal.madagascar.brookesia.config.StatsRollupConfiguration;
+import com.keepreal.madagascar.brookesia.model.StatsEvent;
+import com.keepreal.madagascar.brookesia.model.StatsRollup;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the stats rollup service, pre-aggregating the stats events into minute, hour and day buckets per
+ * category, action and label, so dashboards read a bounded number of rollups instead of scanning raw events.
+ */
+@Service
+@Slf4j
+public class StatsRollupService implements InitializingBean {
+
+    private static final StatsRollupGranularity[] GRANULARITIES = {
+            StatsRollupGranularity.STATS_ROLLUP_MINUTE,
+            StatsRollupGranularity.STATS_ROLLUP_HOUR,
+            StatsRollupGranularity.STATS_ROLLUP_DAY};
+
+    private final MongoTemplate mongoTemplate;
+    private final StatsRollupConfiguration statsRollupConfiguration;
+    private final long zoneOffsetInMs;
+    private final Set<String> metricEvents;
+
+    /**
+     * Constructs the stats rollup service.
+     *
+     * @param mongoTemplate            {@link MongoTemplate}.
+     * @param statsRollupConfiguration {@link StatsRollupConfiguration}.
+     */
+    public StatsRollupService(MongoTemplate mongoTemplate,
+                              StatsRollupConfiguration statsRollupConfiguration) {
+        this.mongoTemplate = mongoTemplate;
+        this.statsRollupConfiguration = statsRollupConfiguration;
+        this.zoneOffsetInMs = TimeUnit.HOURS.toMillis(statsRollupConfiguration.getZoneOffsetInHours());
+        this.metricEvents = new HashSet<>(statsRollupConfiguration.getMetricEvents());
+    }
+
+    /**
+     * Ensures the index the compaction ranges over the raw stats events with, doubling as their ttl index since
+     * the retention is configurable unlike with an annotation.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Index index = new Index().on("createdAt", Sort.Direction.ASC).named("createdAt");
+        if (this.statsRollupConfiguration.getRawRetentionInDays() > 0) {
+            index.expire(this.statsRollupConfiguration.getRawRetentionInDays(), TimeUnit.DAYS);
+        }
+
+        try {
+            this.mongoTemplate.indexOps(StatsEvent.class).ensureIndex(index);
+        } catch (Exception exception) {
+            log.warn("Failed to ensure the stats event createdAt index, drop it to change the retention.", exception);
+        }
+    }
+
+    /**
+     * Returns the size of a bucket.
+     *
+     * @param granularity {@link StatsRollupGranularity}.
+     * @return Bucket size in milliseconds.
+     */
+    public static long bucketSizeInMs(StatsRollupGranularity granularity) {
+        switch (granularity) {
+            case STATS_ROLLUP_MINUTE:
+                return TimeUnit.MINUTES.toMillis(1L);
+            case STATS_ROLLUP_HOUR:
+                return TimeUnit.HOURS.toMillis(1L);
+            case STATS_ROLLUP_DAY:
+                return TimeUnit.DAYS.toMillis(1L);
+            default:
+                throw new IllegalArgumentException("Unknown stats rollup granularity " + granularity);
+        }
+    }
+
+    /**
+     * Returns the start of the bucket a timestamp falls in, day buckets aligned to the configured zone.
+     *
+     * @param granularity {@link StatsRollupGranularity}.
+     * @param timestamp   Timestamp in milliseconds.
+     * @return Bucket start timestamp.
+     */
+    public long bucketOf(StatsRollupGranularity granularity, long timestamp) {
+        long size = StatsRollupService.bucketSizeInMs(granularity);
+        return Math.floorDiv(timestamp + this.zoneOffsetInMs, size) * size - this.zoneOffsetInMs;
+    }
+
+    /**
+     * Aggregates the events into rollups of the given granularity in memory.
+     *
+     * @param granularity {@link StatsRollupGranularity}.
+     * @param events      {@link StatsEvent}.
+     * @return {@link StatsRollup} by id.
+     */
+    public Map<String, StatsRollup> aggregate(StatsRollupGranularity granularity, Iterable<StatsEvent> events) {
+        Map<String, StatsRollup> rollups = new HashMap<>();
+        events.forEach(event -> this.accumulate(rollups, granularity, event));
+        return rollups;
+    }
+
+    /**
+     * Adds freshly persisted events onto the rollups of all granularities, one unordered bulk upsert each.
+     * Must be called once per event, the buffer only passes the events it actually inserted.
+     *
+     * @param events {@link StatsEvent}.
+     */
+    public void increment(List<StatsEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        for (StatsRollupGranularity granularity : StatsRollupService.GRANULARITIES) {
+            Collection<StatsRollup> rollups = this.aggregate(granularity, events).values();
+            BulkOperations bulkOperations =
+                    this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatsRollup.class);
+            rollups.forEach(rollup -> {
+                Update update = this.setOnInsertKey(new Update(), rollup)
+                        .inc("count", rollup.getCount())
+                        .inc("successCount", rollup.getSuccessCount())
+                        .inc("valueCount", rollup.getValueCount())
+                        .inc("valueSum", rollup.getValueSum())
+                        .inc("version", 1L);
+                if (Objects.nonNull(rollup.getValueMin())) {
+                    update.min("valueMin", rollup.getValueMin())
+                            .max("valueMax", rollup.getValueMax());
+                }
+                bulkOperations.upsert(Query.query(Criteria.where("_id").is(rollup.getId())), update);
+            });
+            bulkOperations.execute();
+        }
+    }
+
+    /**
+     * Recomputes the rollups of the given granularities from the raw events in [startTimestamp, endTimestamp). The
+     * range should be aligned to the coarsest bucket.
+     * <p>
+     * The versions of the rollups are read before the raw events are scanned, and a rollup is only overwritten if
+     * its version is unchanged, so an increment landing meanwhile, e.g. of a late event, is kept instead of being
+     * overwritten by a sum that may miss it. A rollup absent before the scan is only inserted if no increment has
+     * created it meanwhile.
+     *
+     * @param startTimestamp Range start timestamp.
+     * @param endTimestamp   Range end timestamp.
+     * @param granularities  {@link StatsRollupGranularity}.
+     * @return Rollups written.
+     */
+    public int rebuild(long startTimestamp, long endTimestamp, StatsRollupGranularity... granularities) {
+        Map<StatsRollupGranularity, Map<String, StatsRollup>> rollupsByGranularity =
+                new EnumMap<>(StatsRollupGranularity.class);
+        Map<String, Long> versions = new HashMap<>();
+        for (StatsRollupGranularity granularity : granularities) {
+            rollupsByGranularity.put(granularity, new HashMap<>());
+            this.retrieveVersions(granularity, startTimestamp, endTimestamp, versions);
+        }
+
+        Query query = Query.query(Criteria.where("createdAt").gte(new Date(startTimestamp)).lt(new Date(endTimestamp)));
+        try (CloseableIterator<StatsEvent> events = this.mongoTemplate.stream(query, StatsEvent.class)) {
+            events.forEachRemaining(event -> rollupsByGranularity.forEach((granularity, rollups) ->
+                    this.accumulate(rollups, granularity, event)));
+        }
+
+        int written = 0;
+        for (Map<String, StatsRollup> rollups : rollupsByGranularity.values()) {
+            if (rollups.isEmpty()) {
+                continue;
+            }
+
+            BulkOperations bulkOperations =
+                    this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatsRollup.class);
+            rollups.values().forEach(rollup -> {
+                if (!versions.containsKey(rollup.getId())) {
+                    Update update = this.setOnInsertKey(new Update(), rollup)
+                            .setOnInsert("count", rollup.getCount())
+                            .setOnInsert("successCount", rollup.getSuccessCount())
+                            .setOnInsert("valueCount", rollup.getValueCount())
+                            .setOnInsert("valueSum", rollup.getValueSum())
+                            .setOnInsert("version", 0L);
+                    if (Objects.nonNull(rollup.getValueMin())) {
+                        update.setOnInsert("valueMin", rollup.getValueMin())
+                                .setOnInsert("valueMax", rollup.getValueMax());
+                    }
+                    bulkOperations.upsert(Query.query(Criteria.where("_id").is(rollup.getId())), update);
+                    return;
+                }
+
+                Update update = new Update()
+                        .set("count", rollup.getCount())
+                        .set("successCount", rollup.getSuccessCount())
+                        .set("valueCount", rollup.getValueCount())
+                        .set("valueSum", rollup.getValueSum())
+                        .inc("version", 1L);
+                if (Objects.nonNull(rollup.getValueMin())) {
+                    update.set("valueMin", rollup.getValueMin())
+                            .set("valueMax", rollup.getValueMax());
+                } else {
+                    update.unset("valueMin")
+                            .unset("valueMax");
+                }
+                bulkOperations.updateOne(Query.query(Criteria.where("_id").is(rollup.getId())
+                        .and("version").is(versions.get(rollup.getId()))), update);
+            });
+            BulkWriteResult result = bulkOperations.execute();
+            int rollupWritten = result.getModifiedCount() + result.getUpserts().size();
+            if (rollupWritten < rollups.size()) {
+                log.info("{} of {} stats rollups were incremented during the compaction, kept.",
+                        rollups.size() - rollupWritten, rollups.size());
+            }
+            written += rollupWritten;
+        }
+        return written;
+    }
+
+    /**
+     * Retrieves the rollups of the buckets starting in [startTimestamp, endTimestamp) from the compound index,
+     * one rollup per label and bucket when no label is given.
+     *
+     * @param granularity    {@link StatsRollupGranularity}.
+     * @param category       {@link StatsEventCategory}.
+     * @param action         {@link StatsEventAction}.
+     * @param label          Label, null for all labels.
+     * @param startTimestamp Range start timestamp.
+     * @param endTimestamp   Range end timestamp.
+     * @return {@link StatsRollup} ordered by bucket.
+     */
+    public List<StatsRollup> retrieve(StatsRollupGranularity granularity,
+                                      StatsEventCategory category,
+                                      StatsEventAction action,
+                                      String label,
+                                      long startTimestamp,
+                                      long endTimestamp) {
+        Criteria criteria = Criteria.where("granularity").is(granularity)
+                .and("category").is(category)
+                .and("action").is(action);
+        if (Objects.nonNull(label)) {
+            criteria = criteria.and("label").is(label);
+        }
+        criteria = criteria.and("bucketTimestamp").gte(startTimestamp).lt(endTimestamp);
+
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "bucketTimestamp"));
+        return this.mongoTemplate.find(query, StatsRollup.class);
+    }
+
+    /**
+     * Reads the versions of the rollups of a granularity in [startTimestamp, endTimestamp) by their id range, the
+     * ids starting with the granularity and the fixed width bucket timestamp.
+     */
+    private void retrieveVersions(StatsRollupGranularity granularity,
+                                  long startTimestamp,
+                                  long endTimestamp,
+                                  Map<String, Long> versions) {
+        Query query = Query.query(Criteria.where("_id")
+                .gte(String.join(":", granularity.name(), String.valueOf(startTimestamp)))
+                .lt(String.join(":", granularity.name(), String.valueOf(endTimestamp))));
+        query.fields().include("_id").include("version");
+        this.mongoTemplate.find(query, StatsRollup.class)
+                .forEach(rollup -> versions.put(rollup.getId(), rollup.getVersion()));
+    }
+
+    private void accumulate(Map<String, StatsRollup> rollups, StatsRollupGranularity granularity, StatsEvent event) {
+        long bucketTimestamp = this.bucketOf(granularity, event.getTimestamp());
+        String label = StringUtils.isEmpty(event.getLabel()) ? "" : event.getLabel();
+        String id = String.join(":", granularity.name(), String.valueOf(bucketTimestamp),
+                String.valueOf(event.getCategory()), String.valueOf(event.getAction()), label);
+
+        StatsRollup rollup = rollups.computeIfAbsent(id, key -> StatsRollup.builder()
+                .id(key)
+                .granularity(granularity)
+                .bucketTimestamp(bucketTimestamp)
+                .category(event.getCategory())
+                .action(event.getAction())
+                .label(label)
+                .count(0L)
+                .successCount(0L)
+                .valueCount(0L)
+                .valueSum(0D)
+                .expireAt(this.expireAt(granularity, bucketTimestamp))
+                .build());
+
+        rollup.setCount(rollup.getCount() + 1);
+        if (Boolean.TRUE.equals(event.getSucceed())) {
+            rollup.setSuccessCount(rollup.getSuccessCount() + 1);
+        }
+
+        if (!this.metricEvents.contains(event.getCategory() + ":" + event.getAction())) {
+            return;
+        }
+
+        Double value = StatsRollupService.parseValue(event.getValue());
+        if (Objects.nonNull(value)) {
+            rollup.setValueCount(rollup.getValueCount() + 1);
+            rollup.setValueSum(rollup.getValueSum() + value);
+            rollup.setValueMin(Objects.isNull(rollup.getValueMin()) ? value : Math.min(rollup.getValueMin(), value));
+            rollup.setValueMax(Objects.isNull(rollup.getValueMax()) ? value : Math.max(rollup.getValueMax(), value));
+        }
+    }
+
+    private Update setOnInsertKey(Update update, StatsRollup rollup) {
+        update.setOnInsert("granularity", rollup.getGranularity())
+                .setOnInsert("bucketTimestamp", rollup.getBucketTimestamp())
+                .setOnInsert("category", rollup.getCategory())
+                .setOnInsert("action", rollup.getAction())
+                .setOnInsert("label", rollup.getLabel());
+        if (Objects.nonNull(rollup.getExpireAt())) {
+            update.setOnInsert("expireAt", rollup.getExpireAt());
+        }
+        return update;
+    }
+
+    private Date expireAt(StatsRollupGranularity granularity, long bucketTimestamp) {
+        int retentionInDays;
+        switch (granularity) {
+            case STATS_ROLLUP_MINUTE:
+                retentionInDays = this.statsRollupConfiguration.getMinuteRetentionInDays();
+                break;
+            case STATS_ROLLUP_HOUR:
+                retentionInDays = this.statsRollupConfiguration.getHourRetentionInDays();
+                break;
+            default:
+                retentionInDays = this.statsRollupConfiguration.getDayRetentionInDays();
+        }
+
+        if (retentionInDays <= 0) {
+            return null;
+        }
+        return new Date(bucketTimestamp + StatsRollupService.bucketSizeInMs(granularity)
+                + TimeUnit.DAYS.toMillis(retentionInDays));
+    }
+
+    /**
+     * Parses the numeric value of a metric event.
+     *
+     * @param value Event value.
+     * @return Numeric value or null.
+     */
+    private static Double parseValue(String value) {
+        if (StringUtils.isEmpty(value)) {
+            return null;
+        }
+
+        char first = value.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '.') {
+            return null;
+        }
+
+        try {
+            double parsed = Double.parseDouble(value);
+            return Double.isFinite(parsed) ? parsed : null;
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package benchmarks;
+
+import com.keepreal.madagascar.brookesia.StatsEventAction;
+import com.keepreal.madagascar.brookesia.StatsEventCategory;
+import com.keepreal.madagascar.brookesia.config.IngestBufferConfiguration;
+import com.keepreal.madagascar.brookesia.model.StatsEvent;
+import com.keepreal.madagascar.brookesia.service.StatsEventIngestBuffer;
+import com.keepreal.madagascar.brookesia.service.StatsRollupService;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientURI;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the events/sec benchmarks of persisting stats events from as many threads as the consumer runs, comparing
+ * the former insert per event with the {@link StatsEventIngestBuffer} coalescing the message batches of all threads
+ * into unordered bulk inserts. The rollups are stubbed, so both sides only measure the event inserts.
+ * <p>
+ * Needs a mongo at the benchmark.mongo.uri system property, mongodb://127.0.0.1:27017 by default. The benchmark
+ * collection is dropped before every iteration. Run with the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(20)
+@Fork(1)
+public class StatsEventIngestBenchmarks {
+
+    private static final int CONSUME_BATCH_SIZE = 32;
+    private static final String DATABASE = "brookesia-benchmark";
+
+    @Param({"100", "500"})
+    private int batchSize;
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private StatsEventIngestBuffer statsEventIngestBuffer;
+
+    /**
+     * Builds and starts the buffer over the benchmark database.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.mongoClient = new MongoClient(new MongoClientURI(
+                System.getProperty("benchmark.mongo.uri", "mongodb://127.0.0.1:27017")));
+        this.mongoTemplate = new MongoTemplate(this.mongoClient, StatsEventIngestBenchmarks.DATABASE);
+
+        IngestBufferConfiguration configuration = new IngestBufferConfiguration();
+        configuration.setBatchSize(this.batchSize);
+        this.statsEventIngestBuffer = new StatsEventIngestBuffer(this.mongoTemplate,
+                Mockito.mock(StatsRollupService.class),
+                configuration);
+        this.statsEventIngestBuffer.afterPropertiesSet();
+    }
+
+    /**
+     * Starts every iteration from an empty collection.
+     */
+    @Setup(Level.Iteration)
+    public void clean() {
+        this.mongoTemplate.dropCollection(StatsEvent.class);
+    }
+
+    /**
+     * Stops the buffer and drops the benchmark database.
+     *
+     * @throws InterruptedException Interrupted while stopping the buffer.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        this.statsEventIngestBuffer.destroy();
+        this.mongoTemplate.getDb().drop();
+        this.mongoClient.close();
+    }
+
+    /**
+     * Benchmarks persisting a consumed batch one insert per event, as before the buffer.
+     *
+     * @return Persisted events.
+     */
+    @Benchmark
+    @OperationsPerInvocation(StatsEventIngestBenchmarks.CONSUME_BATCH_SIZE)
+    public int insertOneByOne() {
+        List<StatsEvent> events = StatsEventIngestBenchmarks.buildEvents();
+        events.forEach(this.mongoTemplate::insert);
+        return events.size();
+    }
+
+    /**
+     * Benchmarks persisting a consumed batch through the buffer, bulk inserted with the batches of the other threads.
+     *
+     * @return Persisted events.
+     */
+    @Benchmark
+    @OperationsPerInvocation(StatsEventIngestBenchmarks.CONSUME_BATCH_SIZE)
+    public int insertBuffered() {
+        List<StatsEvent> events = StatsEventIngestBenchmarks.buildEvents();
+        this.statsEventIngestBuffer.insertAll(events);
+        return events.size();
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Arguments.
+     * @throws RunnerException Runner failure.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StatsEventIngestBenchmarks.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * Builds a consumed batch of fresh events, so none of them is a duplicate.
+     *
+     * @return {@link StatsEvent}.
+     */
+    private static List<StatsEvent> buildEvents() {
+        List<StatsEvent> events = new ArrayList<>(StatsEventIngestBenchmarks.CONSUME_BATCH_SIZE);
+        for (int i = 0; i < StatsEventIngestBenchmarks.CONSUME_BATCH_SIZE; i++) {
+            long timestamp = System.currentTimeMillis();
+            events.add(StatsEvent.builder()
+                    .id(UUID.randomUUID().toString())
+                    .timestamp(timestamp)
+                    .category(StatsEventCategory.STATS_CAT_FEED)
+                    .action(StatsEventAction.STATS_ACT_RETRIEVE)
+                    .label("feed")
+                    .value(String.valueOf(i))
+                    .succeed(true)
+                    .metadata("{}")
+                    .createdAt(new Date(timestamp))
+                    .build());
+        }
+        return events;
+    }
+
+}
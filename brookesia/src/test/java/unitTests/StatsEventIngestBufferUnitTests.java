@@ -0,0 +1,143 @@
+package unitTests;
+
+import com.keepreal.madagascar.brookesia.config.IngestBufferConfiguration;
+import com.keepreal.madagascar.brookesia.model.StatsEvent;
+import com.keepreal.madagascar.brookesia.service.StatsEventIngestBuffer;
+import com.keepreal.madagascar.brookesia.service.StatsRollupService;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoClientException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents unit tests for {@link StatsEventIngestBuffer}.
+ */
+@SpringBootTest
+public class StatsEventIngestBufferUnitTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private StatsRollupService statsRollupService;
+
+    private StatsEventIngestBuffer statsEventIngestBuffer;
+
+    /**
+     * Initializes the mock and starts the buffer.
+     */
+    @Before
+    public void InitMocks() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatsEvent.class))
+                .thenReturn(this.bulkOperations);
+        Mockito.when(this.bulkOperations.insert(Mockito.anyList())).thenReturn(this.bulkOperations);
+
+        IngestBufferConfiguration configuration = new IngestBufferConfiguration();
+        configuration.setCapacity(100);
+        configuration.setBatchSize(10);
+        configuration.setMaxWaitInMs(100L);
+        configuration.setTimeoutInMs(1000L);
+        this.statsEventIngestBuffer = new StatsEventIngestBuffer(this.mongoTemplate, this.statsRollupService, configuration);
+        this.statsEventIngestBuffer.afterPropertiesSet();
+    }
+
+    /**
+     * Stops the buffer.
+     *
+     * @throws InterruptedException Interrupted.
+     */
+    @After
+    public void tearDown() throws InterruptedException {
+        this.statsEventIngestBuffer.destroy();
+    }
+
+    /**
+     * Tests the events of one call are written in one bulk insert.
+     */
+    @Test
+    public void TestInsertAllSucceed() {
+        // Mock
+        List<StatsEvent> events = Arrays.asList(
+                StatsEvent.builder().id("1").build(),
+                StatsEvent.builder().id("2").build(),
+                StatsEvent.builder().id("3").build());
+        Mockito.when(this.bulkOperations.execute()).thenReturn(BulkWriteResult.unacknowledged());
+
+        // Action
+        this.statsEventIngestBuffer.insertAll(events);
+
+        // Assert
+        Mockito.verify(this.bulkOperations, Mockito.times(1)).insert(events);
+        Mockito.verify(this.bulkOperations, Mockito.times(1)).execute();
+        Mockito.verify(this.statsRollupService, Mockito.timeout(1000L)).increment(events);
+    }
+
+    /**
+     * Tests duplicated events count as persisted.
+     */
+    @Test
+    public void TestInsertAllDuplicated() {
+        // Mock
+        Mockito.when(this.bulkOperations.execute()).thenThrow(this.buildBulkOperationException(11000));
+
+        // Action
+        this.statsEventIngestBuffer.insertAll(Collections.singletonList(StatsEvent.builder().id("1").build()));
+
+        // Assert
+        Mockito.verify(this.statsRollupService, Mockito.timeout(1000L)).increment(Collections.emptyList());
+    }
+
+    /**
+     * Tests write errors other than duplicates fail the insert.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void TestInsertAllWriteError() {
+        // Mock
+        Mockito.when(this.bulkOperations.execute()).thenThrow(this.buildBulkOperationException(121));
+
+        // Action
+        this.statsEventIngestBuffer.insertAll(Collections.singletonList(StatsEvent.builder().id("1").build()));
+    }
+
+    /**
+     * Tests a failure of the whole bulk fails the insert.
+     */
+    @Test(expected = MongoClientException.class)
+    public void TestInsertAllBulkFailed() {
+        // Mock
+        Mockito.when(this.bulkOperations.execute()).thenThrow(new MongoClientException("unexpected exception"));
+
+        // Action
+        this.statsEventIngestBuffer.insertAll(Collections.singletonList(StatsEvent.builder().id("1").build()));
+    }
+
+    private BulkOperationException buildBulkOperationException(int code) {
+        BulkWriteError error = new BulkWriteError(code, "error", new BsonDocument(), 0);
+        return new BulkOperationException("error",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                        Collections.singletonList(error),
+                        null,
+                        new ServerAddress()));
+    }
+
+}
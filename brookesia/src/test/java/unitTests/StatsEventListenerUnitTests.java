@@ -19,6 +19,9 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DuplicateKeyException;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 /**
  * Represents unit tests for {@link StatsEventListener}.
  */
@@ -115,4 +118,46 @@ public class StatsEventListenerUnitTests {
         Assert.assertEquals(result, Action.ReconsumeLater);
     }
 
+    /**
+     * Tests the batch consumption logic.
+     */
+    @Test
+    public void TestConsumeBatchSucceed() throws InvalidProtocolBufferException {
+        // Mock
+        StatsEvent statsEvent = StatsEvent.builder().build();
+        StatsEventMessage statsEventMessage = StatsEventMessage.newBuilder().build();
+        Message message = new Message("topic", "tag", "key", statsEventMessage.toByteArray());
+        Message badMessage = new Message("topic", "tag", "key", "wrong format".getBytes());
+        Mockito.when(this.statsEventFactory.valueOf(StatsEventMessage.parseFrom(message.getBody())))
+                .thenReturn(statsEvent);
+
+        // Action
+        Action result = this.statsEventListener.consume(Arrays.asList(message, badMessage), null);
+
+        // Assert
+        Assert.assertEquals(result, Action.CommitMessage);
+        Mockito.verify(this.statsEventService).insertAll(Collections.singletonList(statsEvent));
+    }
+
+    /**
+     * Tests the batch consumption logic when persisting fails.
+     */
+    @Test
+    public void TestConsumeBatchFailed() throws InvalidProtocolBufferException {
+        // Mock
+        StatsEvent statsEvent = StatsEvent.builder().build();
+        StatsEventMessage statsEventMessage = StatsEventMessage.newBuilder().build();
+        Message message = new Message("topic", "tag", "key", statsEventMessage.toByteArray());
+        Mockito.when(this.statsEventFactory.valueOf(StatsEventMessage.parseFrom(message.getBody())))
+                .thenReturn(statsEvent);
+        Mockito.doThrow(new IllegalStateException("Stats event buffer is full."))
+                .when(this.statsEventService).insertAll(Mockito.anyList());
+
+        // Action
+        Action result = this.statsEventListener.consume(Collections.singletonList(message), null);
+
+        // Assert
+        Assert.assertEquals(result, Action.ReconsumeLater);
+    }
+
 }
@@ -0,0 +1,190 @@
+package unitTests;
+
+import com.keepreal.madagascar.brookesia.StatsEventAction;
+import com.keepreal.madagascar.brookesia.StatsEventCategory;
+import com.keepreal.madagascar.brookesia.StatsRollupGranularity;
+import com.keepreal.madagascar.brookesia.config.StatsRollupConfiguration;
+import com.keepreal.madagascar.brookesia.model.StatsEvent;
+import com.keepreal.madagascar.brookesia.model.StatsRollup;
+import com.keepreal.madagascar.brookesia.service.StatsRollupService;
+import com.mongodb.bulk.BulkWriteResult;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Represents unit tests for {@link StatsRollupService}.
+ */
+@SpringBootTest
+public class StatsRollupServiceUnitTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private StatsRollupService statsRollupService;
+
+    /**
+     * Initializes the mock.
+     */
+    @Before
+    public void InitMocks() {
+        MockitoAnnotations.initMocks(this);
+        StatsRollupConfiguration configuration = new StatsRollupConfiguration();
+        configuration.setZoneOffsetInHours(8);
+        configuration.setMetricEvents(Collections.singletonList("STATS_CAT_COMMENT:STATS_ACT_RETRIEVE"));
+        this.statsRollupService = new StatsRollupService(this.mongoTemplate, configuration);
+    }
+
+    /**
+     * Tests the buckets are aligned to the granularity, day buckets to the configured zone.
+     */
+    @Test
+    public void TestBucketOf() {
+        // Mock
+        long timestamp = 1577836800000L + 3723000L;
+
+        // Action & Assert
+        Assert.assertEquals(1577836800000L + 3720000L,
+                this.statsRollupService.bucketOf(StatsRollupGranularity.STATS_ROLLUP_MINUTE, timestamp));
+        Assert.assertEquals(1577836800000L + 3600000L,
+                this.statsRollupService.bucketOf(StatsRollupGranularity.STATS_ROLLUP_HOUR, timestamp));
+        Assert.assertEquals(1577836800000L - 28800000L,
+                this.statsRollupService.bucketOf(StatsRollupGranularity.STATS_ROLLUP_DAY, timestamp));
+    }
+
+    /**
+     * Tests the events of one bucket and label are aggregated into one rollup.
+     */
+    @Test
+    public void TestAggregate() {
+        // Mock
+        StatsEvent event1 = this.buildEvent(60000L, "label", "3", true);
+        StatsEvent event2 = this.buildEvent(90000L, "label", "-1.5", false);
+        StatsEvent event3 = this.buildEvent(100000L, "label", "name", true);
+        StatsEvent event4 = this.buildEvent(100000L, "other", "", true);
+
+        // Action
+        Map<String, StatsRollup> rollups = this.statsRollupService.aggregate(
+                StatsRollupGranularity.STATS_ROLLUP_MINUTE, Arrays.asList(event1, event2, event3, event4));
+
+        // Assert
+        Assert.assertEquals(2, rollups.size());
+        StatsRollup rollup = rollups.values().stream()
+                .filter(value -> "label".equals(value.getLabel()))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        Assert.assertEquals(60000L, rollup.getBucketTimestamp().longValue());
+        Assert.assertEquals(3L, rollup.getCount().longValue());
+        Assert.assertEquals(2L, rollup.getSuccessCount().longValue());
+        Assert.assertEquals(2L, rollup.getValueCount().longValue());
+        Assert.assertEquals(1.5D, rollup.getValueSum(), 0D);
+        Assert.assertEquals(-1.5D, rollup.getValueMin(), 0D);
+        Assert.assertEquals(3D, rollup.getValueMax(), 0D);
+        Assert.assertNotNull(rollup.getExpireAt());
+    }
+
+    /**
+     * Tests the values of the events not declared as metrics, e.g. user ids, are not aggregated.
+     */
+    @Test
+    public void TestAggregateSkipsNonMetricValues() {
+        // Mock
+        StatsEvent event = this.buildEvent(StatsEventCategory.STATS_CAT_LOGIN, StatsEventAction.STATS_ACT_NONE,
+                60000L, "user id", "1234567", true);
+
+        // Action
+        Map<String, StatsRollup> rollups = this.statsRollupService.aggregate(
+                StatsRollupGranularity.STATS_ROLLUP_MINUTE, Collections.singletonList(event));
+
+        // Assert
+        StatsRollup rollup = rollups.values().iterator().next();
+        Assert.assertEquals(1L, rollup.getCount().longValue());
+        Assert.assertEquals(0L, rollup.getValueCount().longValue());
+        Assert.assertNull(rollup.getValueMin());
+    }
+
+    /**
+     * Tests the compaction overwrites an existing rollup only at the version read before the scan, and only
+     * inserts a missing one.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void TestRebuildIsVersioned() {
+        // Mock
+        StatsEvent event1 = this.buildEvent(60000L, "label", "3", true);
+        StatsEvent event2 = this.buildEvent(60000L, "other", "4", true);
+        StatsRollup existing = this.statsRollupService.aggregate(StatsRollupGranularity.STATS_ROLLUP_MINUTE,
+                Collections.singletonList(event1)).values().iterator().next();
+        existing.setVersion(3L);
+
+        Iterator<StatsEvent> iterator = Arrays.asList(event1, event2).iterator();
+        CloseableIterator<StatsEvent> events = Mockito.mock(CloseableIterator.class);
+        Mockito.when(events.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        Mockito.when(events.next()).thenAnswer(invocation -> iterator.next());
+        Mockito.doCallRealMethod().when(events).forEachRemaining(Mockito.any());
+        Mockito.when(this.mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(StatsRollup.class)))
+                .thenReturn(Collections.singletonList(existing));
+        Mockito.when(this.mongoTemplate.stream(Mockito.any(Query.class), Mockito.eq(StatsEvent.class))).thenReturn(events);
+        Mockito.when(this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StatsRollup.class))
+                .thenReturn(this.bulkOperations);
+        BulkWriteResult result = Mockito.mock(BulkWriteResult.class);
+        Mockito.when(result.getModifiedCount()).thenReturn(1);
+        Mockito.when(result.getUpserts()).thenReturn(Collections.emptyList());
+        Mockito.when(this.bulkOperations.execute()).thenReturn(result);
+
+        // Action
+        int written = this.statsRollupService.rebuild(0L, 120000L, StatsRollupGranularity.STATS_ROLLUP_MINUTE);
+
+        // Assert
+        ArgumentCaptor<Query> updateQuery = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(this.bulkOperations).updateOne(updateQuery.capture(), Mockito.any(Update.class));
+        Assert.assertEquals(existing.getId(), updateQuery.getValue().getQueryObject().get("_id"));
+        Assert.assertEquals(3L, updateQuery.getValue().getQueryObject().get("version"));
+
+        ArgumentCaptor<Update> upsertUpdate = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(this.bulkOperations).upsert(Mockito.any(Query.class), upsertUpdate.capture());
+        Assert.assertTrue(upsertUpdate.getValue().getUpdateObject().containsKey("$setOnInsert"));
+        Assert.assertFalse(upsertUpdate.getValue().getUpdateObject().containsKey("$set"));
+        Assert.assertEquals(1, written);
+    }
+
+    private StatsEvent buildEvent(long timestamp, String label, String value, boolean succeed) {
+        return this.buildEvent(StatsEventCategory.STATS_CAT_COMMENT, StatsEventAction.STATS_ACT_RETRIEVE,
+                timestamp, label, value, succeed);
+    }
+
+    private StatsEvent buildEvent(StatsEventCategory category,
+                                  StatsEventAction action,
+                                  long timestamp,
+                                  String label,
+                                  String value,
+                                  boolean succeed) {
+        return StatsEvent.builder()
+                .timestamp(timestamp)
+                .category(category)
+                .action(action)
+                .label(label)
+                .value(value)
+                .succeed(succeed)
+                .build();
+    }
+
+}
@@ -27,6 +27,7 @@ public class IdGeneratorConfiguration {
     public static final int MAX_SEQUENCE = ~(-1 << IdGeneratorConfiguration.SEQUENCE_BITS);
 
     private int nodeId;
+    private long maxClockSkewInMS = 1000L;
 
     /**
      * Represents the bean of snowflake generator.
@@ -46,6 +47,9 @@ public class IdGeneratorConfiguration {
         if (this.nodeId < 0 || this.nodeId > IdGeneratorConfiguration.MAX_NODE_ID) {
             throw new IllegalArgumentException("Wrong node id.");
         }
+        if (this.maxClockSkewInMS < 0) {
+            throw new IllegalArgumentException("Wrong max clock skew.");
+        }
     }
 
 }
\ No newline at end of file
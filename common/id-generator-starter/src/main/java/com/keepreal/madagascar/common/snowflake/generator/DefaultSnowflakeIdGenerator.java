@@ -1,15 +1,19 @@
 package com.keepreal.madagascar.common.snowflake.generator;
 
 import com.keepreal.madagascar.common.snowflake.config.IdGeneratorConfiguration;
-import com.keepreal.madagascar.common.snowflake.model.DefaultSnowflakeId;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  *  Represents a default snowflake id generator.
+ *  The last timestamp and sequence are packed into a single {@link AtomicLong} as (timestamp << sequence bits) | sequence,
+ *  so ids are claimed by compare-and-set. Incrementing the packed state carries a sequence overflow into the next
+ *  millisecond, which lets the generator borrow future milliseconds for bursts and clock regressions as long as it
+ *  stays within the configured skew.
  */
 public class DefaultSnowflakeIdGenerator implements LongIdGenerator{
 
-    private volatile long lastTimestamp = -1L;
-    private volatile int sequence = 0;
+    private final AtomicLong state = new AtomicLong(0L);
     private final IdGeneratorConfiguration configuration;
 
     /**
@@ -27,25 +31,31 @@ public class DefaultSnowflakeIdGenerator implements LongIdGenerator{
      * @return Snowflake id.
      */
     @Override
-    public synchronized long nextId() {
-        long currentTimestamp = this.currentTimestamp();
+    public long nextId() {
+        return this.toId(this.lease(1));
+    }
 
-        if (currentTimestamp < this.lastTimestamp) {
-            throw new IllegalStateException("Invalid System Clock!");
+    /**
+     * Generates a batch of snowflake ids with a single compare-and-set.
+     *
+     * @param count Number of ids.
+     * @return Snowflake ids in ascending order.
+     */
+    @Override
+    public long[] nextIds(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Id count must be positive.");
         }
-
-        if (this.lastTimestamp == currentTimestamp) {
-            this.sequence = (this.sequence + 1) & IdGeneratorConfiguration.MAX_SEQUENCE;
-            if (this.sequence == 0) {
-                currentTimestamp = this.waitNextMillis(currentTimestamp);
-            }
-        } else {
-            this.sequence = 0;
+        if (count > (this.configuration.getMaxClockSkewInMS() + 1) << IdGeneratorConfiguration.SEQUENCE_BITS) {
+            throw new IllegalArgumentException("Id count exceeds the clock skew capacity.");
         }
 
-        this.lastTimestamp = currentTimestamp;
-
-        return new DefaultSnowflakeId(this.configuration.getNodeId(), this.lastTimestamp, this.sequence).toLong();
+        long first = this.lease(count);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = this.toId(first + i);
+        }
+        return ids;
     }
 
     /**
@@ -58,16 +68,48 @@ public class DefaultSnowflakeIdGenerator implements LongIdGenerator{
     }
 
     /**
-     * Loops until next tick.
+     * Claims a range of packed states.
      *
-     * @param currentTimestamp Current timestamp.
-     * @return Updated timestamp.
+     * @param count Number of states.
+     * @return The first packed state of the range.
      */
-    private long waitNextMillis(long currentTimestamp) {
-        while (currentTimestamp == this.lastTimestamp) {
-            currentTimestamp = this.currentTimestamp();
+    private long lease(int count) {
+        while (true) {
+            long current = this.state.get();
+            long lastTimestamp = current >>> IdGeneratorConfiguration.SEQUENCE_BITS;
+            long currentTimestamp = this.currentTimestamp();
+
+            long first = currentTimestamp > lastTimestamp
+                    ? currentTimestamp << IdGeneratorConfiguration.SEQUENCE_BITS
+                    : current + 1;
+            long last = first + count - 1;
+
+            long borrowedMillis = (last >>> IdGeneratorConfiguration.SEQUENCE_BITS) - currentTimestamp;
+            if (borrowedMillis > this.configuration.getMaxClockSkewInMS()) {
+                if (lastTimestamp - currentTimestamp > this.configuration.getMaxClockSkewInMS()) {
+                    throw new IllegalStateException("Invalid System Clock!");
+                }
+                Thread.yield();
+                continue;
+            }
+
+            if (this.state.compareAndSet(current, last)) {
+                return first;
+            }
         }
-        return currentTimestamp;
+    }
+
+    /**
+     * Converts a packed state into the snowflake id.
+     *
+     * @param packed Packed timestamp and sequence.
+     * @return Snowflake id.
+     */
+    private long toId(long packed) {
+        return ((packed >>> IdGeneratorConfiguration.SEQUENCE_BITS)
+                << IdGeneratorConfiguration.NODE_ID_BITS + IdGeneratorConfiguration.SEQUENCE_BITS)
+                | ((long) this.configuration.getNodeId() << IdGeneratorConfiguration.SEQUENCE_BITS)
+                | (packed & IdGeneratorConfiguration.MAX_SEQUENCE);
     }
 
 }
@@ -12,4 +12,18 @@ public interface LongIdGenerator {
      */
     long nextId();
 
+    /**
+     * Generates a batch of long ids.
+     *
+     * @param count Number of ids.
+     * @return Long ids.
+     */
+    default long[] nextIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = this.nextId();
+        }
+        return ids;
+    }
+
 }
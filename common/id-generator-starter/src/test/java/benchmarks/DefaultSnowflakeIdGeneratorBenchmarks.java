@@ -0,0 +1,115 @@
+package benchmarks;
+
+import com.keepreal.madagascar.common.snowflake.config.IdGeneratorConfiguration;
+import com.keepreal.madagascar.common.snowflake.generator.DefaultSnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the throughput benchmarks of {@link DefaultSnowflakeIdGenerator}, single threaded and contended, for
+ * single ids and batches. All figures are in ids per millisecond, so a leased batch compares directly with the same
+ * number of single ids. A node issues 4096 ids per millisecond, plus the borrowed skew for bursts, so the contended
+ * figures are expected to flatten at that ceiling instead of degrading under contention.
+ * <p>
+ * Run with the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultSnowflakeIdGeneratorBenchmarks {
+
+    private static final int BATCH_SIZE = 100;
+
+    private DefaultSnowflakeIdGenerator generator;
+
+    /**
+     * Builds the generator.
+     */
+    @Setup
+    public void setUp() {
+        IdGeneratorConfiguration configuration = new IdGeneratorConfiguration();
+        configuration.setNodeId(1);
+        this.generator = new DefaultSnowflakeIdGenerator(configuration);
+    }
+
+    /**
+     * Benchmarks single ids from one thread.
+     *
+     * @return Id.
+     */
+    @Benchmark
+    public long nextId() {
+        return this.generator.nextId();
+    }
+
+    /**
+     * Benchmarks single ids from several threads sharing the generator.
+     *
+     * @return Id.
+     */
+    @Benchmark
+    @Threads(8)
+    public long nextIdContended() {
+        return this.generator.nextId();
+    }
+
+    /**
+     * Benchmarks a batch worth of single ids from several threads sharing the generator.
+     *
+     * @return Last id.
+     */
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(DefaultSnowflakeIdGeneratorBenchmarks.BATCH_SIZE)
+    public long nextIdLoopContended() {
+        long id = 0L;
+        for (int i = 0; i < DefaultSnowflakeIdGeneratorBenchmarks.BATCH_SIZE; i++) {
+            id = this.generator.nextId();
+        }
+        return id;
+    }
+
+    /**
+     * Benchmarks leased batches from several threads sharing the generator.
+     *
+     * @return Ids.
+     */
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(DefaultSnowflakeIdGeneratorBenchmarks.BATCH_SIZE)
+    public long[] nextIdsContended() {
+        return this.generator.nextIds(DefaultSnowflakeIdGeneratorBenchmarks.BATCH_SIZE);
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Arguments.
+     * @throws RunnerException Runner failure.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DefaultSnowflakeIdGeneratorBenchmarks.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
@@ -15,6 +15,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -85,4 +87,98 @@ public class DefaultSnowflakeIdGeneratorUnitTests {
         Assert.assertTrue(syncList.contains(4194304003L));
     }
 
+    /**
+     * Tests build ids in batch.
+     */
+    @Test
+    public void ConstructIdsSucceed() {
+        // Mock
+        Mockito.doReturn(1000L).when(this.generator).currentTimestamp();
+
+        // Action
+        long[] ids = this.generator.nextIds(3);
+
+        // Assert
+        Assert.assertArrayEquals(ids, new long[]{4194304000L, 4194304001L, 4194304002L});
+    }
+
+    /**
+     * Tests sequence overflow borrows the next milli.
+     */
+    @Test
+    public void ConstructIdSequenceOverflowSucceed() {
+        // Mock
+        Mockito.doReturn(1000L).when(this.generator).currentTimestamp();
+
+        // Action
+        this.generator.nextIds(IdGeneratorConfiguration.MAX_SEQUENCE + 1);
+        long id = this.generator.nextId();
+
+        // Assert
+        Assert.assertEquals(id, 4198498304L);
+    }
+
+    /**
+     * Tests clock regression within the max skew keeps the last timestamp.
+     */
+    @Test
+    public void ConstructIdClockRegressionSucceed() {
+        // Mock
+        Mockito.doReturn(1000L, 900L).when(this.generator).currentTimestamp();
+
+        // Action
+        long first = this.generator.nextId();
+        long second = this.generator.nextId();
+
+        // Assert
+        Assert.assertEquals(first, 4194304000L);
+        Assert.assertEquals(second, 4194304001L);
+    }
+
+    /**
+     * Tests clock regression beyond the max skew.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void ConstructIdClockRegressionOutOfRange() {
+        // Mock
+        Mockito.doReturn(5000L, 1000L).when(this.generator).currentTimestamp();
+
+        // Action
+        this.generator.nextId();
+        this.generator.nextId();
+    }
+
+    /**
+     * Tests build ids concurrently under contention.
+     *
+     * @throws InterruptedException Exception.
+     */
+    @Test
+    public void MultiConstructsUniqueSucceed() throws InterruptedException {
+        // Mock
+        int threads = 8;
+        int idsPerThread = 10000;
+
+        ExecutorService service = Executors.newFixedThreadPool(threads);
+
+        //Action
+        Set<Long> syncSet = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < threads; i++) {
+            service.submit(() -> {
+                for (int j = 0; j < idsPerThread; j++) {
+                    syncSet.add(this.generator.nextId());
+                }
+                for (long id : this.generator.nextIds(idsPerThread)) {
+                    syncSet.add(id);
+                }
+            });
+        }
+
+        service.shutdown();
+        service.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Assert
+        Assert.assertEquals(syncSet.size(), threads * idsPerThread * 2);
+    }
+
 }
@@ -3,6 +3,7 @@ package com.keepreal.madagascar.common.stats_events.annotation;
 import com.keepreal.madagascar.common.stats_events.config.StatsEventProducerConfiguration;
 import com.keepreal.madagascar.common.stats_events.interceptor.StatsEventTriggerAspect;
 import com.keepreal.madagascar.common.stats_events.messageFactory.MessageFactory;
+import com.keepreal.madagascar.common.stats_events.producer.StatsEventSender;
 import org.springframework.context.annotation.Import;
 
 import java.lang.annotation.Documented;
@@ -17,6 +18,7 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@Import({StatsEventProducerConfiguration.class, StatsEventTriggerAspect.class, MessageFactory.class})
+@Import({StatsEventProducerConfiguration.class, StatsEventTriggerAspect.class, MessageFactory.class,
+        StatsEventSender.class})
 public @interface EnableStatsEventsProducer {
 }
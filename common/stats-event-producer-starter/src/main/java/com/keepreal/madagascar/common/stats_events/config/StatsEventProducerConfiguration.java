@@ -6,13 +6,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import java.util.Properties;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Represents the stats event producer configurations.
@@ -28,13 +23,20 @@ public class StatsEventProducerConfiguration {
     private String topic;
     private String tag;
 
-    private ExecutorService executorService = new ThreadPoolExecutor(
-            10,
-            20,
-            1L,
-            TimeUnit.SECONDS,
-            new ArrayBlockingQueue<>(100),
-            new CustomizableThreadFactory("stats-event-producer-"));
+    /**
+     * Max events queued for sending, events beyond are dropped so request threads never block on the producer.
+     */
+    private Integer queueCapacity = 10000;
+
+    /**
+     * Max events the sender drains and sends in one round.
+     */
+    private Integer batchSize = 100;
+
+    /**
+     * Time the sender waits for more events once the queue is drained.
+     */
+    private Long lingerInMs = 20L;
 
     /**
      * Sets the rmq properties.
@@ -1,18 +1,18 @@
 package com.keepreal.madagascar.common.stats_events.interceptor;
 
 import com.aliyun.openservices.ons.api.Message;
-import com.aliyun.openservices.ons.api.bean.ProducerBean;
 import com.keepreal.madagascar.brookesia.StatsEventMessage;
 import com.keepreal.madagascar.common.stats_events.annotation.HttpStatsEventTrigger;
-import com.keepreal.madagascar.common.stats_events.config.StatsEventProducerConfiguration;
 import com.keepreal.madagascar.common.stats_events.messageFactory.MessageFactory;
+import com.keepreal.madagascar.common.stats_events.producer.StatsEventSender;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParseException;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -20,7 +20,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents the first version of stats event trigger aspect.
@@ -30,23 +32,22 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class StatsEventTriggerAspect {
 
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+
     private final MessageFactory messageFactory;
-    private final ProducerBean producerBean;
-    private final StatsEventProducerConfiguration statsEventProducerConfiguration;
+    private final StatsEventSender statsEventSender;
+    private final Map<Method, Trigger> triggers = new ConcurrentHashMap<>();
 
     /**
      * Constructs the aspect.
      *
-     * @param messageFactory                  {@link MessageFactory}.
-     * @param producerBean                    {@link ProducerBean}.
-     * @param statsEventProducerConfiguration {@link StatsEventProducerConfiguration}.
+     * @param messageFactory   {@link MessageFactory}.
+     * @param statsEventSender {@link StatsEventSender}.
      */
     public StatsEventTriggerAspect(MessageFactory messageFactory,
-                                   @Qualifier("stats-event-producer") ProducerBean producerBean,
-                                   StatsEventProducerConfiguration statsEventProducerConfiguration) {
+                                   StatsEventSender statsEventSender) {
         this.messageFactory = messageFactory;
-        this.producerBean = producerBean;
-        this.statsEventProducerConfiguration = statsEventProducerConfiguration;
+        this.statsEventSender = statsEventSender;
     }
 
     /**
@@ -60,45 +61,31 @@ public class StatsEventTriggerAspect {
     public Object httpStatsEventTriggerAspectLogic(ProceedingJoinPoint joinPoint) throws Throwable {
 
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        HttpStatsEventTrigger annotation = method.getAnnotation(HttpStatsEventTrigger.class);
+        Trigger trigger = this.triggers.computeIfAbsent(signature.getMethod(), Trigger::new);
 
         String value = "";
         String metadata = "";
         boolean succeed = false;
 
         StatsEventMessage.Builder statsEventMessageBuilder = StatsEventMessage.newBuilder()
-                .setAction(annotation.action())
-                .setCategory(annotation.category())
-                .setLabel(annotation.label());
+                .setAction(trigger.annotation.action())
+                .setCategory(trigger.annotation.category())
+                .setLabel(trigger.annotation.label());
 
-        if (StringUtils.hasText(annotation.metadata())) {
-            ExpressionParser parser = new SpelExpressionParser();
-            StandardEvaluationContext context = new StandardEvaluationContext(joinPoint.getArgs());
-            try {
-                metadata = String.valueOf(parser.parseExpression(annotation.metadata()).getValue(context));
-            } catch (SpelEvaluationException ignored) {
-            }
+        if (Objects.nonNull(trigger.metadata)) {
+            metadata = String.valueOf(StatsEventTriggerAspect.evaluate(trigger.metadata, joinPoint.getArgs()));
         }
 
         try {
             Object result = joinPoint.proceed();
 
-            if (StringUtils.hasText(annotation.value())) {
-                ExpressionParser parser = new SpelExpressionParser();
+            if (Objects.nonNull(trigger.value) || Objects.nonNull(trigger.succeed)) {
                 StandardEvaluationContext context = new StandardEvaluationContext(result);
-                try {
-                    value = String.valueOf(parser.parseExpression(annotation.value()).getValue(context));
-                } catch (SpelEvaluationException ignored) {
+                if (Objects.nonNull(trigger.value)) {
+                    value = String.valueOf(StatsEventTriggerAspect.evaluate(trigger.value, context));
                 }
-            }
-
-            if (StringUtils.hasText(annotation.succeed())) {
-                ExpressionParser parser = new SpelExpressionParser();
-                StandardEvaluationContext context = new StandardEvaluationContext(result);
-                try {
-                    succeed = Boolean.parseBoolean(String.valueOf(parser.parseExpression(annotation.succeed()).getValue(context)));
-                } catch (SpelEvaluationException ignored) {
+                if (Objects.nonNull(trigger.succeed)) {
+                    succeed = Boolean.parseBoolean(String.valueOf(StatsEventTriggerAspect.evaluate(trigger.succeed, context)));
                 }
             }
 
@@ -112,15 +99,52 @@ public class StatsEventTriggerAspect {
                     .setValue(value)
                     .setSucceed(succeed);
             Message message = this.messageFactory.valueOf(statsEventMessageBuilder);
+            this.statsEventSender.offer(message);
+        }
+    }
+
+    private static Object evaluate(Expression expression, Object rootObject) {
+        return StatsEventTriggerAspect.evaluate(expression, new StandardEvaluationContext(rootObject));
+    }
 
-            CompletableFuture
-                    .supplyAsync(() -> this.producerBean.send(message),
-                            this.statsEventProducerConfiguration.getExecutorService())
-                    .exceptionally(throwable -> {
-                        log.warn(throwable.getMessage());
-                        return null;
-                    });
+    private static Object evaluate(Expression expression, StandardEvaluationContext context) {
+        try {
+            return expression.getValue(context);
+        } catch (SpelEvaluationException ignored) {
+            return "";
         }
     }
 
+    /**
+     * Represents the annotation of a triggering method with its expressions parsed once.
+     */
+    static class Trigger {
+
+        private final HttpStatsEventTrigger annotation;
+        private final Expression value;
+        private final Expression succeed;
+        private final Expression metadata;
+
+        Trigger(Method method) {
+            this.annotation = method.getAnnotation(HttpStatsEventTrigger.class);
+            this.value = Trigger.parse(method, this.annotation.value());
+            this.succeed = Trigger.parse(method, this.annotation.succeed());
+            this.metadata = Trigger.parse(method, this.annotation.metadata());
+        }
+
+        private static Expression parse(Method method, String expression) {
+            if (!StringUtils.hasText(expression)) {
+                return null;
+            }
+
+            try {
+                return StatsEventTriggerAspect.PARSER.parseExpression(expression);
+            } catch (ParseException exception) {
+                log.warn("Invalid stats event expression {} on {}.", expression, method, exception);
+                return null;
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,170 @@
+package com.keepreal.madagascar.common.stats_events.producer;
+
+import com.aliyun.openservices.ons.api.Message;
+import com.aliyun.openservices.ons.api.OnExceptionContext;
+import com.aliyun.openservices.ons.api.SendCallback;
+import com.aliyun.openservices.ons.api.SendResult;
+import com.aliyun.openservices.ons.api.bean.ProducerBean;
+import com.keepreal.madagascar.common.stats_events.config.StatsEventProducerConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents the stats event sender. Request threads only enqueue into a bounded lock-free queue and a single
+ * background thread drains it in batches of asynchronous sends, so a slow broker costs dropped events instead of
+ * blocked requests.
+ */
+@Component
+@Slf4j
+public class StatsEventSender implements InitializingBean, DisposableBean {
+
+    private final ProducerBean producerBean;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long lingerInNanos;
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final SendCallback sendCallback;
+    private final Thread sender;
+    private volatile boolean running;
+
+    /**
+     * Constructs the stats event sender.
+     *
+     * @param producerBean                    {@link ProducerBean}.
+     * @param statsEventProducerConfiguration {@link StatsEventProducerConfiguration}.
+     */
+    public StatsEventSender(@Qualifier("stats-event-producer") ProducerBean producerBean,
+                            StatsEventProducerConfiguration statsEventProducerConfiguration) {
+        this.producerBean = producerBean;
+        this.queueCapacity = statsEventProducerConfiguration.getQueueCapacity();
+        this.batchSize = statsEventProducerConfiguration.getBatchSize();
+        this.lingerInNanos = TimeUnit.MILLISECONDS.toNanos(statsEventProducerConfiguration.getLingerInMs());
+        this.sendCallback = new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+            }
+
+            @Override
+            public void onException(OnExceptionContext context) {
+                StatsEventSender.this.failedCount.increment();
+                log.warn("Failed to send stats event {}.", context.getMessageId(), context.getException());
+            }
+        };
+        this.sender = new Thread(this::run, "stats-event-sender");
+        this.sender.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        this.running = true;
+        this.sender.start();
+    }
+
+    /**
+     * Stops the sender and sends what is left in the queue.
+     *
+     * @throws InterruptedException Interrupted while waiting for the sender.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        this.running = false;
+        LockSupport.unpark(this.sender);
+        this.sender.join(TimeUnit.NANOSECONDS.toMillis(this.lingerInNanos) + 1000L);
+        while (!this.queue.isEmpty()) {
+            this.drain();
+        }
+    }
+
+    /**
+     * Enqueues the event without blocking.
+     *
+     * @param message {@link Message}.
+     * @return False if the queue is full and the event is dropped.
+     */
+    public boolean offer(Message message) {
+        if (this.size.incrementAndGet() > this.queueCapacity) {
+            this.size.decrementAndGet();
+            this.droppedCount.increment();
+            return false;
+        }
+
+        this.queue.offer(message);
+        return true;
+    }
+
+    /**
+     * Gets the events dropped so far because the queue was full.
+     *
+     * @return Dropped count.
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    /**
+     * Gets the events the broker failed to accept so far.
+     *
+     * @return Failed count.
+     */
+    public long getFailedCount() {
+        return this.failedCount.sum();
+    }
+
+    private void run() {
+        long reportedDroppedCount = 0L;
+        while (this.running) {
+            int sent = this.drain();
+
+            long droppedCount = this.droppedCount.sum();
+            if (droppedCount > reportedDroppedCount) {
+                log.warn("Dropped {} stats events as the queue is full, {} in total.",
+                        droppedCount - reportedDroppedCount, droppedCount);
+                reportedDroppedCount = droppedCount;
+            }
+
+            if (sent < this.batchSize) {
+                LockSupport.parkNanos(this, this.lingerInNanos);
+            }
+        }
+    }
+
+    /**
+     * Sends up to one batch of queued events asynchronously.
+     *
+     * @return Events drained.
+     */
+    int drain() {
+        int drained = 0;
+        while (drained < this.batchSize) {
+            Message message = this.queue.poll();
+            if (Objects.isNull(message)) {
+                break;
+            }
+            this.size.decrementAndGet();
+            drained++;
+
+            try {
+                this.producerBean.sendAsync(message, this.sendCallback);
+            } catch (Exception exception) {
+                this.failedCount.increment();
+                log.warn("Failed to send stats event {}.", message.getKey(), exception);
+            }
+        }
+        return drained;
+    }
+
+}
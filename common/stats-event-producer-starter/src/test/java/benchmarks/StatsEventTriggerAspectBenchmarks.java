@@ -0,0 +1,192 @@
+package benchmarks;
+
+import com.aliyun.openservices.ons.api.Message;
+import com.aliyun.openservices.ons.api.SendCallback;
+import com.aliyun.openservices.ons.api.bean.ProducerBean;
+import com.keepreal.madagascar.brookesia.StatsEventAction;
+import com.keepreal.madagascar.brookesia.StatsEventCategory;
+import com.keepreal.madagascar.brookesia.StatsEventMessage;
+import com.keepreal.madagascar.common.stats_events.annotation.HttpStatsEventTrigger;
+import com.keepreal.madagascar.common.stats_events.config.StatsEventProducerConfiguration;
+import com.keepreal.madagascar.common.stats_events.interceptor.StatsEventTriggerAspect;
+import com.keepreal.madagascar.common.stats_events.messageFactory.MessageFactory;
+import com.keepreal.madagascar.common.stats_events.producer.StatsEventSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the benchmarks of the per request overhead of {@link StatsEventTriggerAspect}. Compares a plain call,
+ * a call through the aspect with its expressions cached per method, and the former path that parses the expressions
+ * on every call. The producer is stubbed, so only the request thread cost is measured.
+ * <p>
+ * Run with the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsEventTriggerAspectBenchmarks {
+
+    private static final String VALUE = "length()";
+    private static final String SUCCEED = "isEmpty() == false";
+    private static final String METADATA = "[0]";
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private StatsEventSender statsEventSender;
+    private MessageFactory messageFactory;
+    private Controller controller;
+    private Controller proxy;
+
+    /**
+     * Builds the aspect proxy over a stubbed producer.
+     */
+    @Setup
+    public void setUp() {
+        StatsEventProducerConfiguration configuration = new StatsEventProducerConfiguration();
+        configuration.setTopic("topic");
+        configuration.setTag("tag");
+        this.statsEventSender = new StatsEventSender(new StubProducerBean(), configuration);
+        this.statsEventSender.afterPropertiesSet();
+        this.messageFactory = new MessageFactory(configuration);
+
+        this.controller = new Controller();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(this.controller);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new StatsEventTriggerAspect(this.messageFactory, this.statsEventSender));
+        this.proxy = proxyFactory.getProxy();
+    }
+
+    /**
+     * Stops the sender.
+     *
+     * @throws InterruptedException Interrupted.
+     */
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.statsEventSender.destroy();
+    }
+
+    /**
+     * Benchmarks the call without the aspect.
+     *
+     * @return Response.
+     */
+    @Benchmark
+    public String plainCall() {
+        return this.controller.retrieve("islandId");
+    }
+
+    /**
+     * Benchmarks the call through the aspect.
+     *
+     * @return Response.
+     */
+    @Benchmark
+    public String aspectCall() {
+        return this.proxy.retrieve("islandId");
+    }
+
+    /**
+     * Benchmarks the call through the aspect from several request threads.
+     *
+     * @return Response.
+     */
+    @Benchmark
+    @Threads(8)
+    public String aspectCallContended() {
+        return this.proxy.retrieve("islandId");
+    }
+
+    /**
+     * Benchmarks the former aspect path, parsing the expressions on every call.
+     *
+     * @return Response.
+     */
+    @Benchmark
+    public String parsePerCall() {
+        Object[] args = new Object[]{"islandId"};
+        String metadata = String.valueOf(this.parser.parseExpression(StatsEventTriggerAspectBenchmarks.METADATA)
+                .getValue(new StandardEvaluationContext(args)));
+        String result = this.controller.retrieve("islandId");
+        StandardEvaluationContext context = new StandardEvaluationContext(result);
+        String value = String.valueOf(this.parser.parseExpression(StatsEventTriggerAspectBenchmarks.VALUE).getValue(context));
+        boolean succeed = Boolean.parseBoolean(String.valueOf(
+                this.parser.parseExpression(StatsEventTriggerAspectBenchmarks.SUCCEED).getValue(context)));
+        this.statsEventSender.offer(this.messageFactory.valueOf(StatsEventMessage.newBuilder()
+                .setCategory(StatsEventCategory.STATS_CAT_ISLAND)
+                .setAction(StatsEventAction.STATS_ACT_RETRIEVE)
+                .setMetadata(metadata)
+                .setValue(value)
+                .setSucceed(succeed)));
+        return result;
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Arguments.
+     * @throws RunnerException Runner failure.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StatsEventTriggerAspectBenchmarks.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * Represents a triggering controller.
+     */
+    public static class Controller {
+
+        /**
+         * Retrieves the island.
+         *
+         * @param islandId Island id.
+         * @return Response.
+         */
+        @HttpStatsEventTrigger(
+                category = StatsEventCategory.STATS_CAT_ISLAND,
+                action = StatsEventAction.STATS_ACT_RETRIEVE,
+                value = StatsEventTriggerAspectBenchmarks.VALUE,
+                succeed = StatsEventTriggerAspectBenchmarks.SUCCEED,
+                metadata = StatsEventTriggerAspectBenchmarks.METADATA)
+        public String retrieve(String islandId) {
+            return "island " + islandId;
+        }
+
+    }
+
+    /**
+     * Represents a producer accepting every message without sending it.
+     */
+    static class StubProducerBean extends ProducerBean {
+
+        @Override
+        public void sendAsync(Message message, SendCallback sendCallback) {
+        }
+
+    }
+
+}
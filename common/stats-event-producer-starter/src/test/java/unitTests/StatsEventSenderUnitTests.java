@@ -0,0 +1,78 @@
+package unitTests;
+
+import com.aliyun.openservices.ons.api.Message;
+import com.aliyun.openservices.ons.api.SendCallback;
+import com.aliyun.openservices.ons.api.bean.ProducerBean;
+import com.keepreal.madagascar.common.stats_events.config.StatsEventProducerConfiguration;
+import com.keepreal.madagascar.common.stats_events.producer.StatsEventSender;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Represents unit tests for {@link StatsEventSender}.
+ */
+@SpringBootTest
+public class StatsEventSenderUnitTests {
+
+    @Mock
+    private ProducerBean producerBean;
+
+    private StatsEventSender statsEventSender;
+
+    /**
+     * Initializes the mock.
+     */
+    @Before
+    public void InitMocks() {
+        MockitoAnnotations.initMocks(this);
+        StatsEventProducerConfiguration configuration = new StatsEventProducerConfiguration();
+        configuration.setQueueCapacity(2);
+        configuration.setBatchSize(10);
+        configuration.setLingerInMs(10L);
+        this.statsEventSender = new StatsEventSender(this.producerBean, configuration);
+    }
+
+    /**
+     * Tests events beyond the queue capacity are dropped and counted instead of blocking.
+     */
+    @Test
+    public void TestOfferDropsWhenFull() {
+        // Action & Assert
+        Assert.assertTrue(this.statsEventSender.offer(new Message()));
+        Assert.assertTrue(this.statsEventSender.offer(new Message()));
+        Assert.assertFalse(this.statsEventSender.offer(new Message()));
+        Assert.assertEquals(1L, this.statsEventSender.getDroppedCount());
+        Mockito.verifyZeroInteractions(this.producerBean);
+    }
+
+    /**
+     * Tests the queued events are sent asynchronously by the background sender.
+     *
+     * @throws InterruptedException Interrupted.
+     */
+    @Test
+    public void TestQueuedEventsSent() throws InterruptedException {
+        // Mock
+        Message message1 = new Message();
+        Message message2 = new Message();
+        this.statsEventSender.offer(message1);
+        this.statsEventSender.offer(message2);
+
+        // Action
+        this.statsEventSender.afterPropertiesSet();
+
+        // Assert
+        Mockito.verify(this.producerBean, Mockito.timeout(1000L))
+                .sendAsync(Mockito.eq(message1), Mockito.any(SendCallback.class));
+        Mockito.verify(this.producerBean, Mockito.timeout(1000L))
+                .sendAsync(Mockito.eq(message2), Mockito.any(SendCallback.class));
+        this.statsEventSender.destroy();
+        Assert.assertTrue(this.statsEventSender.offer(new Message()));
+    }
+
+}
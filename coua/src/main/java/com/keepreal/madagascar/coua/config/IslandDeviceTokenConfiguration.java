@@ -0,0 +1,21 @@
+package com.keepreal.madagascar.coua.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Represents the island device token index configurations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "island-device-token")
+@Data
+public class IslandDeviceTokenConfiguration {
+
+    /**
+     * Rebuilds the index of every island once the instance started. Only to be enabled on one instance, to backfill
+     * the index or to repair it on demand, and disabled again afterwards.
+     */
+    private boolean backfillOnStartup = false;
+
+}
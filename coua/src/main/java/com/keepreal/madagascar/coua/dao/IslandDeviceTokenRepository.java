@@ -0,0 +1,42 @@
+package com.keepreal.madagascar.coua.dao;
+
+import com.keepreal.madagascar.coua.model.IslandDeviceToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.util.List;
+
+@Repository
+public interface IslandDeviceTokenRepository extends JpaRepository<IslandDeviceToken, String> {
+
+    @Query(value = "SELECT * FROM island_device_token WHERE island_id = ?1 AND id > ?2 ORDER BY id ASC LIMIT ?3", nativeQuery = true)
+    List<IslandDeviceToken> getIslandDeviceTokensAfter(String islandId, String afterId, Integer limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM island_device_token WHERE id IN ?1", nativeQuery = true)
+    void deleteByIdIn(List<String> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM island_device_token WHERE island_id = ?1 AND user_id = ?2", nativeQuery = true)
+    void deleteByIslandIdAndUserId(String islandId, String userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM island_device_token WHERE island_id = ?1 AND device_token IN ?2", nativeQuery = true)
+    void deleteByIslandIdAndDeviceTokenIn(String islandId, List<String> deviceTokens);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM island_device_token WHERE user_id = ?1 AND device_token = ?2", nativeQuery = true)
+    void deleteByUserIdAndDeviceToken(String userId, String deviceToken);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM island_device_token WHERE device_token = ?1", nativeQuery = true)
+    void deleteByDeviceToken(String deviceToken);
+}
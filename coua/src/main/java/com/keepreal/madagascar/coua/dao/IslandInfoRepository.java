@@ -74,5 +74,8 @@ public interface IslandInfoRepository extends JpaRepository<IslandInfo, String>
 
     List<IslandInfo> findIslandInfosByHostIdIn(List<String> userIds);
 
+    @Query(value = "SELECT id FROM island WHERE is_deleted = FALSE AND id > ?1 ORDER BY id ASC LIMIT ?2", nativeQuery = true)
+    List<String> getIslandIdsAfter(String afterId, Integer limit);
+
     IslandInfo findTopByCustomUrlAndDeletedIsFalse(String customUrl);
 }
@@ -33,9 +33,18 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Stri
     @Query(value = "SELECT user_id FROM subscription WHERE island_id = ?1 AND state > 1 AND is_deleted = FALSE ORDER BY state ASC, created_time ASC", nativeQuery = true)
     Page<String> getIslanderIdListByIslandId(String islandId, Pageable pageable);
 
+    @Query(value = "SELECT * FROM subscription WHERE island_id = ?1 AND state > ?2 AND is_deleted = FALSE AND id > ?3 ORDER BY id ASC LIMIT ?4", nativeQuery = true)
+    List<Subscription> getSubscriptionsByIslandIdAfter(String islandId, Integer minState, String afterId, Integer limit);
+
+    @Query(value = "SELECT island_id FROM subscription WHERE user_id = ?1 AND state > 1 AND is_deleted = FALSE", nativeQuery = true)
+    List<String> getIslandIdListByIslanderId(String userId);
+
     @Query(value = "SELECT COUNT(*) FROM subscription WHERE island_id = ?1 AND state > 0 AND is_deleted = FALSE", nativeQuery = true)
     Integer getCountByIslandId(String islandId);
 
+    @Query(value = "SELECT island_id, COUNT(*) FROM subscription WHERE island_id IN ?1 AND state > 0 AND is_deleted = FALSE GROUP BY island_id", nativeQuery = true)
+    List<Object[]> getCountsByIslandIds(Iterable<String> islandIds);
+
     @Query(value = "SELECT islander_number FROM subscription WHERE island_id = ?1 AND user_id = ?2 AND is_deleted = FALSE AND state > 0", nativeQuery = true)
     Integer getIslanderNumberByIslandId(String islandId, String userId);
 
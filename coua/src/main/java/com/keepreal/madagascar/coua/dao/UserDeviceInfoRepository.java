@@ -20,4 +20,6 @@ public interface UserDeviceInfoRepository extends JpaRepository<UserDeviceInfo,
     List<SimpleDeviceToken> findDeviceTokensByUserId(String userId);
 
     List<UserDeviceInfo> findAllByDeviceTokenAndDeletedIsFalse(String deviceToken);
+
+    List<UserDeviceInfo> findAllByUserIdInAndBindedIsTrueAndDeletedIsFalse(List<String> userIdList);
 }
@@ -27,6 +27,8 @@ import com.keepreal.madagascar.coua.DismissIntroductionRequest;
 import com.keepreal.madagascar.coua.IslandProfileResponse;
 import com.keepreal.madagascar.coua.IslandResponse;
 import com.keepreal.madagascar.coua.IslandServiceGrpc;
+import com.keepreal.madagascar.coua.IslandDeviceTokensChunk;
+import com.keepreal.madagascar.coua.IslandSubscriberIdsChunk;
 import com.keepreal.madagascar.coua.IslandSubscribersResponse;
 import com.keepreal.madagascar.coua.IslandSubscriptionStateResponse;
 import com.keepreal.madagascar.coua.IslandsResponse;
@@ -38,14 +40,19 @@ import com.keepreal.madagascar.coua.RetrieveDeviceTokensResponse;
 import com.keepreal.madagascar.coua.RetrieveIslandByIdRequest;
 import com.keepreal.madagascar.coua.RetrieveIslandProfileByIdRequest;
 import com.keepreal.madagascar.coua.RetrieveIslandSubscribersByIdRequest;
+import com.keepreal.madagascar.coua.RetrieveIslandsByIdsRequest;
 import com.keepreal.madagascar.coua.RetrieveIslanderPortraitUrlRequest;
 import com.keepreal.madagascar.coua.RetrieveIslanderPortraitUrlResponse;
 import com.keepreal.madagascar.coua.RetrieveMultipleIslandsRequest;
+import com.keepreal.madagascar.coua.RetrieveSubscribedIslandIdsRequest;
 import com.keepreal.madagascar.coua.RetrieveSupportTargetsRequest;
 import com.keepreal.madagascar.coua.RetrieveUserSubscriptionStateRequest;
 import com.keepreal.madagascar.coua.RetrieveUserSubscriptionStateResponse;
 import com.keepreal.madagascar.coua.SubscribeIslandByIdRequest;
+import com.keepreal.madagascar.coua.StreamIslandDeviceTokensRequest;
+import com.keepreal.madagascar.coua.StreamIslandSubscriberIdsRequest;
 import com.keepreal.madagascar.coua.SubscribeIslandResponse;
+import com.keepreal.madagascar.coua.SubscribedIslandIdsResponse;
 import com.keepreal.madagascar.coua.SupportTargetResponse;
 import com.keepreal.madagascar.coua.SupportTargetsResponse;
 import com.keepreal.madagascar.coua.UnsubscribeIslandByIdRequest;
@@ -53,12 +60,14 @@ import com.keepreal.madagascar.coua.UpdateIslandByIdRequest;
 import com.keepreal.madagascar.coua.UpdateLastFeedAtRequest;
 import com.keepreal.madagascar.coua.UpdateLastFeedAtResponse;
 import com.keepreal.madagascar.coua.common.SubscriptionState;
+import com.keepreal.madagascar.coua.model.IslandDeviceToken;
 import com.keepreal.madagascar.coua.model.IslandInfo;
 import com.keepreal.madagascar.coua.model.Sponsor;
 import com.keepreal.madagascar.coua.model.Subscription;
 import com.keepreal.madagascar.coua.model.SupportTarget;
 import com.keepreal.madagascar.coua.model.UserInfo;
 import com.keepreal.madagascar.coua.service.FeedService;
+import com.keepreal.madagascar.coua.service.IslandDeviceTokenService;
 import com.keepreal.madagascar.coua.service.IslandEventProducerService;
 import com.keepreal.madagascar.coua.service.IslandInfoService;
 import com.keepreal.madagascar.coua.service.SkuService;
@@ -68,6 +77,7 @@ import com.keepreal.madagascar.coua.service.UserDeviceInfoService;
 import com.keepreal.madagascar.coua.service.UserInfoService;
 import com.keepreal.madagascar.coua.util.CommonStatusUtils;
 import com.keepreal.madagascar.coua.util.PageResponseUtil;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 import org.lognet.springboot.grpc.GRpcService;
@@ -82,6 +92,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -91,11 +103,15 @@ import java.util.stream.Collectors;
 @GRpcService
 public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBase {
 
+    private static final int DEFAULT_SUBSCRIBER_CHUNK_SIZE = 500;
+    private static final int MAX_SUBSCRIBER_CHUNK_SIZE = 2000;
+
     private final IslandInfoService islandInfoService;
     private final SubscriptionService subscriptionService;
     private final FeedService feedService;
     private final UserInfoService userInfoService;
     private final UserDeviceInfoService userDeviceInfoService;
+    private final IslandDeviceTokenService islandDeviceTokenService;
     private final IslandEventProducerService islandEventProducerService;
     private final SponsorService sponsorService;
     private final SkuService skuService;
@@ -108,6 +124,7 @@ public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBas
      * @param feedService                {@link FeedService}.
      * @param userInfoService            {@link UserInfoService}.
      * @param userDeviceInfoService      {@link UserDeviceInfoService}.
+     * @param islandDeviceTokenService   {@link IslandDeviceTokenService}.
      * @param islandEventProducerService {@link IslandEventProducerService}
      * @param sponsorService             {@link SponsorService}
      * @param skuService                 {@link SkuService}
@@ -117,6 +134,7 @@ public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBas
                                 FeedService feedService,
                                 UserInfoService userInfoService,
                                 UserDeviceInfoService userDeviceInfoService,
+                                IslandDeviceTokenService islandDeviceTokenService,
                                 IslandEventProducerService islandEventProducerService,
                                 SponsorService sponsorService,
                                 SkuService skuService) {
@@ -125,6 +143,7 @@ public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBas
         this.feedService = feedService;
         this.userInfoService = userInfoService;
         this.userDeviceInfoService = userDeviceInfoService;
+        this.islandDeviceTokenService = islandDeviceTokenService;
         this.islandEventProducerService = islandEventProducerService;
         this.sponsorService = sponsorService;
         this.skuService = skuService;
@@ -253,6 +272,25 @@ public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBas
         responseObserver.onCompleted();
     }
 
+    /**
+     * Implements the retrieve islands by ids method.
+     *
+     * @param request          {@link RetrieveIslandsByIdsRequest}.
+     * @param responseObserver {@link IslandsResponse}.
+     */
+    @Override
+    public void retrieveIslandsByIds(RetrieveIslandsByIdsRequest request, StreamObserver<IslandsResponse> responseObserver) {
+        List<IslandInfo> islandInfos = request.getIdsCount() == 0
+                ? Collections.emptyList()
+                : this.islandInfoService.retrieveByIslandIds(request.getIdsList());
+
+        responseObserver.onNext(IslandsResponse.newBuilder()
+                .setStatus(CommonStatusUtils.getSuccStatus())
+                .addAllIslands(this.islandInfoService.getIslandMessages(islandInfos))
+                .build());
+        responseObserver.onCompleted();
+    }
+
     /**
      * Implements the island profile by id method.
      *
@@ -433,6 +471,65 @@ public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBas
         responseObserver.onCompleted();
     }
 
+    /**
+     * Implements the stream island subscriber ids method. Chunks are read by the subscription id keyset and only
+     * when the transport is ready, so a slow consumer holds back the reads instead of buffering the whole island.
+     * The final chunk is flagged as last, so the consumer can tell a complete stream from a cut one.
+     *
+     * @param request          {@link StreamIslandSubscriberIdsRequest}.
+     * @param responseObserver {@link IslandSubscriberIdsChunk}.
+     */
+    @Override
+    public void streamIslandSubscriberIds(StreamIslandSubscriberIdsRequest request, StreamObserver<IslandSubscriberIdsChunk> responseObserver) {
+        ServerCallStreamObserver<IslandSubscriberIdsChunk> serverCallStreamObserver =
+                (ServerCallStreamObserver<IslandSubscriberIdsChunk>) responseObserver;
+        int chunkSize = request.getChunkSize() > 0
+                ? Math.min(request.getChunkSize(), IslandGRpcController.MAX_SUBSCRIBER_CHUNK_SIZE)
+                : IslandGRpcController.DEFAULT_SUBSCRIBER_CHUNK_SIZE;
+        AtomicReference<String> cursor = new AtomicReference<>(
+                request.hasAfterSubscriptionId() ? request.getAfterSubscriptionId().getValue() : "");
+        AtomicBoolean done = new AtomicBoolean(false);
+
+        serverCallStreamObserver.setOnCancelHandler(() -> done.set(true));
+        serverCallStreamObserver.setOnReadyHandler(() -> {
+            while (!done.get() && serverCallStreamObserver.isReady()) {
+                List<Subscription> subscriptions;
+                try {
+                    subscriptions = this.subscriptionService.getSubscriptionsByIslandIdAfter(
+                            request.getIslandId(), request.getExcludeHost(), cursor.get(), chunkSize);
+                } catch (Exception e) {
+                    log.error("Failed to stream subscribers of island {}.", request.getIslandId(), e);
+                    done.set(true);
+                    responseObserver.onNext(IslandSubscriberIdsChunk.newBuilder()
+                            .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_UNEXPECTED_ERROR))
+                            .setLastSubscriptionId(cursor.get())
+                            .build());
+                    responseObserver.onCompleted();
+                    return;
+                }
+
+                boolean isLast = subscriptions.size() < chunkSize;
+                if (!subscriptions.isEmpty()) {
+                    cursor.set(subscriptions.get(subscriptions.size() - 1).getId());
+                }
+
+                if (!subscriptions.isEmpty() || isLast) {
+                    responseObserver.onNext(IslandSubscriberIdsChunk.newBuilder()
+                            .setStatus(CommonStatusUtils.getSuccStatus())
+                            .addAllUserIds(subscriptions.stream().map(Subscription::getUserId).collect(Collectors.toList()))
+                            .setLastSubscriptionId(cursor.get())
+                            .setIsLast(isLast)
+                            .build());
+                }
+
+                if (isLast) {
+                    done.set(true);
+                    responseObserver.onCompleted();
+                }
+            }
+        });
+    }
+
     /**
      * Implements subscribe island by id method.
      *
@@ -658,6 +755,70 @@ public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBas
         responseObserver.onCompleted();
     }
 
+    /**
+     * Implements the stream island device tokens method. Chunks are read from the island device token index by id
+     * and only when the transport is ready, each split by platform.
+     *
+     * @param request          {@link StreamIslandDeviceTokensRequest}.
+     * @param responseObserver {@link IslandDeviceTokensChunk}.
+     */
+    @Override
+    public void streamIslandDeviceTokens(StreamIslandDeviceTokensRequest request, StreamObserver<IslandDeviceTokensChunk> responseObserver) {
+        ServerCallStreamObserver<IslandDeviceTokensChunk> serverCallStreamObserver =
+                (ServerCallStreamObserver<IslandDeviceTokensChunk>) responseObserver;
+        int chunkSize = request.getChunkSize() > 0
+                ? Math.min(request.getChunkSize(), IslandGRpcController.MAX_SUBSCRIBER_CHUNK_SIZE)
+                : IslandGRpcController.DEFAULT_SUBSCRIBER_CHUNK_SIZE;
+        AtomicReference<String> cursor = new AtomicReference<>(
+                request.hasAfterId() ? request.getAfterId().getValue() : "");
+        AtomicBoolean done = new AtomicBoolean(false);
+
+        serverCallStreamObserver.setOnCancelHandler(() -> done.set(true));
+        serverCallStreamObserver.setOnReadyHandler(() -> {
+            while (!done.get() && serverCallStreamObserver.isReady()) {
+                List<IslandDeviceToken> islandDeviceTokens;
+                try {
+                    islandDeviceTokens = this.islandDeviceTokenService.getIslandDeviceTokensAfter(
+                            request.getIslandId(), cursor.get(), chunkSize);
+                } catch (Exception e) {
+                    log.error("Failed to stream device tokens of island {}.", request.getIslandId(), e);
+                    done.set(true);
+                    responseObserver.onNext(IslandDeviceTokensChunk.newBuilder()
+                            .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_UNEXPECTED_ERROR))
+                            .setLastId(cursor.get())
+                            .build());
+                    responseObserver.onCompleted();
+                    return;
+                }
+
+                boolean isLast = islandDeviceTokens.size() < chunkSize;
+                if (!islandDeviceTokens.isEmpty()) {
+                    cursor.set(islandDeviceTokens.get(islandDeviceTokens.size() - 1).getId());
+                }
+
+                if (!islandDeviceTokens.isEmpty() || isLast) {
+                    IslandDeviceTokensChunk.Builder builder = IslandDeviceTokensChunk.newBuilder()
+                            .setStatus(CommonStatusUtils.getSuccStatus())
+                            .setLastId(cursor.get())
+                            .setIsLast(isLast);
+                    islandDeviceTokens.forEach(islandDeviceToken -> {
+                        if (islandDeviceToken.getDeviceType().equals(DeviceType.ANDROID_VALUE)) {
+                            builder.addAndroidTokens(islandDeviceToken.getDeviceToken());
+                        } else {
+                            builder.addIosTokens(islandDeviceToken.getDeviceToken());
+                        }
+                    });
+                    responseObserver.onNext(builder.build());
+                }
+
+                if (isLast) {
+                    done.set(true);
+                    responseObserver.onCompleted();
+                }
+            }
+        });
+    }
+
     /**
      * Dismisses the introduction.
      *
@@ -707,6 +868,26 @@ public class IslandGRpcController extends IslandServiceGrpc.IslandServiceImplBas
         responseObserver.onCompleted();
     }
 
+    /**
+     * Retrieves the islands subscribed by the user among the given ones.
+     *
+     * @param request          {@link RetrieveSubscribedIslandIdsRequest}.
+     * @param responseObserver {@link SubscribedIslandIdsResponse}.
+     */
+    @Override
+    public void retrieveSubscribedIslandIds(RetrieveSubscribedIslandIdsRequest request,
+                                            StreamObserver<SubscribedIslandIdsResponse> responseObserver) {
+        List<String> islandIds = request.getIslandIdsList().isEmpty()
+                ? Collections.emptyList()
+                : this.subscriptionService.getSubscribeIslandIdByUserId(request.getUserId(), request.getIslandIdsList());
+
+        responseObserver.onNext(SubscribedIslandIdsResponse.newBuilder()
+                .setStatus(CommonStatusUtils.getSuccStatus())
+                .addAllIslandIds(islandIds)
+                .build());
+        responseObserver.onCompleted();
+    }
+
     /**
      * Retrieves all islands in discovery.
      *
@@ -0,0 +1,45 @@
+package com.keepreal.madagascar.coua.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Represents a bound device token of an islander, denormalized per island for push fan-out.
+ */
+@Data
+@Table(name = "island_device_token",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"island_id", "device_token"}),
+        indexes = {
+                @Index(columnList = "island_id, user_id"),
+                @Index(columnList = "device_token")
+        })
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IslandDeviceToken {
+
+    @Id
+    private String id;
+    private String islandId;
+    private String userId;
+    private String deviceToken;
+    private Integer deviceType;
+    @CreatedDate
+    private Long createdTime;
+    @LastModifiedDate
+    private Long updatedTime;
+}
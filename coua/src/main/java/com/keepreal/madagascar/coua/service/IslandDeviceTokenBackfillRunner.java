@@ -0,0 +1,40 @@
+package com.keepreal.madagascar.coua.service;
+
+import com.keepreal.madagascar.coua.config.IslandDeviceTokenConfiguration;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Represents the on demand backfill of the island device token index, run in the background after startup when
+ * enabled, so the instance serves while it runs.
+ */
+@Component
+public class IslandDeviceTokenBackfillRunner implements CommandLineRunner {
+
+    private final IslandDeviceTokenService islandDeviceTokenService;
+    private final IslandDeviceTokenConfiguration islandDeviceTokenConfiguration;
+
+    /**
+     * Constructs the island device token backfill runner.
+     *
+     * @param islandDeviceTokenService       {@link IslandDeviceTokenService}.
+     * @param islandDeviceTokenConfiguration {@link IslandDeviceTokenConfiguration}.
+     */
+    public IslandDeviceTokenBackfillRunner(IslandDeviceTokenService islandDeviceTokenService,
+                                           IslandDeviceTokenConfiguration islandDeviceTokenConfiguration) {
+        this.islandDeviceTokenService = islandDeviceTokenService;
+        this.islandDeviceTokenConfiguration = islandDeviceTokenConfiguration;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!this.islandDeviceTokenConfiguration.isBackfillOnStartup()) {
+            return;
+        }
+
+        Thread backfill = new Thread(this.islandDeviceTokenService::backfill, "island-device-token-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+}
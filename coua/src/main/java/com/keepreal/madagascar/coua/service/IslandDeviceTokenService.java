@@ -0,0 +1,272 @@
+package com.keepreal.madagascar.coua.service;
+
+import com.keepreal.madagascar.common.snowflake.generator.LongIdGenerator;
+import com.keepreal.madagascar.coua.common.SubscriptionState;
+import com.keepreal.madagascar.coua.dao.IslandDeviceTokenRepository;
+import com.keepreal.madagascar.coua.dao.IslandInfoRepository;
+import com.keepreal.madagascar.coua.dao.SubscriptionRepository;
+import com.keepreal.madagascar.coua.dao.UserDeviceInfoRepository;
+import com.keepreal.madagascar.coua.model.IslandDeviceToken;
+import com.keepreal.madagascar.coua.model.SimpleDeviceToken;
+import com.keepreal.madagascar.coua.model.Subscription;
+import com.keepreal.madagascar.coua.model.UserDeviceInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the island device token service. The bound device tokens of every islander are kept per island, so a
+ * push to an island reads its tokens in one keyset walk instead of joining subscriptions with user devices page by
+ * page.
+ * <p>
+ * The index follows the subscriptions and the device bindings: joining an island copies the bound tokens of the
+ * user, leaving removes them, and binding or unbinding a token rewrites its rows on every island of the user. These
+ * writes join the transaction of the subscription or binding they follow.
+ * <p>
+ * The index is rebuilt island by island from the subscriptions and the bound devices, once to backfill a fresh table
+ * and then on demand. The rebuild only writes the difference and keeps the ids of the rows already right, so it
+ * repairs any drift, such as rows missed by writes made before the index existed or lost to racing writes, without
+ * handing pushes walking an island by id the same tokens again.
+ */
+@Service
+@Slf4j
+public class IslandDeviceTokenService {
+
+    private static final String BACKFILL_LOCK_KEY = "island-device-token:backfill";
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+
+    private final IslandDeviceTokenRepository islandDeviceTokenRepository;
+    private final UserDeviceInfoRepository userDeviceInfoRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final IslandInfoRepository islandInfoRepository;
+    private final LongIdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final RedissonClient redissonClient;
+
+    /**
+     * Constructs the island device token service.
+     *
+     * @param islandDeviceTokenRepository {@link IslandDeviceTokenRepository}.
+     * @param userDeviceInfoRepository    {@link UserDeviceInfoRepository}.
+     * @param subscriptionRepository      {@link SubscriptionRepository}.
+     * @param islandInfoRepository        {@link IslandInfoRepository}.
+     * @param idGenerator                 {@link LongIdGenerator}.
+     * @param transactionTemplate         {@link TransactionTemplate}.
+     * @param redissonClient              {@link RedissonClient}.
+     */
+    public IslandDeviceTokenService(IslandDeviceTokenRepository islandDeviceTokenRepository,
+                                    UserDeviceInfoRepository userDeviceInfoRepository,
+                                    SubscriptionRepository subscriptionRepository,
+                                    IslandInfoRepository islandInfoRepository,
+                                    LongIdGenerator idGenerator,
+                                    TransactionTemplate transactionTemplate,
+                                    RedissonClient redissonClient) {
+        this.islandDeviceTokenRepository = islandDeviceTokenRepository;
+        this.userDeviceInfoRepository = userDeviceInfoRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.islandInfoRepository = islandInfoRepository;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * Indexes the bound device tokens of a user joining the island. Rows left on the island for the same tokens are
+     * replaced, since a token is bound to one user at a time.
+     *
+     * @param islandId Island id.
+     * @param userId   User id.
+     */
+    @Transactional
+    public void addIslander(String islandId, String userId) {
+        this.islandDeviceTokenRepository.deleteByIslandIdAndUserId(islandId, userId);
+
+        List<SimpleDeviceToken> deviceTokens = this.userDeviceInfoRepository.findDeviceTokensByUserId(userId);
+        if (deviceTokens.isEmpty()) {
+            return;
+        }
+
+        this.islandDeviceTokenRepository.deleteByIslandIdAndDeviceTokenIn(islandId, deviceTokens.stream()
+                .map(SimpleDeviceToken::getDeviceToken)
+                .collect(Collectors.toList()));
+        this.islandDeviceTokenRepository.saveAll(deviceTokens.stream()
+                .map(deviceToken -> this.build(islandId, userId, deviceToken.getDeviceToken(), deviceToken.getDeviceType()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Removes the device tokens of a user leaving the island.
+     *
+     * @param islandId Island id.
+     * @param userId   User id.
+     */
+    @Transactional
+    public void removeIslander(String islandId, String userId) {
+        this.islandDeviceTokenRepository.deleteByIslandIdAndUserId(islandId, userId);
+    }
+
+    /**
+     * Indexes a device token newly bound to the user on all the islands of the user. The token is bound to one
+     * user at a time, so its rows of any previous user are removed first.
+     *
+     * @param userId      User id.
+     * @param deviceToken Device token.
+     * @param deviceType  Device type.
+     */
+    @Transactional
+    public void bindDeviceToken(String userId, String deviceToken, Integer deviceType) {
+        this.islandDeviceTokenRepository.deleteByDeviceToken(deviceToken);
+
+        List<String> islandIds = this.subscriptionRepository.getIslandIdListByIslanderId(userId);
+        this.islandDeviceTokenRepository.saveAll(islandIds.stream()
+                .map(islandId -> this.build(islandId, userId, deviceToken, deviceType))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Removes a device token unbound from the user on all the islands of the user.
+     *
+     * @param userId      User id.
+     * @param deviceToken Device token.
+     */
+    @Transactional
+    public void unbindDeviceToken(String userId, String deviceToken) {
+        this.islandDeviceTokenRepository.deleteByUserIdAndDeviceToken(userId, deviceToken);
+    }
+
+    /**
+     * Retrieves a chunk of the island device tokens after the given id, ordered by id.
+     *
+     * @param islandId Island id.
+     * @param afterId  Id to start after, empty for the first chunk.
+     * @param limit    Chunk size.
+     * @return {@link IslandDeviceToken}.
+     */
+    public List<IslandDeviceToken> getIslandDeviceTokensAfter(String islandId, String afterId, int limit) {
+        return this.islandDeviceTokenRepository.getIslandDeviceTokensAfter(islandId, afterId, limit);
+    }
+
+    /**
+     * Rebuilds the index of every island, one island per transaction. Runs on one instance at a time; a run finding
+     * the lock held is skipped. Meant to run once to backfill the index, or on demand to repair it, see
+     * {@link IslandDeviceTokenBackfillRunner}.
+     */
+    public void backfill() {
+        RLock lock = this.redissonClient.getLock(IslandDeviceTokenService.BACKFILL_LOCK_KEY);
+        if (!lock.tryLock()) {
+            log.info("Island device token backfill running elsewhere, skipped.");
+            return;
+        }
+
+        try {
+            String afterId = "";
+            int count = 0;
+            List<String> islandIds;
+            do {
+                islandIds = this.islandInfoRepository.getIslandIdsAfter(afterId, IslandDeviceTokenService.BACKFILL_CHUNK_SIZE);
+                for (String islandId : islandIds) {
+                    try {
+                        this.rebuildIsland(islandId);
+                        count++;
+                    } catch (Exception exception) {
+                        log.error("Failed to rebuild device tokens of island {}.", islandId, exception);
+                    }
+                    afterId = islandId;
+                }
+            } while (islandIds.size() == IslandDeviceTokenService.BACKFILL_CHUNK_SIZE);
+            log.info("Island device tokens rebuilt for {} islands.", count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index of the island from the bound devices of its islanders, the host excluded as in
+     * RetrieveDeviceTokensById. Only the difference is written in one transaction: missing tokens are inserted,
+     * stale ones deleted and moved ones updated in place. Rows already right keep their ids, so a push walking the
+     * island by id never meets them twice, and the rebuild can be rerun at will.
+     *
+     * @param islandId Island id.
+     */
+    public void rebuildIsland(String islandId) {
+        this.transactionTemplate.execute(status -> {
+            Map<String, UserDeviceInfo> boundDevices = new LinkedHashMap<>();
+            String afterId = "";
+            List<Subscription> subscriptions;
+            do {
+                subscriptions = this.subscriptionRepository.getSubscriptionsByIslandIdAfter(islandId,
+                        SubscriptionState.HOST.getValue(), afterId, IslandDeviceTokenService.BACKFILL_CHUNK_SIZE);
+                if (subscriptions.isEmpty()) {
+                    break;
+                }
+                afterId = subscriptions.get(subscriptions.size() - 1).getId();
+
+                List<String> userIds = subscriptions.stream().map(Subscription::getUserId).collect(Collectors.toList());
+                this.userDeviceInfoRepository.findAllByUserIdInAndBindedIsTrueAndDeletedIsFalse(userIds)
+                        .forEach(userDeviceInfo -> boundDevices.putIfAbsent(userDeviceInfo.getDeviceToken(), userDeviceInfo));
+            } while (subscriptions.size() == IslandDeviceTokenService.BACKFILL_CHUNK_SIZE);
+
+            List<String> staleIds = new ArrayList<>();
+            List<IslandDeviceToken> movedTokens = new ArrayList<>();
+            afterId = "";
+            List<IslandDeviceToken> islandDeviceTokens;
+            do {
+                islandDeviceTokens = this.islandDeviceTokenRepository.getIslandDeviceTokensAfter(islandId, afterId,
+                        IslandDeviceTokenService.BACKFILL_CHUNK_SIZE);
+                if (islandDeviceTokens.isEmpty()) {
+                    break;
+                }
+                afterId = islandDeviceTokens.get(islandDeviceTokens.size() - 1).getId();
+
+                for (IslandDeviceToken islandDeviceToken : islandDeviceTokens) {
+                    UserDeviceInfo userDeviceInfo = boundDevices.remove(islandDeviceToken.getDeviceToken());
+                    if (Objects.isNull(userDeviceInfo)) {
+                        staleIds.add(islandDeviceToken.getId());
+                    } else if (!userDeviceInfo.getUserId().equals(islandDeviceToken.getUserId())
+                            || !Objects.equals(userDeviceInfo.getDeviceType(), islandDeviceToken.getDeviceType())) {
+                        islandDeviceToken.setUserId(userDeviceInfo.getUserId());
+                        islandDeviceToken.setDeviceType(userDeviceInfo.getDeviceType());
+                        movedTokens.add(islandDeviceToken);
+                    }
+                }
+            } while (islandDeviceTokens.size() == IslandDeviceTokenService.BACKFILL_CHUNK_SIZE);
+
+            for (int from = 0; from < staleIds.size(); from += IslandDeviceTokenService.BACKFILL_CHUNK_SIZE) {
+                this.islandDeviceTokenRepository.deleteByIdIn(
+                        staleIds.subList(from, Math.min(from + IslandDeviceTokenService.BACKFILL_CHUNK_SIZE, staleIds.size())));
+            }
+            this.islandDeviceTokenRepository.saveAll(movedTokens);
+            this.islandDeviceTokenRepository.saveAll(boundDevices.values().stream()
+                    .map(userDeviceInfo -> this.build(islandId, userDeviceInfo.getUserId(),
+                            userDeviceInfo.getDeviceToken(), userDeviceInfo.getDeviceType()))
+                    .collect(Collectors.toList()));
+
+            if (!staleIds.isEmpty() || !movedTokens.isEmpty() || !boundDevices.isEmpty()) {
+                log.info("Island {} device tokens repaired, {} inserted, {} updated, {} deleted.",
+                        islandId, boundDevices.size(), movedTokens.size(), staleIds.size());
+            }
+            return null;
+        });
+    }
+
+    private IslandDeviceToken build(String islandId, String userId, String deviceToken, Integer deviceType) {
+        return IslandDeviceToken.builder()
+                .id(String.valueOf(this.idGenerator.nextId()))
+                .islandId(islandId)
+                .userId(userId)
+                .deviceToken(deviceToken)
+                .deviceType(deviceType)
+                .build();
+    }
+
+}
@@ -105,6 +105,27 @@ public class IslandInfoService {
             return null;
         }
         Integer memberCount = subscriptionService.getMemberCountByIslandId(islandInfo.getId());
+        return this.getIslandMessage(islandInfo, memberCount);
+    }
+
+    /**
+     * Retrieve islandMessages, with the member counts queried at once.
+     *
+     * @param islandInfos {@link IslandInfo}.
+     * @return {@link IslandMessage}.
+     */
+    public List<IslandMessage> getIslandMessages(List<IslandInfo> islandInfos) {
+        if (islandInfos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Integer> memberCountMap = subscriptionService.getMemberCountsByIslandIds(
+                islandInfos.stream().map(IslandInfo::getId).collect(Collectors.toList()));
+        return islandInfos.stream()
+                .map(islandInfo -> this.getIslandMessage(islandInfo, memberCountMap.getOrDefault(islandInfo.getId(), 0)))
+                .collect(Collectors.toList());
+    }
+
+    private IslandMessage getIslandMessage(IslandInfo islandInfo, Integer memberCount) {
         return IslandMessage
                 .newBuilder()
                 .setId(islandInfo.getId())
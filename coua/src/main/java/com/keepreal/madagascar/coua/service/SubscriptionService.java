@@ -23,10 +23,13 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Represents subscription service.
@@ -44,6 +47,7 @@ public class SubscriptionService {
     private final ProducerBean producerBean;
     private final NotificationEventProducerConfiguration notificationEventProducerConfiguration;
     private final IslandInfoRepository islandInfoRepository;
+    private final IslandDeviceTokenService islandDeviceTokenService;
 
     /**
      * Constructs subscription service.
@@ -53,17 +57,20 @@ public class SubscriptionService {
      * @param producerBean           {@link ProducerBean}.
      * @param notificationEventProducerConfiguration               {@link NotificationEventProducerConfiguration}.
      * @param islandInfoRepository   {@link IslandInfoRepository}.
+     * @param islandDeviceTokenService {@link IslandDeviceTokenService}.
      */
     public SubscriptionService(SubscriptionRepository subscriptionRepository,
                                LongIdGenerator idGenerator,
                                @Qualifier("notification-event-producer") ProducerBean producerBean,
                                NotificationEventProducerConfiguration notificationEventProducerConfiguration,
-                               IslandInfoRepository islandInfoRepository) {
+                               IslandInfoRepository islandInfoRepository,
+                               IslandDeviceTokenService islandDeviceTokenService) {
         this.subscriptionRepository = subscriptionRepository;
         this.idGenerator = idGenerator;
         this.producerBean = producerBean;
         this.notificationEventProducerConfiguration = notificationEventProducerConfiguration;
         this.islandInfoRepository = islandInfoRepository;
+        this.islandDeviceTokenService = islandDeviceTokenService;
     }
 
     /**
@@ -72,6 +79,7 @@ public class SubscriptionService {
      * @param islandId islandId.
      * @param hostId   hostId.
      */
+    @Transactional
     public void initHost(String islandId, String hostId) {
         Subscription subscription = Subscription.builder()
                 .id(String.valueOf(idGenerator.nextId()))
@@ -90,6 +98,7 @@ public class SubscriptionService {
                 .state(SubscriptionState.SUPER_ADMIN.getValue())
                 .build();
         insertSubscription(adminSubscription);
+        islandDeviceTokenService.addIslander(islandId, SubscriptionService.SUPER_ADMIN_USER_ID);
     }
 
     /**
@@ -149,6 +158,21 @@ public class SubscriptionService {
         return subscriptionRepository.getIslanderIdListByIslandId(islandId, pageable);
     }
 
+    /**
+     * Retrieve a chunk of subscriptions of the island after the given subscription id, ordered by id.
+     * Walks the (island_id, id) keyset so each chunk costs the same regardless of depth.
+     *
+     * @param islandId    islandId.
+     * @param excludeHost whether to skip the island host.
+     * @param afterId     subscription id to start after, empty for the first chunk.
+     * @param limit       chunk size.
+     * @return {@link Subscription}.
+     */
+    public List<Subscription> getSubscriptionsByIslandIdAfter(String islandId, boolean excludeHost, String afterId, int limit) {
+        int minState = excludeHost ? SubscriptionState.HOST.getValue() : 0;
+        return subscriptionRepository.getSubscriptionsByIslandIdAfter(islandId, minState, afterId, limit);
+    }
+
     /**
      * Retrieve island member count.
      *
@@ -159,6 +183,17 @@ public class SubscriptionService {
         return subscriptionRepository.getCountByIslandId(islandId);
     }
 
+    /**
+     * Retrieve member counts of the islands.
+     *
+     * @param islandIds islandIds.
+     * @return island id to member count.
+     */
+    public Map<String, Integer> getMemberCountsByIslandIds(Iterable<String> islandIds) {
+        return subscriptionRepository.getCountsByIslandIds(islandIds).stream()
+                .collect(Collectors.toMap(row -> String.valueOf(row[0]), row -> ((Number) row[1]).intValue()));
+    }
+
     /**
      * Retrieve user index in this island.
      *
@@ -190,6 +225,7 @@ public class SubscriptionService {
      * @param hostId         hostId.
      * @param islanderNumber islandNumber.
      */
+    @Transactional
     public void subscribeIsland(String islandId, String userId, String hostId, Integer islanderNumber) {
         Subscription subscription = subscriptionRepository.findTopByIslandIdAndUserIdAndDeletedIsFalse(islandId, userId);
         // 如果这个用户之前加入过这个岛，那么只需要恢复他的状态即可
@@ -207,6 +243,7 @@ public class SubscriptionService {
             islandInfoRepository.updateIslanderNumberById(islandId);
         }
         insertSubscription(subscription);
+        islandDeviceTokenService.addIslander(islandId, userId);
 
         //向mq发消息
         String uuid = UUID.randomUUID().toString();
@@ -241,6 +278,7 @@ public class SubscriptionService {
      * @param islandId islandId.
      * @param userId   userId.
      */
+    @Transactional
     public void unsubscribeIsland(String islandId, String userId) {
         Subscription subscription = subscriptionRepository.findTopByIslandIdAndUserIdAndDeletedIsFalse(islandId, userId);
         if (subscription == null) {
@@ -249,6 +287,7 @@ public class SubscriptionService {
 
         subscription.setState(SubscriptionState.LEAVE.getValue());
         subscriptionRepository.save(subscription);
+        islandDeviceTokenService.removeIslander(islandId, userId);
 
         String uuid = UUID.randomUUID().toString();
         UnsubscribeEvent unsubscribeEvent = UnsubscribeEvent.newBuilder()
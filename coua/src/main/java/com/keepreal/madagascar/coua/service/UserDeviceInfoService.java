@@ -5,6 +5,7 @@ import com.keepreal.madagascar.coua.dao.UserDeviceInfoRepository;
 import com.keepreal.madagascar.coua.model.SimpleDeviceToken;
 import com.keepreal.madagascar.coua.model.UserDeviceInfo;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
@@ -17,17 +18,21 @@ public class UserDeviceInfoService {
 
     private final UserDeviceInfoRepository userDeviceInfoRepository;
     private final LongIdGenerator idGenerator;
+    private final IslandDeviceTokenService islandDeviceTokenService;
 
     /**
      * Constructs the user device info service.
      *
      * @param userDeviceInfoRepository  {@link UserDeviceInfoRepository}.
      * @param idGenerator               {@link LongIdGenerator}.
+     * @param islandDeviceTokenService  {@link IslandDeviceTokenService}.
      */
     public UserDeviceInfoService(UserDeviceInfoRepository userDeviceInfoRepository,
-                                 LongIdGenerator idGenerator) {
+                                 LongIdGenerator idGenerator,
+                                 IslandDeviceTokenService islandDeviceTokenService) {
         this.userDeviceInfoRepository = userDeviceInfoRepository;
         this.idGenerator = idGenerator;
+        this.islandDeviceTokenService = islandDeviceTokenService;
     }
 
     /**
@@ -36,6 +41,7 @@ public class UserDeviceInfoService {
      * @param userId        user id.
      * @param deviceToken   device token.
      */
+    @Transactional
     public void bindDeviceToken(String userId, String deviceToken, Integer deviceType) {
         UserDeviceInfo userDeviceInfo = userDeviceInfoRepository.findByUserIdAndDeviceTokenAndDeviceTypeAndDeletedIsFalse(userId, deviceToken, deviceType);
         if (userDeviceInfo != null) {
@@ -56,6 +62,7 @@ public class UserDeviceInfoService {
         this.userDeviceInfoRepository.saveAll(deviceInfos);
 
         userDeviceInfoRepository.save(userDeviceInfo);
+        islandDeviceTokenService.bindDeviceToken(userId, deviceToken, deviceType);
     }
 
     /**
@@ -64,11 +71,13 @@ public class UserDeviceInfoService {
      * @param userId        user id.
      * @param deviceToken   device token.
      */
+    @Transactional
     public void unbindDeviceToken(String userId, String deviceToken, Integer deviceType) {
         UserDeviceInfo userDeviceInfo = userDeviceInfoRepository.findByUserIdAndDeviceTokenAndDeviceTypeAndDeletedIsFalse(userId, deviceToken, deviceType);
         if (userDeviceInfo != null) {
             userDeviceInfo.setBinded(false);
             userDeviceInfoRepository.save(userDeviceInfo);
+            islandDeviceTokenService.unbindDeviceToken(userId, deviceToken);
         }
     }
 
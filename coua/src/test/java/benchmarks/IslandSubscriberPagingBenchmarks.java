@@ -0,0 +1,199 @@
+package benchmarks;
+
+import com.keepreal.madagascar.coua.common.SubscriptionState;
+import com.keepreal.madagascar.coua.dao.SubscriptionRepository;
+import com.keepreal.madagascar.coua.model.Subscription;
+import org.hibernate.dialect.MySQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the benchmarks of reading one chunk of subscribers at a given depth of a one million subscriber island,
+ * comparing the former OFFSET page of {@link SubscriptionRepository#getSubscriberIdListByIslandId}, with its count
+ * query, to the subscription id keyset of {@link SubscriptionRepository#getSubscriptionsByIslandIdAfter} the
+ * subscriber stream reads. Both read the same 500 subscribers, the default chunk size of the stream.
+ * <p>
+ * Needs a mysql at the benchmark.mysql.url system property, a local coua_benchmark database as root by default.
+ * The subscription table, indexed on island_id, is seeded on the first run and kept across runs, drop the database
+ * to reseed. Run with the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IslandSubscriberPagingBenchmarks {
+
+    private static final int SUBSCRIBERS = 1000000;
+    private static final int CHUNK_SIZE = 500;
+    private static final int SEED_BATCH_SIZE = 10000;
+    private static final long ID_BASE = 1000000000000000000L;
+    private static final String ISLAND_ID = "benchmark-island";
+
+    @Param({"0", "10000", "100000", "500000", "999000"})
+    private int offset;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private SubscriptionRepository subscriptionRepository;
+    private String afterId;
+
+    /**
+     * Seeds the island if needed and builds the repository over the benchmark database.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getProperty("benchmark.mysql.url",
+                "jdbc:mysql://127.0.0.1:3306/coua_benchmark?user=root&useSSL=false&createDatabaseIfNotExist=true&rewriteBatchedStatements=true"));
+        dataSource.setDriverClassName("com.mysql.jdbc.Driver");
+        IslandSubscriberPagingBenchmarks.seed(new JdbcTemplate(dataSource));
+
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", MySQLDialect.class.getName());
+        properties.setProperty("hibernate.physical_naming_strategy", SpringPhysicalNamingStrategy.class.getName());
+        properties.setProperty("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        this.entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        this.entityManagerFactory.setDataSource(dataSource);
+        this.entityManagerFactory.setPackagesToScan(Subscription.class.getPackage().getName());
+        this.entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        this.entityManagerFactory.setJpaProperties(properties);
+        this.entityManagerFactory.afterPropertiesSet();
+
+        this.entityManager = this.entityManagerFactory.getObject().createEntityManager();
+        this.subscriptionRepository = new JpaRepositoryFactory(this.entityManager).getRepository(SubscriptionRepository.class);
+        this.afterId = this.offset == 0 ? "" : IslandSubscriberPagingBenchmarks.buildId(this.offset - 1);
+    }
+
+    /**
+     * Closes the entity manager.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.entityManager.close();
+        this.entityManagerFactory.destroy();
+    }
+
+    /**
+     * Benchmarks reading the chunk as an OFFSET page, as the feed distributor did.
+     *
+     * @return Subscriber ids.
+     */
+    @Benchmark
+    public List<String> offsetPage() {
+        Page<String> page = this.subscriptionRepository.getSubscriberIdListByIslandId(IslandSubscriberPagingBenchmarks.ISLAND_ID,
+                PageRequest.of(this.offset / IslandSubscriberPagingBenchmarks.CHUNK_SIZE, IslandSubscriberPagingBenchmarks.CHUNK_SIZE));
+        this.entityManager.clear();
+        return page.getContent();
+    }
+
+    /**
+     * Benchmarks reading the chunk after the last subscription id of the previous one, as the subscriber stream does.
+     *
+     * @return Subscriptions.
+     */
+    @Benchmark
+    public List<Subscription> keysetChunk() {
+        List<Subscription> subscriptions = this.subscriptionRepository.getSubscriptionsByIslandIdAfter(IslandSubscriberPagingBenchmarks.ISLAND_ID,
+                0, this.afterId, IslandSubscriberPagingBenchmarks.CHUNK_SIZE);
+        this.entityManager.clear();
+        return subscriptions;
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Arguments.
+     * @throws RunnerException Runner failure.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IslandSubscriberPagingBenchmarks.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * Creates the subscription table and seeds one host and the islanders of the island, in subscription order.
+     *
+     * @param jdbcTemplate {@link JdbcTemplate}.
+     */
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS subscription ("
+                + "id VARCHAR(64) NOT NULL, "
+                + "user_id VARCHAR(64), "
+                + "island_id VARCHAR(64), "
+                + "state INT, "
+                + "islander_number INT, "
+                + "should_introduce BIT(1), "
+                + "is_deleted BIT(1), "
+                + "created_time BIGINT, "
+                + "updated_time BIGINT, "
+                + "PRIMARY KEY (id), "
+                + "KEY idx_island_id (island_id)) ENGINE = InnoDB");
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM subscription WHERE island_id = ?",
+                Integer.class, IslandSubscriberPagingBenchmarks.ISLAND_ID);
+        if (Integer.valueOf(IslandSubscriberPagingBenchmarks.SUBSCRIBERS).equals(count)) {
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM subscription WHERE island_id = ?", IslandSubscriberPagingBenchmarks.ISLAND_ID);
+        long createdTime = System.currentTimeMillis();
+        for (int from = 0; from < IslandSubscriberPagingBenchmarks.SUBSCRIBERS; from += IslandSubscriberPagingBenchmarks.SEED_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(IslandSubscriberPagingBenchmarks.SEED_BATCH_SIZE);
+            for (int i = from; i < from + IslandSubscriberPagingBenchmarks.SEED_BATCH_SIZE; i++) {
+                rows.add(new Object[]{
+                        IslandSubscriberPagingBenchmarks.buildId(i),
+                        "user" + i,
+                        IslandSubscriberPagingBenchmarks.ISLAND_ID,
+                        i == 0 ? SubscriptionState.HOST.getValue() : SubscriptionState.ISLANDER.getValue(),
+                        i + 1,
+                        createdTime + i,
+                        createdTime + i});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO subscription (id, user_id, island_id, state, islander_number, "
+                    + "should_introduce, is_deleted, created_time, updated_time) VALUES (?, ?, ?, ?, ?, TRUE, FALSE, ?, ?)", rows);
+        }
+    }
+
+    /**
+     * Builds the subscription id of the i-th subscriber, ordered as snowflake ids of the same length are.
+     *
+     * @param i Subscriber index.
+     * @return Subscription id.
+     */
+    private static String buildId(int i) {
+        return String.valueOf(IslandSubscriberPagingBenchmarks.ID_BASE + i);
+    }
+
+}
@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @program: madagascar
@@ -16,6 +17,7 @@ import org.springframework.data.mongodb.config.EnableMongoAuditing;
 @EnableIdGenerator
 @EnableJpaAuditing
 @EnableMongoAuditing
+@EnableScheduling
 public class FossaApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,25 @@
+package com.keepreal.madagascar.fossa.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Represents the feed counter configuration.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "feed-counter", ignoreUnknownFields = false)
+@Data
+public class FeedCounterConfiguration {
+
+    /**
+     * Interval between two flushes of the pending counter deltas into mongo.
+     */
+    private Long flushIntervalInMs = 1000L;
+
+    /**
+     * Lease of the flush lock, long enough for one flush so a crashed instance releases it.
+     */
+    private Long flushLockLeaseInMs = 30000L;
+
+}
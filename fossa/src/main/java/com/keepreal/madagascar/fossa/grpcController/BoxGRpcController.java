@@ -35,8 +35,6 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 @GRpcService
 public class BoxGRpcController extends BoxServiceGrpc.BoxServiceImplBase {
@@ -227,10 +225,7 @@ public class BoxGRpcController extends BoxServiceGrpc.BoxServiceImplBase {
 
         List<String> myMembershipIds = this.subscribeMembershipService.retrieveMembershipIds(userId, null);
 
-        List<FeedMessage> feedMessageList = feedInfoList.stream()
-                .map(info -> feedInfoService.getFeedMessage(info, userId, myMembershipIds))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<FeedMessage> feedMessageList = this.feedInfoService.getFeedMessages(feedInfoList, userId, myMembershipIds);
 
         PageResponse pageResponse = PageRequestResponseUtils.buildPageResponse(page, pageSize, totalCount);
         QuestionsResponse feedsResponse = QuestionsResponse.newBuilder()
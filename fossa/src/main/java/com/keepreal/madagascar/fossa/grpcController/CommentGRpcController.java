@@ -14,7 +14,6 @@ import com.keepreal.madagascar.fossa.NewCommentRequest;
 import com.keepreal.madagascar.fossa.RetrieveCommentByIdRequest;
 import com.keepreal.madagascar.fossa.RetrieveCommentsByFeedIdRequest;
 import com.keepreal.madagascar.fossa.RetrieveCommentsByIdsRequest;
-import com.keepreal.madagascar.fossa.common.FeedCountType;
 import com.keepreal.madagascar.fossa.config.NotificationEventProducerConfiguration;
 import com.keepreal.madagascar.fossa.model.CommentInfo;
 import com.keepreal.madagascar.fossa.service.CommentService;
@@ -77,7 +76,7 @@ public class CommentGRpcController extends CommentServiceGrpc.CommentServiceImpl
 
         CommentInfo save = this.commentService.insert(commentInfo);
 
-        this.feedInfoService.incFeedCount(feedId, FeedCountType.COMMENTS_COUNT);
+        this.feedInfoService.addComment(save);
         CommentMessage commentMessage = this.commentService.getCommentMessage(save);
         CommentResponse commentResponse = CommentResponse.newBuilder()
                 .setComment(commentMessage)
@@ -175,7 +174,7 @@ public class CommentGRpcController extends CommentServiceGrpc.CommentServiceImpl
         if (commentInfo != null) {
             commentInfo.setDeleted(true);
             commentService.update(commentInfo);
-            feedInfoService.subFeedCount(commentInfo.getFeedId(), FeedCountType.COMMENTS_COUNT);
+            feedInfoService.removeComment(commentInfo);
             commonStatus = CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC);
         } else {
             log.error("[deleteCommentById] comment not found error! comment id is [{}]", request.getId());
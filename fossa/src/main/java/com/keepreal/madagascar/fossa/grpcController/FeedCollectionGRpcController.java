@@ -1,9 +1,7 @@
 package com.keepreal.madagascar.fossa.grpcController;
 
-import com.keepreal.madagascar.common.CommentMessage;
 import com.keepreal.madagascar.common.CommonStatus;
 import com.keepreal.madagascar.common.FeedMessage;
-import com.keepreal.madagascar.common.constants.Constants;
 import com.keepreal.madagascar.fossa.AddFeedToCollectionRequest;
 import com.keepreal.madagascar.fossa.CollectedFeedsResponse;
 import com.keepreal.madagascar.fossa.FeedCollectionServiceGrpc;
@@ -11,11 +9,8 @@ import com.keepreal.madagascar.fossa.RemoveFeedToCollectionRequest;
 import com.keepreal.madagascar.fossa.RetrieveFeedsByUserIdRequest;
 import com.keepreal.madagascar.fossa.model.FeedCollection;
 import com.keepreal.madagascar.fossa.model.FeedInfo;
-import com.keepreal.madagascar.fossa.model.ReactionInfo;
-import com.keepreal.madagascar.fossa.service.CommentService;
 import com.keepreal.madagascar.fossa.service.FeedCollectionService;
 import com.keepreal.madagascar.fossa.service.FeedInfoService;
-import com.keepreal.madagascar.fossa.service.ReactionService;
 import com.keepreal.madagascar.fossa.service.SubscribeMembershipService;
 import com.keepreal.madagascar.fossa.util.CommonStatusUtils;
 import com.keepreal.madagascar.fossa.util.PageRequestResponseUtils;
@@ -26,8 +21,6 @@ import org.springframework.data.domain.Page;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @GRpcService
@@ -36,20 +29,14 @@ public class FeedCollectionGRpcController extends FeedCollectionServiceGrpc.Feed
     private final FeedCollectionService feedCollectionService;
     private final FeedInfoService feedInfoService;
     private final SubscribeMembershipService subscribeMembershipService;
-    private final ReactionService reactionService;
-    private final CommentService commentService;
 
 
     public FeedCollectionGRpcController(FeedCollectionService feedCollectionService,
                                         FeedInfoService feedInfoService,
-                                        SubscribeMembershipService subscribeMembershipService,
-                                        ReactionService reactionService,
-                                        CommentService commentService) {
+                                        SubscribeMembershipService subscribeMembershipService) {
         this.feedCollectionService = feedCollectionService;
         this.feedInfoService = feedInfoService;
         this.subscribeMembershipService = subscribeMembershipService;
-        this.reactionService = reactionService;
-        this.commentService = commentService;
     }
 
     @Override
@@ -74,23 +61,7 @@ public class FeedCollectionGRpcController extends FeedCollectionServiceGrpc.Feed
 
         List<String> myMembershipIds = this.subscribeMembershipService.retrieveMembershipIds(request.getUserId(), null);
 
-        Set<String> likedFeedIds = this.reactionService.retrieveReactionsByFeedIdsAndUserId(feedIdList, request.getUserId()).stream()
-                .map(ReactionInfo::getFeedId).collect(Collectors.toSet());
-
-        Set<String> collectedFeedIds = this.feedCollectionService.findByFeedIdsAndUserId(feedIdList, request.getUserId()).stream()
-                .map(FeedCollection::getFeedId).collect(Collectors.toSet());
-
-        Map<String, List<CommentMessage>> commentMap = this.commentService.getLastCommentsByFeedIds(feedIdList, Constants.DEFAULT_FEED_LAST_COMMENT_COUNT);
-
-        List<FeedMessage> feedMessageList = resultList.stream()
-                .map(info -> this.feedInfoService.getFeedMessage(info,
-                        request.getUserId(),
-                        myMembershipIds,
-                        commentMap.getOrDefault(info.getId(), new ArrayList<>()),
-                        likedFeedIds.contains(info.getId()),
-                        collectedFeedIds.contains(info.getId())))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<FeedMessage> feedMessageList = this.feedInfoService.getFeedMessages(resultList, request.getUserId(), myMembershipIds);
 
         responseObserver.onNext(CollectedFeedsResponse.newBuilder()
                 .setStatus(CommonStatusUtils.getSuccStatus())
@@ -1,7 +1,7 @@
 package com.keepreal.madagascar.fossa.grpcController;
 
 import com.google.protobuf.ProtocolStringList;
-import com.keepreal.madagascar.common.CommentMessage;
+import com.google.protobuf.StringValue;
 import com.keepreal.madagascar.common.CommonStatus;
 import com.keepreal.madagascar.common.FeedGroupMessage;
 import com.keepreal.madagascar.common.FeedMessage;
@@ -43,22 +43,18 @@ import com.keepreal.madagascar.fossa.UpdateFeedPaidByIdResponse;
 import com.keepreal.madagascar.fossa.UpdateFeedRequest;
 import com.keepreal.madagascar.fossa.UpdateFeedSaveAuthorityRequest;
 import com.keepreal.madagascar.fossa.UpdateFeedSaveAuthorityResponse;
-import com.keepreal.madagascar.fossa.model.FeedCollection;
 import com.keepreal.madagascar.fossa.model.FeedGroup;
 import com.keepreal.madagascar.fossa.model.FeedInfo;
 import com.keepreal.madagascar.fossa.model.MediaInfo;
-import com.keepreal.madagascar.fossa.model.ReactionInfo;
 import com.keepreal.madagascar.fossa.model.VideoInfo;
-import com.keepreal.madagascar.fossa.service.CommentService;
-import com.keepreal.madagascar.fossa.service.FeedCollectionService;
 import com.keepreal.madagascar.fossa.service.FeedEventProducerService;
 import com.keepreal.madagascar.fossa.service.FeedGroupService;
 import com.keepreal.madagascar.fossa.service.FeedInfoService;
 import com.keepreal.madagascar.fossa.service.IslandService;
 import com.keepreal.madagascar.fossa.service.PaymentService;
-import com.keepreal.madagascar.fossa.service.ReactionService;
 import com.keepreal.madagascar.fossa.service.SubscribeMembershipService;
 import com.keepreal.madagascar.fossa.util.CommonStatusUtils;
+import com.keepreal.madagascar.fossa.util.FeedCursorUtils;
 import com.keepreal.madagascar.fossa.util.MediaMessageConvertUtils;
 import com.keepreal.madagascar.fossa.util.PageRequestResponseUtils;
 import io.grpc.stub.StreamObserver;
@@ -78,9 +74,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -100,9 +94,6 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
     private final FeedEventProducerService feedEventProducerService;
     private final PaymentService paymentService;
     private final SubscribeMembershipService subscribeMembershipService;
-    private final ReactionService reactionService;
-    private final CommentService commentService;
-    private final FeedCollectionService feedCollectionService;
     private final RedissonClient redissonClient;
 
     /**
@@ -116,9 +107,6 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
      * @param feedEventProducerService   {@link FeedEventProducerService}.
      * @param paymentService             {@link PaymentService}.
      * @param subscribeMembershipService {@link SubscribeMembershipService}.
-     * @param reactionService            {@link ReactionService}.
-     * @param commentService             {@link CommentService}.
-     * @param feedCollectionService      {@link FeedCollectionService}.
      * @param redissonClient             {@link RedissonClient}.
      */
     public FeedGRpcController(LongIdGenerator idGenerator,
@@ -129,9 +117,6 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
                               FeedEventProducerService feedEventProducerService,
                               PaymentService paymentService,
                               SubscribeMembershipService subscribeMembershipService,
-                              ReactionService reactionService,
-                              CommentService commentService,
-                              FeedCollectionService feedCollectionService,
                               RedissonClient redissonClient) {
         this.idGenerator = idGenerator;
         this.islandService = islandService;
@@ -141,9 +126,6 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
         this.feedEventProducerService = feedEventProducerService;
         this.paymentService = paymentService;
         this.subscribeMembershipService = subscribeMembershipService;
-        this.reactionService = reactionService;
-        this.commentService = commentService;
-        this.feedCollectionService = feedCollectionService;
         this.redissonClient = redissonClient;
     }
 
@@ -465,22 +447,32 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
         int pageSize = request.getPageRequest().getPageSize();
         String userId = request.getUserId();
         Query query = buildQueryByRequest(request);
-        long totalCount = mongoTemplate.count(query, FeedInfo.class);
-        List<FeedInfo> feedInfoList = mongoTemplate.find(query.with(PageRequest.of(page, pageSize)), FeedInfo.class);
+        if (!this.paginate(query, request)) {
+            responseObserver.onNext(FeedsResponse.newBuilder()
+                    .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_INVALID_ARGUMENT))
+                    .build());
+            responseObserver.onCompleted();
+            return;
+        }
+
+        List<FeedInfo> feedInfoList = mongoTemplate.find(query, FeedInfo.class);
+        boolean hasMore = feedInfoList.size() > pageSize;
+        if (hasMore) {
+            feedInfoList = feedInfoList.subList(0, pageSize);
+        }
 
         List<String> myMembershipIds = this.subscribeMembershipService.retrieveMembershipIds(request.getUserId(), null);
-        List<FeedMessage> feedMessageList = feedInfoList.stream()
-                .map(info -> feedInfoService.getFeedMessage(info, userId, myMembershipIds))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<FeedMessage> feedMessageList = this.feedInfoService.getFeedMessages(feedInfoList, userId, myMembershipIds);
 
-        PageResponse pageResponse = PageRequestResponseUtils.buildPageResponse(page, pageSize, totalCount);
-        FeedsResponse feedsResponse = FeedsResponse.newBuilder()
+        PageResponse pageResponse = PageRequestResponseUtils.buildPageResponse(page, pageSize, feedInfoList.size(), hasMore);
+        FeedsResponse.Builder feedsResponseBuilder = FeedsResponse.newBuilder()
                 .addAllFeed(feedMessageList)
                 .setPageResponse(pageResponse)
-                .setStatus(CommonStatusUtils.getSuccStatus())
-                .build();
-        responseObserver.onNext(feedsResponse);
+                .setStatus(CommonStatusUtils.getSuccStatus());
+        if (hasMore) {
+            feedsResponseBuilder.setNextCursor(StringValue.of(FeedCursorUtils.encode(feedInfoList.get(pageSize - 1))));
+        }
+        responseObserver.onNext(feedsResponseBuilder.build());
         responseObserver.onCompleted();
     }
 
@@ -525,23 +517,7 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
 
         List<String> myMembershipIds = this.subscribeMembershipService.retrieveMembershipIds(request.getUserId(), null);
 
-        Set<String> likedFeedIds = this.reactionService.retrieveReactionsByFeedIdsAndUserId(request.getIdsList(), request.getUserId()).stream()
-                .map(ReactionInfo::getFeedId).collect(Collectors.toSet());
-
-        Set<String> collectedFeedIds = this.feedCollectionService.findByFeedIdsAndUserId(request.getIdsList(), request.getUserId()).stream()
-                .map(FeedCollection::getFeedId).collect(Collectors.toSet());
-
-        Map<String, List<CommentMessage>> commentMap = this.commentService.getLastCommentsByFeedIds(request.getIdsList(), Constants.DEFAULT_FEED_LAST_COMMENT_COUNT);
-
-        List<FeedMessage> feedMessageList = feedInfoList.stream()
-                .map(info -> this.feedInfoService.getFeedMessage(info,
-                        request.getUserId(),
-                        myMembershipIds,
-                        commentMap.getOrDefault(info.getId(), new ArrayList<>()),
-                        likedFeedIds.contains(info.getId()),
-                        collectedFeedIds.contains(info.getId())))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<FeedMessage> feedMessageList = this.feedInfoService.getFeedMessages(feedInfoList, request.getUserId(), myMembershipIds);
 
         FeedsResponse feedsResponse = FeedsResponse.newBuilder()
                 .addAllFeed(feedMessageList)
@@ -559,20 +535,60 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
      */
     @Override
     public void retrieveMultipleTimelineFeeds(RetrieveMultipleFeedsRequest request, StreamObserver<TimelineFeedsResponse> responseObserver) {
-        int page = request.getPageRequest().getPage();
         int pageSize = request.getPageRequest().getPageSize();
         Query query = buildQueryByRequest(request);
-        List<FeedInfo> feedInfoList = mongoTemplate.find(query.with(PageRequest.of(page, pageSize)), FeedInfo.class);
+        if (!this.paginate(query, request)) {
+            responseObserver.onNext(TimelineFeedsResponse.newBuilder()
+                    .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_INVALID_ARGUMENT))
+                    .build());
+            responseObserver.onCompleted();
+            return;
+        }
+
+        List<FeedInfo> feedInfoList = mongoTemplate.find(query, FeedInfo.class);
+        boolean hasMore = feedInfoList.size() > pageSize;
+        if (hasMore) {
+            feedInfoList = feedInfoList.subList(0, pageSize);
+        }
 
-        responseObserver.onNext(TimelineFeedsResponse.newBuilder()
+        TimelineFeedsResponse.Builder timelineFeedsResponseBuilder = TimelineFeedsResponse.newBuilder()
                 .setStatus(CommonStatusUtils.getSuccStatus())
                 .addAllMessage(feedInfoList.stream()
                         .map(this.feedInfoService::getTimelineFeedMessage)
-                        .collect(Collectors.toList()))
-                .build());
+                        .collect(Collectors.toList()));
+        if (hasMore) {
+            timelineFeedsResponseBuilder.setNextCursor(StringValue.of(FeedCursorUtils.encode(feedInfoList.get(pageSize - 1))));
+        }
+        responseObserver.onNext(timelineFeedsResponseBuilder.build());
         responseObserver.onCompleted();
     }
 
+    /**
+     * Limits the query to one page plus one feed telling whether there are more. A cursor resumes after the last
+     * feed seen with a range on the sort keys, otherwise the page is skipped to for clients without cursor.
+     *
+     * @param query   {@link Query}.
+     * @param request {@link RetrieveMultipleFeedsRequest}.
+     * @return False if the cursor is malformed.
+     */
+    private boolean paginate(Query query, RetrieveMultipleFeedsRequest request) {
+        int page = request.getPageRequest().getPage();
+        int pageSize = request.getPageRequest().getPageSize();
+        if (request.hasCursor()) {
+            try {
+                query.addCriteria(new Criteria().andOperator(FeedCursorUtils.after(request.getCursor().getValue())));
+            } catch (IllegalArgumentException exception) {
+                log.warn("[paginate] malformed feed cursor [{}]", request.getCursor().getValue());
+                return false;
+            }
+        } else {
+            query.skip((long) page * pageSize);
+        }
+
+        query.limit(pageSize + 1);
+        return true;
+    }
+
     /**
      * Builds the query.
      *
@@ -630,7 +646,7 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
         }
 
         // 没有条件
-        return query.with(Sort.by(Sort.Order.desc("updatedTime"), Sort.Order.desc("createdTime"), Sort.Order.desc("toppedTime")));
+        return query.with(Sort.by(Sort.Order.desc("updatedTime"), Sort.Order.desc("createdTime"), Sort.Order.desc("toppedTime"), Sort.Order.desc("id")));
     }
 
     /**
@@ -859,10 +875,7 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
         long totalCount = mongoTemplate.count(query, FeedInfo.class);
         List<FeedInfo> feedInfoList = mongoTemplate.find(query.with(PageRequest.of(page, pageSize)), FeedInfo.class);
 
-        List<FeedMessage> feedMessageList = feedInfoList.stream()
-                .map(info -> feedInfoService.getFeedMessage(info, userId, myMembershipIds))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<FeedMessage> feedMessageList = this.feedInfoService.getFeedMessages(feedInfoList, userId, myMembershipIds);
 
         PageResponse pageResponse = PageRequestResponseUtils.buildPageResponse(page, pageSize, totalCount);
         FeedsResponse feedsResponse = FeedsResponse.newBuilder()
@@ -975,7 +988,7 @@ public class FeedGRpcController extends FeedServiceGrpc.FeedServiceImplBase {
             query.addCriteria(timeCriteria);
         }
 
-        return query.with(Sort.by(Sort.Order.desc("updatedTime"), Sort.Order.desc("createdTime"), Sort.Order.desc("toppedTime")));
+        return query.with(Sort.by(Sort.Order.desc("updatedTime"), Sort.Order.desc("createdTime"), Sort.Order.desc("toppedTime"), Sort.Order.desc("id")));
     }
 
     private List<MediaInfo> buildMediaInfos(NewFeedsRequestV2 request) {
@@ -207,10 +207,7 @@ public class FeedGroupGRpcController extends FeedGroupServiceGrpc.FeedGroupServi
         List<String> myMembershipIds = this.subscribeMembershipService.retrieveMembershipIds(request.getUserId(), null);
 
         FeedGroupFeedsResponse feedsResponse = FeedGroupFeedsResponse.newBuilder()
-                .addAllFeed(feedInfoPage.getContent().stream()
-                        .map(feed -> this.feedInfoService.getFeedMessage(feed, request.getUserId(), myMembershipIds))
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toList()))
+                .addAllFeed(this.feedInfoService.getFeedMessages(feedInfoPage.getContent(), request.getUserId(), myMembershipIds))
                 .setPageResponse(PageRequestResponseUtils.buildPageResponse(feedInfoPage))
                 .setStatus(CommonStatusUtils.getSuccStatus())
                 .build();
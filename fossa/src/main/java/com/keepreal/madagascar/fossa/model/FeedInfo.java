@@ -6,6 +6,8 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.persistence.EntityListeners;
@@ -20,6 +22,14 @@ import java.util.List;
 @Data
 @Builder
 @Document(value = "feedInfo")
+@CompoundIndexes({
+        @CompoundIndex(name = "updatedTime_createdTime_toppedTime_id",
+                def = "{'updatedTime': -1, 'createdTime': -1, 'toppedTime': -1, '_id': -1}"),
+        @CompoundIndex(name = "islandId_deleted_updatedTime_createdTime_toppedTime_id",
+                def = "{'islandId': 1, 'deleted': 1, 'updatedTime': -1, 'createdTime': -1, 'toppedTime': -1, '_id': -1}"),
+        @CompoundIndex(name = "islandId_fromHost_deleted_updatedTime_createdTime_toppedTime_id",
+                def = "{'islandId': 1, 'fromHost': 1, 'deleted': 1, 'updatedTime': -1, 'createdTime': -1, 'toppedTime': -1, '_id': -1}")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class FeedInfo {
 
@@ -53,6 +63,8 @@ public class FeedInfo {
     private Integer commentsCount = 0;
     @Builder.Default
     private Integer repostCount = 0;
+    private List<CommentInfo> lastComments;
+    private List<String> counterFlushIds;
     private Integer state;
     @Builder.Default
     private Boolean isWorks = null;
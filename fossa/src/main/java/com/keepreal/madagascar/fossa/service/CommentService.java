@@ -9,17 +9,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,15 +20,12 @@ public class CommentService {
 
     private final CommentInfoRepository commentInfoRepository;
     private final LongIdGenerator idGenerator;
-    private final MongoTemplate mongoTemplate;
 
     @Autowired
     public CommentService(CommentInfoRepository commentInfoRepository,
-                          LongIdGenerator idGenerator,
-                          MongoTemplate mongoTemplate) {
+                          LongIdGenerator idGenerator) {
         this.commentInfoRepository = commentInfoRepository;
         this.idGenerator = idGenerator;
-        this.mongoTemplate = mongoTemplate;
     }
 
     /**
@@ -58,46 +47,15 @@ public class CommentService {
     }
 
     /**
-     * @param feedId
-     * @param commentCount
-     * @return
-     */
-    public List<CommentMessage> getCommentsMessage(String feedId, int commentCount) {
-        Pageable pageable = PageRequest.of(0, commentCount);
-        List<CommentInfo> commentInfoList = commentInfoRepository.getCommentInfosByFeedIdAndDeletedIsFalseOrderByCreatedTimeDesc(feedId, pageable).getContent();
-
-        return commentInfoList.stream().map(this::getCommentMessage).collect(Collectors.toList());
-    }
-
-    /**
-     * Get the last comments for a list of feeds.
+     * Retrieves the latest comments of a feed from the comment collection.
      *
-     * @param feedIds      Feed ids.
+     * @param feedId       Feed id.
      * @param commentCount Count of comments to pull.
-     * @return Map of feed id versus comments.
+     * @return {@link CommentInfo} latest first.
      */
-    @SuppressWarnings({"rawtypes"})
-    public Map<String, List<CommentMessage>> getLastCommentsByFeedIds(Collection<String> feedIds, int commentCount) {
-        Criteria criteria = Criteria.where("feedId").in(feedIds).and("deleted").is(false);
-        Aggregation aggregation = Aggregation.newAggregation(
-                Aggregation.match(criteria),
-                Aggregation.sort(Sort.Direction.DESC, "createdTime"),
-                Aggregation.group("feedId").last("feedId").as("feedId").push("$$ROOT").as("comments"),
-                Aggregation.project().and("comments").slice(commentCount).as("lastComments")
-        );
-
-        List<LinkedHashMap> commentMaps = this.mongoTemplate.aggregate(aggregation, CommentInfo.class, LinkedHashMap.class).getMappedResults();
-        
-        return commentMaps.stream()
-                .collect(Collectors.toMap(
-                        map -> map.get("_id").toString(),
-                        map -> {
-                            List<CommentInfo> list = (List) map.getOrDefault("lastComments", new ArrayList<>());
-                            return list.stream()
-                                    .map(this::getCommentMessage)
-                                    .collect(Collectors.toList());
-                        }
-                ));
+    public List<CommentInfo> findLastComments(String feedId, int commentCount) {
+        return this.commentInfoRepository.getCommentInfosByFeedIdAndDeletedIsFalseOrderByCreatedTimeDesc(
+                feedId, PageRequest.of(0, commentCount)).getContent();
     }
 
     /**
@@ -3,12 +3,19 @@ package com.keepreal.madagascar.fossa.service;
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.common.exceptions.KeepRealBusinessException;
 import com.keepreal.madagascar.vanga.FeedChargeServiceGrpc;
+import com.keepreal.madagascar.vanga.RetrieveFeedChargeAccessByFeedIdsRequest;
+import com.keepreal.madagascar.vanga.RetrieveFeedChargeAccessByFeedIdsResponse;
 import com.keepreal.madagascar.vanga.RetrieveFeedChargeRequest;
 import com.keepreal.madagascar.vanga.RetrieveFeedChargeResponse;
 import io.grpc.Channel;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 @Service
 public class FeedChargeService {
 
@@ -34,4 +41,25 @@ public class FeedChargeService {
 
         return response.getHasAccess();
     }
+
+    public Set<String> retrieveFeedChargeAccessFeedIds(String userId, Collection<String> feedIds) {
+        if (feedIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        FeedChargeServiceGrpc.FeedChargeServiceBlockingStub stub = FeedChargeServiceGrpc.newBlockingStub(this.channel);
+
+        RetrieveFeedChargeAccessByFeedIdsResponse response;
+
+        try {
+            response = stub.retrieveFeedChargeAccessByFeedIds(RetrieveFeedChargeAccessByFeedIdsRequest.newBuilder()
+                    .setUserId(userId)
+                    .addAllFeedIds(feedIds)
+                    .build());
+        } catch (Exception e) {
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR);
+        }
+
+        return new HashSet<>(response.getFeedIdsList());
+    }
 }
@@ -0,0 +1,242 @@
+package com.keepreal.madagascar.fossa.service;
+
+import com.keepreal.madagascar.fossa.config.FeedCounterConfiguration;
+import com.keepreal.madagascar.fossa.model.FeedInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the feed counter service. Count changes are accumulated per feed and counter type in a redis hash
+ * and flushed periodically as one bulk of $inc, so a viral feed costs one mongo write per flush instead of one per
+ * like, comment or repost.
+ * <p>
+ * A flush renames the pending hash under a flush id and only deletes it once mongo applied it. Every feed update
+ * records the flush id and skips feeds already carrying it, so a flush retried after a crash is applied once.
+ * Updates mongo rejects are moved to a dead letter hash for a manual replay, so one bad feed does not hold the
+ * flush back and let the pending hash grow.
+ */
+@Service
+@Slf4j
+public class FeedCounterService {
+
+    private static final String PENDING_KEY = "feed-counter:pending";
+    private static final String FLUSHING_KEY = "feed-counter:flushing";
+    private static final String FLUSHING_ID_KEY = "feed-counter:flushing-id";
+    private static final String FLUSH_LOCK_KEY = "feed-counter:flush-lock";
+    private static final String DEAD_LETTER_KEY = "feed-counter:dead-letter";
+    private static final String FIELD_SEPARATOR = ":";
+    private static final int FLUSH_ID_HISTORY_SIZE = 5;
+
+    private final RedissonClient redissonClient;
+    private final MongoTemplate mongoTemplate;
+    private final FeedCounterConfiguration feedCounterConfiguration;
+
+    /**
+     * Constructs the feed counter service.
+     *
+     * @param redissonClient           {@link RedissonClient}.
+     * @param mongoTemplate            {@link MongoTemplate}.
+     * @param feedCounterConfiguration {@link FeedCounterConfiguration}.
+     */
+    public FeedCounterService(RedissonClient redissonClient,
+                              MongoTemplate mongoTemplate,
+                              FeedCounterConfiguration feedCounterConfiguration) {
+        this.redissonClient = redissonClient;
+        this.mongoTemplate = mongoTemplate;
+        this.feedCounterConfiguration = feedCounterConfiguration;
+    }
+
+    /**
+     * Accumulates a count change, falling back to a direct $inc if redis is unavailable.
+     *
+     * @param feedId Feed id.
+     * @param type   Counter type.
+     * @param delta  Count change.
+     */
+    public void increment(String feedId, String type, long delta) {
+        try {
+            this.getMap(FeedCounterService.PENDING_KEY).addAndGet(feedId + FeedCounterService.FIELD_SEPARATOR + type, delta);
+        } catch (Exception exception) {
+            log.warn("Failed to accumulate feed {} {} change, updating mongo directly.", feedId, type, exception);
+            this.mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(feedId)),
+                    new Update().inc(type, delta),
+                    FeedInfo.class);
+        }
+    }
+
+    /**
+     * Retrieves the count changes not yet applied to the given feeds, so a user reads their own like or comment
+     * before it is flushed.
+     *
+     * @param feedInfos {@link FeedInfo}.
+     * @param types     Counter types.
+     * @return Count change by counter type by feed id.
+     */
+    public Map<String, Map<String, Long>> retrieveUnflushedDeltas(Collection<FeedInfo> feedInfos, String... types) {
+        if (feedInfos.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<String> fields = feedInfos.stream()
+                .flatMap(feedInfo -> Arrays.stream(types)
+                        .map(type -> feedInfo.getId() + FeedCounterService.FIELD_SEPARATOR + type))
+                .collect(Collectors.toSet());
+
+        Map<String, Long> pending;
+        Map<String, Long> flushing;
+        String flushId;
+        try {
+            pending = this.getMap(FeedCounterService.PENDING_KEY).getAll(fields);
+            flushing = this.getMap(FeedCounterService.FLUSHING_KEY).getAll(fields);
+            flushId = flushing.isEmpty() ? null : this.getFlushIdBucket().get();
+        } catch (Exception exception) {
+            log.warn("Failed to retrieve unflushed feed counters.", exception);
+            return Collections.emptyMap();
+        }
+
+        Set<String> appliedFeedIds = feedInfos.stream()
+                .filter(feedInfo -> Objects.nonNull(flushId)
+                        && Objects.nonNull(feedInfo.getCounterFlushIds())
+                        && feedInfo.getCounterFlushIds().contains(flushId))
+                .map(FeedInfo::getId)
+                .collect(Collectors.toSet());
+
+        Map<String, Map<String, Long>> deltas = new HashMap<>();
+        pending.forEach((field, delta) -> this.addDelta(deltas, field, delta));
+        flushing.forEach((field, delta) -> {
+            if (!appliedFeedIds.contains(field.substring(0, field.lastIndexOf(FeedCounterService.FIELD_SEPARATOR)))) {
+                this.addDelta(deltas, field, delta);
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * Flushes the accumulated count changes into mongo, one instance at a time.
+     */
+    @Scheduled(fixedDelayString = "${feed-counter.flush-interval-in-ms:1000}")
+    public void flush() {
+        RLock lock = this.redissonClient.getLock(FeedCounterService.FLUSH_LOCK_KEY);
+        try {
+            if (!lock.tryLock(0L, this.feedCounterConfiguration.getFlushLockLeaseInMs(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            RMap<String, Long> flushing = this.getMap(FeedCounterService.FLUSHING_KEY);
+            RBucket<String> flushIdBucket = this.getFlushIdBucket();
+            if (!flushing.isExists()) {
+                RMap<String, Long> pending = this.getMap(FeedCounterService.PENDING_KEY);
+                if (!pending.isExists()) {
+                    return;
+                }
+
+                flushIdBucket.set(UUID.randomUUID().toString());
+                if (!pending.renamenx(FeedCounterService.FLUSHING_KEY)) {
+                    return;
+                }
+            }
+
+            String flushId = flushIdBucket.get();
+            Map<String, Map<String, Long>> deltas = new HashMap<>();
+            flushing.readAllMap().forEach((field, delta) -> this.addDelta(deltas, field, delta));
+
+            BulkOperations bulkOperations = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedInfo.class);
+            List<String> feedIds = new ArrayList<>(deltas.keySet());
+            feedIds.forEach(feedId -> {
+                Update update = new Update();
+                deltas.get(feedId).forEach(update::inc);
+                update.push("counterFlushIds").slice(-FeedCounterService.FLUSH_ID_HISTORY_SIZE).each(flushId);
+                bulkOperations.updateOne(
+                        Query.query(Criteria.where("id").is(feedId).and("counterFlushIds").ne(flushId)), update);
+            });
+            if (!feedIds.isEmpty()) {
+                try {
+                    bulkOperations.execute();
+                } catch (BulkOperationException exception) {
+                    this.deadLetter(exception, feedIds, deltas);
+                }
+            }
+
+            flushing.delete();
+        } catch (Exception exception) {
+            log.error("Failed to flush feed counters, retrying with the next flush.", exception);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Moves the count changes of the rejected feed updates to the dead letter hash. The other updates of the bulk
+     * are applied, so the flush still completes.
+     *
+     * @param exception {@link BulkOperationException}.
+     * @param feedIds   Feed ids in bulk order.
+     * @param deltas    Count change by counter type by feed id.
+     */
+    private void deadLetter(BulkOperationException exception,
+                            List<String> feedIds,
+                            Map<String, Map<String, Long>> deltas) {
+        List<String> failedFeedIds = exception.getErrors().stream()
+                .map(error -> feedIds.get(error.getIndex()))
+                .collect(Collectors.toList());
+        log.error("Failed to flush the counters of feeds {}, moved to {}.",
+                failedFeedIds, FeedCounterService.DEAD_LETTER_KEY, exception);
+
+        RMap<String, Long> deadLetter = this.getMap(FeedCounterService.DEAD_LETTER_KEY);
+        failedFeedIds.forEach(feedId -> deltas.get(feedId).forEach((type, delta) ->
+                deadLetter.addAndGet(feedId + FeedCounterService.FIELD_SEPARATOR + type, delta)));
+    }
+
+    private void addDelta(Map<String, Map<String, Long>> deltas, String field, Long delta) {
+        if (Objects.isNull(delta) || delta == 0L) {
+            return;
+        }
+
+        int separator = field.lastIndexOf(FeedCounterService.FIELD_SEPARATOR);
+        deltas.computeIfAbsent(field.substring(0, separator), key -> new HashMap<>())
+                .merge(field.substring(separator + 1), delta, Long::sum);
+    }
+
+    private RMap<String, Long> getMap(String key) {
+        return this.redissonClient.getMap(key, new CompositeCodec(StringCodec.INSTANCE, LongCodec.INSTANCE));
+    }
+
+    private RBucket<String> getFlushIdBucket() {
+        return this.redissonClient.getBucket(FeedCounterService.FLUSHING_ID_KEY, StringCodec.INSTANCE);
+    }
+
+}
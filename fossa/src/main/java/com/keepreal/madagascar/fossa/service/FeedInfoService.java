@@ -8,12 +8,17 @@ import com.keepreal.madagascar.common.PicturesMessage;
 import com.keepreal.madagascar.common.ReactionType;
 import com.keepreal.madagascar.common.constants.Constants;
 import com.keepreal.madagascar.fossa.TimelineFeedMessage;
+import com.keepreal.madagascar.fossa.common.FeedCountType;
 import com.keepreal.madagascar.fossa.dao.FeedInfoRepository;
 import com.keepreal.madagascar.fossa.dao.ReactionRepository;
 import com.keepreal.madagascar.fossa.model.AnswerInfo;
+import com.keepreal.madagascar.fossa.model.CommentInfo;
+import com.keepreal.madagascar.fossa.model.FeedCollection;
 import com.keepreal.madagascar.fossa.model.FeedInfo;
+import com.keepreal.madagascar.fossa.model.ReactionInfo;
 import com.keepreal.madagascar.fossa.util.MediaMessageConvertUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,9 +35,12 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +57,7 @@ public class FeedInfoService {
     private final SubscribeMembershipService subscribeMembershipService;
     private final FeedChargeService feedChargeService;
     private final FeedCollectionService feedCollectionService;
+    private final FeedCounterService feedCounterService;
 
     /**
      * Constructs the feed service
@@ -60,6 +69,7 @@ public class FeedInfoService {
      * @param subscribeMembershipService {@link SubscribeMembershipService}.
      * @param feedChargeService          {@link FeedChargeService}.
      * @param feedCollectionService      {@link FeedCollectionService}.
+     * @param feedCounterService         {@link FeedCounterService}.
      */
     public FeedInfoService(MongoTemplate mongoTemplate,
                            CommentService commentService,
@@ -67,7 +77,8 @@ public class FeedInfoService {
                            ReactionRepository reactionRepository,
                            SubscribeMembershipService subscribeMembershipService,
                            FeedChargeService feedChargeService,
-                           FeedCollectionService feedCollectionService) {
+                           FeedCollectionService feedCollectionService,
+                           FeedCounterService feedCounterService) {
         this.mongoTemplate = mongoTemplate;
         this.commentService = commentService;
         this.feedInfoRepository = feedInfoRepository;
@@ -75,6 +86,7 @@ public class FeedInfoService {
         this.subscribeMembershipService = subscribeMembershipService;
         this.feedChargeService = feedChargeService;
         this.feedCollectionService = feedCollectionService;
+        this.feedCounterService = feedCounterService;
     }
 
     /**
@@ -127,16 +139,97 @@ public class FeedInfoService {
     }
 
     /**
-     * Change feed count by feed id and type
+     * Increases the comments count and pushes the comment into the ring of last comments of the feed, the ring
+     * keeping the newest {@link Constants#DEFAULT_FEED_LAST_COMMENT_COUNT} only. Feeds without a ring yet are
+     * left alone, their ring is backfilled on the next read.
+     *
+     * @param commentInfo {@link CommentInfo}.
+     */
+    public void addComment(CommentInfo commentInfo) {
+        this.incFeedCount(commentInfo.getFeedId(), FeedCountType.COMMENTS_COUNT);
+
+        Update update = new Update();
+        update.push("lastComments")
+                .atPosition(Update.Position.FIRST)
+                .slice(Constants.DEFAULT_FEED_LAST_COMMENT_COUNT)
+                .each(commentInfo);
+        this.mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(commentInfo.getFeedId()).and("lastComments").exists(true)),
+                update,
+                FeedInfo.class);
+    }
+
+    /**
+     * Decreases the comments count and pulls the comment out of the ring of last comments of the feed, then
+     * refills the ring from the comment collection if the comment was in it.
+     *
+     * @param commentInfo {@link CommentInfo}.
+     */
+    public void removeComment(CommentInfo commentInfo) {
+        this.subFeedCount(commentInfo.getFeedId(), FeedCountType.COMMENTS_COUNT);
+
+        Update update = new Update()
+                .pull("lastComments", new Document("_id", commentInfo.getId()));
+        FeedInfo feedInfo = this.mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(commentInfo.getFeedId())), update, FeedInfo.class);
+
+        if (Objects.nonNull(feedInfo)
+                && Objects.nonNull(feedInfo.getLastComments())
+                && feedInfo.getLastComments().stream().anyMatch(comment -> commentInfo.getId().equals(comment.getId()))) {
+            this.refillLastComments(commentInfo.getFeedId());
+        }
+    }
+
+    /**
+     * Retrieves the last comments of the feed from its ring, backfilling the ring of feeds created before it.
+     *
+     * @param feedInfo {@link FeedInfo}.
+     * @return {@link CommentMessage}.
+     */
+    public List<CommentMessage> retrieveLastComments(FeedInfo feedInfo) {
+        List<CommentInfo> lastComments = feedInfo.getLastComments();
+        if (Objects.isNull(lastComments)) {
+            lastComments = this.commentService.findLastComments(feedInfo.getId(), Constants.DEFAULT_FEED_LAST_COMMENT_COUNT);
+            this.mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(feedInfo.getId()).and("lastComments").exists(false)),
+                    Update.update("lastComments", lastComments),
+                    FeedInfo.class);
+        }
+
+        return lastComments.stream()
+                .map(this.commentService::getCommentMessage)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Rewrites the ring of last comments from the comment collection, unless a comment newer than the ones read
+     * was pushed in the meantime, in which case that push already keeps the ring fresh.
+     *
+     * @param feedId Feed id.
+     */
+    private void refillLastComments(String feedId) {
+        List<CommentInfo> lastComments =
+                this.commentService.findLastComments(feedId, Constants.DEFAULT_FEED_LAST_COMMENT_COUNT);
+        List<String> commentIds = lastComments.stream()
+                .map(CommentInfo::getId)
+                .collect(Collectors.toList());
+
+        this.mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(feedId)
+                        .and("lastComments").not().elemMatch(Criteria.where("_id").nin(commentIds))),
+                Update.update("lastComments", lastComments),
+                FeedInfo.class);
+    }
+
+    /**
+     * Change feed count by feed id and type, coalesced with the other changes of the feed until the next flush.
      *
      * @param feedId feed id.
      * @param type   type to be changed.
      * @param count  add or sub count.
      */
     private void updateFeedCountByType(String feedId, String type, Integer count) {
-        Update update = new Update();
-        update.inc(type, count);
-        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(feedId)), update, FeedInfo.class);
+        this.feedCounterService.increment(feedId, type, count);
     }
 
     public TimelineFeedMessage getTimelineFeedMessage(FeedInfo feedInfo) {
@@ -186,11 +279,66 @@ public class FeedInfoService {
         boolean isLiked = reactionRepository.existsByFeedIdAndUserIdAndReactionTypeListContains(feedInfo.getId(), userId, ReactionType.REACTION_LIKE_VALUE);
         boolean isCollected = this.feedCollectionService.hasCollected(userId, feedInfo.getId());
 
-        List<CommentMessage> lastCommentMessage = this.commentService.getCommentsMessage(feedInfo.getId(), Constants.DEFAULT_FEED_LAST_COMMENT_COUNT);
+        List<CommentMessage> lastCommentMessage = this.retrieveLastComments(feedInfo);
 
         return this.getFeedMessage(feedInfo, userId, myMembershipIds, lastCommentMessage, isLiked, isCollected);
     }
 
+    /**
+     * Retrieves the feed messages for a page of feeds. Reactions, collections and feed charge accesses are
+     * resolved with one query or rpc each for the whole page instead of once per feed, last comments come with
+     * the feeds themselves.
+     *
+     * @param feedInfoList    {@link FeedInfo}.
+     * @param userId          User id (decide is liked).
+     * @param myMembershipIds User valid membership ids.
+     * @return {@link FeedMessage}.
+     */
+    public List<FeedMessage> getFeedMessages(List<FeedInfo> feedInfoList,
+                                             String userId,
+                                             List<String> myMembershipIds) {
+        List<FeedInfo> feedInfos = feedInfoList.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (feedInfos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> feedIds = feedInfos.stream()
+                .map(FeedInfo::getId)
+                .collect(Collectors.toList());
+
+        Set<String> likedFeedIds = this.reactionRepository.findByFeedIdInAndUserIdAndReactionTypeListContains(feedIds, userId, ReactionType.REACTION_LIKE_VALUE).stream()
+                .map(ReactionInfo::getFeedId)
+                .collect(Collectors.toSet());
+
+        Set<String> collectedFeedIds = this.feedCollectionService.findByFeedIdsAndUserId(feedIds, userId).stream()
+                .map(FeedCollection::getFeedId)
+                .collect(Collectors.toSet());
+
+        List<String> chargedFeedIds = feedInfos.stream()
+                .filter(feedInfo -> CollectionUtils.isEmpty(feedInfo.getMembershipIds()))
+                .filter(feedInfo -> Objects.nonNull(feedInfo.getPriceInCents()) && feedInfo.getPriceInCents() > 0L)
+                .filter(feedInfo -> !feedInfo.getHostId().equals(userId))
+                .map(FeedInfo::getId)
+                .collect(Collectors.toList());
+        Set<String> accessFeedIds = this.feedChargeService.retrieveFeedChargeAccessFeedIds(userId, chargedFeedIds);
+
+        Map<String, Map<String, Long>> counterDeltas = this.feedCounterService.retrieveUnflushedDeltas(feedInfos,
+                FeedCountType.LIKES_COUNT, FeedCountType.COMMENTS_COUNT, FeedCountType.REPOST_COUNT);
+
+        return feedInfos.stream()
+                .map(feedInfo -> this.getFeedMessage(feedInfo,
+                        userId,
+                        myMembershipIds,
+                        this.retrieveLastComments(feedInfo),
+                        likedFeedIds.contains(feedInfo.getId()),
+                        collectedFeedIds.contains(feedInfo.getId()),
+                        () -> accessFeedIds.contains(feedInfo.getId()),
+                        counterDeltas.getOrDefault(feedInfo.getId(), Collections.emptyMap())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Retrieves the feed message.
      *
@@ -211,6 +359,43 @@ public class FeedInfoService {
             return null;
         }
 
+        Map<String, Map<String, Long>> counterDeltas = this.feedCounterService.retrieveUnflushedDeltas(
+                Collections.singletonList(feedInfo),
+                FeedCountType.LIKES_COUNT, FeedCountType.COMMENTS_COUNT, FeedCountType.REPOST_COUNT);
+
+        return this.getFeedMessage(feedInfo, userId, myMembershipIds, lastCommentMessages, isLiked, isCollected,
+                () -> this.feedChargeService.retrieveFeedChargeAccess(userId, feedInfo.getId()),
+                counterDeltas.getOrDefault(feedInfo.getId(), Collections.emptyMap()));
+    }
+
+    /**
+     * Retrieves the feed message.
+     *
+     * @param feedInfo            {@link FeedInfo}.
+     * @param userId              User id (decide is liked).
+     * @param myMembershipIds     User valid membership ids.
+     * @param lastCommentMessages Last comment messages.
+     * @param isLiked             Feed liked by user or not.
+     * @param isCollected         Feed collected by user or not.
+     * @param feedChargeAccess    Whether the user has paid for the feed, only evaluated for charged feeds.
+     * @param counterDeltas       Count changes not flushed into the feed yet, by counter type.
+     * @return {@link FeedMessage}.
+     */
+    private FeedMessage getFeedMessage(FeedInfo feedInfo,
+                                       String userId,
+                                       List<String> myMembershipIds,
+                                       List<CommentMessage> lastCommentMessages,
+                                       boolean isLiked,
+                                       boolean isCollected,
+                                       BooleanSupplier feedChargeAccess,
+                                       Map<String, Long> counterDeltas) {
+        int commentsCount = feedInfo.getCommentsCount()
+                + counterDeltas.getOrDefault(FeedCountType.COMMENTS_COUNT, 0L).intValue();
+        int likesCount = feedInfo.getLikesCount()
+                + counterDeltas.getOrDefault(FeedCountType.LIKES_COUNT, 0L).intValue();
+        int repostCount = feedInfo.getRepostCount()
+                + counterDeltas.getOrDefault(FeedCountType.REPOST_COUNT, 0L).intValue();
+
         FeedMessage.Builder builder = FeedMessage.newBuilder()
                 .setId(feedInfo.getId())
                 .setIslandId(feedInfo.getIslandId())
@@ -220,9 +405,9 @@ public class FeedInfoService {
                 .setText(feedInfo.getText())
                 .addAllImageUris(feedInfo.getImageUrls() == null ? Collections.emptyList() : feedInfo.getImageUrls())
                 .setCreatedAt(feedInfo.getCreatedTime())
-                .setCommentsCount(feedInfo.getCommentsCount())
-                .setLikesCount(feedInfo.getLikesCount() < 0 ? 0 : feedInfo.getLikesCount())
-                .setRepostCount(feedInfo.getRepostCount())
+                .setCommentsCount(commentsCount < 0 ? 0 : commentsCount)
+                .setLikesCount(likesCount < 0 ? 0 : likesCount)
+                .setRepostCount(repostCount < 0 ? 0 : repostCount)
                 .addAllLastComments(lastCommentMessages)
                 .setIsLiked(isLiked)
                 .setIsDeleted(feedInfo.getDeleted())
@@ -238,7 +423,7 @@ public class FeedInfoService {
         List<String> membershipIds = feedInfo.getMembershipIds();
         if (Objects.isNull(membershipIds) || membershipIds.size() == 0) {
             if (Objects.nonNull(feedInfo.getPriceInCents()) && feedInfo.getPriceInCents() > 0L) {
-                builder.setIsAccess(feedInfo.getHostId().equals(userId) || this.feedChargeService.retrieveFeedChargeAccess(userId, feedInfo.getId()));
+                builder.setIsAccess(feedInfo.getHostId().equals(userId) || feedChargeAccess.getAsBoolean());
             } else {
                 builder.setIsAccess(true);
             }
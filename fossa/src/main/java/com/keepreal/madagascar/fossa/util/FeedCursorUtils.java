@@ -0,0 +1,81 @@
+package com.keepreal.madagascar.fossa.util;
+
+import com.keepreal.madagascar.fossa.model.FeedInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents the continuation tokens of the feed lists, an opaque encoding of the sort key of the last feed seen.
+ * The feed lists are sorted by updatedTime, createdTime and toppedTime descending with the id as tie-breaker, so
+ * a token resumes the list with a range query on those keys instead of skipping the pages before.
+ */
+public class FeedCursorUtils {
+
+    private static final String SEPARATOR = ":";
+    private static final String[] KEYS = {"updatedTime", "createdTime", "toppedTime"};
+
+    /**
+     * Encodes the sort key of the feed into a token.
+     *
+     * @param feedInfo {@link FeedInfo}.
+     * @return Token.
+     */
+    public static String encode(FeedInfo feedInfo) {
+        String raw = String.join(FeedCursorUtils.SEPARATOR,
+                FeedCursorUtils.toString(feedInfo.getUpdatedTime()),
+                FeedCursorUtils.toString(feedInfo.getCreatedTime()),
+                FeedCursorUtils.toString(feedInfo.getToppedTime()),
+                feedInfo.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the criteria matching the feeds sorted after the token.
+     *
+     * @param cursor Token.
+     * @return {@link Criteria}.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static Criteria after(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(FeedCursorUtils.SEPARATOR, FeedCursorUtils.KEYS.length + 1);
+        if (parts.length != FeedCursorUtils.KEYS.length + 1 || StringUtils.isEmpty(parts[FeedCursorUtils.KEYS.length])) {
+            throw new IllegalArgumentException("Malformed feed cursor.");
+        }
+
+        List<Criteria> branches = new ArrayList<>();
+        List<Criteria> equalities = new ArrayList<>();
+        for (int i = 0; i < FeedCursorUtils.KEYS.length; i++) {
+            Long value = StringUtils.isEmpty(parts[i]) ? null : Long.valueOf(parts[i]);
+            if (Objects.nonNull(value)) {
+                // Nulls sort last descending, $not $gte matches them along with the smaller values.
+                branches.add(FeedCursorUtils.and(equalities, Criteria.where(FeedCursorUtils.KEYS[i]).not().gte(value)));
+            }
+            equalities.add(Criteria.where(FeedCursorUtils.KEYS[i]).is(value));
+        }
+        branches.add(FeedCursorUtils.and(equalities, Criteria.where("id").lt(parts[FeedCursorUtils.KEYS.length])));
+
+        return new Criteria().orOperator(branches.toArray(new Criteria[0]));
+    }
+
+    private static Criteria and(List<Criteria> equalities, Criteria criteria) {
+        if (equalities.isEmpty()) {
+            return criteria;
+        }
+
+        List<Criteria> criteriaList = new ArrayList<>(equalities);
+        criteriaList.add(criteria);
+        return new Criteria().andOperator(criteriaList.toArray(new Criteria[0]));
+    }
+
+    private static String toString(Long value) {
+        return Objects.isNull(value) ? "" : String.valueOf(value);
+    }
+
+}
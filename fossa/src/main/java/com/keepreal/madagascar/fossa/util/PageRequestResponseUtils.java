@@ -42,4 +42,13 @@ public class PageRequestResponseUtils {
                 .build();
     }
 
+    public static PageResponse buildPageResponse(int pageIndex, int pageSize, int contentSize, boolean hasMore) {
+        return PageResponse.newBuilder()
+                .setPage(pageIndex)
+                .setPageSize(pageSize)
+                .setHasContent(contentSize > 0)
+                .setHasMore(hasMore)
+                .build();
+    }
+
 }
@@ -19,6 +19,14 @@ public class AliyunOssConfiguration {
     private String accessKey;
     private String accessSecret;
     private String bucketName;
+    /**
+     * Part size of the streamed image uploads, images not exceeding it are put in one request.
+     */
+    private Long multipartPartSize = 1024L * 1024L;
+    /**
+     * Max parts of a streamed image uploading concurrently, bounds the buffered parts per call.
+     */
+    private Integer multipartConcurrency = 4;
 
     /**
      * Constructs the oss client bean.
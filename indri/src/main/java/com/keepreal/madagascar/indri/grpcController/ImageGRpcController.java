@@ -5,8 +5,10 @@ import com.keepreal.madagascar.common.CommonStatus;
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.indri.MigrateImageRequest;
 import com.keepreal.madagascar.indri.ReactorImageServiceGrpc;
+import com.keepreal.madagascar.indri.UploadImageChunk;
 import com.keepreal.madagascar.indri.UploadImagesRequest;
 import com.keepreal.madagascar.indri.config.AliyunOssConfiguration;
+import com.keepreal.madagascar.indri.service.ImageStreamUploader;
 import com.keepreal.madagascar.indri.util.CommonStatusUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.lognet.springboot.grpc.GRpcService;
@@ -19,6 +21,7 @@ import reactor.core.scheduler.Schedulers;
 import java.io.ByteArrayInputStream;
 import java.util.AbstractMap;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -29,9 +32,14 @@ import java.util.stream.IntStream;
 @Slf4j
 public class ImageGRpcController extends ReactorImageServiceGrpc.ImageServiceImplBase {
 
+    private static final long MIN_MULTIPART_PART_SIZE = 100L * 1024L;
+    private static final int CHUNK_PREFETCH = 8;
+
     private final OSS ossClient;
     private final String bucketName;
     private final CommonStatusUtils commonStatusUtils;
+    private final int multipartPartSize;
+    private final int multipartConcurrency;
 
     /**
      * Constructs the image service overriding grpc with reactive behavior.
@@ -46,6 +54,10 @@ public class ImageGRpcController extends ReactorImageServiceGrpc.ImageServiceImp
         this.ossClient = ossClient;
         this.bucketName = aliyunOssConfiguration.getBucketName();
         this.commonStatusUtils = commonStatusUtils;
+        this.multipartPartSize = (int) Math.max(ImageGRpcController.MIN_MULTIPART_PART_SIZE,
+                Objects.isNull(aliyunOssConfiguration.getMultipartPartSize()) ? 0L : aliyunOssConfiguration.getMultipartPartSize());
+        this.multipartConcurrency = Math.max(1,
+                Objects.isNull(aliyunOssConfiguration.getMultipartConcurrency()) ? 0 : aliyunOssConfiguration.getMultipartConcurrency());
     }
 
     /**
@@ -74,6 +86,31 @@ public class ImageGRpcController extends ReactorImageServiceGrpc.ImageServiceImp
                 .onErrorReturn(this.commonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_GRPC_IMAGE_UPLOAD_ERROR));
     }
 
+    /**
+     * Implements the streaming upload images stub. Chunks are forwarded into oss parts as they arrive,
+     * the stream is only pulled as fast as the parts are uploaded.
+     *
+     * @param request Stream of {@link UploadImageChunk}.
+     * @return {@link CommonStatus}.
+     */
+    @Override
+    public Mono<CommonStatus> uploadImagesStream(Flux<UploadImageChunk> request) {
+        return Mono.defer(() -> {
+            ImageStreamUploader uploader = new ImageStreamUploader(this.ossClient,
+                    this.bucketName,
+                    this.multipartPartSize,
+                    this.multipartConcurrency,
+                    Schedulers.elastic());
+            return request.concatMap(uploader::accept, ImageGRpcController.CHUNK_PREFETCH)
+                    .then(Mono.defer(uploader::complete))
+                    .doOnError(error -> uploader.abort())
+                    .doOnCancel(uploader::abort);
+        })
+                .thenReturn(this.commonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC))
+                .doOnError(error -> log.error(error.toString()))
+                .onErrorReturn(this.commonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_GRPC_IMAGE_UPLOAD_ERROR));
+    }
+
     /**
      * Implements the migrate image grpc stub. Ali oss client does not support nio channels.
      *
@@ -0,0 +1,235 @@
+package com.keepreal.madagascar.indri.service;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.google.protobuf.ByteString;
+import com.keepreal.madagascar.indri.UploadImageChunk;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents the uploader of the images streamed in one call. Content is cut into fixed size parts
+ * uploaded as an oss multipart upload, at most the given number of parts in flight, so a call buffers
+ * no more than (concurrency + 1) parts. Images fitting in one part are put in a single request.
+ * Chunks must be accepted one after another, i.e. through concatMap.
+ */
+@Slf4j
+public class ImageStreamUploader {
+
+    private final OSS ossClient;
+    private final String bucketName;
+    private final int partSize;
+    private final int concurrency;
+    private final Scheduler scheduler;
+
+    private String imageName;
+    private byte[] buffer;
+    private int position;
+    private String uploadId;
+    private int partNumber;
+    private final Deque<CompletableFuture<PartETag>> inFlightParts = new ArrayDeque<>();
+    private final List<CompletableFuture<PartETag>> uploadedParts = new ArrayList<>();
+
+    /**
+     * Constructs the image stream uploader.
+     *
+     * @param ossClient   {@link OSS}.
+     * @param bucketName  Bucket name.
+     * @param partSize    Part size in bytes.
+     * @param concurrency Max parts uploading concurrently.
+     * @param scheduler   {@link Scheduler} running the blocking oss calls.
+     */
+    public ImageStreamUploader(OSS ossClient, String bucketName, int partSize, int concurrency, Scheduler scheduler) {
+        this.ossClient = ossClient;
+        this.bucketName = bucketName;
+        this.partSize = partSize;
+        this.concurrency = concurrency;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Accepts the next chunk.
+     *
+     * @param chunk {@link UploadImageChunk}.
+     * @return Completes when the chunk is buffered and the in flight parts are within the bound.
+     */
+    public Mono<Void> accept(UploadImageChunk chunk) {
+        switch (chunk.getPayloadCase()) {
+            case HEADER:
+                return this.completeImage()
+                        .then(Mono.fromRunnable(() -> this.startImage(chunk.getHeader().getImageName())));
+            case CONTENT:
+                if (Objects.isNull(this.imageName)) {
+                    return Mono.error(new IllegalStateException("Image content received before its header."));
+                }
+                return this.append(chunk.getContent());
+            default:
+                return Mono.empty();
+        }
+    }
+
+    /**
+     * Completes the last image of the call.
+     *
+     * @return Completes when all images are stored.
+     */
+    public Mono<Void> complete() {
+        return this.completeImage();
+    }
+
+    /**
+     * Aborts the multipart upload of the current image if any, so that no orphan parts are left.
+     */
+    public void abort() {
+        if (Objects.isNull(this.uploadId)) {
+            return;
+        }
+
+        String imageName = this.imageName;
+        String uploadId = this.uploadId;
+        this.uploadId = null;
+        Mono.fromRunnable(() -> this.ossClient.abortMultipartUpload(
+                new AbortMultipartUploadRequest(this.bucketName, imageName, uploadId)))
+                .subscribeOn(this.scheduler)
+                .doOnError(error -> log.error("Failed to abort multipart upload {} of {}.", uploadId, imageName, error))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+
+    private void startImage(String imageName) {
+        this.imageName = imageName;
+        this.buffer = new byte[this.partSize];
+        this.position = 0;
+        this.uploadId = null;
+        this.partNumber = 0;
+        this.inFlightParts.clear();
+        this.uploadedParts.clear();
+    }
+
+    private Mono<Void> append(ByteString content) {
+        List<byte[]> fullParts = new ArrayList<>();
+        int offset = 0;
+        while (offset < content.size()) {
+            int length = Math.min(content.size() - offset, this.partSize - this.position);
+            content.copyTo(this.buffer, offset, this.position, length);
+            offset += length;
+            this.position += length;
+
+            if (this.position == this.partSize) {
+                fullParts.add(this.buffer);
+                this.buffer = new byte[this.partSize];
+                this.position = 0;
+            }
+        }
+
+        if (fullParts.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return this.initiateUpload()
+                .then(Mono.fromRunnable(() -> fullParts.forEach(part -> this.uploadPart(part, part.length))))
+                .then(this.awaitInFlightParts(this.concurrency - 1));
+    }
+
+    private Mono<Void> initiateUpload() {
+        if (Objects.nonNull(this.uploadId)) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> this.ossClient.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(this.bucketName, this.imageName)).getUploadId())
+                .subscribeOn(this.scheduler)
+                .doOnNext(uploadId -> this.uploadId = uploadId)
+                .then();
+    }
+
+    private void uploadPart(byte[] bytes, int length) {
+        UploadPartRequest request = new UploadPartRequest();
+        request.setBucketName(this.bucketName);
+        request.setKey(this.imageName);
+        request.setUploadId(this.uploadId);
+        request.setPartNumber(++this.partNumber);
+        request.setPartSize(length);
+        request.setInputStream(new ByteArrayInputStream(bytes, 0, length));
+
+        CompletableFuture<PartETag> part = Mono.fromCallable(() -> this.ossClient.uploadPart(request).getPartETag())
+                .subscribeOn(this.scheduler)
+                .toFuture();
+        this.inFlightParts.addLast(part);
+        this.uploadedParts.add(part);
+    }
+
+    private Mono<Void> awaitInFlightParts(int maxInFlight) {
+        return Mono.defer(() -> {
+            this.inFlightParts.removeIf(part -> part.isDone() && !part.isCompletedExceptionally());
+            CompletableFuture<PartETag> failedPart = this.inFlightParts.stream()
+                    .filter(CompletableFuture::isCompletedExceptionally)
+                    .findFirst()
+                    .orElse(null);
+            if (Objects.nonNull(failedPart)) {
+                return Mono.fromFuture(failedPart).then();
+            }
+
+            if (this.inFlightParts.size() <= maxInFlight) {
+                return Mono.empty();
+            }
+            return Mono.fromFuture(this.inFlightParts.peekFirst())
+                    .then(this.awaitInFlightParts(maxInFlight));
+        });
+    }
+
+    private Mono<Void> completeImage() {
+        if (Objects.isNull(this.imageName)) {
+            return Mono.empty();
+        }
+
+        if (Objects.isNull(this.uploadId)) {
+            String imageName = this.imageName;
+            byte[] bytes = this.buffer;
+            int length = this.position;
+            this.imageName = null;
+            this.buffer = null;
+            return Mono.fromRunnable(() -> this.ossClient.putObject(this.bucketName,
+                    imageName,
+                    new ByteArrayInputStream(bytes, 0, length)))
+                    .subscribeOn(this.scheduler)
+                    .then();
+        }
+
+        if (this.position > 0) {
+            this.uploadPart(this.buffer, this.position);
+        }
+        this.buffer = null;
+
+        return this.awaitInFlightParts(0)
+                .then(Mono.fromCallable(() -> {
+                    List<PartETag> partETags = new ArrayList<>(this.uploadedParts.size());
+                    for (CompletableFuture<PartETag> part : this.uploadedParts) {
+                        partETags.add(part.join());
+                    }
+                    partETags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+                    return this.ossClient.completeMultipartUpload(
+                            new CompleteMultipartUploadRequest(this.bucketName, this.imageName, this.uploadId, partETags));
+                }).subscribeOn(this.scheduler))
+                .doOnSuccess(result -> {
+                    this.imageName = null;
+                    this.uploadId = null;
+                })
+                .then();
+    }
+
+}
@@ -2,11 +2,20 @@ package unitTests;
 
 import com.aliyun.oss.OSS;
 import com.aliyun.oss.OSSException;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadResult;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadResult;
 import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.aliyun.oss.model.UploadPartResult;
 import com.google.protobuf.ByteString;
 import com.keepreal.madagascar.common.CommonStatus;
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.indri.MigrateImageRequest;
+import com.keepreal.madagascar.indri.UploadImageChunk;
+import com.keepreal.madagascar.indri.UploadImageHeader;
 import com.keepreal.madagascar.indri.UploadImagesRequest;
 import com.keepreal.madagascar.indri.config.AliyunOssConfiguration;
 import com.keepreal.madagascar.indri.grpcController.ImageGRpcController;
@@ -24,6 +33,7 @@ import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -194,4 +204,131 @@ public class ImageControllerTests {
                 Mockito.refEq(new ByteArrayInputStream("test".getBytes())));
     }
 
+    /**
+     * Represents the streaming upload test for images fitting in one part.
+     */
+    @Test
+    public void uploadStreamSinglePartSuccess() {
+        Flux<UploadImageChunk> chunks = Flux.just(
+                this.buildHeaderChunk("1.jpg"),
+                this.buildContentChunk("abc"),
+                this.buildHeaderChunk("2.jpg"),
+                this.buildContentChunk("de"),
+                this.buildContentChunk("f"));
+
+        Mockito.when(this.ossClientMock.putObject(Mockito.eq(this.bucketName),
+                Mockito.anyString(),
+                Mockito.any(InputStream.class)))
+                .thenReturn(new PutObjectResult());
+
+        Mono<CommonStatus> mono = this.imageGRpcController.uploadImagesStream(chunks);
+
+        StepVerifier.create(mono)
+                .expectNext(this.commonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC))
+                .verifyComplete();
+
+        Mockito.verify(this.ossClientMock, Mockito.times(2)).putObject(Mockito.eq(this.bucketName),
+                Mockito.anyString(),
+                Mockito.any(InputStream.class));
+        Mockito.verify(this.ossClientMock, Mockito.never()).initiateMultipartUpload(Mockito.any());
+    }
+
+    /**
+     * Represents the streaming upload test for images cut into multiple parts.
+     */
+    @Test
+    public void uploadStreamMultipartSuccess() {
+        ReflectionTestUtils.setField(this.imageGRpcController, "multipartPartSize", 4);
+        Flux<UploadImageChunk> chunks = Flux.just(
+                this.buildHeaderChunk("1.jpg"),
+                this.buildContentChunk("abc"),
+                this.buildContentChunk("defgh"),
+                this.buildContentChunk("ij"));
+
+        this.mockMultipartUpload();
+        Mockito.when(this.ossClientMock.completeMultipartUpload(Mockito.any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(new CompleteMultipartUploadResult());
+
+        Mono<CommonStatus> mono = this.imageGRpcController.uploadImagesStream(chunks);
+
+        StepVerifier.create(mono)
+                .expectNext(this.commonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC))
+                .verifyComplete();
+
+        Mockito.verify(this.ossClientMock, Mockito.times(1)).initiateMultipartUpload(Mockito.any());
+        Mockito.verify(this.ossClientMock, Mockito.times(3)).uploadPart(Mockito.any());
+        Mockito.verify(this.ossClientMock, Mockito.times(1)).completeMultipartUpload(
+                Mockito.argThat(request -> request.getPartETags().size() == 3));
+        Mockito.verify(this.ossClientMock, Mockito.never()).putObject(Mockito.anyString(),
+                Mockito.anyString(),
+                Mockito.any(InputStream.class));
+    }
+
+    /**
+     * Represents the streaming upload test for a failed part.
+     */
+    @Test
+    public void uploadStreamPartFailed() {
+        ReflectionTestUtils.setField(this.imageGRpcController, "multipartPartSize", 4);
+        Flux<UploadImageChunk> chunks = Flux.just(
+                this.buildHeaderChunk("1.jpg"),
+                this.buildContentChunk("abcdefgh"));
+
+        this.mockMultipartUpload();
+        Mockito.when(this.ossClientMock.uploadPart(Mockito.any(UploadPartRequest.class)))
+                .thenThrow(new OSSException());
+
+        Mono<CommonStatus> mono = this.imageGRpcController.uploadImagesStream(chunks);
+
+        StepVerifier.create(mono)
+                .expectNext(this.commonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_GRPC_IMAGE_UPLOAD_ERROR))
+                .verifyComplete();
+
+        Mockito.verify(this.ossClientMock, Mockito.never()).completeMultipartUpload(Mockito.any());
+        Mockito.verify(this.ossClientMock, Mockito.timeout(1000L).times(1)).abortMultipartUpload(
+                Mockito.any(AbortMultipartUploadRequest.class));
+    }
+
+    /**
+     * Represents the streaming upload test for content without a header.
+     */
+    @Test
+    public void uploadStreamContentWithoutHeader() {
+        Mono<CommonStatus> mono = this.imageGRpcController.uploadImagesStream(
+                Flux.just(this.buildContentChunk("abc")));
+
+        StepVerifier.create(mono)
+                .expectNext(this.commonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_GRPC_IMAGE_UPLOAD_ERROR))
+                .verifyComplete();
+
+        Mockito.verifyZeroInteractions(this.ossClientMock);
+    }
+
+    private void mockMultipartUpload() {
+        InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("uploadId");
+        Mockito.when(this.ossClientMock.initiateMultipartUpload(Mockito.any(InitiateMultipartUploadRequest.class)))
+                .thenReturn(initiateResult);
+        Mockito.when(this.ossClientMock.uploadPart(Mockito.any(UploadPartRequest.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartRequest request = invocation.getArgument(0);
+                    UploadPartResult result = new UploadPartResult();
+                    result.setPartNumber(request.getPartNumber());
+                    result.setETag("etag" + request.getPartNumber());
+                    return result;
+                });
+    }
+
+    private UploadImageChunk buildHeaderChunk(String imageName) {
+        return UploadImageChunk.newBuilder()
+                .setHeader(UploadImageHeader.newBuilder().setImageName(imageName))
+                .build();
+    }
+
+    private UploadImageChunk buildContentChunk(String content) {
+        return UploadImageChunk.newBuilder()
+                .setContent(ByteString.copyFrom(content.getBytes()))
+                .build();
+    }
+
 }
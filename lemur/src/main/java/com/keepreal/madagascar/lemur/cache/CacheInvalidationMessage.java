@@ -0,0 +1,22 @@
+package com.keepreal.madagascar.lemur.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the invalidation broadcast to the local caches of the other lemur instances.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    private String instanceId;
+    private String cacheName;
+    /**
+     * The invalidated key, null if the whole cache is cleared.
+     */
+    private String key;
+
+}
@@ -0,0 +1,150 @@
+package com.keepreal.madagascar.lemur.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents a cache with a bounded in process tier in front of the shared redis tier.
+ * Writes go to both tiers and are broadcast so that the other instances drop their local copies.
+ */
+public class TwoTierCache implements Cache {
+
+    private final org.ehcache.Cache<Object, Object> localCache;
+    private final Cache remoteCache;
+    private final BiConsumer<String, Object> invalidationPublisher;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    /**
+     * Constructs the two tier cache.
+     *
+     * @param localCache            The local tier.
+     * @param remoteCache           The remote tier.
+     * @param invalidationPublisher Publishes the invalidated key, null key for clearing.
+     * @param meterRegistry         {@link MeterRegistry}.
+     */
+    public TwoTierCache(org.ehcache.Cache<Object, Object> localCache,
+                        Cache remoteCache,
+                        BiConsumer<String, Object> invalidationPublisher,
+                        MeterRegistry meterRegistry) {
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.hitCounter = meterRegistry.counter("lemur.cache.local", "cache", remoteCache.getName(), "result", "hit");
+        this.missCounter = meterRegistry.counter("lemur.cache.local", "cache", remoteCache.getName(), "result", "miss");
+    }
+
+    @Override
+    public String getName() {
+        return this.remoteCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object localValue = this.localCache.get(key);
+        if (Objects.nonNull(localValue)) {
+            this.hitCounter.increment();
+            return new SimpleValueWrapper(this.fromStoreValue(localValue));
+        }
+
+        this.missCounter.increment();
+        ValueWrapper valueWrapper = this.remoteCache.get(key);
+        if (Objects.nonNull(valueWrapper)) {
+            this.localCache.put(key, this.toStoreValue(valueWrapper.get()));
+        }
+        return valueWrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valueWrapper = this.get(key);
+        if (Objects.isNull(valueWrapper) || Objects.isNull(valueWrapper.get())) {
+            return null;
+        }
+
+        Object value = valueWrapper.get();
+        if (Objects.nonNull(type) && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper valueWrapper = this.get(key);
+        if (Objects.nonNull(valueWrapper)) {
+            return (T) valueWrapper.get();
+        }
+
+        T value = this.remoteCache.get(key, valueLoader);
+        this.localCache.put(key, this.toStoreValue(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        this.remoteCache.put(key, value);
+        this.localCache.put(key, this.toStoreValue(value));
+        this.invalidationPublisher.accept(this.getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = this.remoteCache.putIfAbsent(key, value);
+        if (Objects.isNull(existing)) {
+            this.localCache.put(key, this.toStoreValue(value));
+            this.invalidationPublisher.accept(this.getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        this.remoteCache.evict(key);
+        this.localCache.remove(key);
+        this.invalidationPublisher.accept(this.getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        this.remoteCache.clear();
+        this.localCache.clear();
+        this.invalidationPublisher.accept(this.getName(), null);
+    }
+
+    /**
+     * Drops the local copy of a key on invalidations from the other instances.
+     *
+     * @param key Key, null for the whole cache.
+     */
+    void invalidateLocal(Object key) {
+        if (Objects.isNull(key)) {
+            this.localCache.clear();
+        } else {
+            this.localCache.remove(key);
+        }
+    }
+
+    private Object toStoreValue(Object value) {
+        return Objects.isNull(value) ? NullValue.INSTANCE : value;
+    }
+
+    private Object fromStoreValue(Object value) {
+        return NullValue.INSTANCE.equals(value) ? null : value;
+    }
+
+}
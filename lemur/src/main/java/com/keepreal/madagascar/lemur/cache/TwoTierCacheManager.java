@@ -0,0 +1,159 @@
+package com.keepreal.madagascar.lemur.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.codec.JsonJacksonCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the cache manager putting a bounded local tier in front of the redis cache manager.
+ * Only the configured caches get a local tier, the others are served by the redis cache manager as is.
+ * Local copies are invalidated through a redis topic and expire after the local ttl regardless,
+ * which bounds the staleness if an invalidation is lost.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+    private static final String INVALIDATION_TOPIC = "lemur-cache-invalidation";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final CacheManager remoteCacheManager;
+    private final RTopic invalidationTopic;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LocalCacheConfig> localCacheConfigs;
+    private final org.ehcache.CacheManager localCacheManager;
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private int messageListenerId;
+    private int statusListenerId;
+
+    /**
+     * Constructs the two tier cache manager.
+     *
+     * @param remoteCacheManager The redis cache manager.
+     * @param redissonClient     {@link RedissonClient}.
+     * @param meterRegistry      {@link MeterRegistry}.
+     * @param localCacheConfigs  Local tier configs keyed by cache name.
+     */
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               RedissonClient redissonClient,
+                               MeterRegistry meterRegistry,
+                               Map<String, LocalCacheConfig> localCacheConfigs) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationTopic = redissonClient.getTopic(TwoTierCacheManager.INVALIDATION_TOPIC, new JsonJacksonCodec());
+        this.meterRegistry = meterRegistry;
+        this.localCacheConfigs = localCacheConfigs;
+        this.localCacheManager = CacheManagerBuilder.newCacheManagerBuilder().build(true);
+    }
+
+    /**
+     * Subscribes the invalidation topic. Local tiers are cleared on every (re)subscription
+     * since invalidations published while disconnected are lost.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        this.messageListenerId = this.invalidationTopic.addListener(CacheInvalidationMessage.class,
+                (channel, message) -> this.onInvalidation(message));
+        this.statusListenerId = this.invalidationTopic.addListener(new BaseStatusListener() {
+            @Override
+            public void onSubscribe(String channel) {
+                caches.values().forEach(cache -> cache.invalidateLocal(null));
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        this.invalidationTopic.removeListener(this.messageListenerId, this.statusListenerId);
+        this.localCacheManager.close();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        LocalCacheConfig localCacheConfig = this.localCacheConfigs.get(name);
+        if (Objects.isNull(localCacheConfig)) {
+            return this.remoteCacheManager.getCache(name);
+        }
+
+        return this.caches.computeIfAbsent(name, cacheName -> new TwoTierCache(
+                this.localCacheManager.createCache(cacheName,
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(localCacheConfig.getMaxEntries()))
+                                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(localCacheConfig.getTimeToLive()))),
+                this.remoteCacheManager.getCache(cacheName),
+                this::publishInvalidation,
+                this.meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.remoteCacheManager.getCacheNames();
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        try {
+            this.invalidationTopic.publish(new CacheInvalidationMessage(this.instanceId,
+                    cacheName,
+                    Objects.isNull(key) ? null : key.toString()));
+        } catch (Exception exception) {
+            log.error("Failed to publish invalidation of {} in cache {}.", key, cacheName, exception);
+        }
+    }
+
+    private void onInvalidation(CacheInvalidationMessage message) {
+        if (this.instanceId.equals(message.getInstanceId())) {
+            return;
+        }
+
+        TwoTierCache cache = this.caches.get(message.getCacheName());
+        if (Objects.nonNull(cache)) {
+            cache.invalidateLocal(message.getKey());
+        }
+    }
+
+    /**
+     * Represents the local tier config of a cache.
+     */
+    public static class LocalCacheConfig {
+
+        private final long maxEntries;
+        private final Duration timeToLive;
+
+        /**
+         * Constructs the local cache config.
+         *
+         * @param maxEntries Max entries held in heap.
+         * @param timeToLive Time to live of an entry.
+         */
+        public LocalCacheConfig(long maxEntries, Duration timeToLive) {
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return this.maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return this.timeToLive;
+        }
+
+    }
+
+}
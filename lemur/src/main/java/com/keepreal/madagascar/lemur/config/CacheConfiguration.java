@@ -1,9 +1,9 @@
 package com.keepreal.madagascar.lemur.config;
 
+import com.keepreal.madagascar.lemur.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.redisson.api.RedissonClient;
-import org.redisson.client.codec.Codec;
-import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.spring.cache.CacheConfig;
 import org.redisson.spring.cache.RedissonSpringCacheManager;
 import org.springframework.cache.CacheManager;
@@ -17,6 +17,7 @@ import org.springframework.context.annotation.Primary;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -28,15 +29,22 @@ import java.util.Objects;
 @Configuration
 public class CacheConfiguration {
 
+    private static final long LOCAL_CACHE_MAX_ENTRIES = 20_000L;
+    private static final Duration LOCAL_CACHE_TIME_TO_LIVE = Duration.ofMinutes(5);
+
     private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Constructs the caching configurations.
      *
      * @param redissonClient {@link RedissonClient}.
+     * @param meterRegistry  {@link MeterRegistry}.
      */
-    public CacheConfiguration(RedissonClient redissonClient) {
+    public CacheConfiguration(RedissonClient redissonClient,
+                              MeterRegistry meterRegistry) {
         this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -68,9 +76,10 @@ public class CacheConfiguration {
     }
 
     /**
-     * Represents the redis for caching.
+     * Represents the redis for caching. The hot profile caches get a bounded local tier in front of redis,
+     * kept coherent across instances by invalidations over redis pub/sub.
      *
-     * @return {@link RedissonSpringCacheManager}.
+     * @return {@link TwoTierCacheManager}.
      */
     @Bean
     public CacheManager redisCacheManager() {
@@ -82,7 +91,17 @@ public class CacheConfiguration {
         config.put("ShortLinks", new CacheConfig(24 * 60 * 60 * 1000, 0));
         config.put("IncomeMessage", new CacheConfig(3 * 60 * 1000, 0));
         config.put("PermanentQrCodeMessage", new CacheConfig(0, 7 * 24 * 60 * 60 * 1000));
-        return new RedissonSpringCacheManager(this.redissonClient, config);
+        TwoTierCacheManager.LocalCacheConfig localCacheConfig =
+                new TwoTierCacheManager.LocalCacheConfig(CacheConfiguration.LOCAL_CACHE_MAX_ENTRIES, CacheConfiguration.LOCAL_CACHE_TIME_TO_LIVE);
+        Map<String, TwoTierCacheManager.LocalCacheConfig> localConfig = new HashMap<>(4);
+        localConfig.put("IslandMessage", localCacheConfig);
+        localConfig.put("UserMessage", localCacheConfig);
+        localConfig.put("MembershipMessage", localCacheConfig);
+
+        return new TwoTierCacheManager(new RedissonSpringCacheManager(this.redissonClient, config),
+                this.redissonClient,
+                this.meterRegistry,
+                localConfig);
     }
 
 }
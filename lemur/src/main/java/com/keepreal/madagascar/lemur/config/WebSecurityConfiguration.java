@@ -1,8 +1,8 @@
 package com.keepreal.madagascar.lemur.config;
 
 import com.keepreal.madagascar.lemur.filters.AuditUserFilter;
+import com.keepreal.madagascar.lemur.service.EhcacheService;
 import com.keepreal.madagascar.lemur.service.GeoIpService;
-import com.keepreal.madagascar.lemur.service.UserService;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,18 +29,18 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebSecurityConfiguration extends ResourceServerConfigurerAdapter {
 
     private final GeoIpService geoIpService;
-    private final UserService userService;
+    private final EhcacheService ehcacheService;
 
     /**
      * Constructs the web security configuration.
      *
-     * @param geoIpService {@link GeoIpService}.
-     * @param userService  {@link UserService}.
+     * @param geoIpService   {@link GeoIpService}.
+     * @param ehcacheService {@link EhcacheService}.
      */
     public WebSecurityConfiguration(GeoIpService geoIpService,
-                                    UserService userService) {
+                                    EhcacheService ehcacheService) {
         this.geoIpService = geoIpService;
-        this.userService = userService;
+        this.ehcacheService = ehcacheService;
     }
 
     /**
@@ -86,7 +86,7 @@ public class WebSecurityConfiguration extends ResourceServerConfigurerAdapter {
                 .anyRequest().authenticated();
 
         httpSecurity.headers().cacheControl();
-        httpSecurity.addFilterAfter(new AuditUserFilter(this.userService, this.geoIpService),
+        httpSecurity.addFilterAfter(new AuditUserFilter(this.ehcacheService, this.geoIpService),
                 UsernamePasswordAuthenticationFilter.class);
 
     }
@@ -0,0 +1,51 @@
+package com.keepreal.madagascar.lemur.config.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the interceptor applying the configured deadline to calls made without one. A method deadline is looked
+ * up by the full method name, then by the service name, before falling back to the default; a non positive one
+ * exempts the method, which is meant for the non idempotent writes such as payments, whose client side timeout
+ * would leave the caller unaware of a write the server still commits.
+ */
+public class DeadlineClientInterceptor implements ClientInterceptor {
+
+    private final long defaultDeadlineInMS;
+    private final Map<String, Long> methodDeadlinesInMS;
+
+    /**
+     * Constructs the deadline interceptor.
+     *
+     * @param defaultDeadlineInMS Default deadline, non positive for no deadline.
+     * @param methodDeadlinesInMS Deadlines keyed by full method name or service name, non positive for no deadline.
+     */
+    public DeadlineClientInterceptor(long defaultDeadlineInMS, Map<String, Long> methodDeadlinesInMS) {
+        this.defaultDeadlineInMS = defaultDeadlineInMS;
+        this.methodDeadlinesInMS = methodDeadlinesInMS;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        if (Objects.isNull(callOptions.getDeadline())) {
+            Long deadlineInMS = this.methodDeadlinesInMS.get(method.getFullMethodName());
+            if (Objects.isNull(deadlineInMS)) {
+                deadlineInMS = this.methodDeadlinesInMS.getOrDefault(method.getServiceName(), this.defaultDeadlineInMS);
+            }
+            if (deadlineInMS > 0L) {
+                callOptions = callOptions.withDeadlineAfter(deadlineInMS, TimeUnit.MILLISECONDS);
+            }
+        }
+        return next.newCall(method, callOptions);
+    }
+
+}
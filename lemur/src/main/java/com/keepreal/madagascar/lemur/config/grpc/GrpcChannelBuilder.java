@@ -0,0 +1,177 @@
+package com.keepreal.madagascar.lemur.config.grpc;
+
+import io.grpc.Channel;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Represents the builder of the downstream channels. Each channel is a pool of managed channels
+ * balancing round robin over the resolved addresses, with keepalive, default deadlines,
+ * a retry or hedging policy for the idempotent methods and a latency histogram.
+ */
+@Slf4j
+public class GrpcChannelBuilder {
+
+    private static final long SHUTDOWN_TIMEOUT_IN_SECONDS = 5L;
+
+    private final MeterRegistry meterRegistry;
+    private final List<ClientInterceptor> commonInterceptors;
+    private final List<PooledChannel> pooledChannels = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs the grpc channel builder.
+     *
+     * @param meterRegistry      {@link MeterRegistry}.
+     * @param commonInterceptors Interceptors applied to every channel, e.g. tracing.
+     */
+    public GrpcChannelBuilder(MeterRegistry meterRegistry, ClientInterceptor... commonInterceptors) {
+        this.meterRegistry = meterRegistry;
+        this.commonInterceptors = Arrays.asList(commonInterceptors);
+    }
+
+    /**
+     * Builds the channel to the configured host and port.
+     *
+     * @param downstream    Downstream name.
+     * @param configuration {@link GrpcConfiguration}.
+     * @param customizer    Customizes the managed channel builder, e.g. message size limits.
+     * @return {@link Channel}.
+     */
+    public Channel build(String downstream, GrpcConfiguration configuration, UnaryOperator<ManagedChannelBuilder<?>> customizer) {
+        String target = String.format("dns:///%s:%d", configuration.getHost(), configuration.getPort());
+        return this.build(downstream,
+                configuration,
+                () -> customizer.apply(ManagedChannelBuilder.forTarget(target).usePlaintext()));
+    }
+
+    /**
+     * Builds the channel to the configured host and port.
+     *
+     * @param downstream    Downstream name.
+     * @param configuration {@link GrpcConfiguration}.
+     * @return {@link Channel}.
+     */
+    public Channel build(String downstream, GrpcConfiguration configuration) {
+        return this.build(downstream, configuration, UnaryOperator.identity());
+    }
+
+    /**
+     * Builds the channel from the given managed channel builders, e.g. in process ones.
+     *
+     * @param downstream      Downstream name.
+     * @param configuration   {@link GrpcConfiguration}.
+     * @param builderSupplier Supplies a managed channel builder per pooled channel.
+     * @return {@link Channel}.
+     */
+    public Channel build(String downstream, GrpcConfiguration configuration, Supplier<ManagedChannelBuilder<?>> builderSupplier) {
+        Map<String, ?> serviceConfig = GrpcChannelBuilder.buildServiceConfig(configuration);
+        List<ManagedChannel> channels = IntStream.range(0, Math.max(1, configuration.getPoolSize()))
+                .mapToObj(i -> builderSupplier.get()
+                        .defaultLoadBalancingPolicy("round_robin")
+                        .keepAliveTime(configuration.getKeepAliveTimeInSeconds(), TimeUnit.SECONDS)
+                        .keepAliveTimeout(configuration.getKeepAliveTimeoutInSeconds(), TimeUnit.SECONDS)
+                        .disableServiceConfigLookUp()
+                        .defaultServiceConfig(serviceConfig)
+                        .enableRetry()
+                        .build())
+                .collect(Collectors.toList());
+        PooledChannel pooledChannel = new PooledChannel(channels);
+        this.pooledChannels.add(pooledChannel);
+
+        List<ClientInterceptor> interceptors = new ArrayList<>(this.commonInterceptors);
+        interceptors.add(new DeadlineClientInterceptor(configuration.getDeadlineInMS(), configuration.getMethodDeadlinesInMS()));
+        interceptors.add(new LatencyClientInterceptor(downstream, this.meterRegistry));
+        return ClientInterceptors.intercept(pooledChannel, interceptors);
+    }
+
+    /**
+     * Shuts down all the channels built.
+     */
+    public void shutdown() {
+        for (PooledChannel pooledChannel : this.pooledChannels) {
+            try {
+                pooledChannel.shutdown(GrpcChannelBuilder.SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Builds the service config holding the retry or hedging policy of the retryable methods.
+     *
+     * @param configuration {@link GrpcConfiguration}.
+     * @return Service config in its json map form.
+     */
+    static Map<String, ?> buildServiceConfig(GrpcConfiguration configuration) {
+        Map<String, Object> serviceConfig = new HashMap<>();
+        if (configuration.getRetryableMethods().isEmpty()) {
+            return serviceConfig;
+        }
+
+        List<Map<String, Object>> names = configuration.getRetryableMethods().stream()
+                .map(GrpcChannelBuilder::buildMethodName)
+                .collect(Collectors.toList());
+
+        Map<String, Object> methodConfig = new HashMap<>();
+        methodConfig.put("name", names);
+        if (configuration.getHedgingDelayInMS() > 0L) {
+            Map<String, Object> hedgingPolicy = new HashMap<>();
+            hedgingPolicy.put("maxAttempts", configuration.getMaxAttempts().doubleValue());
+            hedgingPolicy.put("hedgingDelay", GrpcChannelBuilder.toDuration(configuration.getHedgingDelayInMS()));
+            hedgingPolicy.put("nonFatalStatusCodes", Collections.singletonList("UNAVAILABLE"));
+            methodConfig.put("hedgingPolicy", hedgingPolicy);
+        } else {
+            Map<String, Object> retryPolicy = new HashMap<>();
+            retryPolicy.put("maxAttempts", configuration.getMaxAttempts().doubleValue());
+            retryPolicy.put("initialBackoff", "0.05s");
+            retryPolicy.put("maxBackoff", "0.5s");
+            retryPolicy.put("backoffMultiplier", 2.0D);
+            retryPolicy.put("retryableStatusCodes", Collections.singletonList("UNAVAILABLE"));
+            methodConfig.put("retryPolicy", retryPolicy);
+        }
+
+        Map<String, Object> retryThrottling = new HashMap<>();
+        retryThrottling.put("maxTokens", 10.0D);
+        retryThrottling.put("tokenRatio", 0.1D);
+
+        serviceConfig.put("methodConfig", Collections.singletonList(methodConfig));
+        serviceConfig.put("retryThrottling", retryThrottling);
+        return serviceConfig;
+    }
+
+    private static Map<String, Object> buildMethodName(String retryableMethod) {
+        Map<String, Object> name = new HashMap<>();
+        int index = retryableMethod.indexOf('/');
+        if (index < 0) {
+            name.put("service", retryableMethod);
+        } else {
+            name.put("service", retryableMethod.substring(0, index));
+            name.put("method", retryableMethod.substring(index + 1));
+        }
+        return name;
+    }
+
+    private static String toDuration(long milliseconds) {
+        return String.format("%d.%03ds", milliseconds / 1000L, milliseconds % 1000L);
+    }
+
+}
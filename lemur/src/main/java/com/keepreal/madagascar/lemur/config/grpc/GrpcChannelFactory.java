@@ -1,9 +1,10 @@
 package com.keepreal.madagascar.lemur.config.grpc;
 
 import io.grpc.Channel;
-import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.grpc.TracingClientInterceptor;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,7 +13,7 @@ import org.springframework.context.annotation.Configuration;
  * Represents the grpc channel factory.
  */
 @Configuration
-public class GrpcChannelFactory {
+public class GrpcChannelFactory implements DisposableBean {
 
     private final GrpcConfiguration asityConfiguration;
     private final GrpcConfiguration couaConfiguration;
@@ -25,7 +26,7 @@ public class GrpcChannelFactory {
     private final GrpcConfiguration hoopoeConfiguration;
     private final GrpcConfiguration angonokaConfiguration;
     private final GrpcConfiguration hawksbillConfiguration;
-    private final TracingClientInterceptor interceptor;
+    private final GrpcChannelBuilder channelBuilder;
 
     /**
      * Constructs the grpc channels factory.
@@ -41,6 +42,7 @@ public class GrpcChannelFactory {
      * @param angonokaConfiguration Angonoka grpc configuration.
      * @param hawksbillConfiguration Hawksbill grpc configuration.
      * @param tracer                {@link Tracer}.
+     * @param meterRegistry         {@link MeterRegistry}.
      */
     public GrpcChannelFactory(@Qualifier("asityConfiguration") GrpcConfiguration asityConfiguration,
                               @Qualifier("couaConfiguration") GrpcConfiguration couaConfiguration,
@@ -53,7 +55,8 @@ public class GrpcChannelFactory {
                               @Qualifier("hoopoeConfiguration") GrpcConfiguration hoopoeConfiguration,
                               @Qualifier("angonokaConfiguration") GrpcConfiguration angonokaConfiguration,
                               @Qualifier("hawksbillConfiguration") GrpcConfiguration hawksbillConfiguration,
-                              Tracer tracer) {
+                              Tracer tracer,
+                              MeterRegistry meterRegistry) {
         this.asityConfiguration = asityConfiguration;
         this.couaConfiguration = couaConfiguration;
         this.fossaConfiguration = fossaConfiguration;
@@ -65,10 +68,11 @@ public class GrpcChannelFactory {
         this.hoopoeConfiguration = hoopoeConfiguration;
         this.angonokaConfiguration = angonokaConfiguration;
         this.hawksbillConfiguration = hawksbillConfiguration;
-        this.interceptor = TracingClientInterceptor
-                .newBuilder()
-                .withTracer(tracer)
-                .build();
+        this.channelBuilder = new GrpcChannelBuilder(meterRegistry,
+                TracingClientInterceptor
+                        .newBuilder()
+                        .withTracer(tracer)
+                        .build());
     }
 
     /**
@@ -78,10 +82,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "couaChannel")
     public Channel getCouaChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.couaConfiguration.getHost(), this.couaConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("coua", this.couaConfiguration);
     }
 
     /**
@@ -91,10 +92,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "fossaChannel")
     public Channel getFossaChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.fossaConfiguration.getHost(), this.fossaConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("fossa", this.fossaConfiguration);
     }
 
     /**
@@ -104,12 +102,10 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "indriChannel")
     public Channel getIndriChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.indriConfiguration.getHost(), this.indriConfiguration.getPort())
-                .usePlaintext()
-                .maxInboundMessageSize(6291456)
-                .maxInboundMetadataSize(6291456)
-                .build());
+        return this.channelBuilder.build("indri", this.indriConfiguration,
+                builder -> builder
+                        .maxInboundMessageSize(6291456)
+                        .maxInboundMetadataSize(6291456));
     }
 
     /**
@@ -119,10 +115,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "baobobChannel")
     public Channel getBaobobChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.baobobConfiguration.getHost(), this.baobobConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("baobob", this.baobobConfiguration);
     }
 
     /**
@@ -132,10 +125,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "tenrecsChannel")
     public Channel getTenrecsChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.tenrecsConfiguration.getHost(), this.tenrecsConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("tenrecs", this.tenrecsConfiguration);
     }
 
     /**
@@ -145,10 +135,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "mantellaChannel")
     public Channel getMantellaChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.mantellaConfiguration.getHost(), this.mantellaConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("mantella", this.mantellaConfiguration);
     }
 
     /**
@@ -158,10 +145,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "vangaChannel")
     public Channel getVangaChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.vangaConfiguration.getHost(), this.vangaConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("vanga", this.vangaConfiguration);
     }
 
     /**
@@ -171,10 +155,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "asityChannel")
     public Channel getAsityChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.asityConfiguration.getHost(), this.asityConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("asity", this.asityConfiguration);
     }
 
     /**
@@ -184,10 +165,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "hoopoeChannel")
     public Channel getHoopoeChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.hoopoeConfiguration.getHost(), this.hoopoeConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("hoopoe", this.hoopoeConfiguration);
     }
 
     /**
@@ -197,10 +175,7 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "angonokaChannel")
     public Channel getAngonokaChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.angonokaConfiguration.getHost(), this.angonokaConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("angonoka", this.angonokaConfiguration);
     }
 
     /**
@@ -210,10 +185,15 @@ public class GrpcChannelFactory {
      */
     @Bean(name = "hawksbillChannel")
     public Channel getHawksbillChannel() {
-        return this.interceptor.intercept(ManagedChannelBuilder
-                .forAddress(this.hawksbillConfiguration.getHost(), this.hawksbillConfiguration.getPort())
-                .usePlaintext()
-                .build());
+        return this.channelBuilder.build("hawksbill", this.hawksbillConfiguration);
+    }
+
+    /**
+     * Shuts down the channels on context close.
+     */
+    @Override
+    public void destroy() {
+        this.channelBuilder.shutdown();
     }
 
 }
@@ -3,6 +3,11 @@ package com.keepreal.madagascar.lemur.config.grpc;
 import lombok.Data;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Represents the grpc configurations for grpc.
  */
@@ -12,5 +17,29 @@ public class GrpcConfiguration {
 
     private String host;
     private Integer port;
+    /**
+     * Number of channels, i.e. http/2 connections per resolved address, the calls are spread over.
+     */
+    private Integer poolSize = 2;
+    private Long keepAliveTimeInSeconds = 30L;
+    private Long keepAliveTimeoutInSeconds = 10L;
+    /**
+     * Deadline of calls made without one, non positive for no deadline.
+     */
+    private Long deadlineInMS = 5000L;
+    /**
+     * Deadlines keyed by full method name, e.g. IslandService/RetrieveIslandById, or service name for all methods.
+     * Non positive for no deadline, e.g. for the non idempotent writes.
+     */
+    private Map<String, Long> methodDeadlinesInMS = new HashMap<>();
+    /**
+     * Idempotent methods retried on unavailable, either full method names or service names for all methods.
+     */
+    private List<String> retryableMethods = new ArrayList<>();
+    private Integer maxAttempts = 3;
+    /**
+     * Hedges the retryable methods instead of retrying when positive.
+     */
+    private Long hedgingDelayInMS = 0L;
 
 }
@@ -0,0 +1,63 @@
+package com.keepreal.madagascar.lemur.config.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the interceptor recording the latency histogram of the calls to a downstream.
+ */
+public class LatencyClientInterceptor implements ClientInterceptor {
+
+    private static final String METER_NAME = "lemur.grpc.client";
+
+    private final String downstream;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs the latency interceptor.
+     *
+     * @param downstream    Downstream name.
+     * @param meterRegistry {@link MeterRegistry}.
+     */
+    public LatencyClientInterceptor(String downstream, MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                long startTime = System.nanoTime();
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        Timer.builder(LatencyClientInterceptor.METER_NAME)
+                                .tag("downstream", downstream)
+                                .tag("method", method.getFullMethodName())
+                                .tag("status", status.getCode().name())
+                                .publishPercentileHistogram()
+                                .register(meterRegistry)
+                                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+
+}
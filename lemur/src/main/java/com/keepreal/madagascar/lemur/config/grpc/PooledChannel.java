@@ -0,0 +1,62 @@
+package com.keepreal.madagascar.lemur.config.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a channel spreading calls over several managed channels to the same target,
+ * so that the throughput is not capped by the concurrent stream limit of a single http/2 connection.
+ */
+public class PooledChannel extends Channel {
+
+    private final List<ManagedChannel> channels;
+    private final AtomicInteger index = new AtomicInteger();
+
+    /**
+     * Constructs the pooled channel.
+     *
+     * @param channels Managed channels to the same target.
+     */
+    public PooledChannel(List<ManagedChannel> channels) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("Pooled channel requires at least one channel.");
+        }
+        this.channels = channels;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> methodDescriptor,
+                                                         CallOptions callOptions) {
+        int next = Math.floorMod(this.index.getAndIncrement(), this.channels.size());
+        return this.channels.get(next).newCall(methodDescriptor, callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return this.channels.get(0).authority();
+    }
+
+    /**
+     * Shuts down the pooled channels, waiting for in flight calls up to the timeout.
+     *
+     * @param timeout Timeout.
+     * @param unit    Time unit.
+     * @throws InterruptedException Interrupted while waiting.
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        this.channels.forEach(ManagedChannel::shutdown);
+        for (ManagedChannel channel : this.channels) {
+            if (!channel.awaitTermination(timeout, unit)) {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+}
@@ -201,6 +201,8 @@ public class AuditController {
     public ResponseEntity<IslandDiscoveryResponse> apiV0IslandsDiscoveryGet() {
         List<DiscoverIslandMessage> discoverIslandMessageList = this.islandService.retrieveIslandsInDiscovery(true);
 
+        this.islandDTOFactory.primeDiscoverIslands(discoverIslandMessageList);
+
         IslandDiscoveryResponse response = new IslandDiscoveryResponse();
         response.setData(discoverIslandMessageList.stream()
                 .filter(Objects::nonNull)
@@ -240,6 +242,8 @@ public class AuditController {
 
         Map<String, FeedGroupMessage> feedGroupMessageMap = this.generateFeedGroupMap(feeds);
 
+        this.feedDTOFactory.prime(feeds);
+
         TimelinesResponse response = new TimelinesResponse();
         response.setData(feeds
                 .stream()
@@ -58,6 +58,8 @@ public class FeedCollectionController implements FeedCollectionApi {
         Map<String, FeedGroupMessage> feedGroupMessageMap = this.generateFeedGroupMap(collectedFeedsResponse.getFeedList());
         Map<String, Long> feedCollectionMessageMap = collectedFeedsResponse.getFeedCollectionList().stream().collect(Collectors.toMap(FeedCollectionMessage::getFeedId, FeedCollectionMessage::getUpdatedTime, (k1, k2) -> k1));
 
+        this.feedDTOFactory.prime(collectedFeedsResponse.getFeedList());
+
         FeedCollectionsResponse response = new FeedCollectionsResponse();
         response.setData(collectedFeedsResponse.getFeedList()
                 .stream()
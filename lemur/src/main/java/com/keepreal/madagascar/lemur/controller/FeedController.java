@@ -241,6 +241,8 @@ public class FeedController implements FeedApi {
 
         Map<String, List<MembershipMessage>> feedMembershipMap = this.generateFeedMembershipMap(feedsResponse.getFeedList());
 
+        this.feedDTOFactory.prime(feedsResponse.getFeedList());
+
         response.setData(feedsResponse.getFeedList()
                 .stream()
                 .map(feed -> this.feedDTOFactory.valueOf(feed,
@@ -275,6 +277,8 @@ public class FeedController implements FeedApi {
 
         Map<String, List<MembershipMessage>> feedMembershipMap = this.generateFeedMembershipMap(entry.getValue().getFeedList());
 
+        this.feedDTOFactory.prime(entry.getValue().getFeedList());
+
         TimelinesResponse response = new TimelinesResponse();
         response.setData(entry.getValue().getFeedList()
                 .stream()
@@ -356,6 +360,8 @@ public class FeedController implements FeedApi {
 
         Map<String, List<MembershipMessage>> feedMembershipMap = this.generateFeedMembershipMap(feedsResponse.getFeedList());
 
+        this.feedDTOFactory.prime(feedsResponse.getFeedList());
+
         swagger.model.FeedsResponse response = new swagger.model.FeedsResponse();
         response.setData(feedsResponse.getFeedList()
                 .stream()
@@ -391,6 +397,8 @@ public class FeedController implements FeedApi {
 
         Map<String, List<MembershipMessage>> feedMembershipMap = this.generateFeedMembershipMap(feedsResponse.getFeedList());
 
+        this.feedDTOFactory.prime(feedsResponse.getFeedList());
+
         TimelinesResponse response = new TimelinesResponse();
         response.setData(feedsResponse.getFeedList()
                 .stream()
@@ -413,6 +421,8 @@ public class FeedController implements FeedApi {
      * @param minTimestamp      timestamp after (optional, default to 0).
      * @param pageSize          size of a page (optional, default to 10).
      * @param includeChargeable Whether includes the chargeable feeds.
+     * @param isWorks           (optional) Whether filter by works.
+     * @param cursor            (optional) Next cursor of the previous page.
      * @return {@link swagger.model.FeedsResponse}.
      */
     @Override
@@ -422,7 +432,8 @@ public class FeedController implements FeedApi {
                                                                    Long maxTimestamp,
                                                                    Integer pageSize,
                                                                    Boolean includeChargeable,
-                                                                   Boolean isWorks) {
+                                                                   Boolean isWorks,
+                                                                   String cursor) {
         String userId = HttpContextUtils.getUserIdFromContext();
         IslandMessage islandMessage = this.islandService.retrieveIslandById(id);
 
@@ -432,7 +443,7 @@ public class FeedController implements FeedApi {
         }
 
         com.keepreal.madagascar.fossa.FeedsResponse normalFeedsResponse =
-                this.feedService.retrieveIslandFeeds(id, fromHost, userId, minTimestamp, maxTimestamp, 0, pageSize, true, isWorks);
+                this.feedService.retrieveIslandFeeds(id, fromHost, userId, minTimestamp, maxTimestamp, 0, pageSize, true, isWorks, cursor);
 
         Map<String, List<MembershipMessage>> feedMembershipMap = this.generateFeedMembershipMap(normalFeedsResponse.getFeedList());
         Map<String, FeedGroupMessage> feedGroupMessageMap = this.generateFeedGroupMap(normalFeedsResponse.getFeedList());
@@ -440,6 +451,8 @@ public class FeedController implements FeedApi {
         FeedsResponseV2 response = new FeedsResponseV2();
         ToppedFeedsDTO dto = new ToppedFeedsDTO();
 
+        this.feedDTOFactory.prime(normalFeedsResponse.getFeedList());
+
         dto.setFeeds(normalFeedsResponse.getFeedList()
                 .stream()
                 .map(feed -> this.feedDTOFactory.valueOf(feed,
@@ -451,7 +464,7 @@ public class FeedController implements FeedApi {
                 .collect(Collectors.toList()));
 
         List<FeedDTO> topFeeds = new ArrayList<>();
-        if (minTimestamp == null && maxTimestamp == null) {
+        if (minTimestamp == null && maxTimestamp == null && cursor == null) {
             com.keepreal.madagascar.fossa.FeedResponse toppedFeedResponse = this.feedService.retrieveIslandToppedFeeds(id, userId);
 
             Map<String, List<MembershipMessage>> toppedfeedMembershipMap = this.generateFeedMembershipMap(Collections.singletonList(toppedFeedResponse.getFeed()));
@@ -472,7 +485,7 @@ public class FeedController implements FeedApi {
         response.setData(dto);
         response.setCurrentTime(System.currentTimeMillis());
         response.setHasFeedgroup(Boolean.TRUE.equals(this.feedGroupService.existsFeedGroupsByUserId(userId)));
-        response.setPageInfo(PaginationUtils.getPageInfo(normalFeedsResponse.getPageResponse()));
+        response.setPageInfo(PaginationUtils.getPageInfo(normalFeedsResponse.getPageResponse(), normalFeedsResponse.getNextCursor()));
         response.setRtn(ErrorCode.REQUEST_SUCC.getNumber());
         response.setMsg(ErrorCode.REQUEST_SUCC.getValueDescriptor().getName());
 
@@ -577,6 +590,8 @@ public class FeedController implements FeedApi {
 
         Map<String, FeedGroupMessage> feedGroupMessageMap = this.generateFeedGroupMap(feedGroupFeedsResponse.getFeedList());
 
+        this.feedDTOFactory.prime(feedGroupFeedsResponse.getFeedList());
+
         swagger.model.FeedsResponse response = new swagger.model.FeedsResponse();
         response.setData(feedGroupFeedsResponse.getFeedList()
                 .stream()
@@ -177,6 +177,8 @@ public class IslandController implements IslandApi {
         IslandsResponse islandsResponse = this.islandService.retrieveIslands(
                 name, null, subscriberId, page, pageSize);
 
+        this.islandDTOFactory.prime(islandsResponse.getIslandsList());
+
         swagger.model.IslandsResponse response = new swagger.model.IslandsResponse();
         response.setData(islandsResponse.getIslandsList()
                 .stream()
@@ -279,6 +281,8 @@ public class IslandController implements IslandApi {
         String userId = HttpContextUtils.getUserIdFromContext();
         IslandsResponse islandsResponse = islandService.retrieveDefaultIslands(userId, islandId, page, pageSize);
 
+        this.islandDTOFactory.prime(islandsResponse.getIslandsList());
+
         swagger.model.IslandsResponse response = new swagger.model.IslandsResponse();
         response.setData(islandsResponse.getIslandsList()
                 .stream()
@@ -681,6 +685,8 @@ public class IslandController implements IslandApi {
     public ResponseEntity<IslandDiscoveryResponse> apiV1IslandsDiscoveryGet() {
         List<DiscoverIslandMessage> discoverIslandMessageList = this.islandService.retrieveIslandsInDiscovery(false);
 
+        this.islandDTOFactory.primeDiscoverIslands(discoverIslandMessageList);
+
         IslandDiscoveryResponse response = new IslandDiscoveryResponse();
         response.setData(discoverIslandMessageList.stream()
                 .filter(Objects::nonNull)
@@ -302,6 +302,8 @@ public class MembershipController implements MembershipApi {
         FeedsResponse feedsResponse = this.feedService.retrieveIslandMembershipFeeds(userId, id, minTimestamp, maxTimestamp, pageSize, feedIds, membershipIds);
         Map<String, List<MembershipMessage>> feedMembershipMap = this.generateFeedMembershipMap(feedsResponse.getFeedList());
 
+        this.feedDTOFactory.prime(feedsResponse.getFeedList());
+
         TimelinesResponse response = new TimelinesResponse();
         response.setData(feedsResponse.getFeedList()
                 .stream()
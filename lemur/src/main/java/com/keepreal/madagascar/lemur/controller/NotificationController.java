@@ -105,6 +105,7 @@ public class NotificationController implements NotificationApi {
      * @param type     {@link NotificationType}.
      * @param page     Page index.
      * @param pageSize Page size.
+     * @param cursor   (optional) Next cursor of the previous page.
      * @return {@link NotificationsResponse}.
      */
     @Cacheable(value = "default-system-notice-response", condition = "T(swagger.model.NotificationType).SYSTEM_NOTICE.equals(#type)")
@@ -112,7 +113,8 @@ public class NotificationController implements NotificationApi {
     public ResponseEntity<NotificationsResponse> apiV1NotificationsGet(swagger.model.NotificationType type,
                                                                        swagger.model.NoticeType noticeType,
                                                                        Integer page,
-                                                                       Integer pageSize) {
+                                                                       Integer pageSize,
+                                                                       String cursor) {
         String userId = HttpContextUtils.getUserIdFromContext();
 
         com.keepreal.madagascar.tenrecs.NotificationsResponse notificationsResponse;
@@ -123,7 +125,7 @@ public class NotificationController implements NotificationApi {
         } else {
             notificationsResponse =
                     this.notificationService.retrieveNotifications(userId, this.convertType(type),
-                            this.convertNoticeType(noticeType), page, pageSize);
+                            this.convertNoticeType(noticeType), page, pageSize, cursor);
         }
 
         Set<String> feedIdSet = notificationsResponse.getNotificationsList()
@@ -173,7 +175,7 @@ public class NotificationController implements NotificationApi {
                 .map(notificationMessage -> this.notificationDTOFactory.valueOf(notificationMessage, finalFeedMap, finalSubscriptionMap, finalCommentMap))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList()));
-        response.setPageInfo(PaginationUtils.getPageInfo(notificationsResponse.getPageResponse()));
+        response.setPageInfo(PaginationUtils.getPageInfo(notificationsResponse.getPageResponse(), notificationsResponse.getNextCursor()));
         response.setRtn(ErrorCode.REQUEST_SUCC.getNumber());
         response.setMsg(ErrorCode.REQUEST_SUCC.getValueDescriptor().getName());
         return new ResponseEntity<>(response, HttpStatus.OK);
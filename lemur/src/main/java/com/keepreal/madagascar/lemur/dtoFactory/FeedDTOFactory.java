@@ -11,8 +11,8 @@ import com.keepreal.madagascar.coua.CheckNewFeedsMessage;
 import com.keepreal.madagascar.coua.MembershipMessage;
 import com.keepreal.madagascar.lemur.converter.MediaTypeConverter;
 import com.keepreal.madagascar.lemur.service.EhcacheService;
-import com.keepreal.madagascar.lemur.service.IslandService;
 import com.keepreal.madagascar.lemur.service.MembershipService;
+import com.keepreal.madagascar.lemur.service.RequestBatchLoader;
 import com.keepreal.madagascar.lemur.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -27,10 +27,12 @@ import swagger.model.FullFeedDTO;
 import swagger.model.PosterFeedDTO;
 import swagger.model.SnapshotFeedDTO;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Represents the feed dto factory.
@@ -39,9 +41,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FeedDTOFactory {
 
-    private final IslandService islandService;
+    private final RequestBatchLoader requestBatchLoader;
     private final IslandDTOFactory islandDTOFactory;
-    private final UserService userService;
     private final UserDTOFactory userDTOFactory;
     private final CommentDTOFactory commentDTOFactory;
     private final MembershipService membershipService;
@@ -51,7 +52,7 @@ public class FeedDTOFactory {
     /**
      * Constructs the feed dto factory.
      *
-     * @param islandService        {@link IslandService}.
+     * @param requestBatchLoader   {@link RequestBatchLoader}.
      * @param islandDTOFactory     {@link IslandDTOFactory}.
      * @param userService          {@link UserService}.
      * @param userDTOFactory       {@link UserDTOFactory}.
@@ -59,7 +60,7 @@ public class FeedDTOFactory {
      * @param membershipService    {@link MembershipService}.
      * @param membershipDTOFactory {@link MembershipDTOFactory}.
      */
-    public FeedDTOFactory(IslandService islandService,
+    public FeedDTOFactory(RequestBatchLoader requestBatchLoader,
                           IslandDTOFactory islandDTOFactory,
                           UserService userService,
                           UserDTOFactory userDTOFactory,
@@ -67,9 +68,8 @@ public class FeedDTOFactory {
                           EhcacheService ehcacheService,
                           MembershipService membershipService,
                           MembershipDTOFactory membershipDTOFactory) {
-        this.islandService = islandService;
+        this.requestBatchLoader = requestBatchLoader;
         this.islandDTOFactory = islandDTOFactory;
-        this.userService = userService;
         this.userDTOFactory = userDTOFactory;
         this.commentDTOFactory = commentDTOFactory;
         this.membershipService = membershipService;
@@ -77,6 +77,25 @@ public class FeedDTOFactory {
         this.multiMediaDTOFactory = new MultiMediaDTOFactory(userService, userDTOFactory);
     }
 
+    /**
+     * Primes the islands and users of the feeds about to be converted, so they are retrieved in one call each.
+     *
+     * @param feeds {@link FeedMessage}.
+     */
+    public void prime(Collection<FeedMessage> feeds) {
+        if (Objects.isNull(feeds) || feeds.isEmpty()) {
+            return;
+        }
+
+        this.requestBatchLoader.primeIslands(feeds.stream()
+                .map(FeedMessage::getIslandId)
+                .collect(Collectors.toSet()));
+        this.requestBatchLoader.primeUsers(feeds.stream()
+                .flatMap(feed -> Stream.of(feed.getUserId(), feed.getHostId()))
+                .filter(userId -> !StringUtils.isEmpty(userId))
+                .collect(Collectors.toSet()));
+    }
+
     /**
      * Converts the {@link FeedMessage} into {@link FeedDTO}.
      *
@@ -148,8 +167,8 @@ public class FeedDTOFactory {
         }
 
         try {
-            IslandMessage islandMessage = this.islandService.retrieveIslandById(feed.getIslandId());
-            UserMessage userMessage = this.userService.retrieveUserById(feed.getUserId());
+            IslandMessage islandMessage = this.requestBatchLoader.retrieveIslandById(feed.getIslandId());
+            UserMessage userMessage = this.requestBatchLoader.retrieveUserById(feed.getUserId());
 
             FeedDTO feedDTO = new FeedDTO();
             feedDTO.setId(feed.getId());
@@ -224,8 +243,8 @@ public class FeedDTOFactory {
         }
 
         try {
-            IslandMessage islandMessage = this.islandService.retrieveIslandById(feed.getIslandId());
-            UserMessage userMessage = this.userService.retrieveUserById(feed.getUserId());
+            IslandMessage islandMessage = this.requestBatchLoader.retrieveIslandById(feed.getIslandId());
+            UserMessage userMessage = this.requestBatchLoader.retrieveUserById(feed.getUserId());
 
             BriefFeedDTO briefFeedDTO = new BriefFeedDTO();
             briefFeedDTO.setId(feed.getId());
@@ -271,8 +290,8 @@ public class FeedDTOFactory {
             return null;
         }
 
-        IslandMessage islandMessage = this.islandService.retrieveIslandById(feed.getIslandId());
-        UserMessage userMessage = this.userService.retrieveUserById(feed.getUserId());
+        IslandMessage islandMessage = this.requestBatchLoader.retrieveIslandById(feed.getIslandId());
+        UserMessage userMessage = this.requestBatchLoader.retrieveUserById(feed.getUserId());
 
         SnapshotFeedDTO snapshotFeedDTO = new SnapshotFeedDTO();
         snapshotFeedDTO.setId(feed.getId());
@@ -338,7 +357,7 @@ public class FeedDTOFactory {
         }
         PosterFeedDTO posterFeedDTO = new PosterFeedDTO();
         posterFeedDTO.setId(feed.getId());
-        posterFeedDTO.setUser(this.userDTOFactory.briefValueOf(this.userService.retrieveUserById(feed.getUserId())));
+        posterFeedDTO.setUser(this.userDTOFactory.briefValueOf(this.requestBatchLoader.retrieveUserById(feed.getUserId())));
         posterFeedDTO.setText(feed.getText());
         posterFeedDTO.setImagesUris(feed.getImageUrisList());
         posterFeedDTO.setCreatedAt(feed.getCreatedAt());
@@ -365,9 +384,9 @@ public class FeedDTOFactory {
         }
 
         try {
-            IslandMessage islandMessage = this.islandService.retrieveIslandById(feed.getIslandId());
-            UserMessage userMessage = this.userService.retrieveUserById(feed.getUserId());
-            UserMessage hostMessage = this.userService.retrieveUserById(feed.getHostId());
+            IslandMessage islandMessage = this.requestBatchLoader.retrieveIslandById(feed.getIslandId());
+            UserMessage userMessage = this.requestBatchLoader.retrieveUserById(feed.getUserId());
+            UserMessage hostMessage = this.requestBatchLoader.retrieveUserById(feed.getHostId());
 
             FullFeedDTO fullFeedDTO = new FullFeedDTO();
             fullFeedDTO.setId(feed.getId());
@@ -454,8 +473,8 @@ public class FeedDTOFactory {
         }
 
         try {
-            IslandMessage islandMessage = this.islandService.retrieveIslandById(feed.getIslandId());
-            UserMessage userMessage = this.userService.retrieveUserById(feed.getUserId());
+            IslandMessage islandMessage = this.requestBatchLoader.retrieveIslandById(feed.getIslandId());
+            UserMessage userMessage = this.requestBatchLoader.retrieveUserById(feed.getUserId());
 
             CollectionFeedDTO collectionFeedDTO = new CollectionFeedDTO();
             collectionFeedDTO.setId(feed.getId());
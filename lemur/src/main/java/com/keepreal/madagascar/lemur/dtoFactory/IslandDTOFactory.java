@@ -6,11 +6,10 @@ import com.keepreal.madagascar.coua.IslandIdentityMessage;
 import com.keepreal.madagascar.coua.IslandProfileResponse;
 import com.keepreal.madagascar.lemur.config.GeneralConfiguration;
 import com.keepreal.madagascar.lemur.service.ChatService;
-import com.keepreal.madagascar.lemur.service.IncomeService;
 import com.keepreal.madagascar.lemur.service.SubscribeMembershipService;
 import com.keepreal.madagascar.lemur.service.PaymentService;
 import com.keepreal.madagascar.lemur.service.IslandService;
-import com.keepreal.madagascar.lemur.service.UserService;
+import com.keepreal.madagascar.lemur.service.RequestBatchLoader;
 import com.keepreal.madagascar.vanga.IncomeProfileMessage;
 import com.keepreal.madagascar.vanga.SubscribeMembershipMessage;
 import com.keepreal.madagascar.vanga.IncomeMessage;
@@ -29,6 +28,7 @@ import swagger.model.PrivilegeState;
 import swagger.model.RecommendIslandDTO;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -51,46 +51,68 @@ public class IslandDTOFactory {
             "来获得粉丝的支持吧！";
 
     private final ChatService chatService;
-    private final UserService userService;
+    private final RequestBatchLoader requestBatchLoader;
     private final UserDTOFactory userDTOFactory;
     private final SubscribeMembershipService subscribeMembershipService;
     private final GeneralConfiguration generalConfiguration;
     private final PaymentService paymentService;
     private final IslandService islandService;
     private final SupportTargetDTOFactory supportTargetDTOFactory;
-    private final IncomeService incomeService;
 
     /**
      * Constructs the island dto factory.
      *
      * @param chatService                {@link ChatService}.
-     * @param userService                {@link UserService}.
+     * @param requestBatchLoader         {@link RequestBatchLoader}.
      * @param userDTOFactory             {@link UserDTOFactory}.
      * @param subscribeMembershipService {@link SubscribeMembershipService}.
      * @param generalConfiguration       {@link GeneralConfiguration}.
      * @param paymentService             {@link PaymentService}.
      * @param islandService              {@link IslandService}
      * @param supportTargetDTOFactory    {@link SupportTargetDTOFactory}
-     * @param incomeService              {@link IncomeService}.
      */
     public IslandDTOFactory(ChatService chatService,
-                            UserService userService,
+                            RequestBatchLoader requestBatchLoader,
                             UserDTOFactory userDTOFactory,
                             SubscribeMembershipService subscribeMembershipService,
                             GeneralConfiguration generalConfiguration,
                             PaymentService paymentService,
                             IslandService islandService,
-                            SupportTargetDTOFactory supportTargetDTOFactory,
-                            IncomeService incomeService) {
+                            SupportTargetDTOFactory supportTargetDTOFactory) {
         this.chatService = chatService;
-        this.userService = userService;
+        this.requestBatchLoader = requestBatchLoader;
         this.userDTOFactory = userDTOFactory;
         this.subscribeMembershipService = subscribeMembershipService;
         this.generalConfiguration = generalConfiguration;
         this.paymentService = paymentService;
         this.islandService = islandService;
         this.supportTargetDTOFactory = supportTargetDTOFactory;
-        this.incomeService = incomeService;
+    }
+
+    /**
+     * Primes the hosts and host income profiles of the islands about to be converted.
+     *
+     * @param islands {@link IslandMessage}.
+     */
+    public void prime(Collection<IslandMessage> islands) {
+        List<String> hostIds = islands.stream()
+                .filter(Objects::nonNull)
+                .map(IslandMessage::getHostId)
+                .collect(Collectors.toList());
+        this.requestBatchLoader.primeUsers(hostIds);
+        this.requestBatchLoader.primeIncomeProfiles(hostIds);
+    }
+
+    /**
+     * Primes the hosts and host income profiles of the discover islands about to be converted.
+     *
+     * @param discoverIslands {@link DiscoverIslandMessage}.
+     */
+    public void primeDiscoverIslands(Collection<DiscoverIslandMessage> discoverIslands) {
+        this.prime(discoverIslands.stream()
+                .filter(Objects::nonNull)
+                .map(DiscoverIslandMessage::getIsland)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -119,7 +141,7 @@ public class IslandDTOFactory {
         islandDTO.setCustomUrl(island.getCustomUrl());
         islandDTO.setSecret(maskSecret ? "******" : island.getSecret());
 
-        islandDTO.setHost(this.userDTOFactory.briefValueOf(this.userService.retrieveUserById(island.getHostId())));
+        islandDTO.setHost(this.userDTOFactory.briefValueOf(this.requestBatchLoader.retrieveUserById(island.getHostId())));
 
         return islandDTO;
     }
@@ -167,7 +189,7 @@ public class IslandDTOFactory {
         recommendIslandDTO.setAccessType(this.convertAccessType(discoverIsland.getIsland().getIslandAccessType()));
         recommendIslandDTO.setMemberCount(discoverIsland.getIsland().getMemberCount());
         recommendIslandDTO.setShowIncome(discoverIsland.getIsland().getShowIncome());
-        IncomeProfileMessage incomeMessage = this.incomeService.retrieveIncomeProfile(discoverIsland.getIsland().getHostId());
+        IncomeProfileMessage incomeMessage = this.requestBatchLoader.retrieveIncomeProfile(discoverIsland.getIsland().getHostId());
         recommendIslandDTO.setSupportCount(incomeMessage.getTotalSupportCountShow());
         if (discoverIsland.getIsland().getShowIncome()) {
             recommendIslandDTO.setCentsInMonth(incomeMessage.getTotalIncome());
@@ -176,7 +198,7 @@ public class IslandDTOFactory {
         }
 
         recommendIslandDTO.setRecommendation(discoverIsland.getRecommendation());
-        recommendIslandDTO.setHost(this.userDTOFactory.briefValueOf(this.userService.retrieveUserById(discoverIsland.getIsland().getHostId())));
+        recommendIslandDTO.setHost(this.userDTOFactory.briefValueOf(this.requestBatchLoader.retrieveUserById(discoverIsland.getIsland().getHostId())));
 
         return recommendIslandDTO;
     }
@@ -208,10 +230,10 @@ public class IslandDTOFactory {
         fullIslandDTO.setMemberCount(memberCount);
         fullIslandDTO.setAccessType(this.convertAccessType(island.getIslandAccessType()));
 
-        fullIslandDTO.setHost(this.userDTOFactory.briefValueOf(this.userService.retrieveUserById(island.getHostId())));
+        fullIslandDTO.setHost(this.userDTOFactory.briefValueOf(this.requestBatchLoader.retrieveUserById(island.getHostId())));
 
         fullIslandDTO.setShowIncome(island.getShowIncome());
-        IncomeProfileMessage incomeMessage = this.incomeService.retrieveIncomeProfile(island.getHostId());
+        IncomeProfileMessage incomeMessage = this.requestBatchLoader.retrieveIncomeProfile(island.getHostId());
         fullIslandDTO.setSupportCount(incomeMessage.getTotalSupportCountShow());
         if (island.getShowIncome()) {
             fullIslandDTO.setCentsInMonth(incomeMessage.getTotalIncome());
@@ -1,9 +1,7 @@
 package com.keepreal.madagascar.lemur.filters;
 
-import com.keepreal.madagascar.common.UserMessage;
-import com.keepreal.madagascar.common.constants.Constants;
+import com.keepreal.madagascar.lemur.service.EhcacheService;
 import com.keepreal.madagascar.lemur.service.GeoIpService;
-import com.keepreal.madagascar.lemur.service.UserService;
 import com.keepreal.madagascar.lemur.util.HttpContextUtils;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.util.StringUtils;
@@ -15,37 +13,36 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Objects;
-import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Represents the audit user filter.
  */
 public class AuditUserFilter extends OncePerRequestFilter {
 
-    private static final Set<String> AUDIT_URI_PATTERNS_SET = new HashSet<>(Arrays.asList(
-            "^/api/v1/feeds/public",
-            "^/api/v1/islands/discovery",
-            "^/api/v1/feeds/[0-9]+/iosPay",
-            "^/api/v1/islands/[0-9]+/support/iosPay",
-            "^/api/v2/islands/[0-9]+/sponsors/iosPay",
-            "^/api/v1/islands/[0-9]+/memberSubscription/iosPay"));
+    private static final Pattern AUDIT_URI_PATTERN = Pattern.compile(String.join("|",
+            "/api/v1/feeds/public",
+            "/api/v1/islands/discovery",
+            "/api/v1/feeds/[0-9]+/iosPay",
+            "/api/v1/islands/[0-9]+/support/iosPay",
+            "/api/v2/islands/[0-9]+/sponsors/iosPay",
+            "/api/v1/islands/[0-9]+/memberSubscription/iosPay"));
+    private static final Pattern VERSION_PREFIX_PATTERN = Pattern.compile("/api/v[0-9.]+/");
     private static final String ISLAND_SEARCH_URI = "/api/v1/islands";
 
-    private final UserService userService;
+    private final EhcacheService ehcacheService;
     private final GeoIpService geoIpService;
 
     /**
      * Constructs the audit user filter.
      *
-     * @param userService  {@link UserService}.
-     * @param geoIpService {@link GeoIpService}.
+     * @param ehcacheService {@link EhcacheService}.
+     * @param geoIpService   {@link GeoIpService}.
      */
-    public AuditUserFilter(UserService userService,
+    public AuditUserFilter(EhcacheService ehcacheService,
                            GeoIpService geoIpService) {
-        this.userService = userService;
+        this.ehcacheService = ehcacheService;
         this.geoIpService = geoIpService;
     }
 
@@ -62,8 +59,7 @@ public class AuditUserFilter extends OncePerRequestFilter {
     protected void doFilterInternal(@NotNull HttpServletRequest request,
                                     @NotNull HttpServletResponse response,
                                     @NotNull FilterChain filterChain) throws ServletException, IOException {
-        String route = request.getRequestURI();
-        route = route.replaceFirst("/api/v[0-9.]+/", "/api/v0/");
+        String route = AuditUserFilter.VERSION_PREFIX_PATTERN.matcher(request.getRequestURI()).replaceFirst("/api/v0/");
         request.getRequestDispatcher(route).forward(request, response);
     }
 
@@ -75,33 +71,22 @@ public class AuditUserFilter extends OncePerRequestFilter {
      */
     @Override
     protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
-        String ip = HttpContextUtils.getRemoteIpFromContext();
         String userId = HttpContextUtils.getUserIdFromContext();
 
         if (StringUtils.isEmpty(userId)) {
             return true;
         }
 
-        UserMessage user = this.userService.retrieveUserById(userId);
-
-        boolean isAuditUser = this.geoIpService.fromStates(ip)
-                || Constants.AUDIT_USER_IDS.contains(userId)
-                || user.getUnionId().contains(".")
-                || user.getUsername().startsWith("1-")
-                || user.getMobile().startsWith("1-");
+        String uri = request.getRequestURI();
+        boolean isAuditUri = AuditUserFilter.AUDIT_URI_PATTERN.matcher(uri).matches()
+                || (AuditUserFilter.ISLAND_SEARCH_URI.equals(uri) && Objects.nonNull(request.getParameter("name")));
 
-        if (!isAuditUser) {
+        if (!isAuditUri) {
             return true;
         }
 
-        String uri = request.getRequestURI();
-        if (AuditUserFilter.AUDIT_URI_PATTERNS_SET.stream().anyMatch(uri::matches)) {
-            return false;
-        } else if (AuditUserFilter.ISLAND_SEARCH_URI.equals(uri) && Objects.nonNull(request.getParameter("name"))) {
-            return false;
-        }
-
-        return true;
+        return !this.ehcacheService.checkAuditUser(userId)
+                && !this.geoIpService.fromStates(HttpContextUtils.getRemoteIpFromContext());
     }
 
 }
@@ -1,10 +1,14 @@
 package com.keepreal.madagascar.lemur.service;
 
+import com.keepreal.madagascar.common.UserMessage;
+import com.keepreal.madagascar.common.constants.Constants;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 /**
  * Represents the ehcache in-mem caching service.
  */
@@ -15,6 +19,8 @@ public class EhcacheService {
     private final Cache feedExistenceCache;
     private final CommentService commentService;
     private final Cache commentExistenceCache;
+    private final UserService userService;
+    private final Cache auditUserCache;
 
     /**
      * Constructs the service.
@@ -22,14 +28,18 @@ public class EhcacheService {
      * @param feedService           {@link FeedService}.
      * @param cacheManager          {@link CacheManager}.
      * @param commentService        {@link CommentService}.
+     * @param userService           {@link UserService}.
      */
     public EhcacheService(FeedService feedService,
                           @Qualifier("ehcacheCacheManager") CacheManager cacheManager,
-                          CommentService commentService) {
+                          CommentService commentService,
+                          UserService userService) {
         this.feedService = feedService;
         this.feedExistenceCache = cacheManager.getCache("feed-existence");
         this.commentService = commentService;
         this.commentExistenceCache = cacheManager.getCache("comment-existence");
+        this.userService = userService;
+        this.auditUserCache = cacheManager.getCache("audit-user");
     }
 
     /**
@@ -66,4 +76,27 @@ public class EhcacheService {
         return true;
     }
 
+    /**
+     * Checks if a user is an app store auditor by its account, cached shortly.
+     *
+     * @param userId User id.
+     * @return True if audit user.
+     */
+    public boolean checkAuditUser(String userId) {
+        Boolean isAuditUser = this.auditUserCache.get(userId, Boolean.class);
+        if (Objects.nonNull(isAuditUser)) {
+            return isAuditUser;
+        }
+
+        UserMessage user = this.userService.retrieveUserById(userId);
+        isAuditUser = Constants.AUDIT_USER_IDS.contains(userId)
+                || user.getUnionId().contains(".")
+                || user.getUsername().startsWith("1-")
+                || user.getMobile().startsWith("1-");
+
+        this.auditUserCache.put(userId, isAuditUser);
+
+        return isAuditUser;
+    }
+
 }
@@ -459,6 +459,27 @@ public class FeedService {
 
     public FeedsResponse retrieveIslandFeeds(String islandId, Boolean fromHost, String userId, Long timestampAfter,
                                              Long timestampBefore, int page, int pageSize, Boolean excludeTopped, Boolean isWorks) {
+        return retrieveIslandFeeds(islandId, fromHost, userId, timestampAfter, timestampBefore, page, pageSize, excludeTopped, isWorks, null);
+    }
+
+    /**
+     * Retrieves feeds, continuing after the cursor of the previous page if given.
+     *
+     * @param islandId        Island id.
+     * @param fromHost        Whether filter by from host.
+     * @param userId          User id.
+     * @param timestampAfter  Timestamp after.
+     * @param timestampBefore Timestamp before.
+     * @param page            Page index, ignored with a cursor.
+     * @param pageSize        Page size.
+     * @param excludeTopped   Whether excludes the topped feed.
+     * @param isWorks         Whether filter by works.
+     * @param cursor          Next cursor of the previous page, nullable.
+     * @return {@link FeedsResponse}.
+     */
+    public FeedsResponse retrieveIslandFeeds(String islandId, Boolean fromHost, String userId, Long timestampAfter,
+                                             Long timestampBefore, int page, int pageSize, Boolean excludeTopped, Boolean isWorks,
+                                             String cursor) {
         Assert.hasText(islandId, "Island id is null.");
 
         FeedServiceGrpc.FeedServiceBlockingStub stub = FeedServiceGrpc.newBlockingStub(this.fossaChannel);
@@ -484,11 +505,16 @@ public class FeedService {
             conditionBuilder.setIsWorks(BoolValue.of(isWorks));
         }
 
-        RetrieveMultipleFeedsRequest request = RetrieveMultipleFeedsRequest.newBuilder()
+        RetrieveMultipleFeedsRequest.Builder requestBuilder = RetrieveMultipleFeedsRequest.newBuilder()
                 .setCondition(conditionBuilder.build())
                 .setPageRequest(PaginationUtils.buildPageRequest(page, pageSize))
-                .setUserId(userId)
-                .build();
+                .setUserId(userId);
+
+        if (!StringUtils.isEmpty(cursor)) {
+            requestBuilder.setCursor(StringValue.of(cursor));
+        }
+
+        RetrieveMultipleFeedsRequest request = requestBuilder.build();
 
         FeedsResponse feedsResponse;
         try {
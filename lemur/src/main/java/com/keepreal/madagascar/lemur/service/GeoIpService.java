@@ -6,7 +6,9 @@ import com.maxmind.geoip2.exception.GeoIp2Exception;
 import com.maxmind.geoip2.model.CountryResponse;
 import com.maxmind.geoip2.record.Country;
 import lombok.SneakyThrows;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
@@ -50,7 +52,12 @@ public class GeoIpService {
      * @param ip Ip address.
      * @return True if from U.S.A.
      */
+    @Cacheable(value = "geo-ip-states", key = "#ip", condition = "#ip != null", cacheManager = "ehcacheCacheManager")
     public boolean fromStates(String ip) {
+        if (StringUtils.isEmpty(ip)) {
+            return false;
+        }
+
         try {
             Country country = this.getCountry(ip);
             return country.getIsoCode().toUpperCase().equals("US");
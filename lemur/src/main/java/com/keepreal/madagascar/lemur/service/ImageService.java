@@ -5,18 +5,24 @@ import com.keepreal.madagascar.common.CommonStatus;
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.common.exceptions.KeepRealBusinessException;
 import com.keepreal.madagascar.indri.ImageServiceGrpc;
-import com.keepreal.madagascar.indri.UploadImagesRequest;
+import com.keepreal.madagascar.indri.UploadImageChunk;
+import com.keepreal.madagascar.indri.UploadImageHeader;
 import com.keepreal.madagascar.lemur.util.ImageUtils;
 import io.grpc.Channel;
-import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +32,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ImageService {
 
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private final Channel channel;
 
     /**
@@ -44,40 +52,16 @@ public class ImageService {
      * @return The image uri.
      */
     public String uploadSingleImage(MultipartFile image) {
-        ImageServiceGrpc.ImageServiceBlockingStub stub = ImageServiceGrpc.newBlockingStub(this.channel);
-
-        String extension = Objects.requireNonNull(image.getOriginalFilename())
-                .substring(image.getOriginalFilename().lastIndexOf("."));
-        String uri = ImageUtils.buildImageUri() + extension;
-
-        CommonStatus response;
-        try {
-            UploadImagesRequest request = UploadImagesRequest.newBuilder()
-                    .addImageNames(uri)
-                    .addImageContent(ByteString.copyFrom(image.getBytes()))
-                    .build();
-            response = stub.uploadImages(request);
-        } catch (StatusRuntimeException | IOException e) {
-            throw new KeepRealBusinessException(ErrorCode.REQUEST_GRPC_IMAGE_UPLOAD_ERROR);
-        }
-
-        if (Objects.isNull(response) || ErrorCode.REQUEST_SUCC_VALUE != response.getRtn()) {
-            log.error("Upload image returned null.");
-            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR);
-        }
-
-        return uri;
+        return this.uploadMultipleImages(Collections.singletonList(image)).get(0);
     }
 
     /**
-     * Uploads multiple images.
+     * Uploads multiple images, streamed to indri in chunks straight from the multipart files.
      *
      * @param images Images.
      * @return Image uris.
      */
     public List<String> uploadMultipleImages(List<MultipartFile> images) {
-        ImageServiceGrpc.ImageServiceBlockingStub stub = ImageServiceGrpc.newBlockingStub(this.channel);
-
         List<String> uris = images.stream()
                 .map(image -> {
                     String extension = Objects.requireNonNull(image.getOriginalFilename())
@@ -85,24 +69,17 @@ public class ImageService {
                     return ImageUtils.buildImageUri() + extension;
                 }).collect(Collectors.toList());
 
+        ImageChunkStreamer streamer = new ImageChunkStreamer(uris, images);
+        ImageServiceGrpc.newStub(this.channel).uploadImagesStream(streamer);
+
         CommonStatus response;
         try {
-            List<ByteString> contents = images.stream()
-                    .map(image -> {
-                        try {
-                            return ByteString.copyFrom(image.getBytes());
-                        } catch (IOException e) {
-                            return ByteString.EMPTY;
-                        }
-                    })
-                    .collect(Collectors.toList());
-
-            UploadImagesRequest request = UploadImagesRequest.newBuilder()
-                    .addAllImageNames(uris)
-                    .addAllImageContent(contents)
-                    .build();
-            response = stub.uploadImages(request);
-        } catch (StatusRuntimeException e) {
+            response = streamer.getResponse().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_GRPC_IMAGE_UPLOAD_ERROR);
+        } catch (ExecutionException e) {
+            log.error("Upload images failed.", e.getCause());
             throw new KeepRealBusinessException(ErrorCode.REQUEST_GRPC_IMAGE_UPLOAD_ERROR);
         }
 
@@ -114,4 +91,100 @@ public class ImageService {
         return uris;
     }
 
+    /**
+     * Represents the streamer writing the images as header and content chunks whenever the call is ready,
+     * so no more than a chunk per image is held in memory regardless of the image size.
+     */
+    private static class ImageChunkStreamer implements ClientResponseObserver<UploadImageChunk, CommonStatus> {
+
+        private final List<String> uris;
+        private final List<MultipartFile> images;
+        private final CompletableFuture<CommonStatus> response = new CompletableFuture<>();
+        private final byte[] buffer = new byte[ImageService.CHUNK_SIZE];
+        private ClientCallStreamObserver<UploadImageChunk> requestStream;
+        private int index = -1;
+        private InputStream inputStream;
+        private boolean done;
+
+        ImageChunkStreamer(List<String> uris, List<MultipartFile> images) {
+            this.uris = uris;
+            this.images = images;
+        }
+
+        CompletableFuture<CommonStatus> getResponse() {
+            return this.response;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<UploadImageChunk> requestStream) {
+            this.requestStream = requestStream;
+            this.requestStream.setOnReadyHandler(this::drain);
+        }
+
+        @Override
+        public void onNext(CommonStatus commonStatus) {
+            this.response.complete(commonStatus);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                this.done = true;
+                this.closeInputStream();
+            }
+            this.response.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            this.response.complete(null);
+        }
+
+        private synchronized void drain() {
+            try {
+                while (!this.done && this.requestStream.isReady()) {
+                    if (Objects.isNull(this.inputStream)) {
+                        if (++this.index == this.images.size()) {
+                            this.done = true;
+                            this.requestStream.onCompleted();
+                            return;
+                        }
+                        this.inputStream = this.images.get(this.index).getInputStream();
+                        this.requestStream.onNext(UploadImageChunk.newBuilder()
+                                .setHeader(UploadImageHeader.newBuilder().setImageName(this.uris.get(this.index)))
+                                .build());
+                        continue;
+                    }
+
+                    int length = this.inputStream.read(this.buffer);
+                    if (length < 0) {
+                        this.closeInputStream();
+                        continue;
+                    }
+                    this.requestStream.onNext(UploadImageChunk.newBuilder()
+                            .setContent(ByteString.copyFrom(this.buffer, 0, length))
+                            .build());
+                }
+            } catch (IOException e) {
+                this.done = true;
+                this.closeInputStream();
+                this.requestStream.onError(e);
+                this.response.completeExceptionally(e);
+            }
+        }
+
+        private void closeInputStream() {
+            if (Objects.isNull(this.inputStream)) {
+                return;
+            }
+
+            try {
+                this.inputStream.close();
+            } catch (IOException ignored) {
+            }
+            this.inputStream = null;
+        }
+
+    }
+
 }
@@ -14,6 +14,8 @@ import com.keepreal.madagascar.vanga.RetrieveIncomeDetailRequest;
 import com.keepreal.madagascar.vanga.RetrieveIncomeDetailResponse;
 import com.keepreal.madagascar.vanga.RetrieveIncomeMonthlyResponse;
 import com.keepreal.madagascar.vanga.RetrieveIncomeProfileResponse;
+import com.keepreal.madagascar.vanga.RetrieveIncomeProfilesRequest;
+import com.keepreal.madagascar.vanga.RetrieveIncomeProfilesResponse;
 import com.keepreal.madagascar.vanga.RetrieveMyIncomeRequest;
 import com.keepreal.madagascar.vanga.RetrieveSupportListRequest;
 import com.keepreal.madagascar.vanga.RetrieveSupportListResponse;
@@ -24,7 +26,9 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import swagger.model.IncomeType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -72,6 +76,33 @@ public class IncomeService {
         return response.getMessage();
     }
 
+    public Map<String, IncomeProfileMessage> retrieveIncomeProfiles(Collection<String> userIds) {
+        IncomeServiceGrpc.IncomeServiceBlockingStub stub = IncomeServiceGrpc.newBlockingStub(this.channel);
+
+        RetrieveIncomeProfilesRequest request = RetrieveIncomeProfilesRequest.newBuilder()
+                .addAllUserIds(userIds)
+                .build();
+
+        RetrieveIncomeProfilesResponse response;
+        try {
+            response = stub.retrieveIncomeProfiles(request);
+        } catch (StatusRuntimeException exception) {
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR, exception.getMessage());
+        }
+
+        if (Objects.isNull(response)
+                || !response.hasStatus()) {
+            log.error(Objects.isNull(response) ? "Retrieve income profiles returned null." : response.toString());
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR);
+        }
+
+        if (ErrorCode.REQUEST_SUCC_VALUE != response.getStatus().getRtn()) {
+            throw new KeepRealBusinessException(response.getStatus());
+        }
+
+        return response.getMessagesMap();
+    }
+
     public RetrieveSupportListResponse retrieveSupportList(String userId, int page, int pageSize) {
         IncomeServiceGrpc.IncomeServiceBlockingStub stub = IncomeServiceGrpc.newBlockingStub(this.channel);
 
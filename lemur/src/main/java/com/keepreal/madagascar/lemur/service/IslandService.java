@@ -39,6 +39,7 @@ import com.keepreal.madagascar.coua.RetrieveIslandProfileByIdRequest;
 import com.keepreal.madagascar.coua.RetrieveIslandSubscribersByIdRequest;
 import com.keepreal.madagascar.coua.RetrieveIslanderPortraitUrlRequest;
 import com.keepreal.madagascar.coua.RetrieveIslanderPortraitUrlResponse;
+import com.keepreal.madagascar.coua.RetrieveIslandsByIdsRequest;
 import com.keepreal.madagascar.coua.RetrieveMultipleIslandsRequest;
 import com.keepreal.madagascar.coua.RetrieveSupportTargetsRequest;
 import com.keepreal.madagascar.coua.RetrieveUserSubscriptionStateRequest;
@@ -155,6 +156,39 @@ public class IslandService {
         return islandResponse.getIsland();
     }
 
+    /**
+     * Retrieves islands by ids in a single call. Islands not found are absent from the result.
+     *
+     * @param ids Island ids.
+     * @return {@link IslandMessage}.
+     */
+    public List<IslandMessage> retrieveIslandsByIds(Collection<String> ids) {
+        IslandServiceGrpc.IslandServiceBlockingStub stub = IslandServiceGrpc.newBlockingStub(this.channel);
+
+        RetrieveIslandsByIdsRequest request = RetrieveIslandsByIdsRequest.newBuilder()
+                .addAllIds(ids)
+                .build();
+
+        IslandsResponse islandsResponse;
+        try {
+            islandsResponse = stub.retrieveIslandsByIds(request);
+        } catch (StatusRuntimeException exception) {
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR, exception.getMessage());
+        }
+
+        if (Objects.isNull(islandsResponse)
+                || !islandsResponse.hasStatus()) {
+            log.error(Objects.isNull(islandsResponse) ? "Retrieve islands by ids returned null." : islandsResponse.toString());
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR);
+        }
+
+        if (ErrorCode.REQUEST_SUCC_VALUE != islandsResponse.getStatus().getRtn()) {
+            throw new KeepRealBusinessException(islandsResponse.getStatus());
+        }
+
+        return islandsResponse.getIslandsList();
+    }
+
     /**
      * Retrieves island by id.
      *
@@ -20,6 +20,7 @@ import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.Objects;
 
@@ -49,9 +50,11 @@ public class NotificationService {
      * @param noticeType {@link NoticeType}.
      * @param page       Page index.
      * @param pageSize   Page size.
+     * @param cursor     Next cursor of the previous page, nullable.
      * @return {@link NotificationsResponse}.
      */
-    public NotificationsResponse retrieveNotifications(String userId, NotificationType type, NoticeType noticeType, int page, int pageSize) {
+    public NotificationsResponse retrieveNotifications(String userId, NotificationType type, NoticeType noticeType, int page, int pageSize,
+                                                       String cursor) {
         NotificationServiceGrpc.NotificationServiceBlockingStub stub = NotificationServiceGrpc.newBlockingStub(this.channel);
 
         QueryNotificationCondition.Builder conditionBuilder = QueryNotificationCondition.newBuilder()
@@ -69,10 +72,15 @@ public class NotificationService {
             conditionBuilder.setNoticeType(NoticeTypeValue.newBuilder().setValue(noticeType).build());
         }
 
-        RetrieveMultipleNotificationsRequest request = RetrieveMultipleNotificationsRequest.newBuilder()
+        RetrieveMultipleNotificationsRequest.Builder requestBuilder = RetrieveMultipleNotificationsRequest.newBuilder()
                 .setCondition(conditionBuilder.build())
-                .setPageRequest(PaginationUtils.buildPageRequest(page, pageSize))
-                .build();
+                .setPageRequest(PaginationUtils.buildPageRequest(page, pageSize));
+
+        if (!StringUtils.isEmpty(cursor)) {
+            requestBuilder.setCursor(StringValue.of(cursor));
+        }
+
+        RetrieveMultipleNotificationsRequest request = requestBuilder.build();
 
         NotificationsResponse notificationsResponse;
         try {
@@ -0,0 +1,207 @@
+package com.keepreal.madagascar.lemur.service;
+
+import com.keepreal.madagascar.common.IslandMessage;
+import com.keepreal.madagascar.common.UserMessage;
+import com.keepreal.madagascar.lemur.util.BatchLoader;
+import com.keepreal.madagascar.vanga.IncomeProfileMessage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the request scoped batch loader for the messages the dto factories look up per item.
+ * List endpoints prime the ids they are about to render so each downstream is called once per request,
+ * and repeated ids within the request are served from memory. Outside a request it falls back to direct calls.
+ * Batches read through the same caches as the single lookups, so only the ids missing from the cache are fetched
+ * and the fetched messages are written back.
+ */
+@Service
+public class RequestBatchLoader {
+
+    private static final String USER_LOADER = RequestBatchLoader.class.getName() + ".users";
+    private static final String ISLAND_LOADER = RequestBatchLoader.class.getName() + ".islands";
+    private static final String INCOME_PROFILE_LOADER = RequestBatchLoader.class.getName() + ".incomeProfiles";
+    private static final String USER_CACHE = "UserMessage";
+    private static final String ISLAND_CACHE = "IslandMessage";
+
+    private final UserService userService;
+    private final IslandService islandService;
+    private final IncomeService incomeService;
+    private final CacheManager cacheManager;
+
+    /**
+     * Constructs the request batch loader.
+     *
+     * @param userService   {@link UserService}.
+     * @param islandService {@link IslandService}.
+     * @param incomeService {@link IncomeService}.
+     * @param cacheManager  {@link CacheManager} backing the user and island caches.
+     */
+    public RequestBatchLoader(UserService userService,
+                              IslandService islandService,
+                              IncomeService incomeService,
+                              @Qualifier("redisCacheManager") CacheManager cacheManager) {
+        this.userService = userService;
+        this.islandService = islandService;
+        this.incomeService = incomeService;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Primes the users.
+     *
+     * @param userIds User ids.
+     */
+    public void primeUsers(Collection<String> userIds) {
+        BatchLoader<String, UserMessage> loader = this.userLoader();
+        if (Objects.nonNull(loader)) {
+            loader.prime(userIds);
+        }
+    }
+
+    /**
+     * Primes the islands.
+     *
+     * @param islandIds Island ids.
+     */
+    public void primeIslands(Collection<String> islandIds) {
+        BatchLoader<String, IslandMessage> loader = this.islandLoader();
+        if (Objects.nonNull(loader)) {
+            loader.prime(islandIds);
+        }
+    }
+
+    /**
+     * Primes the income profiles.
+     *
+     * @param userIds User ids.
+     */
+    public void primeIncomeProfiles(Collection<String> userIds) {
+        BatchLoader<String, IncomeProfileMessage> loader = this.incomeProfileLoader();
+        if (Objects.nonNull(loader)) {
+            loader.prime(userIds);
+        }
+    }
+
+    /**
+     * Retrieves user by id.
+     *
+     * @param userId User id.
+     * @return {@link UserMessage}.
+     */
+    public UserMessage retrieveUserById(String userId) {
+        BatchLoader<String, UserMessage> loader = this.userLoader();
+        return Objects.isNull(loader) ? this.userService.retrieveUserById(userId) : loader.load(userId);
+    }
+
+    /**
+     * Retrieves island by id.
+     *
+     * @param islandId Island id.
+     * @return {@link IslandMessage}.
+     */
+    public IslandMessage retrieveIslandById(String islandId) {
+        BatchLoader<String, IslandMessage> loader = this.islandLoader();
+        return Objects.isNull(loader) ? this.islandService.retrieveIslandById(islandId) : loader.load(islandId);
+    }
+
+    /**
+     * Retrieves income profile by user id.
+     *
+     * @param userId User id.
+     * @return {@link IncomeProfileMessage}.
+     */
+    public IncomeProfileMessage retrieveIncomeProfile(String userId) {
+        BatchLoader<String, IncomeProfileMessage> loader = this.incomeProfileLoader();
+        return Objects.isNull(loader) ? this.incomeService.retrieveIncomeProfile(userId) : loader.load(userId);
+    }
+
+    private BatchLoader<String, UserMessage> userLoader() {
+        return this.retrieveOrCreateLoader(RequestBatchLoader.USER_LOADER,
+                () -> new BatchLoader<>(this.userService::retrieveUserById,
+                        this.readThrough(RequestBatchLoader.USER_CACHE, UserMessage.class,
+                                userIds -> this.userService.retrieveUsersByIds(userIds).stream()
+                                        .collect(Collectors.toMap(UserMessage::getId, Function.identity(), (user1, user2) -> user1)))));
+    }
+
+    private BatchLoader<String, IslandMessage> islandLoader() {
+        return this.retrieveOrCreateLoader(RequestBatchLoader.ISLAND_LOADER,
+                () -> new BatchLoader<>(this.islandService::retrieveIslandById,
+                        this.readThrough(RequestBatchLoader.ISLAND_CACHE, IslandMessage.class,
+                                islandIds -> this.islandService.retrieveIslandsByIds(islandIds).stream()
+                                        .collect(Collectors.toMap(IslandMessage::getId, Function.identity(), (island1, island2) -> island1)))));
+    }
+
+    private BatchLoader<String, IncomeProfileMessage> incomeProfileLoader() {
+        return this.retrieveOrCreateLoader(RequestBatchLoader.INCOME_PROFILE_LOADER,
+                () -> new BatchLoader<>(this.incomeService::retrieveIncomeProfile, this.incomeService::retrieveIncomeProfiles));
+    }
+
+    /**
+     * Wraps a batch load function to serve the keys cached by the single lookup first, fetch only the misses and
+     * cache what was fetched.
+     *
+     * @param cacheName         Cache name shared with the single lookup.
+     * @param type              Value type.
+     * @param batchLoadFunction Batch load function.
+     * @param <V>               Value type.
+     * @return Batch load function reading through the cache.
+     */
+    private <V> Function<Collection<String>, Map<String, V>> readThrough(String cacheName,
+                                                                       Class<V> type,
+                                                                       Function<Collection<String>, Map<String, V>> batchLoadFunction) {
+        return keys -> {
+            Cache cache = this.cacheManager.getCache(cacheName);
+            if (Objects.isNull(cache)) {
+                return batchLoadFunction.apply(keys);
+            }
+
+            Map<String, V> values = new HashMap<>();
+            List<String> missingKeys = keys.stream()
+                    .filter(key -> {
+                        V value = cache.get(key, type);
+                        if (Objects.isNull(value)) {
+                            return true;
+                        }
+                        values.put(key, value);
+                        return false;
+                    })
+                    .collect(Collectors.toList());
+
+            if (!missingKeys.isEmpty()) {
+                Map<String, V> loadedValues = batchLoadFunction.apply(missingKeys);
+                loadedValues.forEach(cache::put);
+                values.putAll(loadedValues);
+            }
+            return values;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> BatchLoader<String, V> retrieveOrCreateLoader(String name, Supplier<BatchLoader<String, V>> supplier) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.isNull(attributes)) {
+            return null;
+        }
+
+        Object loader = attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (Objects.isNull(loader)) {
+            loader = supplier.get();
+            attributes.setAttribute(name, loader, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (BatchLoader<String, V>) loader;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.keepreal.madagascar.lemur.textFilter;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Represents an immutable Aho-Corasick automaton over a set of words, which checks a text against all the words
+ * in a single pass regardless of the dictionary size.
+ */
+public class AhoCorasickMatcher {
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Compiles the words into the automaton.
+     *
+     * @param words Words to match.
+     */
+    public AhoCorasickMatcher(Collection<String> words) {
+        this.root = new Node();
+        int count = 0;
+        for (String word : words) {
+            if (word == null || word.isEmpty()) {
+                continue;
+            }
+            Node node = this.root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+            }
+            if (!node.terminal) {
+                node.terminal = true;
+                count++;
+            }
+        }
+        this.size = count;
+        this.buildFailureLinks();
+    }
+
+    /**
+     * Gets the number of distinct words compiled.
+     *
+     * @return Word count.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if the text contains any of the words.
+     *
+     * @param text Text.
+     * @return True if any word occurs in the text.
+     */
+    public boolean containsAny(String text) {
+        Node node = this.root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Node next = node.children.get(c);
+            while (next == null && node != this.root) {
+                node = node.failure;
+                next = node.children.get(c);
+            }
+            node = next == null ? this.root : next;
+            if (node.output) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the failure links breadth first, and marks every node whose suffix chain ends a word.
+     */
+    private void buildFailureLinks() {
+        Queue<Node> queue = new ArrayDeque<>();
+        this.root.failure = this.root;
+        for (Node child : this.root.children.values()) {
+            child.failure = this.root;
+            child.output = child.terminal;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+
+                Node failure = node.failure;
+                while (failure != this.root && !failure.children.containsKey(c)) {
+                    failure = failure.failure;
+                }
+                Node target = failure.children.get(c);
+                child.failure = (target == null || target == child) ? this.root : target;
+                child.output = child.terminal || child.failure.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Represents a state of the automaton.
+     */
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private Node failure;
+        private boolean terminal;
+        private boolean output;
+    }
+
+}
@@ -9,7 +9,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -19,7 +19,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DefaultContentFilter implements TextContentFilter {
 
-    private Set<String> dictionary = new HashSet<>();
+    private final AhoCorasickMatcher matcher;
 
     /**
      * Constructs the default content filter.
@@ -27,12 +27,23 @@ public class DefaultContentFilter implements TextContentFilter {
      * @param dictionaryFilePath Dictionary file path.
      */
     public DefaultContentFilter(String dictionaryFilePath) {
+        this.matcher = DefaultContentFilter.load(dictionaryFilePath);
+        log.info("Content filter initialized with {} words.", this.matcher.size());
+    }
+
+    /**
+     * Loads the dictionary file and compiles it into a matcher, an empty one if the file cannot be read.
+     *
+     * @param dictionaryFilePath Dictionary file path.
+     * @return {@link AhoCorasickMatcher}.
+     */
+    private static AhoCorasickMatcher load(String dictionaryFilePath) {
         try {
             String content = new String(Base64.getDecoder().decode(Files.readAllBytes(Paths.get(dictionaryFilePath))), StandardCharsets.UTF_16);
-            this.dictionary = Arrays.stream(content.split("\r\n")).filter(line -> !line.isEmpty()).map(String::toUpperCase).collect(Collectors.toSet());
+            Set<String> dictionary = Arrays.stream(content.split("\r\n")).filter(line -> !line.isEmpty()).map(String::toUpperCase).collect(Collectors.toSet());
+            return new AhoCorasickMatcher(dictionary);
         } catch (IOException ignored) {
-        } finally {
-            log.info("Content filter initialized with {} words.", this.dictionary.size());
+            return new AhoCorasickMatcher(Collections.emptySet());
         }
     }
 
@@ -55,7 +66,7 @@ public class DefaultContentFilter implements TextContentFilter {
         }
 
         content = content.toUpperCase();
-        return this.dictionary.parallelStream().anyMatch(content::contains);
+        return this.matcher.containsAny(content);
     }
 
 }
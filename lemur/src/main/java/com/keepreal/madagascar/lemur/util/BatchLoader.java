@@ -0,0 +1,69 @@
+package com.keepreal.madagascar.lemur.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a memoizing loader that dedupes keys and resolves the missing ones in one batch call.
+ * Not thread safe, meant to live within a single request.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<K, V> loadFunction;
+    private final Function<Collection<K>, Map<K, V>> batchLoadFunction;
+    private final Map<K, V> values = new HashMap<>();
+
+    /**
+     * Constructs the batch loader.
+     *
+     * @param loadFunction      Loads a single key, used for keys not primed.
+     * @param batchLoadFunction Loads a batch of keys, keys not found are absent from the result.
+     */
+    public BatchLoader(Function<K, V> loadFunction, Function<Collection<K>, Map<K, V>> batchLoadFunction) {
+        this.loadFunction = loadFunction;
+        this.batchLoadFunction = batchLoadFunction;
+    }
+
+    /**
+     * Loads the keys not yet loaded in one batch call.
+     *
+     * @param keys Keys.
+     */
+    public void prime(Collection<K> keys) {
+        List<K> missingKeys = keys.stream()
+                .filter(Objects::nonNull)
+                .filter(key -> !this.values.containsKey(key))
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (missingKeys.isEmpty()) {
+            return;
+        }
+
+        this.values.putAll(this.batchLoadFunction.apply(missingKeys));
+    }
+
+    /**
+     * Loads the value of a key, from the loaded values if present.
+     *
+     * @param key Key.
+     * @return Value.
+     */
+    public V load(K key) {
+        V value = this.values.get(key);
+        if (Objects.isNull(value)) {
+            value = this.loadFunction.apply(key);
+            this.values.put(key, value);
+        }
+        return value;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.keepreal.madagascar.lemur.util;
 
+import com.google.protobuf.StringValue;
 import com.keepreal.madagascar.common.PageRequest;
 import com.keepreal.madagascar.common.PageResponse;
 import swagger.model.PageInfo;
@@ -32,6 +33,21 @@ public class PaginationUtils {
         return pageInfo;
     }
 
+    /**
+     * Converts pageResponse into page info carrying the cursor of the next page.
+     *
+     * @param pageResponse PageResponse
+     * @param nextCursor   Next cursor, default instance if there are no more pages.
+     * @return PageInfo
+     */
+    public static PageInfo getPageInfo(PageResponse pageResponse, StringValue nextCursor) {
+        PageInfo pageInfo = PaginationUtils.getPageInfo(pageResponse);
+        if (pageInfo != null && !nextCursor.getValue().isEmpty()) {
+            pageInfo.setNextCursor(nextCursor.getValue());
+        }
+        return pageInfo;
+    }
+
     /**
      * Converts has more into page info.
      *
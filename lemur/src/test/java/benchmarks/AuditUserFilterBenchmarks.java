@@ -0,0 +1,313 @@
+package benchmarks;
+
+import com.keepreal.madagascar.common.UserMessage;
+import com.keepreal.madagascar.common.constants.Constants;
+import com.keepreal.madagascar.lemur.config.MaxMindGeoConfiguration;
+import com.keepreal.madagascar.lemur.filters.AuditUserFilter;
+import com.keepreal.madagascar.lemur.service.CommentService;
+import com.keepreal.madagascar.lemur.service.EhcacheService;
+import com.keepreal.madagascar.lemur.service.FeedService;
+import com.keepreal.madagascar.lemur.service.GeoIpService;
+import com.keepreal.madagascar.lemur.service.UserService;
+import com.keepreal.madagascar.lemur.util.HttpContextUtils;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.jetbrains.annotations.NotNull;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the benchmarks of the {@link AuditUserFilter} on an authenticated request, comparing the former filter,
+ * which looked the user and the ip up and ran uri::matches per audit pattern on every request, with the current one,
+ * which checks the precompiled audit uri alternation first and looks up through the audit-user and geo-ip-states caches.
+ * <p>
+ * Both filters run with a Spring context holding the ehcache-3.xml cache manager and the MaxMind database, set with
+ * -Dbenchmark.geoip.database (defaults to the deployed /app/GeoLite2-Country.mmdb). The user lookup is stubbed, so the
+ * former filter is measured without its grpc or redis round trip and the gap is a lower bound. The former filter
+ * only reached its uri patterns for auditors, hence the auditor parameter; auditors on an audit uri are forwarded
+ * to the v0 route by both filters.
+ * <p>
+ * Run with the main method from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditUserFilterBenchmarks {
+
+    private static final String USER_ID = "10086";
+    private static final String REMOTE_IP = "114.114.114.114";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"/api/v1/feeds", "/api/v1/feeds/public"})
+    private String uri;
+
+    @Param({"false", "true"})
+    private boolean auditor;
+
+    private AnnotationConfigApplicationContext context;
+    private OncePerRequestFilter legacyFilter;
+    private OncePerRequestFilter auditUserFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    /**
+     * Builds both filters and binds the authenticated request to the benchmark thread.
+     *
+     * @throws IOException Geo database io exception.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.context = new AnnotationConfigApplicationContext(BenchmarkConfiguration.class);
+
+        UserService userService = this.context.getBean(UserService.class);
+        Mockito.when(userService.retrieveUserById(AuditUserFilterBenchmarks.USER_ID)).thenReturn(UserMessage.newBuilder()
+                .setId(AuditUserFilterBenchmarks.USER_ID)
+                .setUnionId("oU7ZA5v9sjjo3sfITkPgN-Yn_Q1w")
+                .setUsername("islander")
+                .setMobile(this.auditor ? "1-4155550100" : "86-13800138000")
+                .build());
+
+        MaxMindGeoConfiguration maxMindGeoConfiguration = this.context.getBean(MaxMindGeoConfiguration.class);
+        this.legacyFilter = new LegacyAuditUserFilter(userService,
+                new GeoIpService(maxMindGeoConfiguration));
+        this.auditUserFilter = new AuditUserFilter(this.context.getBean(EhcacheService.class),
+                this.context.getBean(GeoIpService.class));
+
+        this.request = new MockHttpServletRequest("GET", this.uri);
+        this.request.addHeader("X-Forwarded-For", AuditUserFilterBenchmarks.REMOTE_IP);
+        this.response = new MockHttpServletResponse();
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(AuditUserFilterBenchmarks.USER_ID, null));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(this.request));
+    }
+
+    /**
+     * Clears the thread bound request, closes the caches and the context.
+     */
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+        Objects.requireNonNull(this.context.getBean(JCacheCacheManager.class).getCacheManager()).close();
+        this.context.close();
+    }
+
+    /**
+     * Benchmarks the former filter.
+     *
+     * @throws IOException      {@link IOException}.
+     * @throws ServletException {@link ServletException}.
+     */
+    @Benchmark
+    public void legacyFilter() throws IOException, ServletException {
+        this.legacyFilter.doFilter(this.request, this.response, AuditUserFilterBenchmarks.NO_OP_CHAIN);
+    }
+
+    /**
+     * Benchmarks the current filter.
+     *
+     * @throws IOException      {@link IOException}.
+     * @throws ServletException {@link ServletException}.
+     */
+    @Benchmark
+    public void auditUserFilter() throws IOException, ServletException {
+        this.auditUserFilter.doFilter(this.request, this.response, AuditUserFilterBenchmarks.NO_OP_CHAIN);
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Arguments.
+     * @throws RunnerException Runner failure.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditUserFilterBenchmarks.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * Represents the caches and services the filters run with.
+     */
+    @Configuration
+    @EnableCaching
+    public static class BenchmarkConfiguration {
+
+        /**
+         * Represents the ehcache cache manager, built as the application does.
+         *
+         * @return {@link JCacheCacheManager}.
+         * @throws URISyntaxException Uri exception.
+         */
+        @Bean
+        public CacheManager ehcacheCacheManager() throws URISyntaxException {
+            CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+            javax.cache.CacheManager cacheManager = provider.getCacheManager(
+                    Objects.requireNonNull(this.getClass().getClassLoader().getResource("ehcache-3.xml")).toURI(),
+                    this.getClass().getClassLoader()
+            );
+            return new JCacheCacheManager(cacheManager);
+        }
+
+        /**
+         * Represents the geo database location.
+         *
+         * @return {@link MaxMindGeoConfiguration}.
+         */
+        @Bean
+        public MaxMindGeoConfiguration maxMindGeoConfiguration() {
+            MaxMindGeoConfiguration maxMindGeoConfiguration = new MaxMindGeoConfiguration();
+            maxMindGeoConfiguration.setDatabasePath(System.getProperty("benchmark.geoip.database", "/app/GeoLite2-Country.mmdb"));
+            return maxMindGeoConfiguration;
+        }
+
+        /**
+         * Represents the cached geo ip service.
+         *
+         * @param maxMindGeoConfiguration {@link MaxMindGeoConfiguration}.
+         * @return {@link GeoIpService}.
+         * @throws IOException Geo database io exception.
+         */
+        @Bean
+        public GeoIpService geoIpService(MaxMindGeoConfiguration maxMindGeoConfiguration) throws IOException {
+            return new GeoIpService(maxMindGeoConfiguration);
+        }
+
+        /**
+         * Represents the user service, stubbed per trial.
+         *
+         * @return {@link UserService}.
+         */
+        @Bean
+        public UserService userService() {
+            return Mockito.mock(UserService.class);
+        }
+
+        /**
+         * Represents the ehcache service.
+         *
+         * @param ehcacheCacheManager {@link CacheManager}.
+         * @param userService         {@link UserService}.
+         * @return {@link EhcacheService}.
+         */
+        @Bean
+        public EhcacheService ehcacheService(CacheManager ehcacheCacheManager, UserService userService) {
+            return new EhcacheService(Mockito.mock(FeedService.class),
+                    ehcacheCacheManager,
+                    Mockito.mock(CommentService.class),
+                    userService);
+        }
+
+    }
+
+    /**
+     * Represents the audit user filter as it was before the audit uris were precompiled and the lookups cached.
+     */
+    private static class LegacyAuditUserFilter extends OncePerRequestFilter {
+
+        private static final Set<String> AUDIT_URI_PATTERNS_SET = new HashSet<>(Arrays.asList(
+                "^/api/v1/feeds/public",
+                "^/api/v1/islands/discovery",
+                "^/api/v1/feeds/[0-9]+/iosPay",
+                "^/api/v1/islands/[0-9]+/support/iosPay",
+                "^/api/v2/islands/[0-9]+/sponsors/iosPay",
+                "^/api/v1/islands/[0-9]+/memberSubscription/iosPay"));
+        private static final String ISLAND_SEARCH_URI = "/api/v1/islands";
+
+        private final UserService userService;
+        private final GeoIpService geoIpService;
+
+        private LegacyAuditUserFilter(UserService userService,
+                                      GeoIpService geoIpService) {
+            this.userService = userService;
+            this.geoIpService = geoIpService;
+        }
+
+        @Override
+        protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                        @NotNull HttpServletResponse response,
+                                        @NotNull FilterChain filterChain) throws ServletException, IOException {
+            String route = request.getRequestURI();
+            route = route.replaceFirst("/api/v[0-9.]+/", "/api/v0/");
+            request.getRequestDispatcher(route).forward(request, response);
+        }
+
+        @Override
+        protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+            String ip = HttpContextUtils.getRemoteIpFromContext();
+            String userId = HttpContextUtils.getUserIdFromContext();
+
+            if (StringUtils.isEmpty(userId)) {
+                return true;
+            }
+
+            UserMessage user = this.userService.retrieveUserById(userId);
+
+            boolean isAuditUser = this.geoIpService.fromStates(ip)
+                    || Constants.AUDIT_USER_IDS.contains(userId)
+                    || user.getUnionId().contains(".")
+                    || user.getUsername().startsWith("1-")
+                    || user.getMobile().startsWith("1-");
+
+            if (!isAuditUser) {
+                return true;
+            }
+
+            String uri = request.getRequestURI();
+            if (LegacyAuditUserFilter.AUDIT_URI_PATTERNS_SET.stream().anyMatch(uri::matches)) {
+                return false;
+            } else if (LegacyAuditUserFilter.ISLAND_SEARCH_URI.equals(uri) && Objects.nonNull(request.getParameter("name"))) {
+                return false;
+            }
+
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package benchmarks;
+
+import com.keepreal.madagascar.lemur.textFilter.AhoCorasickMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the benchmarks of the sensitive word check of a content, comparing the former scan of the whole
+ * dictionary, sequential and on the common pool as it ran, with the {@link AhoCorasickMatcher}.
+ * <p>
+ * The dictionary is made of 2 to 6 character words drawn from the common CJK range, the size of the production
+ * dictionary. Contents are clean, which is the common case and the worst one for the scan, as no word ends it early.
+ * <p>
+ * Run with the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentFilterBenchmarks {
+
+    private static final char FIRST_CJK = '一';
+    private static final int CJK_RANGE = 3500;
+
+    @Param({"2000", "20000"})
+    private int dictionarySize;
+
+    @Param({"20", "500"})
+    private int contentLength;
+
+    private Set<String> dictionary;
+    private AhoCorasickMatcher matcher;
+    private String content;
+
+    /**
+     * Builds the dictionary, the matcher and a clean content.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        this.dictionary = new HashSet<>();
+        while (this.dictionary.size() < this.dictionarySize) {
+            this.dictionary.add(ContentFilterBenchmarks.randomText(random, 2 + random.nextInt(5)));
+        }
+        this.matcher = new AhoCorasickMatcher(this.dictionary);
+
+        String content;
+        do {
+            content = ContentFilterBenchmarks.randomText(random, this.contentLength);
+        } while (this.matcher.containsAny(content));
+        this.content = content;
+    }
+
+    /**
+     * Benchmarks the former check, scanning the content for every word on the common pool.
+     *
+     * @return True if disallowed.
+     */
+    @Benchmark
+    public boolean parallelScan() {
+        return this.dictionary.parallelStream().anyMatch(this.content::contains);
+    }
+
+    /**
+     * Benchmarks scanning the content for every word on the calling thread.
+     *
+     * @return True if disallowed.
+     */
+    @Benchmark
+    public boolean sequentialScan() {
+        return this.dictionary.stream().anyMatch(this.content::contains);
+    }
+
+    /**
+     * Benchmarks the check in one pass of the automaton.
+     *
+     * @return True if disallowed.
+     */
+    @Benchmark
+    public boolean ahoCorasick() {
+        return this.matcher.containsAny(this.content);
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Arguments.
+     * @throws RunnerException Runner failure.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContentFilterBenchmarks.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) (ContentFilterBenchmarks.FIRST_CJK + random.nextInt(ContentFilterBenchmarks.CJK_RANGE)));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,115 @@
+package unitTests;
+
+import com.keepreal.madagascar.lemur.textFilter.AhoCorasickMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Represents unit tests for {@link AhoCorasickMatcher}.
+ */
+public class AhoCorasickMatcherUnitTests {
+
+    /**
+     * Tests words overlapping each other in the text are all found.
+     */
+    @Test
+    public void TestOverlappingWords() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("he", "she", "his", "hers"));
+
+        Assert.assertTrue(matcher.containsAny("ushers"));
+        Assert.assertTrue(matcher.containsAny("she"));
+        Assert.assertTrue(matcher.containsAny("this"));
+        Assert.assertFalse(matcher.containsAny("hsi"));
+    }
+
+    /**
+     * Tests a word ending inside a longer word that fails to match is found through the failure links.
+     */
+    @Test
+    public void TestSuffixLinkedWords() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("abcd", "bc"));
+
+        Assert.assertTrue(matcher.containsAny("abce"));
+        Assert.assertTrue(matcher.containsAny("xbcx"));
+        Assert.assertFalse(matcher.containsAny("abdc"));
+    }
+
+    /**
+     * Tests a word reached only by a chain of failure links is found.
+     */
+    @Test
+    public void TestChainedSuffixWords() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("abcde", "bcdx", "cd"));
+
+        Assert.assertTrue(matcher.containsAny("abcdy"));
+        Assert.assertTrue(matcher.containsAny("zabcbcdx"));
+        Assert.assertFalse(matcher.containsAny("abcbdc"));
+    }
+
+    /**
+     * Tests empty and null words are ignored rather than matching every text.
+     */
+    @Test
+    public void TestEmptyWordsIgnored() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("", null, "敏感"));
+
+        Assert.assertEquals(1, matcher.size());
+        Assert.assertFalse(matcher.containsAny("正常内容"));
+        Assert.assertFalse(matcher.containsAny(""));
+        Assert.assertTrue(matcher.containsAny("这是敏感内容"));
+    }
+
+    /**
+     * Tests an empty dictionary matches nothing.
+     */
+    @Test
+    public void TestEmptyDictionary() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Collections.emptyList());
+
+        Assert.assertEquals(0, matcher.size());
+        Assert.assertFalse(matcher.containsAny("anything"));
+    }
+
+    /**
+     * Tests duplicate words are counted once.
+     */
+    @Test
+    public void TestDuplicateWords() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(Arrays.asList("ab", "ab", "abc"));
+
+        Assert.assertEquals(2, matcher.size());
+    }
+
+    /**
+     * Tests the matcher agrees with scanning the text for every word on random input.
+     */
+    @Test
+    public void TestAgreesWithScan() {
+        Random random = new Random(7L);
+        for (int round = 0; round < 200; round++) {
+            List<String> words = Arrays.asList(
+                    AhoCorasickMatcherUnitTests.randomText(random, 1 + random.nextInt(3)),
+                    AhoCorasickMatcherUnitTests.randomText(random, 1 + random.nextInt(4)),
+                    AhoCorasickMatcherUnitTests.randomText(random, 2 + random.nextInt(4)));
+            String text = AhoCorasickMatcherUnitTests.randomText(random, random.nextInt(20));
+
+            Assert.assertEquals(words + " in " + text,
+                    words.stream().anyMatch(text::contains),
+                    new AhoCorasickMatcher(words).containsAny(text));
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,183 @@
+package unitTests;
+
+import com.keepreal.madagascar.common.UserMessage;
+import com.keepreal.madagascar.lemur.filters.AuditUserFilter;
+import com.keepreal.madagascar.lemur.service.CommentService;
+import com.keepreal.madagascar.lemur.service.EhcacheService;
+import com.keepreal.madagascar.lemur.service.FeedService;
+import com.keepreal.madagascar.lemur.service.GeoIpService;
+import com.keepreal.madagascar.lemur.service.UserService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+/**
+ * Represents unit tests for {@link AuditUserFilter} over the audit-user cache of {@link EhcacheService}.
+ */
+public class AuditUserFilterUnitTests {
+
+    private static final String USER_ID = "10086";
+    private static final String REMOTE_IP = "114.114.114.114";
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private GeoIpService geoIpService;
+
+    private AuditUserFilter auditUserFilter;
+
+    /**
+     * Initializes the mocks and the filter over an in memory audit-user cache.
+     */
+    @Before
+    public void InitMocks() {
+        MockitoAnnotations.initMocks(this);
+
+        EhcacheService ehcacheService = new EhcacheService(Mockito.mock(FeedService.class),
+                new ConcurrentMapCacheManager("feed-existence", "comment-existence", "audit-user"),
+                Mockito.mock(CommentService.class),
+                this.userService);
+        this.auditUserFilter = new AuditUserFilter(ehcacheService, this.geoIpService);
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(AuditUserFilterUnitTests.USER_ID, null));
+    }
+
+    /**
+     * Clears the thread bound contexts.
+     */
+    @After
+    public void TearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Tests a request to a non audit uri goes through without any lookup.
+     *
+     * @throws IOException      {@link IOException}.
+     * @throws ServletException {@link ServletException}.
+     */
+    @Test
+    public void TestNonAuditUriSkipsLookups() throws IOException, ServletException {
+        // Action
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = this.filter("/api/v1/feeds", filterChain);
+
+        // Assert
+        Assert.assertNotNull(filterChain.getRequest());
+        Assert.assertNull(response.getForwardedUrl());
+        Mockito.verifyZeroInteractions(this.userService, this.geoIpService);
+    }
+
+    /**
+     * Tests an auditor is looked up once on a cache miss, then forwarded from the cache on later requests.
+     *
+     * @throws IOException      {@link IOException}.
+     * @throws ServletException {@link ServletException}.
+     */
+    @Test
+    public void TestAuditUserCacheMissThenHit() throws IOException, ServletException {
+        // Mock
+        Mockito.when(this.userService.retrieveUserById(AuditUserFilterUnitTests.USER_ID))
+                .thenReturn(AuditUserFilterUnitTests.buildUser("1-4155550100"));
+
+        // Action
+        MockHttpServletResponse missResponse = this.filter("/api/v1/feeds/public", new MockFilterChain());
+        MockHttpServletResponse hitResponse = this.filter("/api/v1/islands/12/support/iosPay", new MockFilterChain());
+
+        // Assert
+        Assert.assertEquals("/api/v0/feeds/public", missResponse.getForwardedUrl());
+        Assert.assertEquals("/api/v0/islands/12/support/iosPay", hitResponse.getForwardedUrl());
+        Mockito.verify(this.userService, Mockito.times(1)).retrieveUserById(AuditUserFilterUnitTests.USER_ID);
+        Mockito.verifyZeroInteractions(this.geoIpService);
+    }
+
+    /**
+     * Tests a regular user is cached as such, and goes through unless calling from the states.
+     *
+     * @throws IOException      {@link IOException}.
+     * @throws ServletException {@link ServletException}.
+     */
+    @Test
+    public void TestRegularUserCachedThenCheckedByIp() throws IOException, ServletException {
+        // Mock
+        Mockito.when(this.userService.retrieveUserById(AuditUserFilterUnitTests.USER_ID))
+                .thenReturn(AuditUserFilterUnitTests.buildUser("86-13800138000"));
+        Mockito.when(this.geoIpService.fromStates(AuditUserFilterUnitTests.REMOTE_IP)).thenReturn(false, true);
+
+        // Action
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse passedResponse = this.filter("/api/v1/feeds/public", filterChain);
+        MockHttpServletResponse forwardedResponse = this.filter("/api/v1/feeds/public", new MockFilterChain());
+
+        // Assert
+        Assert.assertNotNull(filterChain.getRequest());
+        Assert.assertNull(passedResponse.getForwardedUrl());
+        Assert.assertEquals("/api/v0/feeds/public", forwardedResponse.getForwardedUrl());
+        Mockito.verify(this.userService, Mockito.times(1)).retrieveUserById(AuditUserFilterUnitTests.USER_ID);
+        Mockito.verify(this.geoIpService, Mockito.times(2)).fromStates(AuditUserFilterUnitTests.REMOTE_IP);
+    }
+
+    /**
+     * Tests the island search is only an audit uri with a name.
+     *
+     * @throws IOException      {@link IOException}.
+     * @throws ServletException {@link ServletException}.
+     */
+    @Test
+    public void TestIslandSearchRequiresName() throws IOException, ServletException {
+        // Mock
+        Mockito.when(this.userService.retrieveUserById(AuditUserFilterUnitTests.USER_ID))
+                .thenReturn(AuditUserFilterUnitTests.buildUser("1-4155550100"));
+
+        // Action
+        MockHttpServletResponse listResponse = this.filter("/api/v1/islands", new MockFilterChain());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/islands");
+        request.setParameter("name", "island");
+        MockHttpServletResponse searchResponse = this.filter(request, new MockFilterChain());
+
+        // Assert
+        Assert.assertNull(listResponse.getForwardedUrl());
+        Assert.assertEquals("/api/v0/islands", searchResponse.getForwardedUrl());
+        Mockito.verify(this.userService, Mockito.times(1)).retrieveUserById(AuditUserFilterUnitTests.USER_ID);
+    }
+
+    private MockHttpServletResponse filter(String uri, MockFilterChain filterChain) throws IOException, ServletException {
+        return this.filter(new MockHttpServletRequest("GET", uri), filterChain);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, MockFilterChain filterChain) throws IOException, ServletException {
+        request.addHeader("X-Forwarded-For", AuditUserFilterUnitTests.REMOTE_IP);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.auditUserFilter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private static UserMessage buildUser(String mobile) {
+        return UserMessage.newBuilder()
+                .setId(AuditUserFilterUnitTests.USER_ID)
+                .setUnionId("oU7ZA5v9sjjo3sfITkPgN-Yn_Q1w")
+                .setUsername("islander")
+                .setMobile(mobile)
+                .build();
+    }
+
+}
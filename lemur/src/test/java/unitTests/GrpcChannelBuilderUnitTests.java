@@ -0,0 +1,220 @@
+package unitTests;
+
+import com.google.protobuf.StringValue;
+import com.keepreal.madagascar.lemur.config.grpc.GrpcChannelBuilder;
+import com.keepreal.madagascar.lemur.config.grpc.GrpcConfiguration;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ServerCalls;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents unit tests for {@link GrpcChannelBuilder} over in process channels.
+ */
+public class GrpcChannelBuilderUnitTests {
+
+    private static final String SERVICE_NAME = "PaymentService";
+    private static final MethodDescriptor<StringValue, StringValue> READ_METHOD = GrpcChannelBuilderUnitTests.buildMethod("RetrieveUserPayments");
+    private static final MethodDescriptor<StringValue, StringValue> WRITE_METHOD = GrpcChannelBuilderUnitTests.buildMethod("SubmitSupportWithWechatPay");
+
+    private final AtomicReference<Deadline> receivedDeadline = new AtomicReference<>();
+    private final AtomicInteger receivedCalls = new AtomicInteger();
+    private final AtomicInteger failingCalls = new AtomicInteger();
+    private String serverName;
+    private Server server;
+    private GrpcChannelBuilder channelBuilder;
+
+    /**
+     * Starts the in process server. Every call records its deadline, fails with unavailable while failing calls
+     * are left and echoes the request otherwise.
+     *
+     * @throws IOException Start failure.
+     */
+    @Before
+    public void startServer() throws IOException {
+        ServerCalls.UnaryMethod<StringValue, StringValue> handler = (request, responseObserver) -> {
+            this.receivedCalls.incrementAndGet();
+            this.receivedDeadline.set(Context.current().getDeadline());
+            if (this.failingCalls.getAndDecrement() > 0) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(request);
+            responseObserver.onCompleted();
+        };
+
+        this.serverName = UUID.randomUUID().toString();
+        this.server = InProcessServerBuilder.forName(this.serverName)
+                .directExecutor()
+                .addService(ServerServiceDefinition.builder(GrpcChannelBuilderUnitTests.SERVICE_NAME)
+                        .addMethod(GrpcChannelBuilderUnitTests.READ_METHOD, ServerCalls.asyncUnaryCall(handler))
+                        .addMethod(GrpcChannelBuilderUnitTests.WRITE_METHOD, ServerCalls.asyncUnaryCall(handler))
+                        .build())
+                .build()
+                .start();
+        this.channelBuilder = new GrpcChannelBuilder(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Stops the channels and the server.
+     */
+    @After
+    public void stopServer() {
+        this.channelBuilder.shutdown();
+        this.server.shutdownNow();
+    }
+
+    /**
+     * Tests a call made without a deadline gets the default one.
+     */
+    @Test
+    public void callWithoutDeadlineGetsDefaultDeadline() {
+        GrpcConfiguration configuration = this.buildConfiguration();
+        configuration.setDeadlineInMS(3000L);
+
+        this.call(this.buildChannel(configuration), GrpcChannelBuilderUnitTests.READ_METHOD, CallOptions.DEFAULT);
+
+        Assert.assertNotNull(this.receivedDeadline.get());
+        Assert.assertTrue(this.receivedDeadline.get().timeRemaining(TimeUnit.MILLISECONDS) <= 3000L);
+    }
+
+    /**
+     * Tests a method deadline overrides the default one.
+     */
+    @Test
+    public void methodDeadlineOverridesDefaultDeadline() {
+        GrpcConfiguration configuration = this.buildConfiguration();
+        configuration.setDeadlineInMS(3000L);
+        configuration.setMethodDeadlinesInMS(Collections.singletonMap("PaymentService/RetrieveUserPayments", 60000L));
+
+        this.call(this.buildChannel(configuration), GrpcChannelBuilderUnitTests.READ_METHOD, CallOptions.DEFAULT);
+
+        Assert.assertNotNull(this.receivedDeadline.get());
+        Assert.assertTrue(this.receivedDeadline.get().timeRemaining(TimeUnit.MILLISECONDS) > 3000L);
+    }
+
+    /**
+     * Tests a write method configured with a non positive deadline is exempted from the default one.
+     */
+    @Test
+    public void exemptedWriteMethodGetsNoDeadline() {
+        GrpcConfiguration configuration = this.buildConfiguration();
+        configuration.setDeadlineInMS(3000L);
+        configuration.setMethodDeadlinesInMS(Collections.singletonMap("PaymentService/SubmitSupportWithWechatPay", 0L));
+
+        Channel channel = this.buildChannel(configuration);
+        this.call(channel, GrpcChannelBuilderUnitTests.WRITE_METHOD, CallOptions.DEFAULT);
+        Assert.assertNull(this.receivedDeadline.get());
+
+        this.call(channel, GrpcChannelBuilderUnitTests.READ_METHOD, CallOptions.DEFAULT);
+        Assert.assertNotNull(this.receivedDeadline.get());
+    }
+
+    /**
+     * Tests a service deadline applies to all the methods of the service.
+     */
+    @Test
+    public void serviceDeadlineAppliesToAllMethods() {
+        GrpcConfiguration configuration = this.buildConfiguration();
+        configuration.setDeadlineInMS(3000L);
+        configuration.setMethodDeadlinesInMS(Collections.singletonMap(GrpcChannelBuilderUnitTests.SERVICE_NAME, 0L));
+
+        this.call(this.buildChannel(configuration), GrpcChannelBuilderUnitTests.READ_METHOD, CallOptions.DEFAULT);
+
+        Assert.assertNull(this.receivedDeadline.get());
+    }
+
+    /**
+     * Tests a deadline set by the caller is kept.
+     */
+    @Test
+    public void callerDeadlineIsKept() {
+        GrpcConfiguration configuration = this.buildConfiguration();
+        configuration.setDeadlineInMS(3000L);
+
+        this.call(this.buildChannel(configuration), GrpcChannelBuilderUnitTests.READ_METHOD,
+                CallOptions.DEFAULT.withDeadlineAfter(60000L, TimeUnit.MILLISECONDS));
+
+        Assert.assertTrue(this.receivedDeadline.get().timeRemaining(TimeUnit.MILLISECONDS) > 3000L);
+    }
+
+    /**
+     * Tests a retryable method is retried on unavailable.
+     */
+    @Test
+    public void retryableMethodIsRetriedOnUnavailable() {
+        GrpcConfiguration configuration = this.buildConfiguration();
+        configuration.setRetryableMethods(Collections.singletonList("PaymentService/RetrieveUserPayments"));
+        this.failingCalls.set(1);
+
+        StringValue response = this.call(this.buildChannel(configuration), GrpcChannelBuilderUnitTests.READ_METHOD, CallOptions.DEFAULT);
+
+        Assert.assertEquals("request", response.getValue());
+        Assert.assertEquals(2, this.receivedCalls.get());
+    }
+
+    /**
+     * Tests a method not listed as retryable is not retried.
+     */
+    @Test
+    public void writeMethodIsNotRetried() {
+        GrpcConfiguration configuration = this.buildConfiguration();
+        configuration.setRetryableMethods(Collections.singletonList("PaymentService/RetrieveUserPayments"));
+        this.failingCalls.set(1);
+
+        try {
+            this.call(this.buildChannel(configuration), GrpcChannelBuilderUnitTests.WRITE_METHOD, CallOptions.DEFAULT);
+            Assert.fail("Unavailable expected.");
+        } catch (StatusRuntimeException exception) {
+            Assert.assertEquals(Status.Code.UNAVAILABLE, exception.getStatus().getCode());
+        }
+        Assert.assertEquals(1, this.receivedCalls.get());
+    }
+
+    private GrpcConfiguration buildConfiguration() {
+        GrpcConfiguration configuration = new GrpcConfiguration();
+        configuration.setPoolSize(2);
+        return configuration;
+    }
+
+    private Channel buildChannel(GrpcConfiguration configuration) {
+        return this.channelBuilder.build("vanga", configuration,
+                () -> InProcessChannelBuilder.forName(this.serverName).directExecutor());
+    }
+
+    private StringValue call(Channel channel, MethodDescriptor<StringValue, StringValue> method, CallOptions callOptions) {
+        return ClientCalls.blockingUnaryCall(channel, method, callOptions, StringValue.newBuilder().setValue("request").build());
+    }
+
+    private static MethodDescriptor<StringValue, StringValue> buildMethod(String methodName) {
+        return MethodDescriptor.<StringValue, StringValue>newBuilder()
+                .setType(MethodDescriptor.MethodType.UNARY)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName(GrpcChannelBuilderUnitTests.SERVICE_NAME, methodName))
+                .setRequestMarshaller(ProtoUtils.marshaller(StringValue.getDefaultInstance()))
+                .setResponseMarshaller(ProtoUtils.marshaller(StringValue.getDefaultInstance()))
+                .build();
+    }
+
+}
@@ -11,4 +11,30 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "distributor", ignoreUnknownFields = false)
 @Data
 public class DistributorConfiguration {
+
+    /**
+     * Page size used when streaming island subscriber ids from coua.
+     */
+    private Integer subscriberPageSize = 500;
+
+    /**
+     * Number of timelines written in one unordered bulk insert.
+     */
+    private Integer insertChunkSize = 500;
+
+    /**
+     * Maximum number of bulk inserts in flight for one distribution.
+     */
+    private Integer insertConcurrency = 4;
+
+    /**
+     * Subscriber count from which an island switches from fan-out on write to fan-out on read.
+     */
+    private Integer pullModeThreshold = 20000;
+
+    /**
+     * How long the pull island set is cached on each instance, a newly switched island is pulled at most this late.
+     */
+    private Long pullIslandCacheTtlInMs = 60000L;
+
 }
@@ -55,14 +55,6 @@ public class FeedEventListener implements MessageOrderListener {
                         return OrderAction.Success;
                     }
 
-                    Boolean hasConsumed = this.timelineService.hasConsumed(message.getKey()).block();
-
-                    if (Boolean.TRUE.equals(hasConsumed)) {
-                        return OrderAction.Success;
-                    } else if (Objects.isNull(hasConsumed)) {
-                        return OrderAction.Suspend;
-                    }
-
                     if (Objects.isNull(feedEventMessage.getFeedCreateEvent())) {
                         throw new InvalidProtocolBufferException("No feed event in message.");
                     }
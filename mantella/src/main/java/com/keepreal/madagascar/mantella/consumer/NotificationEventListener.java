@@ -8,6 +8,7 @@ import com.aliyun.openservices.ons.api.order.ConsumeOrderContext;
 import com.keepreal.madagascar.mantella.factory.TimelineFactory;
 import com.keepreal.madagascar.mantella.model.Timeline;
 import com.keepreal.madagascar.mantella.service.FeedService;
+import com.keepreal.madagascar.mantella.service.PullIslandService;
 import com.keepreal.madagascar.mantella.service.TimelineService;
 import com.keepreal.madagascar.tenrecs.NotificationEvent;
 import com.keepreal.madagascar.tenrecs.NotificationEventType;
@@ -29,20 +30,24 @@ public class NotificationEventListener implements MessageListener {
     private final FeedService feedService;
     private final TimelineService timelineService;
     private final TimelineFactory timelineFactory;
+    private final PullIslandService pullIslandService;
 
     /**
      * Constructs the notification event listener.
      *
-     * @param feedService     {@link FeedService}.
-     * @param timelineService {@link TimelineService}.
-     * @param timelineFactory {@link TimelineFactory}.
+     * @param feedService       {@link FeedService}.
+     * @param timelineService   {@link TimelineService}.
+     * @param timelineFactory   {@link TimelineFactory}.
+     * @param pullIslandService {@link PullIslandService}.
      */
     public NotificationEventListener(FeedService feedService,
                                      TimelineService timelineService,
-                                     TimelineFactory timelineFactory) {
+                                     TimelineFactory timelineFactory,
+                                     PullIslandService pullIslandService) {
         this.feedService = feedService;
         this.timelineService = timelineService;
         this.timelineFactory = timelineFactory;
+        this.pullIslandService = pullIslandService;
     }
 
     /**
@@ -69,6 +74,9 @@ public class NotificationEventListener implements MessageListener {
                         || StringUtils.isEmpty(event.getSubscribeEvent().getSubscriberId())) {
                         break;
                     }
+                    if (Boolean.TRUE.equals(this.pullIslandService.isPullIsland(event.getSubscribeEvent().getIslandId()).block())) {
+                        break;
+                    }
                     this.feedService.retrieveFeedsByIslandIdAndTimestampBefore(event.getSubscribeEvent().getIslandId(),
                                     System.currentTimeMillis(), NotificationEventListener.TIMELINE_PULL_PAGESIZE)
                             .map(feed -> this.timelineFactory.valueOf(feed.getId(), feed.getIslandId(),
@@ -1,5 +1,6 @@
 package com.keepreal.madagascar.mantella.factory;
 
+import com.keepreal.madagascar.fossa.TimelineFeedMessage;
 import com.keepreal.madagascar.mantella.FeedCreateEvent;
 import com.keepreal.madagascar.mantella.model.Timeline;
 import org.springframework.stereotype.Service;
@@ -70,4 +71,26 @@ public class TimelineFactory {
                 .build();
     }
 
-}
\ No newline at end of file
+    /**
+     * Converts a feed pulled at read time into a transient {@link Timeline}, shaped like the grouped timelines
+     * returned by the timeline aggregation.
+     *
+     * @param timelineFeedMessage {@link TimelineFeedMessage}.
+     * @return {@link Timeline}.
+     */
+    public Timeline valueOf(TimelineFeedMessage timelineFeedMessage) {
+        if (Objects.isNull(timelineFeedMessage)) {
+            return null;
+        }
+
+        return Timeline.builder()
+                .id(timelineFeedMessage.getDuplicateTag())
+                .feedId(timelineFeedMessage.getId())
+                .islandId(timelineFeedMessage.getIslandId())
+                .feedCreatedAt(timelineFeedMessage.getCreatedAt())
+                .duplicateTag(timelineFeedMessage.getDuplicateTag())
+                .updatedAt(timelineFeedMessage.getCreatedAt())
+                .build();
+    }
+
+}
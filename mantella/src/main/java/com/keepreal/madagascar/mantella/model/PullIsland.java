@@ -0,0 +1,23 @@
+package com.keepreal.madagascar.mantella.model;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents an island whose feeds are pulled at read time instead of being pushed into subscriber timelines.
+ */
+@Builder
+@Data
+@Document("pull_island")
+public class PullIsland {
+
+    @Id
+    private String id;
+    private Integer subscriberCount;
+    @CreatedDate
+    private Long createdAt;
+
+}
@@ -0,0 +1,10 @@
+package com.keepreal.madagascar.mantella.repository;
+
+import com.keepreal.madagascar.mantella.model.PullIsland;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Represents the pull island repository.
+ */
+public interface PullIslandRepository extends ReactiveMongoRepository<PullIsland, String> {
+}
@@ -11,8 +11,6 @@ import reactor.core.publisher.Mono;
  */
 public interface TimelineRepository extends ReactiveMongoRepository<Timeline, String> {
 
-    Mono<Boolean> existsByEventId(String eventId);
-
     Flux<Timeline> findTopByUserIdAndFeedCreatedAtAfterAndIsDeletedIsFalse(String userId, long startTimestamp, Pageable pageable);
 
     Flux<Timeline> findTopByUserIdAndFeedCreatedAtBeforeAndIsDeletedIsFalse(String userId, long startTimestamp, Pageable pageable);
@@ -4,6 +4,7 @@ import com.google.protobuf.Int64Value;
 import com.google.protobuf.StringValue;
 import com.keepreal.madagascar.common.FeedMessage;
 import com.keepreal.madagascar.common.PageRequest;
+import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.fossa.QueryFeedCondition;
 import com.keepreal.madagascar.fossa.ReactorFeedServiceGrpc;
 import com.keepreal.madagascar.fossa.RetrieveMultipleFeedsRequest;
@@ -13,6 +14,8 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
+import java.util.Objects;
+
 /**
  * Represents the feed service.
  */
@@ -58,4 +61,38 @@ public class FeedService {
                 .flatMapMany(feedsResponse -> Flux.fromIterable(feedsResponse.getMessageList()));
     }
 
+    /**
+     * Retrieves the latest feeds by island id within the given timestamp range.
+     *
+     * @param islandId        Island id.
+     * @param timestampAfter  Timestamp after, nullable.
+     * @param timestampBefore Timestamp before, nullable.
+     * @param pageSize        Page size.
+     * @return {@link TimelineFeedMessage}.
+     */
+    public Flux<TimelineFeedMessage> retrieveFeedsByIslandIdAndTimestamp(String islandId, Long timestampAfter, Long timestampBefore, Integer pageSize) {
+        ReactorFeedServiceGrpc.ReactorFeedServiceStub stub = ReactorFeedServiceGrpc.newReactorStub(this.fossaChannel);
+
+        QueryFeedCondition.Builder conditionBuilder = QueryFeedCondition.newBuilder()
+                .setIslandId(StringValue.of(islandId));
+        if (Objects.nonNull(timestampAfter)) {
+            conditionBuilder.setTimestampAfter(Int64Value.of(timestampAfter));
+        }
+        if (Objects.nonNull(timestampBefore)) {
+            conditionBuilder.setTimestampBefore(Int64Value.of(timestampBefore));
+        }
+
+        RetrieveMultipleFeedsRequest request = RetrieveMultipleFeedsRequest.newBuilder()
+                .setCondition(conditionBuilder)
+                .setPageRequest(PageRequest.newBuilder()
+                        .setPage(0)
+                        .setPageSize(pageSize)
+                        .build())
+                .build();
+
+        return stub.retrieveMultipleTimelineFeeds(request)
+                .filter(feedsResponse -> ErrorCode.REQUEST_SUCC_VALUE == feedsResponse.getStatus().getRtn())
+                .flatMapMany(feedsResponse -> Flux.fromIterable(feedsResponse.getMessageList()));
+    }
+
 }
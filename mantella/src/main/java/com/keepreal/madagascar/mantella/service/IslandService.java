@@ -1,15 +1,21 @@
 package com.keepreal.madagascar.mantella.service;
 
-import com.keepreal.madagascar.common.UserMessage;
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
-import com.keepreal.madagascar.coua.IslandSubscribersResponse;
+import com.keepreal.madagascar.common.exceptions.KeepRealBusinessException;
+import com.keepreal.madagascar.coua.IslandSubscriberIdsChunk;
 import com.keepreal.madagascar.coua.ReactorIslandServiceGrpc;
-import com.keepreal.madagascar.coua.RetrieveIslandSubscribersByIdRequest;
-import com.keepreal.madagascar.mantella.utils.PaginationUtils;
+import com.keepreal.madagascar.coua.RetrieveIslandByIdRequest;
+import com.keepreal.madagascar.coua.RetrieveSubscribedIslandIdsRequest;
+import com.keepreal.madagascar.coua.StreamIslandSubscriberIdsRequest;
+import com.keepreal.madagascar.coua.SubscribedIslandIdsResponse;
 import io.grpc.Channel;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents the island service.
@@ -29,23 +35,79 @@ public class IslandService {
     }
 
     /**
-     * Retrieves the island subscribers.
+     * Streams the island subscriber ids from coua. Coua walks the subscriptions by keyset and only reads the next
+     * chunk when this side has requested it, so at most a few chunks of subscribers are held in memory at a time.
+     * An error chunk or a stream cut before the last chunk fails the flux, so the event is redelivered instead of
+     * being acknowledged with a partial fan-out.
      *
-     * @param islandId Island id.
+     * @param islandId  Island id.
+     * @param chunkSize Chunk size for each coua read.
      * @return Flux of user ids.
      */
-    public Flux<String> retrieveSubscriberIdsByIslandId(String islandId) {
+    public Flux<String> retrieveSubscriberIdsByIslandId(String islandId, int chunkSize) {
         ReactorIslandServiceGrpc.ReactorIslandServiceStub stub = ReactorIslandServiceGrpc.newReactorStub(this.couaChannel);
 
-        RetrieveIslandSubscribersByIdRequest request = RetrieveIslandSubscribersByIdRequest.newBuilder()
+        StreamIslandSubscriberIdsRequest request = StreamIslandSubscriberIdsRequest.newBuilder()
+                .setIslandId(islandId)
+                .setChunkSize(chunkSize)
+                .build();
+
+        return Flux.defer(() -> {
+            AtomicBoolean hasLastChunk = new AtomicBoolean(false);
+            return stub.streamIslandSubscriberIds(request)
+                    .<IslandSubscriberIdsChunk>handle((chunk, sink) -> {
+                        if (ErrorCode.REQUEST_SUCC_VALUE != chunk.getStatus().getRtn()) {
+                            sink.error(new KeepRealBusinessException(chunk.getStatus()));
+                            return;
+                        }
+                        hasLastChunk.set(chunk.getIsLast());
+                        sink.next(chunk);
+                    })
+                    .concatWith(Mono.defer(() -> hasLastChunk.get()
+                            ? Mono.empty()
+                            : Mono.error(new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR,
+                            "Subscriber stream of island " + islandId + " ended without the last chunk."))))
+                    .flatMapIterable(IslandSubscriberIdsChunk::getUserIdsList);
+        });
+    }
+
+    /**
+     * Retrieves the island member count.
+     *
+     * @param islandId Island id.
+     * @return Member count, zero if the island is not found.
+     */
+    public Mono<Integer> retrieveMemberCountByIslandId(String islandId) {
+        ReactorIslandServiceGrpc.ReactorIslandServiceStub stub = ReactorIslandServiceGrpc.newReactorStub(this.couaChannel);
+
+        RetrieveIslandByIdRequest request = RetrieveIslandByIdRequest.newBuilder()
                 .setId(islandId)
-                .setPageRequest(PaginationUtils.buildPageRequest(0, Integer.MAX_VALUE))
                 .build();
 
-        return stub.retrieveIslandSubscribersById(request)
-                .filter(userResponse -> ErrorCode.REQUEST_SUCC_VALUE == (userResponse.getStatus().getRtn()))
-                .flatMapIterable(IslandSubscribersResponse::getUserList)
-                .map(UserMessage::getId);
+        return stub.retrieveIslandById(request)
+                .filter(islandResponse -> ErrorCode.REQUEST_SUCC_VALUE == (islandResponse.getStatus().getRtn()))
+                .map(islandResponse -> islandResponse.getIsland().getMemberCount())
+                .defaultIfEmpty(0);
+    }
+
+    /**
+     * Retrieves the islands subscribed by the user among the given ones in one call.
+     *
+     * @param userId    User id.
+     * @param islandIds Island ids.
+     * @return Flux of subscribed island ids.
+     */
+    public Flux<String> retrieveSubscribedIslandIds(String userId, List<String> islandIds) {
+        ReactorIslandServiceGrpc.ReactorIslandServiceStub stub = ReactorIslandServiceGrpc.newReactorStub(this.couaChannel);
+
+        RetrieveSubscribedIslandIdsRequest request = RetrieveSubscribedIslandIdsRequest.newBuilder()
+                .setUserId(userId)
+                .addAllIslandIds(islandIds)
+                .build();
+
+        return stub.retrieveSubscribedIslandIds(request)
+                .filter(response -> ErrorCode.REQUEST_SUCC_VALUE == (response.getStatus().getRtn()))
+                .flatMapIterable(SubscribedIslandIdsResponse::getIslandIdsList);
     }
 
 }
@@ -0,0 +1,97 @@
+package com.keepreal.madagascar.mantella.service;
+
+import com.keepreal.madagascar.mantella.config.DistributorConfiguration;
+import com.keepreal.madagascar.mantella.model.PullIsland;
+import com.keepreal.madagascar.mantella.repository.PullIslandRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Represents the pull island service. Islands with more subscribers than the configured threshold are switched to
+ * fan-out on read, and stay that way so that feeds skipped by the push path are never lost for their readers.
+ */
+@Service
+public class PullIslandService {
+
+    private final PullIslandRepository pullIslandRepository;
+    private final IslandService islandService;
+    private final DistributorConfiguration distributorConfiguration;
+    private final Mono<List<String>> pullIslandIds;
+
+    /**
+     * Constructs the pull island service.
+     *
+     * @param pullIslandRepository     {@link PullIslandRepository}.
+     * @param islandService            {@link IslandService}.
+     * @param distributorConfiguration {@link DistributorConfiguration}.
+     */
+    public PullIslandService(PullIslandRepository pullIslandRepository,
+                             IslandService islandService,
+                             DistributorConfiguration distributorConfiguration) {
+        this.pullIslandRepository = pullIslandRepository;
+        this.islandService = islandService;
+        this.distributorConfiguration = distributorConfiguration;
+        this.pullIslandIds = Mono.defer(() -> this.pullIslandRepository.findAll()
+                .map(PullIsland::getId)
+                .collectList())
+                .cache(Duration.ofMillis(distributorConfiguration.getPullIslandCacheTtlInMs()));
+    }
+
+    /**
+     * Checks if the island has been switched to pull mode.
+     *
+     * @param islandId Island id.
+     * @return True if in pull mode.
+     */
+    public Mono<Boolean> isPullIsland(String islandId) {
+        return this.pullIslandRepository.existsById(islandId);
+    }
+
+    /**
+     * Checks if the island should be distributed in pull mode, and switches it to pull mode when its subscriber
+     * count has reached the threshold.
+     *
+     * @param islandId Island id.
+     * @return True if in pull mode.
+     */
+    public Mono<Boolean> checkAndMarkPullIsland(String islandId) {
+        return this.isPullIsland(islandId)
+                .flatMap(isPull -> {
+                    if (isPull) {
+                        return Mono.just(true);
+                    }
+
+                    return this.islandService.retrieveMemberCountByIslandId(islandId)
+                            .flatMap(memberCount -> {
+                                if (memberCount < this.distributorConfiguration.getPullModeThreshold()) {
+                                    return Mono.just(false);
+                                }
+
+                                return this.pullIslandRepository.save(PullIsland.builder()
+                                        .id(islandId)
+                                        .subscriberCount(memberCount)
+                                        .build())
+                                        .map(pullIsland -> true);
+                            });
+                });
+    }
+
+    /**
+     * Retrieves the pull islands subscribed by the user. The pull island set is cached locally, as islands never
+     * leave pull mode, and intersected with the subscriptions of the user in one coua call.
+     *
+     * @param userId User id.
+     * @return Flux of island ids.
+     */
+    public Flux<String> retrieveSubscribedPullIslandIds(String userId) {
+        return this.pullIslandIds
+                .flatMapMany(islandIds -> islandIds.isEmpty()
+                        ? Flux.empty()
+                        : this.islandService.retrieveSubscribedIslandIds(userId, islandIds));
+    }
+
+}
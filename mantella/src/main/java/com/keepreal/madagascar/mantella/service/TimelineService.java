@@ -1,8 +1,10 @@
 package com.keepreal.madagascar.mantella.service;
 
 import com.google.protobuf.UInt64Value;
-import com.keepreal.madagascar.common.snowflake.generator.LongIdGenerator;
+import com.keepreal.madagascar.common.constants.Constants;
 import com.keepreal.madagascar.mantella.FeedCreateEvent;
+import com.keepreal.madagascar.mantella.config.DistributorConfiguration;
+import com.keepreal.madagascar.mantella.factory.TimelineFactory;
 import com.keepreal.madagascar.mantella.model.Timeline;
 import com.keepreal.madagascar.mantella.repository.TimelineRepository;
 import com.keepreal.madagascar.mantella.service.distributor.FeedDistributor;
@@ -14,7 +16,11 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Represents the timeline service.
@@ -25,28 +31,40 @@ public class TimelineService {
     private final TimelineRepository timelineRepository;
     private final TimelineStorage timelineStorage;
     private final FeedDistributor feedDistributor;
-    private final LongIdGenerator idGenerator;
     private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final DistributorConfiguration distributorConfiguration;
+    private final PullIslandService pullIslandService;
+    private final FeedService feedService;
+    private final TimelineFactory timelineFactory;
 
     /**
      * Constructs the timeline service.
      *
-     * @param timelineRepository    {@link TimelineRepository}.
-     * @param timelineStorage       {@link TimelineStorage}.
-     * @param feedDistributor       {@link FeedDistributor}.
-     * @param idGenerator           {@link LongIdGenerator}.
-     * @param reactiveMongoTemplate {@link ReactiveMongoTemplate}.
+     * @param timelineRepository       {@link TimelineRepository}.
+     * @param timelineStorage          {@link TimelineStorage}.
+     * @param feedDistributor          {@link FeedDistributor}.
+     * @param reactiveMongoTemplate    {@link ReactiveMongoTemplate}.
+     * @param distributorConfiguration {@link DistributorConfiguration}.
+     * @param pullIslandService        {@link PullIslandService}.
+     * @param feedService              {@link FeedService}.
+     * @param timelineFactory          {@link TimelineFactory}.
      */
     public TimelineService(TimelineRepository timelineRepository,
                            TimelineStorage timelineStorage,
                            FeedDistributor feedDistributor,
-                           LongIdGenerator idGenerator,
-                           ReactiveMongoTemplate reactiveMongoTemplate) {
+                           ReactiveMongoTemplate reactiveMongoTemplate,
+                           DistributorConfiguration distributorConfiguration,
+                           PullIslandService pullIslandService,
+                           FeedService feedService,
+                           TimelineFactory timelineFactory) {
         this.timelineRepository = timelineRepository;
         this.timelineStorage = timelineStorage;
         this.feedDistributor = feedDistributor;
-        this.idGenerator = idGenerator;
         this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.distributorConfiguration = distributorConfiguration;
+        this.pullIslandService = pullIslandService;
+        this.feedService = feedService;
+        this.timelineFactory = timelineFactory;
     }
 
     /**
@@ -63,21 +81,25 @@ public class TimelineService {
     }
 
     /**
-     * Inserts a new timeline entity.
+     * Inserts timelines in fixed-size chunks, each chunk written as one unordered bulk insert with a bounded
+     * number of chunks in flight.
+     * <p>
+     * The timeline id is derived from the event, the feed and the user, so a redelivered event writes the same ids
+     * and the timelines inserted by a previous partial attempt are skipped as duplicates.
      *
      * @param timelines {@link Timeline}.
-     * @return {@link Mono}.
+     * @return {@link Timeline}.
      */
     public Flux<Timeline> insertAll(Flux<Timeline> timelines) {
         return timelines
-                .publishOn(Schedulers.elastic())
-                .flatMap(timeline -> {
-                    timeline.setId(String.valueOf(this.idGenerator.nextId()));
+                .map(timeline -> {
+                    timeline.setId(this.timelineId(timeline));
                     timeline.setCreatedAt(timeline.getFeedCreatedAt());
-                    return Mono.just(timeline);
+                    timeline.setUpdatedAt(System.currentTimeMillis());
+                    return timeline;
                 })
-                .collectList()
-                .flatMapMany(this.timelineRepository::insert);
+                .buffer(this.distributorConfiguration.getInsertChunkSize())
+                .flatMap(this.timelineStorage::insertAllUnordered, this.distributorConfiguration.getInsertConcurrency());
     }
 
     /**
@@ -91,17 +113,37 @@ public class TimelineService {
     }
 
     /**
-     * Checks if the feed event has consumed.
+     * Retrieves the timelines by user id with pagination, merging the pushed timelines with the feeds pulled from
+     * the subscribed pull mode islands.
      *
-     * @param eventId Event id.
-     * @return True if has been consumed.
+     * @param userId          User id.
+     * @param timestampAfter  TimestampAfter.
+     * @param pageSize        The chunk size.
+     * @param timestampBefore TimestampBefore
+     * @return A flux of {@link Timeline}.
      */
-    public Mono<Boolean> hasConsumed(String eventId) {
-        return this.timelineRepository.existsByEventId(eventId);
+    public Flux<Timeline> retrieveByUserIdAndCreatedTimestamp(String userId, UInt64Value timestampAfter, int pageSize, UInt64Value timestampBefore) {
+        Flux<Timeline> pushedTimelines = this.retrievePushedByUserIdAndCreatedTimestamp(userId, timestampAfter, pageSize, timestampBefore);
+        if (Constants.PUBLIC_INBOX_USER_ID.equals(userId)) {
+            return pushedTimelines;
+        }
+
+        Flux<Timeline> pulledTimelines = this.pullIslandService.retrieveSubscribedPullIslandIds(userId)
+                .flatMap(islandId -> this.feedService.retrieveFeedsByIslandIdAndTimestamp(islandId,
+                        Objects.isNull(timestampAfter) ? null : timestampAfter.getValue(),
+                        Objects.isNull(timestampBefore) ? null : timestampBefore.getValue(),
+                        pageSize))
+                .map(this.timelineFactory::valueOf);
+
+        return Flux.concat(pushedTimelines, pulledTimelines)
+                .distinct(Timeline::getFeedId)
+                .distinct(Timeline::getId)
+                .sort(Comparator.comparing(Timeline::getUpdatedAt).reversed())
+                .take(pageSize);
     }
 
     /**
-     * Retrieves the timelines by user id with pagination.
+     * Retrieves the pushed timelines by user id with pagination.
      *
      * @param userId          User id.
      * @param timestampAfter  TimestampAfter.
@@ -109,7 +151,7 @@ public class TimelineService {
      * @param timestampBefore TimestampBefore
      * @return A flux of {@link Timeline}.
      */
-    public Flux<Timeline> retrieveByUserIdAndCreatedTimestamp(String userId, UInt64Value timestampAfter, int pageSize, UInt64Value timestampBefore) {
+    private Flux<Timeline> retrievePushedByUserIdAndCreatedTimestamp(String userId, UInt64Value timestampAfter, int pageSize, UInt64Value timestampBefore) {
         Criteria criteria = Criteria.where("userId").is(userId).and("isDeleted").is(false);
         criteria = timestampAfter != null ?
                 criteria.and("updatedAt").gt(timestampAfter.getValue()) :
@@ -125,14 +167,24 @@ public class TimelineService {
     }
 
     /**
-     * Retrieves the latest timeline by user id.
+     * Retrieves the latest timeline by user id, including the latest feeds of the subscribed pull mode islands.
      *
      * @param userId User id.
      * @return {@link Timeline}.
      */
     public Mono<Timeline> retrieveLastFeedTimestampByUserId(String userId) {
-        return this.timelineRepository
+        Mono<Timeline> pushedTimeline = this.timelineRepository
                 .findTopByUserIdAndIsDeletedIsFalseOrderByFeedCreatedAtDesc(userId);
+        if (Constants.PUBLIC_INBOX_USER_ID.equals(userId)) {
+            return pushedTimeline;
+        }
+
+        Flux<Timeline> pulledTimelines = this.pullIslandService.retrieveSubscribedPullIslandIds(userId)
+                .flatMap(islandId -> this.feedService.retrieveFeedsByIslandIdAndTimestamp(islandId, null, null, 1))
+                .map(this.timelineFactory::valueOf);
+
+        return Flux.concat(pushedTimeline, pulledTimelines)
+                .reduce((left, right) -> left.getFeedCreatedAt() >= right.getFeedCreatedAt() ? left : right);
     }
 
     /**
@@ -146,4 +198,9 @@ public class TimelineService {
         return this.timelineStorage.deleteByUserIdAndIslandId(userId, islandId);
     }
 
+    private String timelineId(Timeline timeline) {
+        String key = String.join(":", timeline.getEventId(), timeline.getFeedId(), timeline.getUserId());
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
 }
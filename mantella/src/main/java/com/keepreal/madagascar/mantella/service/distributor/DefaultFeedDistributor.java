@@ -1,9 +1,12 @@
 package com.keepreal.madagascar.mantella.service.distributor;
 
+import com.keepreal.madagascar.common.constants.Constants;
 import com.keepreal.madagascar.mantella.FeedCreateEvent;
+import com.keepreal.madagascar.mantella.config.DistributorConfiguration;
 import com.keepreal.madagascar.mantella.factory.TimelineFactory;
 import com.keepreal.madagascar.mantella.model.Timeline;
 import com.keepreal.madagascar.mantella.service.IslandService;
+import com.keepreal.madagascar.mantella.service.PullIslandService;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
@@ -17,28 +20,41 @@ public class DefaultFeedDistributor implements FeedDistributor {
 
     private final TimelineFactory timelineFactory;
     private final IslandService islandService;
+    private final PullIslandService pullIslandService;
+    private final DistributorConfiguration distributorConfiguration;
 
     /**
      * Constructs the default feed distributor.
      *
-     * @param timelineFactory {@link TimelineFactory}.
-     * @param islandService   {@link IslandService}.
+     * @param timelineFactory          {@link TimelineFactory}.
+     * @param islandService            {@link IslandService}.
+     * @param pullIslandService        {@link PullIslandService}.
+     * @param distributorConfiguration {@link DistributorConfiguration}.
      */
     public DefaultFeedDistributor(TimelineFactory timelineFactory,
-                                  IslandService islandService) {
+                                  IslandService islandService,
+                                  PullIslandService pullIslandService,
+                                  DistributorConfiguration distributorConfiguration) {
         this.timelineFactory = timelineFactory;
         this.islandService = islandService;
+        this.pullIslandService = pullIslandService;
+        this.distributorConfiguration = distributorConfiguration;
     }
 
     /**
-     * Implements the distribute logic for the default distributor.
+     * Implements the distribute logic for the default distributor. Feeds of pull mode islands are only written
+     * into the author and the public inbox timelines, subscribers pick them up at read time.
      *
      * @param feedCreateEvent {@link FeedCreateEvent}.
      * @return A list of {@link Timeline}.
      */
     @Override
     public Flux<Timeline> distribute(FeedCreateEvent feedCreateEvent, String eventId) {
-        return this.islandService.retrieveSubscriberIdsByIslandId(feedCreateEvent.getIslandId())
+        return this.pullIslandService.checkAndMarkPullIsland(feedCreateEvent.getIslandId())
+                .flatMapMany(isPull -> isPull ?
+                        Flux.just(feedCreateEvent.getAuthorId(), Constants.PUBLIC_INBOX_USER_ID).distinct() :
+                        this.islandService.retrieveSubscriberIdsByIslandId(feedCreateEvent.getIslandId(),
+                                this.distributorConfiguration.getSubscriberPageSize()))
                 .map(userId -> this.timelineFactory.valueOf(feedCreateEvent, userId, eventId));
     }
 
@@ -1,19 +1,29 @@
 package com.keepreal.madagascar.mantella.storage;
 
 import com.keepreal.madagascar.mantella.model.Timeline;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 /**
  * Represents some customized mongo operations.
  */
 @Service
 public class TimelineStorage {
 
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
     private final ReactiveMongoTemplate reactiveMongoTemplate;
 
     /**
@@ -59,4 +69,39 @@ public class TimelineStorage {
                 .then();
     }
 
+    /**
+     * Inserts timelines as one unordered bulk write, so a single failed document does not stop the rest of the chunk.
+     * The timelines are expected to carry their ids and audit timestamps already. A chunk failing only on duplicate
+     * keys has been inserted by an earlier delivery and counts as written.
+     *
+     * @param timelines {@link Timeline}.
+     * @return {@link Timeline}.
+     */
+    public Flux<Timeline> insertAllUnordered(List<Timeline> timelines) {
+        if (timelines.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<Document> documents = timelines.stream()
+                .map(timeline -> {
+                    Document document = new Document();
+                    this.reactiveMongoTemplate.getConverter().write(timeline, document);
+                    return document;
+                })
+                .collect(Collectors.toList());
+
+        return Flux.from(this.reactiveMongoTemplate.getCollection(this.reactiveMongoTemplate.getCollectionName(Timeline.class))
+                .insertMany(documents, new InsertManyOptions().ordered(false)))
+                .onErrorResume(MongoBulkWriteException.class, exception -> TimelineStorage.isDuplicateOnly(exception)
+                        ? Mono.empty()
+                        : Mono.error(exception))
+                .thenMany(Flux.fromIterable(timelines));
+    }
+
+    private static boolean isDuplicateOnly(MongoBulkWriteException exception) {
+        return Objects.isNull(exception.getWriteConcernError())
+                && exception.getWriteErrors().stream()
+                .allMatch(error -> TimelineStorage.DUPLICATE_KEY_ERROR_CODE == error.getCode());
+    }
+
 }
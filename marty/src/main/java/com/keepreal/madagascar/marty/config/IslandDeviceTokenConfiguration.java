@@ -0,0 +1,21 @@
+package com.keepreal.madagascar.marty.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Represents the island device token read configurations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "island-device-token")
+@Data
+public class IslandDeviceTokenConfiguration {
+
+    /**
+     * Streams the tokens from the coua island index instead of paging RetrieveDeviceTokensById. Only to be enabled
+     * once the index has been backfilled.
+     */
+    private boolean streamEnabled = false;
+
+}
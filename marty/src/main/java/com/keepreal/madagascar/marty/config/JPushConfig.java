@@ -12,5 +12,6 @@ public class JPushConfig {
     private String appKey;
     private String appSecret;
     private Boolean isProduction;
+    private String url = "https://api.jpush.cn/v3/push";
 
 }
@@ -0,0 +1,45 @@
+package com.keepreal.madagascar.marty.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Represents the push dispatcher configurations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "push-dispatcher")
+@Data
+public class PushDispatcherConfiguration {
+
+    private int maxConnections = 64;
+    private long connectTimeoutInMs = 3000L;
+    private long responseTimeoutInMs = 5000L;
+    private int queueCapacity = 10000;
+    private int maxRetries = 3;
+    private long firstBackoffInMs = 200L;
+    private long maxBackoffInMs = 5000L;
+    private double jitterFactor = 0.5D;
+    private long drainTimeoutInMs = 30000L;
+    private Provider umeng = new Provider();
+    private Provider jpush = new Provider();
+
+    /**
+     * Represents the limits of one push provider.
+     */
+    @Data
+    public static class Provider {
+
+        /**
+         * Requests per second shared by all instances.
+         */
+        private long permitsPerSecond = 50L;
+
+        /**
+         * Requests in flight per instance.
+         */
+        private int maxConcurrency = 16;
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.keepreal.madagascar.marty.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Represents the delayed push queue configurations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "push-queue")
+@Data
+public class PushQueueConfiguration {
+
+    private long aggregationWindowInSeconds = 60L;
+    private int pollBatchSize = 100;
+
+}
@@ -1,28 +0,0 @@
-package com.keepreal.madagascar.marty.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.http.converter.StringHttpMessageConverter;
-import org.springframework.web.client.RestTemplate;
-
-import java.nio.charset.StandardCharsets;
-
-/**
- * Represents the rest template configurations.
- */
-@Configuration
-public class RestTemplateConfiguration {
-
-    /**
-     * TODO: config connection pool, timeout
-     *
-     * @return  {@link RestTemplate}.
-     */
-    @Bean
-    public RestTemplate restTemplate() {
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.getMessageConverters().set(1,new StringHttpMessageConverter(StandardCharsets.UTF_8));
-        return restTemplate;
-    }
-
-}
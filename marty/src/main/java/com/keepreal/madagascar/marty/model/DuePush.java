@@ -0,0 +1,18 @@
+package com.keepreal.madagascar.marty.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents an aggregated push claimed from the delayed push queue.
+ */
+@Data
+@Builder
+public class DuePush {
+
+    private String userId;
+    private Integer pushType;
+    private Integer count;
+    private String latestUserId;
+
+}
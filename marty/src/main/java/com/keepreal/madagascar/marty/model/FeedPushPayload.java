@@ -0,0 +1,18 @@
+package com.keepreal.madagascar.marty.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents the notification content of a feed, resolved once per push job and shared by all its batches.
+ */
+@Data
+@Builder
+public class FeedPushPayload {
+
+    private String feedId;
+    private String title;
+    private String text;
+    private PushPriorityInfo pushPriorityInfo;
+
+}
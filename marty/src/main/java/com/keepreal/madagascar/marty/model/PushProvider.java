@@ -0,0 +1,12 @@
+package com.keepreal.madagascar.marty.model;
+
+/**
+ * Represents the push providers, each dispatched with its own rate limit and concurrency.
+ */
+public enum PushProvider {
+
+    UMENG,
+    JPUSH,
+    ;
+
+}
@@ -0,0 +1,20 @@
+package com.keepreal.madagascar.marty.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Represents one push batch posted to a provider.
+ */
+@Data
+@Builder
+public class PushRequest {
+
+    private PushProvider provider;
+    private String url;
+    private Map<String, String> headers;
+    private String body;
+
+}
@@ -1,12 +1,10 @@
 package com.keepreal.madagascar.marty.schedule;
 
+import com.keepreal.madagascar.marty.config.PushQueueConfiguration;
+import com.keepreal.madagascar.marty.model.DuePush;
 import com.keepreal.madagascar.marty.service.PushNotificationService;
 import com.keepreal.madagascar.marty.service.RedissonService;
-import com.keepreal.madagascar.marty.util.AutoRedisLock;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RBucket;
-import org.redisson.api.RSet;
-import org.redisson.api.RedissonClient;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -23,38 +21,40 @@ import java.util.Map;
 @Slf4j
 public class PushScheduler {
 
-    private final RedissonClient redissonClient;
     private final RedissonService redissonService;
     private final PushNotificationService pushNotificationService;
+    private final PushQueueConfiguration pushQueueConfiguration;
 
-    public PushScheduler(RedissonClient redissonClient,
-                         RedissonService redissonService,
-                         PushNotificationService pushNotificationService) {
-        this.redissonClient = redissonClient;
+    public PushScheduler(RedissonService redissonService,
+                         PushNotificationService pushNotificationService,
+                         PushQueueConfiguration pushQueueConfiguration) {
         this.redissonService = redissonService;
         this.pushNotificationService = pushNotificationService;
+        this.pushQueueConfiguration = pushQueueConfiguration;
     }
 
-    @Scheduled(cron = "0 0/5 * * * *")
+    /**
+     * Drains the due pushes from the delayed push queue. Entries are claimed atomically, so every instance polls
+     * without a global lock.
+     */
+    @Scheduled(fixedDelayString = "${push-queue.poll-interval-in-ms:1000}")
     public void push() {
-        try (AutoRedisLock ignored = new AutoRedisLock(this.redissonClient, "push-schedule")) {
-            redissonClient.getKeys()
-                    .getKeysByPattern("push:*")
-                    .forEach(pushKey -> {
-                        RBucket<Object> pushType = redissonClient.getBucket(pushKey);
-                        Integer type = (Integer) pushType.get();
-                        RSet<Object> userSet = redissonClient.getSet("userSet:" + pushKey.split(":")[1]);
-                        Integer count = userSet.size();
-                        String latestUserId = (String) userSet.random();
+        List<DuePush> duePushes;
+        do {
+            duePushes = this.redissonService.pollDuePushes(this.pushQueueConfiguration.getPollBatchSize());
+            duePushes.forEach(this::push);
+        } while (duePushes.size() == this.pushQueueConfiguration.getPollBatchSize());
+    }
 
-                        pushType.delete();
-                        userSet.delete();
-                        Map<String, List<String>> token = redissonService.getToken(pushKey);
-                        String nickname = redissonService.getNickname(latestUserId);
+    private void push(DuePush duePush) {
+        try {
+            Map<String, List<String>> token = this.redissonService.getToken(duePush.getUserId());
+            String title = this.getTitle(this.redissonService.getNickname(duePush.getLatestUserId()), duePush.getCount());
 
-                        this.pushNotificationService.jPushIosNotification(getTitle(nickname, count), type, token.get("ios"));
-                        this.pushNotificationService.umengPushAndroidNotification(getTitle(nickname, count), type, token.get("android"));
-                    });
+            this.pushNotificationService.jPushIosNotification(title, duePush.getPushType(), token.get("ios"));
+            this.pushNotificationService.umengPushAndroidNotification(title, duePush.getPushType(), token.get("android"));
+        } catch (Exception e) {
+            log.error("Failed to push to user {}.", duePush.getUserId(), e);
         }
     }
 
@@ -1,5 +1,6 @@
 package com.keepreal.madagascar.marty.service;
 
+import com.keepreal.madagascar.common.FeedMessage;
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.common.exceptions.KeepRealBusinessException;
 import com.keepreal.madagascar.fossa.FeedResponse;
@@ -32,7 +33,17 @@ public class FeedService {
             throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR, exception.getMessage());
         }
 
-        return feedResponse.getFeed().getIsMembership() || feedResponse.getFeed().getPriceInCents() > 0L ? "这是给你的「支持者专属动态」" : feedResponse.getFeed().getText();
+        return this.retrieveFeedText(feedResponse.getFeed());
+    }
+
+    /**
+     * Retrieves the feed text shown in a push, hiding the paid ones.
+     *
+     * @param feedMessage {@link FeedMessage}.
+     * @return Feed text.
+     */
+    public String retrieveFeedText(FeedMessage feedMessage) {
+        return feedMessage.getIsMembership() || feedMessage.getPriceInCents() > 0L ? "这是给你的「支持者专属动态」" : feedMessage.getText();
     }
 
     public FeedResponse retrieveFeedInfoById(String feedId, String userId) {
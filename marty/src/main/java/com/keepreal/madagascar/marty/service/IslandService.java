@@ -3,18 +3,22 @@ package com.keepreal.madagascar.marty.service;
 import com.keepreal.madagascar.common.PageRequest;
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.common.exceptions.KeepRealBusinessException;
+import com.keepreal.madagascar.coua.IslandDeviceTokensChunk;
 import com.keepreal.madagascar.coua.IslandResponse;
 import com.keepreal.madagascar.coua.IslandServiceGrpc;
 import com.keepreal.madagascar.coua.RetrieveDeviceTokensRequest;
 import com.keepreal.madagascar.coua.RetrieveDeviceTokensResponse;
 import com.keepreal.madagascar.coua.RetrieveIslandByIdRequest;
+import com.keepreal.madagascar.coua.StreamIslandDeviceTokensRequest;
 import io.grpc.Channel;
 import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Represents the island service.
@@ -59,6 +63,45 @@ public class IslandService {
         return response;
     }
 
+    /**
+     * Streams the device tokens of the island from the coua index in one sequential read. The next chunk is only
+     * received once the consumer has handled the previous one. A stream ending before its last chunk fails, so a
+     * cut stream is not taken for the whole island.
+     *
+     * @param islandId  Island id.
+     * @param chunkSize Chunk size for each coua read.
+     * @param consumer  Consumer of each chunk.
+     */
+    public void streamDeviceTokens(String islandId, int chunkSize, Consumer<IslandDeviceTokensChunk> consumer) {
+        IslandServiceGrpc.IslandServiceBlockingStub stub = IslandServiceGrpc.newBlockingStub(this.channel);
+
+        StreamIslandDeviceTokensRequest request = StreamIslandDeviceTokensRequest.newBuilder()
+                .setIslandId(islandId)
+                .setChunkSize(chunkSize)
+                .build();
+
+        boolean isLast = false;
+        try {
+            Iterator<IslandDeviceTokensChunk> chunks = stub.streamIslandDeviceTokens(request);
+            while (chunks.hasNext()) {
+                IslandDeviceTokensChunk chunk = chunks.next();
+                if (ErrorCode.REQUEST_SUCC_VALUE != chunk.getStatus().getRtn()) {
+                    log.error("Stream device tokens of island {} failed after {}: {}", islandId, chunk.getLastId(), chunk.getStatus());
+                    throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR);
+                }
+                consumer.accept(chunk);
+                isLast = chunk.getIsLast();
+            }
+        } catch (StatusRuntimeException exception) {
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR, exception.getMessage());
+        }
+
+        if (!isLast) {
+            log.error("Stream device tokens of island {} ended before the last chunk.", islandId);
+            throw new KeepRealBusinessException(ErrorCode.REQUEST_UNEXPECTED_ERROR);
+        }
+    }
+
     public IslandResponse retrieveIslandById(String islandId) {
         IslandServiceGrpc.IslandServiceBlockingStub stub = IslandServiceGrpc.newBlockingStub(this.channel);
 
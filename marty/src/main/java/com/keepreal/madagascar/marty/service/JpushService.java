@@ -1,8 +1,5 @@
 package com.keepreal.madagascar.marty.service;
 
-import cn.jiguang.common.resp.APIConnectionException;
-import cn.jiguang.common.resp.APIRequestException;
-import cn.jpush.api.JPushClient;
 import cn.jpush.api.push.model.Message;
 import cn.jpush.api.push.model.Options;
 import cn.jpush.api.push.model.Platform;
@@ -10,104 +7,107 @@ import cn.jpush.api.push.model.PushPayload;
 import cn.jpush.api.push.model.audience.Audience;
 import cn.jpush.api.push.model.notification.Notification;
 import com.keepreal.madagascar.marty.config.JPushConfig;
+import com.keepreal.madagascar.marty.model.PushProvider;
+import com.keepreal.madagascar.marty.model.PushRequest;
 import com.keepreal.madagascar.marty.model.PushType;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Map;
 
 @Service
 @Slf4j
 public class JpushService {
 
-    private final JPushClient jPushClient;
+    private final PushDispatcher pushDispatcher;
+    private final String url;
+    private final String authorization;
     private final boolean isProduction;
 
-    public JpushService(JPushConfig jPushConfig) {
-        this.jPushClient = new JPushClient(jPushConfig.getAppSecret(), jPushConfig.getAppKey());
+    public JpushService(JPushConfig jPushConfig,
+                        PushDispatcher pushDispatcher) {
+        this.pushDispatcher = pushDispatcher;
+        this.url = jPushConfig.getUrl();
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (jPushConfig.getAppKey() + ":" + jPushConfig.getAppSecret()).getBytes(StandardCharsets.UTF_8));
         this.isProduction = jPushConfig.getIsProduction();
     }
 
     public void pushIOSMessageByType(PushType pushType, String... registrationIds) {
         if (registrationIds.length == 0)
             return;
-        try {
-            jPushClient.sendPush(PushPayload.newBuilder()
-                    .setPlatform(Platform.ios())
-                    .setAudience(Audience.registrationId(registrationIds))
-                    .setOptions(Options.newBuilder()
-                            .setApnsProduction(isProduction)
-                            .build())
-                    .setMessage(Message.newBuilder()
-                            .setMsgContent("notification")
-                            .addExtra("type", pushType.getValue())
-                            .build())
-                    .build());
-        } catch (APIConnectionException | APIRequestException e) {
-            e.printStackTrace();
-        }
+        this.send(PushPayload.newBuilder()
+                .setPlatform(Platform.ios())
+                .setAudience(Audience.registrationId(registrationIds))
+                .setOptions(Options.newBuilder()
+                        .setApnsProduction(isProduction)
+                        .build())
+                .setMessage(Message.newBuilder()
+                        .setMsgContent("notification")
+                        .addExtra("type", pushType.getValue())
+                        .build())
+                .build());
     }
 
     public void pushIOSNewFeedMessage(String islandId, PushType pushType, String... registrationIds) {
         if (registrationIds.length == 0)
             return;
-        try {
-            jPushClient.sendPush(PushPayload.newBuilder()
-                    .setPlatform(Platform.ios())
-                    .setAudience(Audience.registrationId(registrationIds))
-                    .setOptions(Options.newBuilder()
-                            .setApnsProduction(isProduction)
-                            .build())
-                    .setMessage(Message.newBuilder()
-                            .setMsgContent("notification")
-                            .addExtra("type", pushType.getValue())
-                            .addExtra("islandId", islandId)
-                            .build())
-                    .build());
-        } catch (APIConnectionException | APIRequestException e) {
-            log.error("error is {}", e.getMessage());
-        }
+        this.send(PushPayload.newBuilder()
+                .setPlatform(Platform.ios())
+                .setAudience(Audience.registrationId(registrationIds))
+                .setOptions(Options.newBuilder()
+                        .setApnsProduction(isProduction)
+                        .build())
+                .setMessage(Message.newBuilder()
+                        .setMsgContent("notification")
+                        .addExtra("type", pushType.getValue())
+                        .addExtra("islandId", islandId)
+                        .build())
+                .build());
     }
 
     public void pushIOSUpdateBulletinMessage(String chatGroupId, String bulletin, PushType pushType, String... registrationIds) {
         if (registrationIds.length == 0)
             return;
-        try {
-            jPushClient.sendPush(PushPayload.newBuilder()
-                    .setPlatform(Platform.ios())
-                    .setAudience(Audience.registrationId(registrationIds))
-                    .setOptions(Options.newBuilder()
-                            .setApnsProduction(isProduction)
-                            .build())
-                    .setMessage(Message.newBuilder()
-                            .setMsgContent("notification")
-                            .addExtra("type", pushType.getValue())
-                            .addExtra("chatGroupId", chatGroupId)
-                            .addExtra("bulletin", bulletin)
-                            .build())
-                    .build());
-        } catch (APIConnectionException | APIRequestException e) {
-            e.printStackTrace();
-        }
+        this.send(PushPayload.newBuilder()
+                .setPlatform(Platform.ios())
+                .setAudience(Audience.registrationId(registrationIds))
+                .setOptions(Options.newBuilder()
+                        .setApnsProduction(isProduction)
+                        .build())
+                .setMessage(Message.newBuilder()
+                        .setMsgContent("notification")
+                        .addExtra("type", pushType.getValue())
+                        .addExtra("chatGroupId", chatGroupId)
+                        .addExtra("bulletin", bulletin)
+                        .build())
+                .build());
     }
 
     public void pushIosNotification(String alert, Map<String, String> extras, String... registrationIds) {
         if (registrationIds.length == 0)
             return;
-        try {
-            PushPayload payload = PushPayload.newBuilder()
-                    .setPlatform(Platform.ios())
-                    .setAudience(Audience.registrationId(registrationIds))
-                    .setNotification(Notification.ios(alert, extras))
-                    .setOptions(Options.newBuilder()
-                            .setApnsProduction(isProduction)
-                            .build())
-                    .build();
-            this.jPushClient.sendPush(payload);
+        PushPayload payload = PushPayload.newBuilder()
+                .setPlatform(Platform.ios())
+                .setAudience(Audience.registrationId(registrationIds))
+                .setNotification(Notification.ios(alert, extras))
+                .setOptions(Options.newBuilder()
+                        .setApnsProduction(isProduction)
+                        .build())
+                .build();
+        this.send(payload);
+    }
 
-        } catch (APIConnectionException | APIRequestException e) {
-            e.printStackTrace();
-        }
+    private void send(PushPayload payload) {
+        this.pushDispatcher.dispatch(PushRequest.builder()
+                .provider(PushProvider.JPUSH)
+                .url(this.url)
+                .headers(Collections.singletonMap(HttpHeaders.AUTHORIZATION, this.authorization))
+                .body(payload.toString())
+                .build());
     }
 }
@@ -0,0 +1,278 @@
+package com.keepreal.madagascar.marty.service;
+
+import com.keepreal.madagascar.marty.config.PushDispatcherConfiguration;
+import com.keepreal.madagascar.marty.model.PushProvider;
+import com.keepreal.madagascar.marty.model.PushRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Represents the push dispatcher. Push batches are queued per provider and posted concurrently over a pooled
+ * non-blocking http client, so a large fan-out no longer holds the calling thread for every batch.
+ * <p>
+ * Every provider has a token bucket shared by all instances in redis and its own bound on requests in flight.
+ * Timeouts, connection failures, 429 and 5xx responses are retried with jittered backoff, other rejections are
+ * logged and dropped. Latency and failures are recorded per provider.
+ * <p>
+ * Callers are not held by the sending: the outcome of a batch is only reported through the {@link Mono} returned on
+ * dispatch, which callers may ignore. On shutdown the queued and in flight batches are drained for a bounded time.
+ */
+@Service
+@Slf4j
+public class PushDispatcher implements DisposableBean {
+
+    private static final String RATE_LIMITER_KEY_PREFIX = "push-rate-limiter:";
+    private static final String LATENCY_METRIC = "push.dispatch.latency";
+    private static final String FAILURE_METRIC = "push.dispatch.failures";
+
+    private final PushDispatcherConfiguration pushDispatcherConfiguration;
+    private final MeterRegistry meterRegistry;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final Map<PushProvider, RRateLimiter> rateLimiters = new EnumMap<>(PushProvider.class);
+    private final Map<PushProvider, FluxSink<PendingPush>> sinks = new EnumMap<>(PushProvider.class);
+    private final Map<PushProvider, Disposable> subscriptions = new EnumMap<>(PushProvider.class);
+    private final CountDownLatch drained = new CountDownLatch(PushProvider.values().length);
+    private volatile boolean stopped;
+
+    /**
+     * Constructs the push dispatcher.
+     *
+     * @param pushDispatcherConfiguration {@link PushDispatcherConfiguration}.
+     * @param redissonClient              {@link RedissonClient}.
+     * @param meterRegistry               {@link MeterRegistry}.
+     */
+    public PushDispatcher(PushDispatcherConfiguration pushDispatcherConfiguration,
+                          RedissonClient redissonClient,
+                          MeterRegistry meterRegistry) {
+        this.pushDispatcherConfiguration = pushDispatcherConfiguration;
+        this.meterRegistry = meterRegistry;
+
+        this.connectionProvider = ConnectionProvider.fixed("push-dispatcher", pushDispatcherConfiguration.getMaxConnections());
+        HttpClient httpClient = HttpClient.create(this.connectionProvider)
+                .tcpConfiguration(tcpClient -> tcpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        Math.toIntExact(pushDispatcherConfiguration.getConnectTimeoutInMs())));
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        for (PushProvider provider : PushProvider.values()) {
+            PushDispatcherConfiguration.Provider limits = this.getLimits(provider);
+
+            RRateLimiter rateLimiter = redissonClient.getRateLimiter(
+                    PushDispatcher.RATE_LIMITER_KEY_PREFIX + provider.name().toLowerCase());
+            rateLimiter.trySetRate(RateType.OVERALL, limits.getPermitsPerSecond(), 1L, RateIntervalUnit.SECONDS);
+            this.rateLimiters.put(provider, rateLimiter);
+
+            this.subscriptions.put(provider, Flux.<PendingPush>create(sink -> this.sinks.put(provider, sink))
+                    .onBackpressureBuffer(pushDispatcherConfiguration.getQueueCapacity(),
+                            pendingPush -> {
+                                this.recordFailure(provider, "dropped");
+                                pendingPush.outcome.onNext(false);
+                            },
+                            BufferOverflowStrategy.DROP_LATEST)
+                    .flatMap(pendingPush -> this.send(pendingPush.request)
+                            .doOnNext(pendingPush.outcome::onNext), limits.getMaxConcurrency())
+                    .doFinally(signal -> this.drained.countDown())
+                    .subscribe());
+        }
+    }
+
+    /**
+     * Queues the push batch without waiting for it to be sent. The batch is sent whether or not the returned
+     * {@link Mono} is subscribed; callers ignoring it accept that a dropped, rejected or exhausted batch is only
+     * logged and counted.
+     *
+     * @param request {@link PushRequest}.
+     * @return {@link Mono} of whether the provider accepted the batch.
+     */
+    public Mono<Boolean> dispatch(PushRequest request) {
+        if (this.stopped) {
+            this.recordFailure(request.getProvider(), "dropped");
+            return Mono.just(false);
+        }
+
+        MonoProcessor<Boolean> outcome = MonoProcessor.create();
+        this.sinks.get(request.getProvider()).next(new PendingPush(request, outcome));
+        return outcome;
+    }
+
+    /**
+     * Stops accepting batches, waits for the queued and in flight ones to be sent within the drain timeout, then
+     * releases the pooled connections.
+     */
+    @Override
+    public void destroy() {
+        this.stopped = true;
+        this.sinks.values().forEach(FluxSink::complete);
+        try {
+            if (!this.drained.await(this.pushDispatcherConfiguration.getDrainTimeoutInMs(), TimeUnit.MILLISECONDS)) {
+                log.warn("Push batches not drained within {} ms, dropped.", this.pushDispatcherConfiguration.getDrainTimeoutInMs());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.subscriptions.values().forEach(Disposable::dispose);
+            this.connectionProvider.dispose();
+        }
+    }
+
+    /**
+     * Sends the push batch, taking a token for every attempt.
+     *
+     * @param request {@link PushRequest}.
+     * @return {@link Mono} of whether the provider accepted the batch.
+     */
+    private Mono<Boolean> send(PushRequest request) {
+        PushProvider provider = request.getProvider();
+        return Mono.defer(() -> Mono.fromCompletionStage(this.rateLimiters.get(provider).acquireAsync())
+                .then(Mono.defer(() -> this.post(request))))
+                .onErrorResume(throwable -> !PushDispatcher.isTransient(throwable), throwable -> {
+                    log.error("Failed to push to {}.", provider, throwable);
+                    this.recordFailure(provider, "error");
+                    return Mono.just(false);
+                })
+                .retryBackoff(this.pushDispatcherConfiguration.getMaxRetries(),
+                        Duration.ofMillis(this.pushDispatcherConfiguration.getFirstBackoffInMs()),
+                        Duration.ofMillis(this.pushDispatcherConfiguration.getMaxBackoffInMs()),
+                        this.pushDispatcherConfiguration.getJitterFactor())
+                .onErrorResume(throwable -> {
+                    log.error("Failed to push to {} after {} retries.", provider,
+                            this.pushDispatcherConfiguration.getMaxRetries(), throwable);
+                    this.recordFailure(provider, "exhausted");
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Posts the push batch once, failing with a {@link TransientPushException} on a retryable response.
+     *
+     * @param request {@link PushRequest}.
+     * @return {@link Mono} of whether the provider accepted the batch.
+     */
+    private Mono<Boolean> post(PushRequest request) {
+        PushProvider provider = request.getProvider();
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        return this.webClient.post()
+                .uri(request.getUrl())
+                .headers(httpHeaders -> {
+                    if (Objects.nonNull(request.getHeaders())) {
+                        request.getHeaders().forEach(httpHeaders::set);
+                    }
+                })
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .syncBody(request.getBody())
+                .exchange()
+                .flatMap(response -> response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .flatMap(body -> this.handleResponse(provider, response.statusCode(), body)))
+                .timeout(Duration.ofMillis(this.pushDispatcherConfiguration.getResponseTimeoutInMs()))
+                .doOnSuccess(ignored -> sample.stop(this.getLatencyTimer(provider, "success")))
+                .doOnError(throwable -> {
+                    sample.stop(this.getLatencyTimer(provider, "failure"));
+                    if (PushDispatcher.isTransient(throwable)) {
+                        this.recordFailure(provider, "transient");
+                    }
+                });
+    }
+
+    /**
+     * Handles the provider response.
+     *
+     * @param provider {@link PushProvider}.
+     * @param status   {@link HttpStatus}.
+     * @param body     Response body.
+     * @return {@link Mono} of whether the provider accepted the batch.
+     */
+    private Mono<Boolean> handleResponse(PushProvider provider, HttpStatus status, String body) {
+        if (status.is2xxSuccessful()) {
+            return Mono.just(true);
+        }
+
+        if (status == HttpStatus.TOO_MANY_REQUESTS || status.is5xxServerError()) {
+            return Mono.error(new TransientPushException(provider, status, body));
+        }
+
+        log.error("Push rejected by {} with {}: {}", provider, status, body);
+        this.recordFailure(provider, "rejected");
+        return Mono.just(false);
+    }
+
+    private PushDispatcherConfiguration.Provider getLimits(PushProvider provider) {
+        return PushProvider.UMENG.equals(provider)
+                ? this.pushDispatcherConfiguration.getUmeng()
+                : this.pushDispatcherConfiguration.getJpush();
+    }
+
+    private Timer getLatencyTimer(PushProvider provider, String outcome) {
+        return this.meterRegistry.timer(PushDispatcher.LATENCY_METRIC,
+                "provider", provider.name().toLowerCase(), "outcome", outcome);
+    }
+
+    private void recordFailure(PushProvider provider, String reason) {
+        this.meterRegistry.counter(PushDispatcher.FAILURE_METRIC,
+                "provider", provider.name().toLowerCase(), "reason", reason).increment();
+    }
+
+    private static boolean isTransient(Throwable throwable) {
+        return throwable instanceof TransientPushException
+                || throwable instanceof TimeoutException
+                || throwable instanceof IOException;
+    }
+
+    /**
+     * Represents a queued push batch with the outcome reported to the caller.
+     */
+    private static class PendingPush {
+
+        private final PushRequest request;
+        private final MonoProcessor<Boolean> outcome;
+
+        PendingPush(PushRequest request, MonoProcessor<Boolean> outcome) {
+            this.request = request;
+            this.outcome = outcome;
+        }
+
+    }
+
+    /**
+     * Represents a provider response worth retrying.
+     */
+    private static class TransientPushException extends RuntimeException {
+
+        TransientPushException(PushProvider provider, HttpStatus status, String body) {
+            super(String.format("Push to %s failed with %s: %s", provider, status, body));
+        }
+
+    }
+
+}
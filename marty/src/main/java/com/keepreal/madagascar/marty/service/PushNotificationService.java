@@ -1,9 +1,10 @@
 package com.keepreal.madagascar.marty.service;
 
 import com.aliyun.openservices.shade.com.alibaba.fastjson.JSONObject;
+import com.keepreal.madagascar.common.FeedMessage;
 import com.keepreal.madagascar.common.PushPriority;
-import com.keepreal.madagascar.fossa.FeedResponse;
 import com.keepreal.madagascar.marty.converter.PushPriorityConverter;
+import com.keepreal.madagascar.marty.model.FeedPushPayload;
 import com.keepreal.madagascar.marty.model.PushPriorityInfo;
 import org.springframework.stereotype.Service;
 
@@ -58,32 +59,39 @@ public class PushNotificationService {
         }
     }
 
-    public void jPushIosNewFeedNotification(String userId, String feedId, List<String> tokenList) {
+    /**
+     * Resolves the new feed notification once for the whole push job.
+     *
+     * @param userId 作者 user id
+     * @param feedId 动态 feed id
+     * @return {@link FeedPushPayload}
+     */
+    public FeedPushPayload retrieveNewFeedPayload(String userId, String feedId) {
         PushPriorityInfo pushPriorityInfo = PushPriorityConverter.convertTo(PushPriority.NEW_FEED_VALUE);
 
-        String alert = redissonService.getNickname(userId) + pushPriorityInfo.getText();
+        return FeedPushPayload.builder()
+                .feedId(feedId)
+                .title(redissonService.getNickname(userId) + pushPriorityInfo.getText())
+                .text(feedService.retrieveFeedTextById(feedId, userId))
+                .pushPriorityInfo(pushPriorityInfo)
+                .build();
+    }
 
-        alert += "\n" + feedService.retrieveFeedTextById(feedId, userId);
+    public void jPushIosNewFeedNotification(FeedPushPayload payload, List<String> tokenList) {
+        String alert = payload.getTitle() + "\n" + payload.getText();
 
         Map<String, String> extrasMap = new HashMap<>();
-        extrasMap.put("URL", pushPriorityInfo.getIosUrl() + feedId);
+        extrasMap.put("URL", payload.getPushPriorityInfo().getIosUrl() + payload.getFeedId());
 
         jpushService.pushIosNotification(alert, extrasMap, tokenList.toArray(new String[0]));
     }
 
-    public void umengPushAndroidNewFeedNotification(String userId, String feedId, List<String> tokenList) {
-        PushPriorityInfo pushPriorityInfo = PushPriorityConverter.convertTo(PushPriority.NEW_FEED_VALUE);
-
-        String title = redissonService.getNickname(userId) + pushPriorityInfo.getText();
-
-        String text = feedService.retrieveFeedTextById(feedId, userId);
-
+    public void umengPushAndroidNewFeedNotification(FeedPushPayload payload, List<String> tokenList) {
         JSONObject dataObject = new JSONObject();
-        dataObject.put("feed_id", feedId);
-
-        generatorCustom(pushPriorityInfo.getAndroidUrl(), dataObject);
+        dataObject.put("feed_id", payload.getFeedId());
 
-        umengPushService.pushNotification(String.join(",", tokenList), title, text, generatorCustom(pushPriorityInfo.getAndroidUrl(), dataObject));
+        umengPushService.pushNotification(String.join(",", tokenList), payload.getTitle(), payload.getText(),
+                generatorCustom(payload.getPushPriorityInfo().getAndroidUrl(), dataObject));
     }
 
 
@@ -130,64 +138,59 @@ public class PushNotificationService {
     }
 
     /**
-     * 向提问者(android)推送新回答通知
+     * Resolves the new reply notification once for the whole push job.
      *
-     * @param userId    提问者 user id
-     * @param feedId    动态(问题) feed id
-     * @param tokenList 提问者 android token list
+     * @param feedMessage     动态(问题) {@link FeedMessage}
+     * @param isPublicVisible 是否推送给全体岛民
+     * @return {@link FeedPushPayload}
      */
-    public void umengPushAndroidNewReplyNotification(String userId, String feedId, List<String> tokenList, Boolean isPublicVisible) {
+    public FeedPushPayload retrieveNewReplyPayload(FeedMessage feedMessage, Boolean isPublicVisible) {
         PushPriorityInfo pushPriorityInfo;
         String title;
 
         if (isPublicVisible) {
             pushPriorityInfo = PushPriorityConverter.convertTo(PushPriority.NEW_PUBLIC_REPLY_VALUE);
-            String islandId = this.feedService.retrieveFeedInfoById(feedId, userId).getFeed().getIslandId();
-            String hostId = this.islandService.retrieveIslandById(islandId).getIsland().getHostId();
+            String hostId = this.islandService.retrieveIslandById(feedMessage.getIslandId()).getIsland().getHostId();
             title = this.redissonService.getNickname(hostId) + pushPriorityInfo.getText();
         } else {
             pushPriorityInfo = PushPriorityConverter.convertTo(PushPriority.NEW_REPLY_VALUE);
             title = pushPriorityInfo.getText();
         }
 
-        String text = feedService.retrieveFeedTextById(feedId, userId);
+        return FeedPushPayload.builder()
+                .feedId(feedMessage.getId())
+                .title(title)
+                .text(this.feedService.retrieveFeedText(feedMessage))
+                .pushPriorityInfo(pushPriorityInfo)
+                .build();
+    }
 
+    /**
+     * 向提问者或全体岛民(android)推送新回答通知
+     *
+     * @param payload   {@link FeedPushPayload}
+     * @param tokenList android token list
+     */
+    public void umengPushAndroidNewReplyNotification(FeedPushPayload payload, List<String> tokenList) {
         JSONObject dataObject = new JSONObject();
-        dataObject.put("feed_id", feedId);
+        dataObject.put("feed_id", payload.getFeedId());
 
-        generatorCustom(pushPriorityInfo.getAndroidUrl(), dataObject);
-
-        this.umengPushService.pushNotification(String.join(",", tokenList), title, text,
-                generatorCustom(pushPriorityInfo.getAndroidUrl(), dataObject));
+        this.umengPushService.pushNotification(String.join(",", tokenList), payload.getTitle(), payload.getText(),
+                generatorCustom(payload.getPushPriorityInfo().getAndroidUrl(), dataObject));
     }
 
     /**
-     * 向提问者(ios)推送新回答通知
+     * 向提问者或全体岛民(ios)推送新回答通知
      *
-     * @param userId    提问者 user id
-     * @param feedId    动态(问题) feed id
-     * @param tokenList 提问者 ios token list
+     * @param payload   {@link FeedPushPayload}
+     * @param tokenList ios token list
      */
-    public void jPushIosNewReplyNotificationNotification(String userId, String feedId, List<String> tokenList, Boolean isPublicVisible) {
-        PushPriorityInfo pushPriorityInfo = PushPriorityConverter.convertTo(PushPriority.NEW_REPLY_VALUE);
-
-        String alert;
-
-        if (isPublicVisible) {
-            pushPriorityInfo = PushPriorityConverter.convertTo(PushPriority.NEW_PUBLIC_REPLY_VALUE);
-            String islandId = this.feedService.retrieveFeedInfoById(feedId, userId).getFeed().getIslandId();
-            String hostId = this.islandService.retrieveIslandById(islandId).getIsland().getHostId();
-            alert = this.redissonService.getNickname(hostId) + pushPriorityInfo.getText();
-        } else {
-            pushPriorityInfo = PushPriorityConverter.convertTo(PushPriority.NEW_REPLY_VALUE);
-            alert = pushPriorityInfo.getText();
-        }
-
-        alert += "\n" + feedService.retrieveFeedTextById(feedId, userId);
+    public void jPushIosNewReplyNotificationNotification(FeedPushPayload payload, List<String> tokenList) {
+        String alert = payload.getTitle() + "\n" + payload.getText();
 
         Map<String, String> extrasMap = new HashMap<>();
-        extrasMap.put("URL", pushPriorityInfo.getIosUrl());
-        extrasMap.put("feed_id", feedId);
+        extrasMap.put("URL", payload.getPushPriorityInfo().getIosUrl());
+        extrasMap.put("feed_id", payload.getFeedId());
 
         this.jpushService.pushIosNotification(alert, extrasMap, tokenList.toArray(new String[0]));
     }
@@ -3,23 +3,30 @@ package com.keepreal.madagascar.marty.service;
 import com.google.common.collect.Lists;
 import com.google.protobuf.BoolValue;
 import com.google.protobuf.ProtocolStringList;
+import com.keepreal.madagascar.common.FeedMessage;
 import com.keepreal.madagascar.common.PageRequest;
 import com.keepreal.madagascar.coua.RetrieveDeviceTokenResponse;
-import com.keepreal.madagascar.coua.RetrieveDeviceTokensByUserIdListResponse;
 import com.keepreal.madagascar.coua.RetrieveDeviceTokensResponse;
+import com.keepreal.madagascar.coua.RetrieveDeviceTokensByUserIdListResponse;
 import com.keepreal.madagascar.fossa.FeedResponse;
 import com.keepreal.madagascar.mantella.FeedCreateEvent;
 import com.keepreal.madagascar.mantella.FeedUpdateEvent;
+import com.keepreal.madagascar.marty.config.IslandDeviceTokenConfiguration;
+import com.keepreal.madagascar.marty.model.FeedPushPayload;
 import com.keepreal.madagascar.marty.model.PushType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
 
 @Service
 @Slf4j
 public class PushService {
 
+    private static final int DEVICE_TOKEN_CHUNK_SIZE = 500;
+
     private final UserService userService;
     private final IslandService islandService;
     private final ChatService chatService;
@@ -27,6 +34,7 @@ public class PushService {
     private final JpushService jpushService;
     private final PushNotificationService pushNotificationService;
     private final FeedService feedService;
+    private final IslandDeviceTokenConfiguration islandDeviceTokenConfiguration;
 
     /**
      * @param userService       {@link UserService}.
@@ -36,13 +44,15 @@ public class PushService {
      * @param jpushService      {@link JpushService}.
      * @param pushNotificationService {@link PushNotificationService}
      * @param feedService {@link FeedService}
+     * @param islandDeviceTokenConfiguration {@link IslandDeviceTokenConfiguration}
      */
     public PushService(UserService userService,
                        IslandService islandService,
                        ChatService chatService, UmengPushService umengPushService,
                        JpushService jpushService,
                        PushNotificationService pushNotificationService,
-                       FeedService feedService) {
+                       FeedService feedService,
+                       IslandDeviceTokenConfiguration islandDeviceTokenConfiguration) {
         this.userService = userService;
         this.islandService = islandService;
         this.chatService = chatService;
@@ -50,6 +60,7 @@ public class PushService {
         this.jpushService = jpushService;
         this.pushNotificationService = pushNotificationService;
         this.feedService = feedService;
+        this.islandDeviceTokenConfiguration = islandDeviceTokenConfiguration;
     }
 
     public void pushMessageByType(String userId, PushType pushType) {
@@ -62,28 +73,27 @@ public class PushService {
         jpushService.pushIOSMessageByType(pushType, iosTokensList.toArray(new String[0]));
     }
 
+    /**
+     * Pushes the new feed to all the islanders, with a notification as well if posted by the host. The notification
+     * content is resolved once for all the token chunks.
+     *
+     * @param event    {@link FeedCreateEvent}
+     * @param pushType {@link PushType}
+     */
     public void pushNewFeed(FeedCreateEvent event, PushType pushType) {
-        int page = 0;
-        int pageSize = 500;
-        RetrieveDeviceTokensResponse response;
         String islandId = event.getIslandId();
-        do {
-            PageRequest pageRequest = PageRequest.newBuilder()
-                    .setPage(page++)
-                    .setPageSize(pageSize)
-                    .build();
-            response = islandService.getDeviceTokenList(islandId, pageRequest);
-
-            ProtocolStringList androidTokensList = response.getAndroidTokensList();
-            ProtocolStringList iosTokensList = response.getIosTokensList();
+        FeedPushPayload payload = event.getFromHost()
+                ? this.pushNotificationService.retrieveNewFeedPayload(event.getAuthorId(), event.getFeedId())
+                : null;
 
+        this.forEachDeviceTokens(islandId, (androidTokensList, iosTokensList) -> {
             umengPushService.pushNewFeedByType(String.join(",", androidTokensList), islandId, pushType);
             jpushService.pushIOSNewFeedMessage(islandId, pushType, iosTokensList.toArray(new String[0]));
-            if (event.getFromHost()) {
-                pushNotificationService.jPushIosNewFeedNotification(event.getAuthorId(), event.getFeedId(), iosTokensList);
-                pushNotificationService.umengPushAndroidNewFeedNotification(event.getAuthorId(), event.getFeedId(), androidTokensList);
+            if (Objects.nonNull(payload)) {
+                pushNotificationService.jPushIosNewFeedNotification(payload, iosTokensList);
+                pushNotificationService.umengPushAndroidNewFeedNotification(payload, androidTokensList);
             }
-        } while (response.getPageResponse().getHasMore());
+        });
     }
 
     public void pushUpdateBulletinMessage(String chatGroupId, String userId, String bulletin, PushType pushType) {
@@ -131,43 +141,55 @@ public class PushService {
 
         boolean publicVisible = feedResponse.getFeed().getAnswer().getPublicVisible().getValue();
         if (publicVisible) {
-            this.pushNewReplyToAllSubscriber(event);
+            this.pushNewReplyToAllSubscriber(event, feedResponse.getFeed());
         }
         RetrieveDeviceTokenResponse response = userService.retrieveUserDeviceToken(authorId);
         ProtocolStringList androidTokensList = response.getAndroidTokensList();
         ProtocolStringList iosTokensList = response.getIosTokensList();
 
-        this.pushNotificationService.umengPushAndroidNewReplyNotification(event.getAuthorId(), event.getFeedId(),
-                androidTokensList, false);
-        this.pushNotificationService.jPushIosNewReplyNotificationNotification(event.getAuthorId(), event.getFeedId(),
-                iosTokensList, false);
+        FeedPushPayload payload = this.pushNotificationService.retrieveNewReplyPayload(feedResponse.getFeed(), false);
+        this.pushNotificationService.umengPushAndroidNewReplyNotification(payload, androidTokensList);
+        this.pushNotificationService.jPushIosNewReplyNotificationNotification(payload, iosTokensList);
     }
 
     /**
      * 向该岛所有岛民推送回答通知消息
      *
-     * @param event {@link FeedUpdateEvent}
+     * @param event       {@link FeedUpdateEvent}
+     * @param feedMessage {@link FeedMessage}
+     */
+    private void pushNewReplyToAllSubscriber(FeedUpdateEvent event, FeedMessage feedMessage) {
+        FeedPushPayload payload = this.pushNotificationService.retrieveNewReplyPayload(feedMessage, true);
+
+        this.forEachDeviceTokens(event.getIslandId(), (androidTokensList, iosTokensList) -> {
+            pushNotificationService.jPushIosNewReplyNotificationNotification(payload, iosTokensList);
+            pushNotificationService.umengPushAndroidNewReplyNotification(payload, androidTokensList);
+        });
+    }
+
+    /**
+     * Reads the device tokens of the islanders chunk by chunk, streamed from the coua island index when enabled and
+     * paged through RetrieveDeviceTokensById otherwise.
+     *
+     * @param islandId island id
+     * @param consumer consumer of the android and ios tokens of each chunk
      */
-    private void pushNewReplyToAllSubscriber(FeedUpdateEvent event) {
+    private void forEachDeviceTokens(String islandId, BiConsumer<List<String>, List<String>> consumer) {
+        if (this.islandDeviceTokenConfiguration.isStreamEnabled()) {
+            this.islandService.streamDeviceTokens(islandId, PushService.DEVICE_TOKEN_CHUNK_SIZE,
+                    chunk -> consumer.accept(chunk.getAndroidTokensList(), chunk.getIosTokensList()));
+            return;
+        }
+
         int page = 0;
-        int pageSize = 500;
         RetrieveDeviceTokensResponse response;
-        String islandId = event.getIslandId();
         do {
             PageRequest pageRequest = PageRequest.newBuilder()
                     .setPage(page++)
-                    .setPageSize(pageSize)
+                    .setPageSize(PushService.DEVICE_TOKEN_CHUNK_SIZE)
                     .build();
-            response = islandService.getDeviceTokenList(islandId, pageRequest);
-
-            ProtocolStringList androidTokensList = response.getAndroidTokensList();
-            ProtocolStringList iosTokensList = response.getIosTokensList();
-
-            pushNotificationService.jPushIosNewReplyNotificationNotification(event.getAuthorId(), event.getFeedId(),
-                    iosTokensList, true);
-            pushNotificationService.umengPushAndroidNewReplyNotification(event.getAuthorId(),
-                    event.getFeedId(), androidTokensList, true);
-
+            response = this.islandService.getDeviceTokenList(islandId, pageRequest);
+            consumer.accept(response.getAndroidTokensList(), response.getIosTokensList());
         } while (response.getPageResponse().getHasMore());
     }
 
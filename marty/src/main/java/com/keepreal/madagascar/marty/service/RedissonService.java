@@ -3,57 +3,141 @@ package com.keepreal.madagascar.marty.service;
 import com.keepreal.madagascar.common.PushPriority;
 import com.keepreal.madagascar.common.UserMessage;
 import com.keepreal.madagascar.coua.RetrieveDeviceTokenResponse;
+import com.keepreal.madagascar.marty.config.PushQueueConfiguration;
+import com.keepreal.madagascar.marty.model.DuePush;
 import org.redisson.api.RBucket;
 import org.redisson.api.RMap;
-import org.redisson.api.RSet;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 
 @Service
 public class RedissonService {
 
+    private static final String PUSH_QUEUE_KEY = "pushQueue";
+    private static final String PUSH_TYPE_KEY_PREFIX = "pushType:";
+    private static final String PUSH_USERS_KEY_PREFIX = "pushUsers:";
+    private static final long PUSH_EXPIRE_PADDING_IN_MS = 60 * 1000L;
+
+    /**
+     * KEYS: queue, type, users. ARGV: user id, priority, latest user id, due timestamp, expire in ms.
+     */
+    private static final String ENQUEUE_SCRIPT =
+            "local current = redis.call('GET', KEYS[2]) " +
+            "local priority = tonumber(ARGV[2]) " +
+            "if (not current) or priority > tonumber(current) then " +
+            "  redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[5]) " +
+            "  redis.call('DEL', KEYS[3]) " +
+            "end " +
+            "if (not current) or priority >= tonumber(current) then " +
+            "  redis.call('SADD', KEYS[3], ARGV[3]) " +
+            "  redis.call('PEXPIRE', KEYS[3], ARGV[5]) " +
+            "end " +
+            "redis.call('ZADD', KEYS[1], 'NX', ARGV[4], ARGV[1]) " +
+            "return 'OK'";
+
+    /**
+     * KEYS: queue. ARGV: now, limit, type key prefix, users key prefix.
+     * Returns a flat list of user id, push type, sender count and one sender for each due push.
+     */
+    private static final String POLL_SCRIPT =
+            "local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) " +
+            "local result = {} " +
+            "for _, id in ipairs(ids) do " +
+            "  redis.call('ZREM', KEYS[1], id) " +
+            "  local typeKey = ARGV[3] .. id " +
+            "  local usersKey = ARGV[4] .. id " +
+            "  local pushType = redis.call('GET', typeKey) " +
+            "  local count = redis.call('SCARD', usersKey) " +
+            "  local latest = redis.call('SRANDMEMBER', usersKey) " +
+            "  redis.call('DEL', typeKey, usersKey) " +
+            "  table.insert(result, id) " +
+            "  table.insert(result, pushType or false) " +
+            "  table.insert(result, tostring(count)) " +
+            "  table.insert(result, latest or false) " +
+            "end " +
+            "return result";
+
     private final RedissonClient redissonClient;
     private final UserService userService;
+    private final PushQueueConfiguration pushQueueConfiguration;
 
     public RedissonService(RedissonClient redissonClient,
-                           UserService userService) {
+                           UserService userService,
+                           PushQueueConfiguration pushQueueConfiguration) {
         this.redissonClient = redissonClient;
         this.userService = userService;
+        this.pushQueueConfiguration = pushQueueConfiguration;
     }
 
+    /**
+     * Merges a push into the user's pending aggregated push and schedules it on the delayed push queue.
+     * The first push of a window decides the due time, higher priorities replace the pending one and equal
+     * priorities accumulate their senders. The merge runs as a single lua script so it is atomic across instances.
+     *
+     * @param userId       User id.
+     * @param pushPriority {@link PushPriority}.
+     * @param latestUserId The user id who triggers the push.
+     */
     public void putPushInfo(String userId, PushPriority pushPriority, String latestUserId) {
-        RBucket<Object> pushType = redissonClient.getBucket("push:" + userId);
-        RSet<Object> userSet = redissonClient.getSet("userSet:" + userId);
-        if (!pushType.isExists()) {
-            pushType.set(pushPriority.getNumber());
-            pushType.expire(5L, TimeUnit.MINUTES);
-            userSet.add(latestUserId);
-            userSet.expire(5L, TimeUnit.MINUTES);
-            return;
-        }
-
-        Integer redisPushType = (Integer) pushType.get();
+        long windowInMS = TimeUnit.SECONDS.toMillis(this.pushQueueConfiguration.getAggregationWindowInSeconds());
+        long dueTimestamp = System.currentTimeMillis() + windowInMS;
+        long expireInMS = windowInMS * 2 + PUSH_EXPIRE_PADDING_IN_MS;
+
+        this.redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                ENQUEUE_SCRIPT,
+                RScript.ReturnType.STATUS,
+                Arrays.asList(PUSH_QUEUE_KEY, PUSH_TYPE_KEY_PREFIX + userId, PUSH_USERS_KEY_PREFIX + userId),
+                userId, String.valueOf(pushPriority.getNumber()), latestUserId,
+                String.valueOf(dueTimestamp), String.valueOf(expireInMS));
+    }
 
-        if (pushPriority.getNumber() == redisPushType) {
-            userSet.add(latestUserId);
+    /**
+     * Claims the pushes that are due from the delayed push queue. Claimed entries are removed in the same lua script,
+     * so instances can poll in parallel without a lock and every push is claimed once.
+     *
+     * @param limit Max number of pushes to claim.
+     * @return {@link DuePush}.
+     */
+    public List<DuePush> pollDuePushes(int limit) {
+        List<Object> result = this.redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                POLL_SCRIPT,
+                RScript.ReturnType.MULTI,
+                Collections.singletonList(PUSH_QUEUE_KEY),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(limit),
+                PUSH_TYPE_KEY_PREFIX, PUSH_USERS_KEY_PREFIX);
+
+        if (Objects.isNull(result)) {
+            return Collections.emptyList();
         }
 
-        if (pushPriority.getNumber() > redisPushType) {
-            pushType.set(pushPriority.getNumber());
-            userSet.clear();
-            userSet.add(latestUserId);
+        List<DuePush> duePushes = new ArrayList<>(result.size() / 4);
+        for (int i = 0; i + 3 < result.size(); i += 4) {
+            if (Objects.isNull(result.get(i + 1)) || Objects.isNull(result.get(i + 3))) {
+                continue;
+            }
+            duePushes.add(DuePush.builder()
+                    .userId(String.valueOf(result.get(i)))
+                    .pushType(Integer.valueOf(String.valueOf(result.get(i + 1))))
+                    .count(Integer.valueOf(String.valueOf(result.get(i + 2))))
+                    .latestUserId(String.valueOf(result.get(i + 3)))
+                    .build());
         }
+        return duePushes;
     }
 
-    public Map<String, List<String>> getToken(String pushKey) {
-        String userId = pushKey.substring(pushKey.indexOf(':') + 1);
+    public Map<String, List<String>> getToken(String userId) {
         Map<String, List<String>> resMap = new HashMap<>();
 
         RMap<Object, Object> tokenMap = redissonClient.getMap("token:" + userId);
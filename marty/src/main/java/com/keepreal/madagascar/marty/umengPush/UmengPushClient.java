@@ -1,12 +1,12 @@
 package com.keepreal.madagascar.marty.umengPush;
 
-import com.aliyun.openservices.shade.com.alibaba.fastjson.JSONObject;
 import com.aliyun.openservices.shade.org.apache.commons.codec.digest.DigestUtils;
 import com.keepreal.madagascar.marty.config.UmengConfiguration;
+import com.keepreal.madagascar.marty.model.PushProvider;
+import com.keepreal.madagascar.marty.model.PushRequest;
+import com.keepreal.madagascar.marty.service.PushDispatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.StandardCharsets;
 
@@ -20,19 +20,19 @@ public class UmengPushClient {
     private final String appMasterSecret;
     private final String url;
     private static final String HTTP_METHOD = "POST";
-    private final RestTemplate restTemplate;
+    private final PushDispatcher pushDispatcher;
 
     /**
      * Constructs the umeng push client.
      *
      * @param umengConfiguration    {@link UmengConfiguration}.
-     * @param restTemplate          {@link RestTemplate}.
+     * @param pushDispatcher        {@link PushDispatcher}.
      */
     public UmengPushClient(UmengConfiguration umengConfiguration,
-                           RestTemplate restTemplate) {
+                           PushDispatcher pushDispatcher) {
         this.appMasterSecret = umengConfiguration.getAndroidAppMasterSecret();
         this.url = umengConfiguration.getUrl();
-        this.restTemplate = restTemplate;
+        this.pushDispatcher = pushDispatcher;
     }
 
     /**
@@ -41,12 +41,12 @@ public class UmengPushClient {
      * @param pushMessage   push message.
      */
     public void push(String pushMessage) {
-        try {
-            String sign = "?sign="+generatorSign(pushMessage);
-            restTemplate.postForObject(url + sign, pushMessage, JSONObject.class);
-        } catch (RestClientException e) {
-            log.error("exception: {}", e);
-        }
+        String sign = "?sign="+generatorSign(pushMessage);
+        pushDispatcher.dispatch(PushRequest.builder()
+                .provider(PushProvider.UMENG)
+                .url(url + sign)
+                .body(pushMessage)
+                .build());
     }
 
     /**
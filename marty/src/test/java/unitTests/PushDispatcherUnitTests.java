@@ -0,0 +1,174 @@
+package unitTests;
+
+import com.keepreal.madagascar.marty.config.PushDispatcherConfiguration;
+import com.keepreal.madagascar.marty.model.PushProvider;
+import com.keepreal.madagascar.marty.model.PushRequest;
+import com.keepreal.madagascar.marty.service.PushDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.RedissonPromise;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents unit tests for {@link PushDispatcher} against a stub provider.
+ */
+public class PushDispatcherUnitTests {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RRateLimiter rateLimiter;
+
+    private final AtomicInteger receivedCalls = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private long responseDelayInMs;
+    private DisposableServer server;
+    private PushDispatcherConfiguration configuration;
+    private PushDispatcher pushDispatcher;
+
+    /**
+     * Starts the stub provider and initializes the mock. Every call answers with the next queued status, 200 once
+     * the queue is empty.
+     */
+    @Before
+    public void InitMocks() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(this.redissonClient.getRateLimiter(ArgumentMatchers.anyString())).thenReturn(this.rateLimiter);
+        Mockito.when(this.rateLimiter.acquireAsync()).thenAnswer(invocation -> RedissonPromise.newSucceededFuture(null));
+
+        this.server = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> request.receive().aggregate()
+                        .then(Mono.delay(Duration.ofMillis(this.responseDelayInMs)))
+                        .then(Mono.defer(() -> {
+                            this.receivedCalls.incrementAndGet();
+                            Integer status = this.statuses.poll();
+                            return response.status(status == null ? 200 : status).sendString(Mono.just("{}")).then();
+                        })))
+                .bindNow();
+
+        this.configuration = new PushDispatcherConfiguration();
+        this.configuration.setFirstBackoffInMs(10L);
+        this.configuration.setMaxBackoffInMs(20L);
+        this.configuration.getUmeng().setMaxConcurrency(1);
+    }
+
+    /**
+     * Stops the dispatcher and the stub provider.
+     */
+    @After
+    public void stopServer() {
+        if (this.pushDispatcher != null) {
+            this.pushDispatcher.destroy();
+        }
+        this.server.disposeNow();
+    }
+
+    /**
+     * Tests an accepted batch is reported as accepted.
+     */
+    @Test
+    public void TestDispatchAccepted() {
+        this.pushDispatcher = this.buildDispatcher();
+
+        StepVerifier.create(this.pushDispatcher.dispatch(this.buildRequest()))
+                .expectNext(true)
+                .verifyComplete();
+        Assert.assertEquals(1, this.receivedCalls.get());
+    }
+
+    /**
+     * Tests a rejected batch is reported as not accepted without a retry.
+     */
+    @Test
+    public void TestDispatchRejectedNotRetried() {
+        this.statuses.add(400);
+        this.pushDispatcher = this.buildDispatcher();
+
+        StepVerifier.create(this.pushDispatcher.dispatch(this.buildRequest()))
+                .expectNext(false)
+                .verifyComplete();
+        Assert.assertEquals(1, this.receivedCalls.get());
+    }
+
+    /**
+     * Tests a batch failing with a server error is retried until accepted.
+     */
+    @Test
+    public void TestDispatchServerErrorRetried() {
+        this.statuses.add(503);
+        this.pushDispatcher = this.buildDispatcher();
+
+        StepVerifier.create(this.pushDispatcher.dispatch(this.buildRequest()))
+                .expectNext(true)
+                .verifyComplete();
+        Assert.assertEquals(2, this.receivedCalls.get());
+    }
+
+    /**
+     * Tests the batches still queued on shutdown are sent before the dispatcher stops.
+     */
+    @Test
+    public void TestDestroyDrainsQueuedBatches() {
+        this.responseDelayInMs = 50L;
+        this.pushDispatcher = this.buildDispatcher();
+
+        List<Mono<Boolean>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            outcomes.add(this.pushDispatcher.dispatch(this.buildRequest()));
+        }
+
+        // Action
+        this.pushDispatcher.destroy();
+
+        // Assert
+        Assert.assertEquals(5, this.receivedCalls.get());
+        outcomes.forEach(outcome -> Assert.assertEquals(Boolean.TRUE, outcome.block(Duration.ofSeconds(1))));
+    }
+
+    /**
+     * Tests a batch dispatched after shutdown is reported as not accepted.
+     */
+    @Test
+    public void TestDispatchAfterDestroy() {
+        this.pushDispatcher = this.buildDispatcher();
+        this.pushDispatcher.destroy();
+
+        StepVerifier.create(this.pushDispatcher.dispatch(this.buildRequest()))
+                .expectNext(false)
+                .verifyComplete();
+        Assert.assertEquals(0, this.receivedCalls.get());
+    }
+
+    private PushDispatcher buildDispatcher() {
+        return new PushDispatcher(this.configuration, this.redissonClient, new SimpleMeterRegistry());
+    }
+
+    private PushRequest buildRequest() {
+        return PushRequest.builder()
+                .provider(PushProvider.UMENG)
+                .url("http://127.0.0.1:" + this.server.port() + "/push")
+                .body("{}")
+                .build();
+    }
+
+}
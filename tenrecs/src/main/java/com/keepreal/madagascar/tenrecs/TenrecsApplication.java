@@ -4,6 +4,7 @@ import com.keepreal.madagascar.common.snowflake.annotation.EnableIdGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Represents the Tenrecs spring boot service entry.
@@ -11,6 +12,7 @@ import org.springframework.data.mongodb.config.EnableMongoAuditing;
 @SpringBootApplication
 @EnableMongoAuditing
 @EnableIdGenerator
+@EnableScheduling
 public class TenrecsApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.keepreal.madagascar.tenrecs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Represents the notification collapse configuration.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notification-collapse", ignoreUnknownFields = false)
+@Data
+public class NotificationCollapseConfiguration {
+
+    /**
+     * Length of the time window within which the reactions or comments on one feed collapse into one notification.
+     */
+    private Long windowInMs = 3600000L;
+
+    /**
+     * Number of recent actors kept on a collapsed notification.
+     */
+    private Integer actorSampleSize = 5;
+
+    /**
+     * Number of distinct actors counted exactly on a collapsed notification, the count stays there beyond.
+     */
+    private Integer maxCountedActors = 1000;
+
+}
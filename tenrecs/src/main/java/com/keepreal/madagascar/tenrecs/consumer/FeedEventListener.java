@@ -4,6 +4,7 @@ import com.aliyun.openservices.ons.api.Action;
 import com.aliyun.openservices.ons.api.ConsumeContext;
 import com.aliyun.openservices.ons.api.Message;
 import com.aliyun.openservices.ons.api.MessageListener;
+import com.aliyun.openservices.ons.api.batch.BatchMessageListener;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.keepreal.madagascar.common.MediaType;
 import com.keepreal.madagascar.mantella.FeedEventMessage;
@@ -13,7 +14,12 @@ import com.keepreal.madagascar.tenrecs.service.NotificationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.keepreal.madagascar.mantella.FeedEventType.FEED_EVENT_CREATE;
 import static com.keepreal.madagascar.mantella.FeedEventType.FEED_EVENT_UPDATE;
@@ -23,7 +29,7 @@ import static com.keepreal.madagascar.mantella.FeedEventType.FEED_EVENT_UPDATE;
  */
 @Component
 @Slf4j
-public class FeedEventListener implements MessageListener {
+public class FeedEventListener implements MessageListener, BatchMessageListener {
 
     private final FeedEventToNotificationFactory feedEventToNotificationFactory;
     private final NotificationService notificationService;
@@ -49,17 +55,9 @@ public class FeedEventListener implements MessageListener {
             }
             FeedEventMessage feedEventMessage = FeedEventMessage.parseFrom(message.getBody());
 
-            if (feedEventMessage.getType().equals(FEED_EVENT_CREATE)
-                    && MediaType.MEDIA_QUESTION_VALUE == feedEventMessage.getFeedCreateEvent().getMediaTypeValue()) {
+            if (this.shouldNotify(feedEventMessage)) {
                 Notification notification = this.feedEventToNotificationFactory.toNotification(feedEventMessage);
                 this.notificationService.insert(notification);
-                return Action.CommitMessage;
-            }
-
-            if (feedEventMessage.getType().equals(FEED_EVENT_UPDATE)) {
-                Notification notification = this.feedEventToNotificationFactory.toNotification(feedEventMessage);
-                this.notificationService.insert(notification);
-                return Action.CommitMessage;
             }
             return Action.CommitMessage;
         } catch (InvalidProtocolBufferException e) {
@@ -70,4 +68,70 @@ public class FeedEventListener implements MessageListener {
         }
     }
 
+    /**
+     * Implements the batched message consume method. Consumed events are looked up in one query and the
+     * notifications inserted in one bulk; the batch is committed only once all of them are persisted and counted,
+     * and reconsumed as a whole otherwise.
+     *
+     * @param messages {@link Message}.
+     * @param context  {@link ConsumeContext}.
+     * @return {@link Action}.
+     */
+    @Override
+    public Action consume(List<Message> messages, ConsumeContext context) {
+        if (Objects.isNull(messages) || messages.isEmpty()) {
+            return Action.CommitMessage;
+        }
+
+        List<FeedEventMessage> feedEventMessages = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            if (Objects.isNull(message) || Objects.isNull(message.getBody())) {
+                continue;
+            }
+
+            try {
+                FeedEventMessage feedEventMessage = FeedEventMessage.parseFrom(message.getBody());
+                if (this.shouldNotify(feedEventMessage)) {
+                    feedEventMessages.add(feedEventMessage);
+                }
+            } catch (InvalidProtocolBufferException e) {
+                log.warn("Bad formatted notification event, skipped.");
+            }
+        }
+
+        try {
+            Set<String> consumedEventIds = this.notificationService.retrieveConsumedEventIds(feedEventMessages.stream()
+                    .map(FeedEventMessage::getEventId)
+                    .filter(eventId -> !eventId.isEmpty())
+                    .collect(Collectors.toSet()));
+            this.notificationService.countUncounted(consumedEventIds);
+
+            Set<String> seenEventIds = new HashSet<>(consumedEventIds);
+            List<Notification> notifications = feedEventMessages.stream()
+                    .filter(feedEventMessage -> feedEventMessage.getEventId().isEmpty()
+                            || seenEventIds.add(feedEventMessage.getEventId()))
+                    .map(this.feedEventToNotificationFactory::toNotification)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            this.notificationService.insertAll(notifications);
+            return Action.CommitMessage;
+        } catch (Exception e) {
+            log.warn("Failed to persist {} feed events, reconsume later.", feedEventMessages.size());
+            return Action.ReconsumeLater;
+        }
+    }
+
+    /**
+     * Checks if the feed event notifies anyone: a new question or an answer.
+     *
+     * @param feedEventMessage {@link FeedEventMessage}.
+     * @return True if notifies.
+     */
+    private boolean shouldNotify(FeedEventMessage feedEventMessage) {
+        return (feedEventMessage.getType().equals(FEED_EVENT_CREATE)
+                && MediaType.MEDIA_QUESTION_VALUE == feedEventMessage.getFeedCreateEvent().getMediaTypeValue())
+                || feedEventMessage.getType().equals(FEED_EVENT_UPDATE);
+    }
+
 }
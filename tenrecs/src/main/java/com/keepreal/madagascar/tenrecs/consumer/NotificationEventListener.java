@@ -4,37 +4,50 @@ import com.aliyun.openservices.ons.api.Action;
 import com.aliyun.openservices.ons.api.ConsumeContext;
 import com.aliyun.openservices.ons.api.Message;
 import com.aliyun.openservices.ons.api.MessageListener;
+import com.aliyun.openservices.ons.api.batch.BatchMessageListener;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.keepreal.madagascar.tenrecs.NotificationEvent;
 import com.keepreal.madagascar.tenrecs.factory.NotificationFactory;
 import com.keepreal.madagascar.tenrecs.model.Notification;
+import com.keepreal.madagascar.tenrecs.service.NotificationCollapseService;
 import com.keepreal.madagascar.tenrecs.service.NotificationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Represents the logic consuming {@link NotificationEvent}.
  */
 @Component
 @Slf4j
-public class NotificationEventListener implements MessageListener {
+public class NotificationEventListener implements MessageListener, BatchMessageListener {
 
     private final NotificationService notificationService;
     private final NotificationFactory notificationFactory;
+    private final NotificationCollapseService notificationCollapseService;
 
     /**
      * Constructs the notification event listener.
      *
-     * @param notificationService {@link NotificationService}.
-     * @param notificationFactory {@link NotificationFactory}.
+     * @param notificationService         {@link NotificationService}.
+     * @param notificationFactory         {@link NotificationFactory}.
+     * @param notificationCollapseService {@link NotificationCollapseService}.
      */
     public NotificationEventListener(NotificationService notificationService,
-                                     NotificationFactory notificationFactory) {
+                                     NotificationFactory notificationFactory,
+                                     NotificationCollapseService notificationCollapseService) {
         this.notificationService = notificationService;
         this.notificationFactory = notificationFactory;
+        this.notificationCollapseService = notificationCollapseService;
     }
 
     /**
@@ -61,6 +74,8 @@ public class NotificationEventListener implements MessageListener {
 
             if (Objects.nonNull(notification.getId())) {
                 this.notificationService.update(notification);
+            } else if (this.notificationCollapseService.isCollapsible(notification)) {
+                this.notificationCollapseService.collapse(notification);
             } else {
                 this.notificationService.insert(notification);
             }
@@ -77,4 +92,111 @@ public class NotificationEventListener implements MessageListener {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Implements the batched logic. Consumed events are looked up in one query, reactions and comments collapsed
+     * one by one, and the other new notifications merged with earlier ones of the batch the way the builders merge
+     * with stored ones, then inserted in one bulk. The batch is committed only once all its notifications are
+     * persisted and counted, and reconsumed as a whole otherwise.
+     *
+     * @param messages Message payloads.
+     * @param context  Context.
+     * @return {@link Action}.
+     */
+    @Override
+    public Action consume(List<Message> messages, ConsumeContext context) {
+        if (Objects.isNull(messages) || messages.isEmpty()) {
+            return Action.CommitMessage;
+        }
+
+        try {
+            Set<String> consumedEventIds = this.notificationService.retrieveConsumedEventIds(messages.stream()
+                    .filter(Objects::nonNull)
+                    .map(Message::getKey)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+            this.notificationService.countUncounted(consumedEventIds);
+
+            Set<String> seenEventIds = new HashSet<>();
+            Map<String, Notification> insertsByMergeKey = new HashMap<>();
+            List<Notification> inserts = new ArrayList<>();
+            for (Message message : messages) {
+                if (Objects.isNull(message) || Objects.isNull(message.getBody())) {
+                    continue;
+                }
+
+                String eventId = message.getKey();
+                if (Objects.nonNull(eventId) && (consumedEventIds.contains(eventId) || !seenEventIds.add(eventId))) {
+                    log.warn("Event id {} has been consumed before, skipped.", eventId);
+                    continue;
+                }
+
+                Notification notification;
+                try {
+                    notification = this.notificationFactory.toNotification(NotificationEvent.parseFrom(message.getBody()));
+                } catch (InvalidProtocolBufferException e) {
+                    log.warn("Bad formatted notification event, skipped.");
+                    continue;
+                }
+
+                if (Objects.isNull(notification)) {
+                    continue;
+                }
+
+                if (Objects.nonNull(notification.getId())) {
+                    this.notificationService.update(notification);
+                    continue;
+                }
+
+                if (this.notificationCollapseService.isCollapsible(notification)) {
+                    this.notificationCollapseService.collapse(notification);
+                    continue;
+                }
+
+                String mergeKey = this.buildMergeKey(notification);
+                Notification pending = Objects.isNull(mergeKey) ? null : insertsByMergeKey.get(mergeKey);
+                if (Objects.nonNull(pending)) {
+                    this.merge(pending, notification);
+                    continue;
+                }
+
+                if (Objects.nonNull(mergeKey)) {
+                    insertsByMergeKey.put(mergeKey, notification);
+                }
+                inserts.add(notification);
+            }
+
+            this.notificationService.insertAll(inserts);
+            return Action.CommitMessage;
+        } catch (Exception e) {
+            log.warn("Failed to persist {} notification events, reconsume later.", messages.size());
+            return Action.ReconsumeLater;
+        }
+    }
+
+    /**
+     * Builds the key under which the notification builders merge notifications, null if never merged.
+     *
+     * @param notification {@link Notification}.
+     * @return Merge key.
+     */
+    private String buildMergeKey(Notification notification) {
+        if (Objects.nonNull(notification.getNotice()) && Objects.nonNull(notification.getNotice().getSubscribeNotice())) {
+            return String.format("subscribe:%s:%s",
+                    notification.getNotice().getSubscribeNotice().getIslandId(),
+                    notification.getNotice().getSubscribeNotice().getSubscriberId());
+        }
+
+        return null;
+    }
+
+    /**
+     * Merges a later notification into a pending one of the same batch.
+     *
+     * @param pending      Pending {@link Notification}.
+     * @param notification Later {@link Notification}.
+     */
+    private void merge(Notification pending, Notification notification) {
+        pending.setTimestamp(Math.max(pending.getTimestamp(), notification.getTimestamp()));
+    }
+
+}
@@ -46,7 +46,6 @@ public class NotificationFactory {
             case NOTIFICATION_EVENT_NEW_REACTION:
                 return new ReactionNotificationBuilder()
                         .setEvent(event)
-                        .setNotificationService(this.notificationService)
                         .build();
             case NOTIFICATION_EVENT_NEW_SUBSCRIBE:
             case NOTIFICATION_EVENT_NEW_MEMBER:
@@ -8,14 +8,10 @@ import com.keepreal.madagascar.tenrecs.NotificationEventType;
 import com.keepreal.madagascar.tenrecs.model.Feed;
 import com.keepreal.madagascar.tenrecs.model.Notification;
 import com.keepreal.madagascar.tenrecs.model.Reaction;
-import com.keepreal.madagascar.tenrecs.service.NotificationService;
 import com.keepreal.madagascar.tenrecs.util.MediaMessageConvertUtils;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.HashSet;
 import java.util.Objects;
-import java.util.Optional;
 
 /**
  * Implements the {@link NotificationBuilder}.
@@ -23,7 +19,6 @@ import java.util.Optional;
 public class ReactionNotificationBuilder implements NotificationBuilder {
 
     private NotificationEvent event;
-    private NotificationService notificationService;
 
     /**
      * Sets the notificaton event.
@@ -37,17 +32,6 @@ public class ReactionNotificationBuilder implements NotificationBuilder {
         return this;
     }
 
-    /**
-     * Sets the notification service.
-     *
-     * @param notificationService {@link NotificationService}.
-     * @return this.
-     */
-    public ReactionNotificationBuilder setNotificationService(NotificationService notificationService) {
-        this.notificationService = notificationService;
-        return this;
-    }
-
     /**
      * Builds the {@link Notification}.
      *
@@ -56,7 +40,6 @@ public class ReactionNotificationBuilder implements NotificationBuilder {
     @Override
     public Notification build() {
         if (Objects.isNull(this.event)
-                || Objects.isNull(this.notificationService)
                 || !this.event.getType().equals(NotificationEventType.NOTIFICATION_EVENT_NEW_REACTION)
                 || Objects.isNull(this.event.getReactionEvent())) {
             return null;
@@ -67,16 +50,6 @@ public class ReactionNotificationBuilder implements NotificationBuilder {
             return null;
         }
 
-        Optional<Notification> lastNotification = this.notificationService.retrieveLastByReactionAuthorIdAndReactionFeedId(
-                this.event.getReactionEvent().getReaction().getUserId(), this.event.getReactionEvent().getReaction().getFeedId());
-        if (lastNotification.isPresent()
-                && lastNotification.get().getTimestamp() > LocalDateTime.now().minusDays(1).atZone(ZoneId.of("Asia/Shanghai")).toInstant().toEpochMilli()) {
-            Notification ln = lastNotification.get();
-            ln.setTimestamp(this.event.getTimestamp());
-            ln.getReaction().getTypes().addAll(this.event.getReactionEvent().getReaction().getReactionTypeList());
-            return ln;
-        }
-
         return Notification.builder()
                 .type(NotificationType.NOTIFICATION_REACTIONS)
                 .userId(this.event.getUserId())
@@ -61,14 +61,20 @@ public class CommentNotificationMessageBuilder implements NotificationMessageBui
                 .setComment(this.toCommentMessage(this.notification.getComment()))
                 .build();
 
-        return NotificationMessage.newBuilder()
+        NotificationMessage.Builder builder = NotificationMessage.newBuilder()
                 .setId(this.notification.getId())
                 .setType(NotificationType.NOTIFICATION_COMMENTS)
                 .setUserId(this.notification.getUserId())
-                .setHasRead(this.notification.getCreatedAt().compareTo(this.lastReadTimestamp) < 0)
+                .setHasRead(this.notification.getTimestamp().compareTo(this.lastReadTimestamp) < 0)
                 .setCommentNotification(commentNotificationMessage)
-                .setTimestamp(this.notification.getTimestamp())
-                .build();
+                .setTimestamp(this.notification.getTimestamp());
+
+        if (Objects.nonNull(this.notification.getActorCount())) {
+            builder.setActorCount(this.notification.getActorCount())
+                    .addAllRecentActorIds(this.notification.getRecentActorIds());
+        }
+
+        return builder.build();
     }
 
     /**
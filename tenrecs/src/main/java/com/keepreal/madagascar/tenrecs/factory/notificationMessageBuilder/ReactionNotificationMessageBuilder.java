@@ -60,14 +60,20 @@ public class ReactionNotificationMessageBuilder implements NotificationMessageBu
                 .setReaction(this.toReactionMessage(this.notification.getReaction()))
                 .build();
 
-        return NotificationMessage.newBuilder()
+        NotificationMessage.Builder builder = NotificationMessage.newBuilder()
                 .setId(this.notification.getId())
                 .setType(NotificationType.NOTIFICATION_REACTIONS)
                 .setUserId(this.notification.getUserId())
-                .setHasRead(this.notification.getCreatedAt().compareTo(this.lastReadTimestamp) < 0)
+                .setHasRead(this.notification.getTimestamp().compareTo(this.lastReadTimestamp) < 0)
                 .setReactionNotification(reactionNotificationMessage)
-                .setTimestamp(this.notification.getTimestamp())
-                .build();
+                .setTimestamp(this.notification.getTimestamp());
+
+        if (Objects.nonNull(this.notification.getActorCount())) {
+            builder.setActorCount(this.notification.getActorCount())
+                    .addAllRecentActorIds(this.notification.getRecentActorIds());
+        }
+
+        return builder.build();
     }
 
     /**
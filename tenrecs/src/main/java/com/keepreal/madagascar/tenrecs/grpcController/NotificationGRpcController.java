@@ -1,5 +1,6 @@
 package com.keepreal.madagascar.tenrecs.grpcController;
 
+import com.google.protobuf.StringValue;
 import com.keepreal.madagascar.common.NoticeType;
 import com.keepreal.madagascar.common.NotificationType;
 import com.keepreal.madagascar.common.PageRequest;
@@ -13,18 +14,23 @@ import com.keepreal.madagascar.tenrecs.RetrieveMultipleNotificationsRequest;
 import com.keepreal.madagascar.tenrecs.UnreadNotificationsCountMessage;
 import com.keepreal.madagascar.tenrecs.factory.NotificationMessageFactory;
 import com.keepreal.madagascar.tenrecs.model.Notification;
+import com.keepreal.madagascar.tenrecs.model.NotificationCounterType;
+import com.keepreal.madagascar.tenrecs.model.UserNotificationCounter;
 import com.keepreal.madagascar.tenrecs.model.UserNotificationRecord;
 import com.keepreal.madagascar.tenrecs.service.NotificationService;
+import com.keepreal.madagascar.tenrecs.service.UserNotificationCounterService;
 import com.keepreal.madagascar.tenrecs.service.UserNotificationRecordService;
 import com.keepreal.madagascar.tenrecs.util.CommonStatusUtils;
+import com.keepreal.madagascar.tenrecs.util.NotificationCursorUtils;
 import com.keepreal.madagascar.tenrecs.util.PaginationUtils;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Objects;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -36,20 +42,24 @@ public class NotificationGRpcController extends NotificationServiceGrpc.Notifica
     private final NotificationService notificationService;
     private final UserNotificationRecordService userNotificationRecordService;
     private final NotificationMessageFactory notificationMessageFactory;
+    private final UserNotificationCounterService userNotificationCounterService;
 
     /**
      * Constructs the notification grpc controller.
      *
-     * @param notificationService           {@link NotificationService}.
-     * @param userNotificationRecordService {@link UserNotificationRecordService}.
-     * @param notificationMessageFactory    {@link NotificationMessage}.
+     * @param notificationService            {@link NotificationService}.
+     * @param userNotificationRecordService  {@link UserNotificationRecordService}.
+     * @param notificationMessageFactory     {@link NotificationMessage}.
+     * @param userNotificationCounterService {@link UserNotificationCounterService}.
      */
     public NotificationGRpcController(NotificationService notificationService,
                                       UserNotificationRecordService userNotificationRecordService,
-                                      NotificationMessageFactory notificationMessageFactory) {
+                                      NotificationMessageFactory notificationMessageFactory,
+                                      UserNotificationCounterService userNotificationCounterService) {
         this.notificationService = notificationService;
         this.userNotificationRecordService = userNotificationRecordService;
         this.notificationMessageFactory = notificationMessageFactory;
+        this.userNotificationCounterService = userNotificationCounterService;
     }
 
     /**
@@ -82,39 +92,56 @@ public class NotificationGRpcController extends NotificationServiceGrpc.Notifica
         String userId = request.getCondition().getUserId().getValue();
         NotificationType type = request.getCondition().getType().getValue();
 
-        Page<Notification> notifications;
-        if (!request.getCondition().hasType()) {
-            notifications = this.notificationService.retrieveByUserIdWithPagination(userId, pageRequest);
-        } else {
-            if (NotificationType.NOTIFICATION_ISLAND_NOTICE.equals(request.getCondition().getType().getValue())
-                    && request.getCondition().hasNoticeType()) {
-                if (NoticeType.NOTICE_TYPE_ISLAND_NEW_MEMBER.equals(request.getCondition().getNoticeType().getValue())) {
-                    notifications = this.notificationService.retrieveByUserIdAndNoticeTypeInWithPagination(userId,
-                            Arrays.asList(NoticeType.NOTICE_TYPE_ISLAND_NEW_MEMBER, NoticeType.NOTICE_TYPE_FEED_NEW_PAYMENT), pageRequest);
-                } else {
+        String cursor = request.hasCursor() ? request.getCursor().getValue() : null;
+
+        Slice<Notification> notifications;
+        try {
+            if (!request.getCondition().hasType()) {
+                notifications = this.notificationService.retrieveByUserIdWithPagination(userId, cursor, pageRequest);
+            } else {
+                if (NotificationType.NOTIFICATION_ISLAND_NOTICE.equals(request.getCondition().getType().getValue())
+                        && request.getCondition().hasNoticeType()) {
+                    if (NoticeType.NOTICE_TYPE_ISLAND_NEW_MEMBER.equals(request.getCondition().getNoticeType().getValue())) {
+                        notifications = this.notificationService.retrieveByUserIdAndNoticeTypeInWithPagination(userId,
+                                Arrays.asList(NoticeType.NOTICE_TYPE_ISLAND_NEW_MEMBER, NoticeType.NOTICE_TYPE_FEED_NEW_PAYMENT), cursor, pageRequest);
+                    } else {
+                        notifications = this.notificationService.retrieveByUserIdAndNoticeTypeWithPagination(userId,
+                                request.getCondition().getNoticeType().getValue(), cursor, pageRequest);
+                    }
+                } else if (NotificationType.NOTIFICATION_BOX_NOTICE.equals(request.getCondition().getType().getValue())
+                        && request.getCondition().hasNoticeType()) {
                     notifications = this.notificationService.retrieveByUserIdAndNoticeTypeWithPagination(userId,
-                            request.getCondition().getNoticeType().getValue(), pageRequest);
+                            request.getCondition().getNoticeType().getValue(), cursor, pageRequest);
+                } else {
+                    notifications = this.notificationService.retrieveByUserIdAndTypeWithPagination(userId, type, cursor, pageRequest);
                 }
-            } else if (NotificationType.NOTIFICATION_BOX_NOTICE.equals(request.getCondition().getType().getValue())
-                    && request.getCondition().hasNoticeType()) {
-                notifications = this.notificationService.retrieveByUserIdAndNoticeTypeWithPagination(userId,
-                        request.getCondition().getNoticeType().getValue(), pageRequest);
-            } else {
-                notifications = this.notificationService.retrieveByUserIdAndTypeWithPagination(userId, type, pageRequest);
             }
+        } catch (IllegalArgumentException exception) {
+            NotificationsResponse response = NotificationsResponse.newBuilder()
+                    .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_INVALID_ARGUMENT))
+                    .build();
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+            return;
         }
 
-        NotificationsResponse response = NotificationsResponse.newBuilder()
+        NotificationsResponse.Builder responseBuilder = NotificationsResponse.newBuilder()
                 .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC))
                 .addAllNotifications(notifications.get()
                         .map(notification -> this.notificationMessageFactory.toNotificationMessage(notification, record))
                         .collect(Collectors.toList()))
-                .setPageResponse(PaginationUtils.valueOf(notifications, pageRequest))
-                .build();
+                .setPageResponse(PaginationUtils.valueOf(notifications, pageRequest));
+        if (notifications.hasNext()) {
+            List<Notification> content = notifications.getContent();
+            responseBuilder.setNextCursor(StringValue.of(NotificationCursorUtils.encode(content.get(content.size() - 1))));
+        }
+        NotificationsResponse response = responseBuilder.build();
 
+        List<NotificationCounterType> readCounterTypes = new ArrayList<>();
         switch (type) {
             case NOTIFICATION_REACTIONS:
                 record.setLastReadReactionNotificationTimestamp(timestamp);
+                readCounterTypes.add(NotificationCounterType.REACTIONS);
                 break;
             case NOTIFICATION_ISLAND_NOTICE:
                 record.setLastReadIslandNoticeNotificationTimestamp(timestamp);
@@ -122,15 +149,19 @@ public class NotificationGRpcController extends NotificationServiceGrpc.Notifica
                     switch (request.getCondition().getNoticeType().getValue()) {
                         case NOTICE_TYPE_ISLAND_NEW_MEMBER:
                             record.setLastReadIslandNoticeNewMemberNotificationTimestamp(timestamp);
+                            readCounterTypes.add(NotificationCounterType.NEW_MEMBERS);
                             break;
                         case NOTICE_TYPE_ISLAND_NEW_SUBSCRIBER:
                             record.setLastReadIslandNoticeNewSubscriberNotificationTimestamp(timestamp);
+                            readCounterTypes.add(NotificationCounterType.NEW_SUBSCRIBERS);
                             break;
                         default:
                     }
                 } else {
                     record.setLastReadIslandNoticeNewMemberNotificationTimestamp(timestamp);
                     record.setLastReadIslandNoticeNewSubscriberNotificationTimestamp(timestamp);
+                    readCounterTypes.add(NotificationCounterType.NEW_MEMBERS);
+                    readCounterTypes.add(NotificationCounterType.NEW_SUBSCRIBERS);
                 }
                 break;
             case NOTIFICATION_BOX_NOTICE:
@@ -139,19 +170,24 @@ public class NotificationGRpcController extends NotificationServiceGrpc.Notifica
                     switch (request.getCondition().getNoticeType().getValue()) {
                         case NOTICE_TYPE_BOX_NEW_QUESTION:
                             record.setLastReadBoxNoticeNewQuestionNotificationTimestamp(timestamp);
+                            readCounterTypes.add(NotificationCounterType.NEW_QUESTIONS);
                             break;
                         case NOTICE_TYPE_BOX_NEW_ANSWER:
                             record.setLastReadBoxNoticeNewReplyNotificationTimestamp(timestamp);
+                            readCounterTypes.add(NotificationCounterType.NEW_ANSWERS);
                             break;
                         default:
                     }
                 } else {
                     record.setLastReadBoxNoticeNewQuestionNotificationTimestamp(timestamp);
                     record.setLastReadBoxNoticeNewReplyNotificationTimestamp(timestamp);
+                    readCounterTypes.add(NotificationCounterType.NEW_QUESTIONS);
+                    readCounterTypes.add(NotificationCounterType.NEW_ANSWERS);
                 }
                 break;
             case NOTIFICATION_COMMENTS:
                 record.setLastReadCommentNotificationTimestamp(timestamp);
+                readCounterTypes.add(NotificationCounterType.COMMENTS);
                 break;
             default:
                 record.setLastReadReactionNotificationTimestamp(timestamp);
@@ -162,9 +198,11 @@ public class NotificationGRpcController extends NotificationServiceGrpc.Notifica
                 record.setLastReadBoxNoticeNotificationTimestamp(timestamp);
                 record.setLastReadBoxNoticeNewQuestionNotificationTimestamp(timestamp);
                 record.setLastReadBoxNoticeNewReplyNotificationTimestamp(timestamp);
+                readCounterTypes.addAll(Arrays.asList(NotificationCounterType.values()));
         }
 
         this.userNotificationRecordService.update(record);
+        this.userNotificationCounterService.reset(userId, readCounterTypes, timestamp);
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
@@ -179,49 +217,20 @@ public class NotificationGRpcController extends NotificationServiceGrpc.Notifica
     @Override
     public void countUnreadNotifications(CountUnreadNotificationsRequest request,
                                          StreamObserver<CountUnreadNotificationsResponse> responseObserver) {
-        String userId = request.getUserId();
-        UserNotificationRecord record = this.userNotificationRecordService.retrieveByUserId(userId);
-
-        int newSubscriberCount = this.notificationService.countByUserIdAndNoticeTypeAndCreatedAtAfter(
-                userId,
-                NoticeType.NOTICE_TYPE_ISLAND_NEW_SUBSCRIBER,
-                Objects.isNull(record.getLastReadIslandNoticeNewSubscriberNotificationTimestamp())
-                        ? 0 : record.getLastReadIslandNoticeNewSubscriberNotificationTimestamp());
-
-        int newMemberCount = this.notificationService.countByUserIdAndNoticeTypeInAndCreatedAtAfter(
-                userId,
-                Arrays.asList(NoticeType.NOTICE_TYPE_ISLAND_NEW_MEMBER, NoticeType.NOTICE_TYPE_FEED_NEW_PAYMENT),
-                Objects.isNull(record.getLastReadIslandNoticeNewMemberNotificationTimestamp())
-                        ? 0 : record.getLastReadIslandNoticeNewMemberNotificationTimestamp());
-
-        int newQuestionCount = this.notificationService.countByUserIdAndNoticeTypeAndCreatedAtAfter(
-                userId,
-                NoticeType.NOTICE_TYPE_BOX_NEW_QUESTION,
-                Objects.isNull(record.getLastReadBoxNoticeNewQuestionNotificationTimestamp())
-                        ? 0 : record.getLastReadBoxNoticeNewQuestionNotificationTimestamp());
-
-        int newAnswerCount = this.notificationService.countByUserIdAndNoticeTypeAndCreatedAtAfter(
-                userId,
-                NoticeType.NOTICE_TYPE_BOX_NEW_ANSWER,
-                Objects.isNull(record.getLastReadBoxNoticeNewReplyNotificationTimestamp())
-                        ? 0 : record.getLastReadBoxNoticeNewReplyNotificationTimestamp());
+        UserNotificationCounter counter = this.userNotificationCounterService.retrieveByUserId(request.getUserId());
+
+        int newSubscriberCount = counter.getCount(NotificationCounterType.NEW_SUBSCRIBERS);
+        int newMemberCount = counter.getCount(NotificationCounterType.NEW_MEMBERS);
 
         UnreadNotificationsCountMessage unreadNotificationsCountMessage =
                 UnreadNotificationsCountMessage.newBuilder()
-                        .setUnreadCommentsCount(
-                                this.notificationService.countByUserIdAndTypeAndCreatedAtAfter(
-                                        userId,
-                                        NotificationType.NOTIFICATION_COMMENTS,
-                                        record.getLastReadCommentNotificationTimestamp()))
-                        .setUnreadReactionsCount(this.notificationService.countByUserIdAndTypeAndCreatedAtAfter(
-                                userId,
-                                NotificationType.NOTIFICATION_REACTIONS,
-                                record.getLastReadReactionNotificationTimestamp()))
+                        .setUnreadCommentsCount(counter.getCount(NotificationCounterType.COMMENTS))
+                        .setUnreadReactionsCount(counter.getCount(NotificationCounterType.REACTIONS))
                         .setUnreadIslandNoticesCount(newMemberCount + newSubscriberCount)
                         .setUnreadNewSubscribersCount(newSubscriberCount)
                         .setUnreadNewMembersCount(newMemberCount)
-                        .setUnreadNewQuestionCount(newQuestionCount)
-                        .setUnreadNewAnswerCount(newAnswerCount)
+                        .setUnreadNewQuestionCount(counter.getCount(NotificationCounterType.NEW_QUESTIONS))
+                        .setUnreadNewAnswerCount(counter.getCount(NotificationCounterType.NEW_ANSWERS))
                         .build();
 
         CountUnreadNotificationsResponse response = CountUnreadNotificationsResponse.newBuilder()
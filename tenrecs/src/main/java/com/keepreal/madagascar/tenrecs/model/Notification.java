@@ -6,14 +6,27 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.List;
+
 /**
- * Represents the notification model.
+ * Represents the notification model, indexed for the keyset pages of each notification list.
  */
 @Builder
 @Data
 @Document("notification")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_isDeleted_timestamp_id",
+                def = "{'userId': 1, 'isDeleted': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_type_isDeleted_timestamp_id",
+                def = "{'userId': 1, 'type': 1, 'isDeleted': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_noticeType_isDeleted_timestamp_id",
+                def = "{'userId': 1, 'notice.type': 1, 'isDeleted': 1, 'timestamp': -1, '_id': -1}")
+})
 public class Notification {
 
     @Id
@@ -29,6 +42,20 @@ public class Notification {
 
     private String eventId;
     private Long timestamp;
+    /**
+     * False once bulk inserted until the unread counters are increased for it, null for the other writes.
+     */
+    private Boolean counted;
+
+    @Indexed(unique = true, sparse = true)
+    private String collapseKey;
+    private Integer actorCount;
+    private List<String> recentActorIds;
+    /**
+     * Distinct actors of a collapsed notification, capped, so the actor count stays exact. Not read back.
+     */
+    private List<String> actorIds;
+    private List<String> recentEventIds;
 
     @Builder.Default
     private Boolean isDeleted = false;
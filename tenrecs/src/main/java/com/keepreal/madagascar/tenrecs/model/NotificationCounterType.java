@@ -0,0 +1,69 @@
+package com.keepreal.madagascar.tenrecs.model;
+
+import com.keepreal.madagascar.common.NoticeType;
+
+import java.util.Objects;
+
+/**
+ * Represents the unread notification counters kept per user.
+ */
+public enum NotificationCounterType {
+
+    COMMENTS,
+    REACTIONS,
+    NEW_SUBSCRIBERS,
+    NEW_MEMBERS,
+    NEW_QUESTIONS,
+    NEW_ANSWERS;
+
+    /**
+     * Resolves the counter a notification contributes to.
+     *
+     * @param notification {@link Notification}.
+     * @return {@link NotificationCounterType}, null if the notification is not counted.
+     */
+    public static NotificationCounterType valueOf(Notification notification) {
+        if (Objects.isNull(notification) || Objects.isNull(notification.getType())) {
+            return null;
+        }
+
+        switch (notification.getType()) {
+            case NOTIFICATION_COMMENTS:
+                return COMMENTS;
+            case NOTIFICATION_REACTIONS:
+                return REACTIONS;
+            case NOTIFICATION_ISLAND_NOTICE:
+            case NOTIFICATION_BOX_NOTICE:
+                return Objects.isNull(notification.getNotice()) ? null : NotificationCounterType.valueOf(notification.getNotice().getType());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Resolves the counter a notice type contributes to.
+     *
+     * @param noticeType {@link NoticeType}.
+     * @return {@link NotificationCounterType}, null if the notice type is not counted.
+     */
+    public static NotificationCounterType valueOf(NoticeType noticeType) {
+        if (Objects.isNull(noticeType)) {
+            return null;
+        }
+
+        switch (noticeType) {
+            case NOTICE_TYPE_ISLAND_NEW_SUBSCRIBER:
+                return NEW_SUBSCRIBERS;
+            case NOTICE_TYPE_ISLAND_NEW_MEMBER:
+            case NOTICE_TYPE_FEED_NEW_PAYMENT:
+                return NEW_MEMBERS;
+            case NOTICE_TYPE_BOX_NEW_QUESTION:
+                return NEW_QUESTIONS;
+            case NOTICE_TYPE_BOX_NEW_ANSWER:
+                return NEW_ANSWERS;
+            default:
+                return null;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.keepreal.madagascar.tenrecs.model;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the materialized unread notification counters of a user, keyed by {@link NotificationCounterType}.
+ * The reset timestamps mirror the last read timestamps in {@link UserNotificationRecord}. The version is bumped by
+ * every increase and reset, so a rebuild only overwrites counters that did not change while it was counting.
+ */
+@Builder
+@Data
+@Document("userNotificationCounter")
+public class UserNotificationCounter {
+
+    @Id
+    private String id;
+    @Builder.Default
+    private Map<String, Integer> counts = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> resetTimestamps = new HashMap<>();
+    private Long version;
+
+    /**
+     * Gets the unread count of a counter type.
+     *
+     * @param type {@link NotificationCounterType}.
+     * @return Unread count.
+     */
+    public int getCount(NotificationCounterType type) {
+        Integer count = this.counts.get(type.name());
+        return count == null || count < 0 ? 0 : count;
+    }
+
+}
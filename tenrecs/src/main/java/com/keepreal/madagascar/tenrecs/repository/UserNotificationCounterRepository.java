@@ -0,0 +1,10 @@
+package com.keepreal.madagascar.tenrecs.repository;
+
+import com.keepreal.madagascar.tenrecs.model.UserNotificationCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * Represents the repository for user notification counter.
+ */
+public interface UserNotificationCounterRepository extends MongoRepository<UserNotificationCounter, String> {
+}
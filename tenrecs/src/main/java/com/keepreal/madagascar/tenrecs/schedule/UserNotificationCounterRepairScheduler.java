@@ -0,0 +1,82 @@
+package com.keepreal.madagascar.tenrecs.schedule;
+
+import com.keepreal.madagascar.tenrecs.model.UserNotificationRecord;
+import com.keepreal.madagascar.tenrecs.repository.UserNotificationRecordRepository;
+import com.keepreal.madagascar.tenrecs.service.UserNotificationCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the scheduler that recomputes user notification counters from the notification collection, so any
+ * drift from missed increments does not outlive a day. Only the instance holding the repair lock runs it.
+ */
+@Service
+@Slf4j
+public class UserNotificationCounterRepairScheduler {
+
+    private static final int PAGE_SIZE = 200;
+    private static final String LOCK_KEY = "notification-counter:repair-lock";
+    private static final long LOCK_LEASE_IN_MS = TimeUnit.HOURS.toMillis(2L);
+
+    private final UserNotificationRecordRepository userNotificationRecordRepository;
+    private final UserNotificationCounterService userNotificationCounterService;
+    private final RedissonClient redissonClient;
+
+    /**
+     * Constructs the user notification counter repair scheduler.
+     *
+     * @param userNotificationRecordRepository {@link UserNotificationRecordRepository}.
+     * @param userNotificationCounterService   {@link UserNotificationCounterService}.
+     * @param redissonClient                   {@link RedissonClient}.
+     */
+    public UserNotificationCounterRepairScheduler(UserNotificationRecordRepository userNotificationRecordRepository,
+                                                  UserNotificationCounterService userNotificationCounterService,
+                                                  RedissonClient redissonClient) {
+        this.userNotificationRecordRepository = userNotificationRecordRepository;
+        this.userNotificationCounterService = userNotificationCounterService;
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * Rebuilds the counters of all users with a notification record, every day at 4:00.
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void repair() {
+        RLock lock = this.redissonClient.getLock(UserNotificationCounterRepairScheduler.LOCK_KEY);
+        try {
+            if (!lock.tryLock(0L, UserNotificationCounterRepairScheduler.LOCK_LEASE_IN_MS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            int page = 0;
+            Page<UserNotificationRecord> records;
+            do {
+                records = this.userNotificationRecordRepository.findAll(PageRequest.of(page++, PAGE_SIZE));
+                records.forEach(record -> {
+                    try {
+                        this.userNotificationCounterService.rebuild(record.getUserId());
+                    } catch (Exception e) {
+                        log.error("Failed to rebuild notification counter for user {}.", record.getUserId(), e);
+                    }
+                });
+            } while (records.hasNext());
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.keepreal.madagascar.tenrecs.service;
+
+import com.keepreal.madagascar.common.NotificationType;
+import com.keepreal.madagascar.common.snowflake.generator.DefaultSnowflakeIdGenerator;
+import com.keepreal.madagascar.common.snowflake.generator.LongIdGenerator;
+import com.keepreal.madagascar.tenrecs.config.NotificationCollapseConfiguration;
+import com.keepreal.madagascar.tenrecs.model.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * Represents the notification collapse service. The reactions or comments on one feed within one time window
+ * collapse into one rolling notification holding the latest action, the number of actors and a sample of the
+ * recent ones, so a viral feed costs its host one notification per window instead of one per action.
+ * <p>
+ * Every action is applied with atomic updates keyed on the collapse key, only the first action of a window inserts.
+ * The actor count is the size of a separate set of distinct actors, exact up to a cap and kept there beyond, so
+ * repeated actions of one actor are not counted again. The recent event ids are kept as well, so a recently
+ * redelivered event does not bump the notification again; an older one only reapplies its action, as its actor is
+ * already counted.
+ */
+@Service
+@Slf4j
+public class NotificationCollapseService {
+
+    private static final String KEY_SEPARATOR = ":";
+    private static final int EVENT_ID_HISTORY_SIZE = 20;
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final MongoTemplate mongoTemplate;
+    private final LongIdGenerator idGenerator;
+    private final UserNotificationCounterService userNotificationCounterService;
+    private final NotificationCollapseConfiguration notificationCollapseConfiguration;
+
+    /**
+     * Constructs the notification collapse service.
+     *
+     * @param mongoTemplate                     {@link MongoTemplate}.
+     * @param idGenerator                       {@link DefaultSnowflakeIdGenerator}.
+     * @param userNotificationCounterService    {@link UserNotificationCounterService}.
+     * @param notificationCollapseConfiguration {@link NotificationCollapseConfiguration}.
+     */
+    public NotificationCollapseService(MongoTemplate mongoTemplate,
+                                       LongIdGenerator idGenerator,
+                                       UserNotificationCounterService userNotificationCounterService,
+                                       NotificationCollapseConfiguration notificationCollapseConfiguration) {
+        this.mongoTemplate = mongoTemplate;
+        this.idGenerator = idGenerator;
+        this.userNotificationCounterService = userNotificationCounterService;
+        this.notificationCollapseConfiguration = notificationCollapseConfiguration;
+    }
+
+    /**
+     * Checks if the notification collapses with the others on its feed.
+     *
+     * @param notification {@link Notification}.
+     * @return True if collapsible.
+     */
+    public boolean isCollapsible(Notification notification) {
+        return Objects.nonNull(notification.getFeed())
+                && Objects.nonNull(notification.getTimestamp())
+                && Objects.nonNull(this.getActorId(notification));
+    }
+
+    /**
+     * Collapses the notification into the one of its feed and window, inserting it if first.
+     *
+     * @param notification {@link Notification}.
+     * @return {@link Notification}, null if the event has been collapsed before.
+     */
+    public Notification collapse(Notification notification) {
+        String collapseKey = this.buildCollapseKey(notification);
+        String actorId = this.getActorId(notification);
+
+        for (int attempt = 0; attempt < NotificationCollapseService.MAX_ATTEMPTS; attempt++) {
+            Notification previous = this.mongoTemplate.findAndModify(
+                    this.buildCollapseQuery(this.buildCollapseCriteria(collapseKey, notification)
+                            .and("actorIds").ne(actorId)
+                            .and("actorCount").lt(this.notificationCollapseConfiguration.getMaxCountedActors())),
+                    this.buildCollapseUpdate(notification, actorId, true),
+                    Notification.class);
+            if (Objects.isNull(previous)) {
+                previous = this.mongoTemplate.findAndModify(
+                        this.buildCollapseQuery(this.buildCollapseCriteria(collapseKey, notification)),
+                        this.buildCollapseUpdate(notification, actorId, false),
+                        Notification.class);
+            }
+
+            if (Objects.nonNull(previous)) {
+                notification.setId(previous.getId());
+                this.userNotificationCounterService.increase(notification, previous.getTimestamp());
+                return notification;
+            }
+
+            notification.setId(String.valueOf(this.idGenerator.nextId()));
+            notification.setCreatedAt(notification.getTimestamp());
+            notification.setCollapseKey(collapseKey);
+            notification.setActorCount(1);
+            notification.setRecentActorIds(Collections.singletonList(actorId));
+            notification.setActorIds(Collections.singletonList(actorId));
+            notification.setRecentEventIds(Collections.singletonList(notification.getEventId()));
+            try {
+                Notification inserted = this.mongoTemplate.insert(notification);
+                this.userNotificationCounterService.increase(inserted);
+                return inserted;
+            } catch (DuplicateKeyException exception) {
+                notification.setId(null);
+            }
+        }
+
+        log.warn("Event id {} has been collapsed before, skipped.", notification.getEventId());
+        return null;
+    }
+
+    /**
+     * Builds the criteria matching the collapsed notification unless it already holds the event.
+     *
+     * @param collapseKey  Collapse key.
+     * @param notification {@link Notification}.
+     * @return {@link Criteria}.
+     */
+    private Criteria buildCollapseCriteria(String collapseKey, Notification notification) {
+        return Criteria.where("collapseKey").is(collapseKey)
+                .and("recentEventIds").ne(notification.getEventId());
+    }
+
+    /**
+     * Builds the query of the collapsed notification, leaving its actor set out of the returned document.
+     *
+     * @param criteria {@link Criteria}.
+     * @return {@link Query}.
+     */
+    private Query buildCollapseQuery(Criteria criteria) {
+        Query query = Query.query(criteria);
+        query.fields().exclude("actorIds");
+        return query;
+    }
+
+    /**
+     * Builds the update applying the action to the collapsed notification.
+     *
+     * @param notification {@link Notification}.
+     * @param actorId      Actor id.
+     * @param isNewActor   Whether the actor is a new one to count.
+     * @return {@link Update}.
+     */
+    private Update buildCollapseUpdate(Notification notification, String actorId, boolean isNewActor) {
+        Update update = new Update()
+                .max("timestamp", notification.getTimestamp())
+                .set("feed", notification.getFeed())
+                .push("recentEventIds").slice(-NotificationCollapseService.EVENT_ID_HISTORY_SIZE)
+                .each(notification.getEventId());
+
+        if (isNewActor) {
+            update.inc("actorCount", 1)
+                    .addToSet("actorIds", actorId)
+                    .push("recentActorIds").slice(-this.notificationCollapseConfiguration.getActorSampleSize())
+                    .each(actorId);
+        }
+
+        if (Objects.nonNull(notification.getReaction())) {
+            update.set("reaction.id", notification.getReaction().getId())
+                    .set("reaction.authorId", notification.getReaction().getAuthorId())
+                    .set("reaction.createdAt", notification.getReaction().getCreatedAt())
+                    .addToSet("reaction.types").each(notification.getReaction().getTypes().toArray());
+        } else {
+            update.set("comment", notification.getComment());
+        }
+
+        return update;
+    }
+
+    /**
+     * Builds the key shared by the notifications of one user, type, feed and window.
+     *
+     * @param notification {@link Notification}.
+     * @return Collapse key.
+     */
+    private String buildCollapseKey(Notification notification) {
+        return String.join(NotificationCollapseService.KEY_SEPARATOR,
+                notification.getUserId(),
+                notification.getType().name(),
+                notification.getFeed().getId(),
+                String.valueOf(notification.getTimestamp() / this.notificationCollapseConfiguration.getWindowInMs()));
+    }
+
+    /**
+     * Retrieves the user acting in a reaction or comment notification.
+     *
+     * @param notification {@link Notification}.
+     * @return Actor id, null if not a reaction or comment.
+     */
+    private String getActorId(Notification notification) {
+        if (NotificationType.NOTIFICATION_REACTIONS.equals(notification.getType())
+                && Objects.nonNull(notification.getReaction())
+                && Objects.nonNull(notification.getReaction().getTypes())) {
+            return notification.getReaction().getAuthorId();
+        }
+
+        if (NotificationType.NOTIFICATION_COMMENTS.equals(notification.getType())
+                && Objects.nonNull(notification.getComment())) {
+            return notification.getComment().getAuthorId();
+        }
+
+        return null;
+    }
+
+}
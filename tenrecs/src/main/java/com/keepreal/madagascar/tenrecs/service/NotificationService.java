@@ -7,12 +7,29 @@ import com.keepreal.madagascar.common.snowflake.generator.DefaultSnowflakeIdGene
 import com.keepreal.madagascar.common.snowflake.generator.LongIdGenerator;
 import com.keepreal.madagascar.tenrecs.model.Notification;
 import com.keepreal.madagascar.tenrecs.repository.NotificationRepository;
+import com.keepreal.madagascar.tenrecs.util.NotificationCursorUtils;
 import com.keepreal.madagascar.tenrecs.util.PaginationUtils;
+import com.mongodb.bulk.BulkWriteError;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Represents the notification service.
@@ -21,19 +38,29 @@ import java.util.Optional;
 @Slf4j
 public class NotificationService {
 
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
     private final NotificationRepository notificationRepository;
     private final LongIdGenerator idGenerator;
+    private final UserNotificationCounterService userNotificationCounterService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Constructs the notification service.
      *
-     * @param notificationRepository {@link NotificationRepository}.
-     * @param idGenerator            {@link DefaultSnowflakeIdGenerator}.
+     * @param notificationRepository         {@link NotificationRepository}.
+     * @param idGenerator                    {@link DefaultSnowflakeIdGenerator}.
+     * @param userNotificationCounterService {@link UserNotificationCounterService}.
+     * @param mongoTemplate                  {@link MongoTemplate}.
      */
     public NotificationService(NotificationRepository notificationRepository,
-                               LongIdGenerator idGenerator) {
+                               LongIdGenerator idGenerator,
+                               UserNotificationCounterService userNotificationCounterService,
+                               MongoTemplate mongoTemplate) {
         this.notificationRepository = notificationRepository;
         this.idGenerator = idGenerator;
+        this.userNotificationCounterService = userNotificationCounterService;
+        this.mongoTemplate = mongoTemplate;
     }
 
     /**
@@ -80,11 +107,12 @@ public class NotificationService {
      *
      * @param userId      User id.
      * @param type        {@link NotificationType}.
+     * @param cursor      Token of the last notification seen, null for the offset page.
      * @param pageRequest {@link PageRequest}.
      * @return {@link Notification}.
      */
-    public Page<Notification> retrieveByUserIdAndTypeWithPagination(String userId, NotificationType type, PageRequest pageRequest) {
-        return this.notificationRepository.findAllByUserIdAndTypeAndIsDeletedIsFalse(userId, type, PaginationUtils.valueOf(pageRequest));
+    public Slice<Notification> retrieveByUserIdAndTypeWithPagination(String userId, NotificationType type, String cursor, PageRequest pageRequest) {
+        return this.retrieveWithPagination(Criteria.where("userId").is(userId).and("type").is(type), cursor, pageRequest);
     }
 
     /**
@@ -92,11 +120,12 @@ public class NotificationService {
      *
      * @param userId      User id.
      * @param noticeType  {@link NoticeType}.
+     * @param cursor      Token of the last notification seen, null for the offset page.
      * @param pageRequest {@link PageRequest}.
      * @return {@link Notification}.
      */
-    public Page<Notification> retrieveByUserIdAndNoticeTypeWithPagination(String userId, NoticeType noticeType, PageRequest pageRequest) {
-        return this.notificationRepository.findAllByUserIdAndNotice_TypeAndIsDeletedIsFalse(userId, noticeType, PaginationUtils.valueOf(pageRequest));
+    public Slice<Notification> retrieveByUserIdAndNoticeTypeWithPagination(String userId, NoticeType noticeType, String cursor, PageRequest pageRequest) {
+        return this.retrieveWithPagination(Criteria.where("userId").is(userId).and("notice.type").is(noticeType), cursor, pageRequest);
     }
 
     /**
@@ -104,33 +133,24 @@ public class NotificationService {
      *
      * @param userId      User id.
      * @param noticeTypes  {@link NoticeType}.
+     * @param cursor      Token of the last notification seen, null for the offset page.
      * @param pageRequest {@link PageRequest}.
      * @return {@link Notification}.
      */
-    public Page<Notification> retrieveByUserIdAndNoticeTypeInWithPagination(String userId, Iterable<NoticeType> noticeTypes, PageRequest pageRequest) {
-        return this.notificationRepository.findAllByUserIdAndNotice_TypeInAndIsDeletedIsFalse(userId, noticeTypes, PaginationUtils.valueOf(pageRequest));
+    public Slice<Notification> retrieveByUserIdAndNoticeTypeInWithPagination(String userId, Collection<NoticeType> noticeTypes, String cursor, PageRequest pageRequest) {
+        return this.retrieveWithPagination(Criteria.where("userId").is(userId).and("notice.type").in(noticeTypes), cursor, pageRequest);
     }
 
     /**
      * Retrieves notifications by user id.
      *
      * @param userId      User id.
+     * @param cursor      Token of the last notification seen, null for the offset page.
      * @param pageRequest {@link PageRequest}.
      * @return {@link Notification}.
      */
-    public Page<Notification> retrieveByUserIdWithPagination(String userId, PageRequest pageRequest) {
-        return this.notificationRepository.findAllByUserIdAndIsDeletedIsFalse(userId, PaginationUtils.valueOf(pageRequest));
-    }
-
-    /**
-     * Retrieves the latest notification by user id and feed id.
-     *
-     * @param authorId User id.
-     * @param feedId   Feed id.
-     * @return {@link Notification}.
-     */
-    public Optional<Notification> retrieveLastByReactionAuthorIdAndReactionFeedId(String authorId, String feedId) {
-        return this.notificationRepository.findTopByReaction_AuthorIdAndReaction_FeedIdAndIsDeletedIsFalseOrderByTimestamp(authorId, feedId);
+    public Slice<Notification> retrieveByUserIdWithPagination(String userId, String cursor, PageRequest pageRequest) {
+        return this.retrieveWithPagination(Criteria.where("userId").is(userId), cursor, pageRequest);
     }
 
     /**
@@ -153,7 +173,94 @@ public class NotificationService {
     public Notification insert(Notification notification) {
         notification.setId(String.valueOf(this.idGenerator.nextId()));
         notification.setCreatedAt(notification.getTimestamp());
-        return this.notificationRepository.insert(notification);
+        Notification inserted = this.notificationRepository.insert(notification);
+        this.userNotificationCounterService.increase(inserted);
+        return inserted;
+    }
+
+    /**
+     * Inserts the notifications with one unordered bulk insert, then increases the counters in bulk.
+     * Duplicated notifications are skipped. The notifications are inserted as not counted and only marked counted
+     * once their counters are increased, so if the counting fails, or any insert fails after the counting of the
+     * inserted ones, the reconsumed batch finds them in {@link #countUncounted(Collection)}.
+     *
+     * @param notifications {@link Notification}.
+     * @return {@link Notification}.
+     */
+    public List<Notification> insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+
+        notifications.forEach(notification -> {
+            notification.setId(String.valueOf(this.idGenerator.nextId()));
+            notification.setCreatedAt(notification.getTimestamp());
+            notification.setCounted(false);
+        });
+
+        try {
+            this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)
+                    .insert(notifications)
+                    .execute();
+        } catch (BulkOperationException exception) {
+            Set<Integer> failedIndexes = exception.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+            List<Notification> inserted = IntStream.range(0, notifications.size())
+                    .filter(index -> !failedIndexes.contains(index))
+                    .mapToObj(notifications::get)
+                    .collect(Collectors.toList());
+            this.count(inserted);
+
+            if (exception.getErrors().stream().allMatch(error -> error.getCode() == NotificationService.DUPLICATE_KEY_ERROR_CODE)) {
+                log.warn("Duplicated consumption of {} notifications, skipped.", failedIndexes.size());
+                return inserted;
+            }
+            throw exception;
+        }
+
+        this.count(notifications);
+        return notifications;
+    }
+
+    /**
+     * Increases the counters of the notifications of the given events that were inserted but not counted, when a
+     * previous consumption failed in between. Called with the consumed event ids of a batch before they are skipped.
+     *
+     * @param eventIds Consumed event ids.
+     */
+    public void countUncounted(Collection<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+
+        List<Notification> uncounted = this.mongoTemplate.find(
+                Query.query(Criteria.where("eventId").in(eventIds).and("counted").is(false)), Notification.class);
+        if (uncounted.isEmpty()) {
+            return;
+        }
+
+        log.info("Counting {} notifications inserted by a failed consumption.", uncounted.size());
+        this.count(uncounted);
+    }
+
+    /**
+     * Increases the counters of inserted notifications and marks them counted. A failure in between leaves them
+     * counted twice on the next attempt, which the counter rebuild repairs, rather than not counted at all.
+     *
+     * @param notifications {@link Notification}.
+     */
+    private void count(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        this.userNotificationCounterService.increaseAll(notifications);
+        this.mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(notifications.stream().map(Notification::getId).collect(Collectors.toList()))),
+                Update.update("counted", true),
+                Notification.class);
+        notifications.forEach(notification -> notification.setCounted(true));
     }
 
     /**
@@ -163,7 +270,12 @@ public class NotificationService {
      * @return {@link Notification}.
      */
     public Notification update(Notification notification) {
-        return this.notificationRepository.save(notification);
+        Long previousTimestamp = this.notificationRepository.findById(notification.getId())
+                .map(Notification::getTimestamp)
+                .orElse(null);
+        Notification updated = this.notificationRepository.save(notification);
+        this.userNotificationCounterService.increase(updated, previousTimestamp);
+        return updated;
     }
 
     /**
@@ -176,4 +288,50 @@ public class NotificationService {
         return this.notificationRepository.existsByEventIdAndIsDeletedIsFalse(eventId);
     }
 
+    /**
+     * Retrieves the event ids among the given ones that have been consumed, in one query.
+     *
+     * @param eventIds Event ids.
+     * @return Consumed event ids.
+     */
+    public Set<String> retrieveConsumedEventIds(Collection<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Query query = Query.query(Criteria.where("eventId").in(eventIds).and("isDeleted").is(false));
+        return new HashSet<>(this.mongoTemplate.findDistinct(query, "eventId", Notification.class, String.class));
+    }
+
+    /**
+     * Retrieves one page of notifications plus one telling whether there are more, without counting them.
+     * A cursor resumes after the last notification seen with a range on the sort keys, otherwise the page is
+     * skipped to for clients without cursor.
+     *
+     * @param criteria    {@link Criteria}.
+     * @param cursor      Token of the last notification seen, null for the offset page.
+     * @param pageRequest {@link PageRequest}.
+     * @return {@link Notification}.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    private Slice<Notification> retrieveWithPagination(Criteria criteria, String cursor, PageRequest pageRequest) {
+        org.springframework.data.domain.PageRequest pageable = PaginationUtils.valueOf(pageRequest);
+        Query query = Query.query(criteria.and("isDeleted").is(false))
+                .with(pageable.getSort())
+                .limit(pageable.getPageSize() + 1);
+        query.fields().exclude("actorIds");
+        if (Objects.nonNull(cursor)) {
+            query.addCriteria(NotificationCursorUtils.after(cursor));
+        } else {
+            query.skip(pageable.getOffset());
+        }
+
+        List<Notification> notifications = this.mongoTemplate.find(query, Notification.class);
+        boolean hasNext = notifications.size() > pageable.getPageSize();
+        if (hasNext) {
+            notifications = notifications.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(notifications, pageable, hasNext);
+    }
+
 }
\ No newline at end of file
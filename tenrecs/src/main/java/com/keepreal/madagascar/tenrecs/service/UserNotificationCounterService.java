@@ -0,0 +1,253 @@
+package com.keepreal.madagascar.tenrecs.service;
+
+import com.keepreal.madagascar.common.NoticeType;
+import com.keepreal.madagascar.common.NotificationType;
+import com.keepreal.madagascar.tenrecs.model.Notification;
+import com.keepreal.madagascar.tenrecs.model.NotificationCounterType;
+import com.keepreal.madagascar.tenrecs.model.UserNotificationCounter;
+import com.keepreal.madagascar.tenrecs.model.UserNotificationRecord;
+import com.keepreal.madagascar.tenrecs.repository.NotificationRepository;
+import com.keepreal.madagascar.tenrecs.repository.UserNotificationCounterRepository;
+import com.keepreal.madagascar.tenrecs.repository.UserNotificationRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+/**
+ * Represents the user notification counter service. Counters are increased when notifications are written and
+ * reset when the user reads them, so an unread check is a single document read.
+ */
+@Service
+@Slf4j
+public class UserNotificationCounterService {
+
+    private static final String COUNTS = "counts.";
+    private static final String RESET_TIMESTAMPS = "resetTimestamps.";
+    private static final String VERSION = "version";
+
+    private final MongoTemplate mongoTemplate;
+    private final UserNotificationCounterRepository userNotificationCounterRepository;
+    private final UserNotificationRecordRepository userNotificationRecordRepository;
+    private final NotificationRepository notificationRepository;
+
+    /**
+     * Constructs the user notification counter service.
+     *
+     * @param mongoTemplate                     {@link MongoTemplate}.
+     * @param userNotificationCounterRepository {@link UserNotificationCounterRepository}.
+     * @param userNotificationRecordRepository  {@link UserNotificationRecordRepository}.
+     * @param notificationRepository            {@link NotificationRepository}.
+     */
+    public UserNotificationCounterService(MongoTemplate mongoTemplate,
+                                          UserNotificationCounterRepository userNotificationCounterRepository,
+                                          UserNotificationRecordRepository userNotificationRecordRepository,
+                                          NotificationRepository notificationRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.userNotificationCounterRepository = userNotificationCounterRepository;
+        this.userNotificationRecordRepository = userNotificationRecordRepository;
+        this.notificationRepository = notificationRepository;
+    }
+
+    /**
+     * Increases the counter for a newly inserted notification, unless the user has read past its timestamp.
+     *
+     * @param notification {@link Notification}.
+     */
+    public void increase(Notification notification) {
+        this.increase(notification, null);
+    }
+
+    /**
+     * Increases the counter for an inserted or updated notification. An updated notification is only counted again
+     * if it had been read before, and its new timestamp makes it unread.
+     *
+     * @param notification      {@link Notification}.
+     * @param previousTimestamp Timestamp before the update, null for inserts.
+     */
+    public void increase(Notification notification, Long previousTimestamp) {
+        NotificationCounterType type = NotificationCounterType.valueOf(notification);
+        if (Objects.isNull(type) || Objects.isNull(notification.getTimestamp())) {
+            return;
+        }
+
+        this.mongoTemplate.upsert(Query.query(Criteria.where("id").is(notification.getUserId())),
+                new Update().setOnInsert(UserNotificationCounterService.COUNTS + type.name(), 0),
+                UserNotificationCounter.class);
+
+        this.mongoTemplate.updateFirst(Query.query(this.buildIncreaseCriteria(notification, type, previousTimestamp)),
+                new Update().inc(UserNotificationCounterService.COUNTS + type.name(), 1)
+                        .inc(UserNotificationCounterService.VERSION, 1),
+                UserNotificationCounter.class);
+    }
+
+    /**
+     * Increases the counters for newly inserted notifications, with one bulk of upserts and one bulk of increments
+     * instead of two round trips per notification.
+     *
+     * @param notifications {@link Notification}.
+     */
+    public void increaseAll(Collection<Notification> notifications) {
+        BulkOperations upserts = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserNotificationCounter.class);
+        BulkOperations increments = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, UserNotificationCounter.class);
+
+        boolean empty = true;
+        for (Notification notification : notifications) {
+            NotificationCounterType type = NotificationCounterType.valueOf(notification);
+            if (Objects.isNull(type) || Objects.isNull(notification.getTimestamp())) {
+                continue;
+            }
+
+            upserts.upsert(Query.query(Criteria.where("id").is(notification.getUserId())),
+                    new Update().setOnInsert(UserNotificationCounterService.COUNTS + type.name(), 0));
+            increments.updateOne(Query.query(this.buildIncreaseCriteria(notification, type, null)),
+                    new Update().inc(UserNotificationCounterService.COUNTS + type.name(), 1)
+                            .inc(UserNotificationCounterService.VERSION, 1));
+            empty = false;
+        }
+
+        if (!empty) {
+            upserts.execute();
+            increments.execute();
+        }
+    }
+
+    /**
+     * Builds the criteria matching the counter only if the notification is unread.
+     *
+     * @param notification      {@link Notification}.
+     * @param type              {@link NotificationCounterType}.
+     * @param previousTimestamp Timestamp before the update, null for inserts.
+     * @return {@link Criteria}.
+     */
+    private Criteria buildIncreaseCriteria(Notification notification, NotificationCounterType type, Long previousTimestamp) {
+        String resetField = UserNotificationCounterService.RESET_TIMESTAMPS + type.name();
+        Criteria criteria = Criteria.where("id").is(notification.getUserId());
+        if (Objects.isNull(previousTimestamp)) {
+            criteria.orOperator(Criteria.where(resetField).exists(false),
+                    Criteria.where(resetField).lt(notification.getTimestamp()));
+        } else {
+            criteria.and(resetField).gte(previousTimestamp).lt(notification.getTimestamp());
+        }
+        return criteria;
+    }
+
+    /**
+     * Resets the counters once the user has read the notifications.
+     *
+     * @param userId    User id.
+     * @param types     {@link NotificationCounterType}.
+     * @param timestamp Read timestamp.
+     */
+    public void reset(String userId, Collection<NotificationCounterType> types, long timestamp) {
+        if (types.isEmpty()) {
+            return;
+        }
+
+        Update update = new Update().inc(UserNotificationCounterService.VERSION, 1);
+        types.forEach(type -> update.set(UserNotificationCounterService.COUNTS + type.name(), 0)
+                .set(UserNotificationCounterService.RESET_TIMESTAMPS + type.name(), timestamp));
+
+        this.mongoTemplate.upsert(Query.query(Criteria.where("id").is(userId)), update, UserNotificationCounter.class);
+    }
+
+    /**
+     * Retrieves the counters of a user, rebuilding them from the notifications if not materialized yet.
+     *
+     * @param userId User id.
+     * @return {@link UserNotificationCounter}.
+     */
+    public UserNotificationCounter retrieveByUserId(String userId) {
+        return this.userNotificationCounterRepository.findById(userId)
+                .orElseGet(() -> this.rebuild(userId));
+    }
+
+    /**
+     * Recomputes the counters of a user from the notification collection and the last read timestamps. The counts
+     * are only written if no increase or reset landed since the counting started, otherwise the live counters are
+     * kept and left for the next repair.
+     *
+     * @param userId User id.
+     * @return {@link UserNotificationCounter}.
+     */
+    public UserNotificationCounter rebuild(String userId) {
+        UserNotificationCounter current = this.userNotificationCounterRepository.findById(userId).orElse(null);
+        Long version = Objects.isNull(current) ? null : current.getVersion();
+
+        UserNotificationRecord record = this.userNotificationRecordRepository.findTopByUserIdAndIsDeletedIsFalse(userId);
+        if (Objects.isNull(record)) {
+            record = UserNotificationRecord.builder().userId(userId).build();
+        }
+
+        UserNotificationCounter counter = UserNotificationCounter.builder().id(userId).version(version).build();
+        this.rebuild(counter, NotificationCounterType.COMMENTS, record.getLastReadCommentNotificationTimestamp(),
+                timestamp -> this.notificationRepository.countByUserIdAndTypeAndTimestampAfterAndIsDeletedIsFalse(
+                        userId, NotificationType.NOTIFICATION_COMMENTS, timestamp));
+        this.rebuild(counter, NotificationCounterType.REACTIONS, record.getLastReadReactionNotificationTimestamp(),
+                timestamp -> this.notificationRepository.countByUserIdAndTypeAndTimestampAfterAndIsDeletedIsFalse(
+                        userId, NotificationType.NOTIFICATION_REACTIONS, timestamp));
+        this.rebuild(counter, NotificationCounterType.NEW_SUBSCRIBERS, record.getLastReadIslandNoticeNewSubscriberNotificationTimestamp(),
+                timestamp -> this.notificationRepository.countByUserIdAndNotice_TypeAndTimestampAfterAndIsDeletedIsFalse(
+                        userId, NoticeType.NOTICE_TYPE_ISLAND_NEW_SUBSCRIBER, timestamp));
+        this.rebuild(counter, NotificationCounterType.NEW_MEMBERS, record.getLastReadIslandNoticeNewMemberNotificationTimestamp(),
+                timestamp -> this.notificationRepository.countByUserIdAndNotice_TypeInAndTimestampAfterAndIsDeletedIsFalse(
+                        userId, Arrays.asList(NoticeType.NOTICE_TYPE_ISLAND_NEW_MEMBER, NoticeType.NOTICE_TYPE_FEED_NEW_PAYMENT), timestamp));
+        this.rebuild(counter, NotificationCounterType.NEW_QUESTIONS, record.getLastReadBoxNoticeNewQuestionNotificationTimestamp(),
+                timestamp -> this.notificationRepository.countByUserIdAndNotice_TypeAndTimestampAfterAndIsDeletedIsFalse(
+                        userId, NoticeType.NOTICE_TYPE_BOX_NEW_QUESTION, timestamp));
+        this.rebuild(counter, NotificationCounterType.NEW_ANSWERS, record.getLastReadBoxNoticeNewReplyNotificationTimestamp(),
+                timestamp -> this.notificationRepository.countByUserIdAndNotice_TypeAndTimestampAfterAndIsDeletedIsFalse(
+                        userId, NoticeType.NOTICE_TYPE_BOX_NEW_ANSWER, timestamp));
+
+        if (Objects.isNull(current)) {
+            try {
+                return this.mongoTemplate.insert(counter);
+            } catch (DuplicateKeyException exception) {
+                return this.userNotificationCounterRepository.findById(userId).orElse(counter);
+            }
+        }
+
+        Update update = new Update().inc(UserNotificationCounterService.VERSION, 1);
+        counter.getCounts().forEach((type, count) -> update.set(UserNotificationCounterService.COUNTS + type, count));
+        counter.getResetTimestamps().forEach((type, timestamp) -> update.set(UserNotificationCounterService.RESET_TIMESTAMPS + type, timestamp));
+
+        UserNotificationCounter rebuilt = this.mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(userId).and(UserNotificationCounterService.VERSION).is(version)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                UserNotificationCounter.class);
+        if (Objects.isNull(rebuilt)) {
+            log.info("Notification counter of user {} changed while rebuilding, kept.", userId);
+            return this.userNotificationCounterRepository.findById(userId).orElse(current);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Fills one counter type.
+     *
+     * @param counter   {@link UserNotificationCounter}.
+     * @param type      {@link NotificationCounterType}.
+     * @param timestamp Last read timestamp.
+     * @param counting  Count query since the timestamp.
+     */
+    private void rebuild(UserNotificationCounter counter,
+                         NotificationCounterType type,
+                         Long timestamp,
+                         LongFunction<Long> counting) {
+        long lastRead = Objects.isNull(timestamp) ? 0L : timestamp;
+        counter.getCounts().put(type.name(), Math.toIntExact(counting.apply(lastRead)));
+        counter.getResetTimestamps().put(type.name(), lastRead);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.keepreal.madagascar.tenrecs.util;
+
+import com.keepreal.madagascar.tenrecs.model.Notification;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Represents the continuation tokens of the notification lists, an opaque encoding of the timestamp and id of the
+ * last notification seen. The lists are sorted by timestamp descending with the id as tie-breaker, so a token
+ * resumes the list with a range query on those keys instead of skipping the pages before.
+ */
+public class NotificationCursorUtils {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Encodes the sort key of the notification into a token.
+     *
+     * @param notification {@link Notification}.
+     * @return Token.
+     */
+    public static String encode(Notification notification) {
+        String raw = notification.getTimestamp() + NotificationCursorUtils.SEPARATOR + notification.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the criteria matching the notifications sorted after the token.
+     *
+     * @param cursor Token.
+     * @return {@link Criteria}.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static Criteria after(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(NotificationCursorUtils.SEPARATOR, 2);
+        if (parts.length != 2 || StringUtils.isEmpty(parts[1])) {
+            throw new IllegalArgumentException("Malformed notification cursor.");
+        }
+
+        long timestamp = Long.parseLong(parts[0]);
+        return new Criteria().orOperator(
+                Criteria.where("timestamp").lt(timestamp),
+                Criteria.where("timestamp").is(timestamp).and("id").lt(parts[1]));
+    }
+
+}
@@ -3,7 +3,7 @@ package com.keepreal.madagascar.tenrecs.util;
 import com.keepreal.madagascar.common.PageRequest;
 import com.keepreal.madagascar.common.PageResponse;
 import lombok.Getter;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
 /**
@@ -12,13 +12,15 @@ import org.springframework.data.domain.Sort;
 public class PaginationUtils {
 
     private static final String TIMESTAMP_PROPERTY_NAME = "timestamp";
+    private static final String ID_PROPERTY_NAME = "id";
 
     @Getter
     private final static int DEFAULT_PAGE = 0;
     @Getter
     private final static int DEFAULT_PAGE_SIZE = 10;
     @Getter
-    private final static Sort DEFAULT_SORT = Sort.by(Sort.Order.desc(PaginationUtils.TIMESTAMP_PROPERTY_NAME));
+    private final static Sort DEFAULT_SORT = Sort.by(Sort.Order.desc(PaginationUtils.TIMESTAMP_PROPERTY_NAME),
+            Sort.Order.desc(PaginationUtils.ID_PROPERTY_NAME));
 
     /**
      * Constructs a default {@link PageRequest}.
@@ -48,16 +50,16 @@ public class PaginationUtils {
     /**
      * Builds the {@link PageResponse}.
      *
-     * @param pageData    {@link Page}.
+     * @param pageData    {@link Slice}.
      * @param pageRequest {@link PageRequest}.
      * @return {@link PageResponse}.
      */
-    public static PageResponse valueOf(Page<?> pageData, PageRequest pageRequest) {
+    public static PageResponse valueOf(Slice<?> pageData, PageRequest pageRequest) {
         return PageResponse.newBuilder()
                 .setPage(pageRequest.getPage())
                 .setPageSize(pageRequest.getPageSize())
                 .setHasContent(pageData.hasContent())
-                .setHasMore(!pageData.isLast())
+                .setHasMore(pageData.hasNext())
                 .build();
     }
 
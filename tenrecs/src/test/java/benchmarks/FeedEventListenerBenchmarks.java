@@ -0,0 +1,186 @@
+package benchmarks;
+
+import com.aliyun.openservices.ons.api.Action;
+import com.aliyun.openservices.ons.api.Message;
+import com.keepreal.madagascar.common.MediaType;
+import com.keepreal.madagascar.common.snowflake.config.IdGeneratorConfiguration;
+import com.keepreal.madagascar.common.snowflake.generator.DefaultSnowflakeIdGenerator;
+import com.keepreal.madagascar.mantella.FeedCreateEvent;
+import com.keepreal.madagascar.mantella.FeedEventMessage;
+import com.keepreal.madagascar.mantella.FeedEventType;
+import com.keepreal.madagascar.tenrecs.consumer.FeedEventListener;
+import com.keepreal.madagascar.tenrecs.factory.FeedEventToNotificationFactory;
+import com.keepreal.madagascar.tenrecs.model.Notification;
+import com.keepreal.madagascar.tenrecs.model.UserNotificationCounter;
+import com.keepreal.madagascar.tenrecs.repository.NotificationRepository;
+import com.keepreal.madagascar.tenrecs.repository.UserNotificationCounterRepository;
+import com.keepreal.madagascar.tenrecs.repository.UserNotificationRecordRepository;
+import com.keepreal.madagascar.tenrecs.service.NotificationService;
+import com.keepreal.madagascar.tenrecs.service.UserNotificationCounterService;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientURI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the events/sec benchmarks of {@link FeedEventListener}, consuming the same new question events one
+ * message at a time and in batches. Each event inserts a notification and increases the unread counter of the host.
+ * <p>
+ * Needs a mongo at the benchmark.mongo.uri system property, mongodb://127.0.0.1:27017 by default. The benchmark
+ * database is dropped before every iteration. Run with the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FeedEventListenerBenchmarks {
+
+    private static final int EVENTS = 1024;
+    private static final int HOSTS = 64;
+    private static final String DATABASE = "tenrecs-benchmark";
+
+    @Param({"32", "128"})
+    private int batchSize;
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private FeedEventListener feedEventListener;
+    private List<Message> messages;
+
+    /**
+     * Builds the listener over the benchmark database.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.mongoClient = new MongoClient(new MongoClientURI(
+                System.getProperty("benchmark.mongo.uri", "mongodb://127.0.0.1:27017")));
+        this.mongoTemplate = new MongoTemplate(this.mongoClient, FeedEventListenerBenchmarks.DATABASE);
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(this.mongoTemplate);
+
+        IdGeneratorConfiguration idGeneratorConfiguration = new IdGeneratorConfiguration();
+        idGeneratorConfiguration.setNodeId(1);
+        NotificationRepository notificationRepository = repositoryFactory.getRepository(NotificationRepository.class);
+        UserNotificationCounterService userNotificationCounterService = new UserNotificationCounterService(this.mongoTemplate,
+                repositoryFactory.getRepository(UserNotificationCounterRepository.class),
+                repositoryFactory.getRepository(UserNotificationRecordRepository.class),
+                notificationRepository);
+        NotificationService notificationService = new NotificationService(notificationRepository,
+                new DefaultSnowflakeIdGenerator(idGeneratorConfiguration),
+                userNotificationCounterService,
+                this.mongoTemplate);
+        this.feedEventListener = new FeedEventListener(new FeedEventToNotificationFactory(), notificationService);
+    }
+
+    /**
+     * Starts every iteration from empty collections.
+     */
+    @Setup(Level.Iteration)
+    public void clean() {
+        this.mongoTemplate.dropCollection(Notification.class);
+        this.mongoTemplate.dropCollection(UserNotificationCounter.class);
+    }
+
+    /**
+     * Builds fresh events for every invocation, so none of them is skipped as consumed.
+     */
+    @Setup(Level.Invocation)
+    public void buildMessages() {
+        this.messages = new ArrayList<>(FeedEventListenerBenchmarks.EVENTS);
+        for (int i = 0; i < FeedEventListenerBenchmarks.EVENTS; i++) {
+            String eventId = UUID.randomUUID().toString();
+            FeedEventMessage feedEventMessage = FeedEventMessage.newBuilder()
+                    .setType(FeedEventType.FEED_EVENT_CREATE)
+                    .setEventId(eventId)
+                    .setTimestamp(System.currentTimeMillis())
+                    .setFeedCreateEvent(FeedCreateEvent.newBuilder()
+                            .setFeedId(eventId)
+                            .setAuthorId("author" + i)
+                            .setHostId("host" + i % FeedEventListenerBenchmarks.HOSTS)
+                            .setMediaType(MediaType.MEDIA_QUESTION))
+                    .build();
+            this.messages.add(new Message("topic", "tag", eventId, feedEventMessage.toByteArray()));
+        }
+    }
+
+    /**
+     * Drops the benchmark database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.mongoTemplate.getDb().drop();
+        this.mongoClient.close();
+    }
+
+    /**
+     * Benchmarks consuming the events one message at a time.
+     *
+     * @return Committed events.
+     */
+    @Benchmark
+    @OperationsPerInvocation(FeedEventListenerBenchmarks.EVENTS)
+    public int consumeOneByOne() {
+        int committed = 0;
+        for (Message message : this.messages) {
+            if (Action.CommitMessage.equals(this.feedEventListener.consume(message, null))) {
+                committed++;
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Benchmarks consuming the events in batches of the batch size.
+     *
+     * @return Committed events.
+     */
+    @Benchmark
+    @OperationsPerInvocation(FeedEventListenerBenchmarks.EVENTS)
+    public int consumeBatched() {
+        int committed = 0;
+        for (int from = 0; from < this.messages.size(); from += this.batchSize) {
+            List<Message> batch = this.messages.subList(from, Math.min(from + this.batchSize, this.messages.size()));
+            if (Action.CommitMessage.equals(this.feedEventListener.consume(batch, null))) {
+                committed += batch.size();
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Arguments.
+     * @throws RunnerException Runner failure.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FeedEventListenerBenchmarks.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
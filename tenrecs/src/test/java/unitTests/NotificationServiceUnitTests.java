@@ -0,0 +1,146 @@
+package unitTests;
+
+import com.keepreal.madagascar.common.snowflake.generator.LongIdGenerator;
+import com.keepreal.madagascar.tenrecs.model.Notification;
+import com.keepreal.madagascar.tenrecs.repository.NotificationRepository;
+import com.keepreal.madagascar.tenrecs.service.NotificationService;
+import com.keepreal.madagascar.tenrecs.service.UserNotificationCounterService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents unit tests for the counting contract of {@link NotificationService#insertAll(List)}.
+ */
+public class NotificationServiceUnitTests {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private LongIdGenerator idGenerator;
+
+    @Mock
+    private UserNotificationCounterService userNotificationCounterService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private NotificationService notificationService;
+
+    /**
+     * Initializes the mock.
+     */
+    @Before
+    public void InitMocks() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(this.idGenerator.nextId()).thenReturn(1L, 2L);
+        Mockito.when(this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class))
+                .thenReturn(this.bulkOperations);
+        Mockito.when(this.bulkOperations.insert(ArgumentMatchers.anyList())).thenReturn(this.bulkOperations);
+        this.notificationService = new NotificationService(this.notificationRepository,
+                this.idGenerator,
+                this.userNotificationCounterService,
+                this.mongoTemplate);
+    }
+
+    /**
+     * Tests inserted notifications are marked counted once their counters are increased.
+     */
+    @Test
+    public void TestInsertAllMarksCounted() {
+        List<Notification> notifications = this.buildNotifications();
+
+        // Action
+        this.notificationService.insertAll(notifications);
+
+        // Assert
+        Mockito.verify(this.userNotificationCounterService).increaseAll(notifications);
+        Mockito.verify(this.mongoTemplate).updateMulti(ArgumentMatchers.any(Query.class),
+                ArgumentMatchers.eq(Update.update("counted", true)), ArgumentMatchers.eq(Notification.class));
+        notifications.forEach(notification -> Assert.assertTrue(notification.getCounted()));
+    }
+
+    /**
+     * Tests a counting failure after the insert leaves the notifications not counted for the retry.
+     */
+    @Test
+    public void TestInsertAllCountingFailureLeavesUncounted() {
+        List<Notification> notifications = this.buildNotifications();
+
+        // Mock
+        Mockito.doThrow(new IllegalStateException()).when(this.userNotificationCounterService)
+                .increaseAll(ArgumentMatchers.any());
+
+        // Action
+        try {
+            this.notificationService.insertAll(notifications);
+            Assert.fail("Counting failure expected.");
+        } catch (IllegalStateException ignored) {
+        }
+
+        // Assert
+        Mockito.verify(this.bulkOperations).execute();
+        Mockito.verify(this.mongoTemplate, Mockito.never()).updateMulti(ArgumentMatchers.any(Query.class),
+                ArgumentMatchers.any(Update.class), ArgumentMatchers.eq(Notification.class));
+        notifications.forEach(notification -> Assert.assertFalse(notification.getCounted()));
+    }
+
+    /**
+     * Tests the notifications of consumed events left not counted are counted on the retry.
+     */
+    @Test
+    public void TestCountUncounted() {
+        List<Notification> uncounted = this.buildNotifications();
+
+        // Mock
+        Mockito.when(this.mongoTemplate.find(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(Notification.class)))
+                .thenReturn(uncounted);
+
+        // Action
+        this.notificationService.countUncounted(Arrays.asList("event1", "event2"));
+
+        // Assert
+        Mockito.verify(this.userNotificationCounterService).increaseAll(uncounted);
+        Mockito.verify(this.mongoTemplate).updateMulti(ArgumentMatchers.any(Query.class),
+                ArgumentMatchers.eq(Update.update("counted", true)), ArgumentMatchers.eq(Notification.class));
+    }
+
+    /**
+     * Tests nothing is counted when the consumed events were all counted.
+     */
+    @Test
+    public void TestCountUncountedNone() {
+        // Mock
+        Mockito.when(this.mongoTemplate.find(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(Notification.class)))
+                .thenReturn(Collections.emptyList());
+
+        // Action
+        this.notificationService.countUncounted(Collections.singletonList("event1"));
+
+        // Assert
+        Mockito.verifyZeroInteractions(this.userNotificationCounterService);
+    }
+
+    private List<Notification> buildNotifications() {
+        return Arrays.asList(
+                Notification.builder().userId("user1").eventId("event1").timestamp(1L).build(),
+                Notification.builder().userId("user2").eventId("event2").timestamp(2L).build());
+    }
+
+}
@@ -0,0 +1,101 @@
+-- Income summary migration: ledger tables and the unique keys the income upserts rely on.
+--
+-- IncomeService.updateIncomeAll applies an income with INSERT ... ON DUPLICATE KEY UPDATE statements, and the
+-- nightly reconciliation rebuilds the amounts from income_ledger. Without these keys the upserts insert duplicate
+-- rows instead of adding onto the existing ones, and a replayed payment callback is counted twice.
+--
+-- Run once, before deploying the service, in this order:
+--   1. create the ledger tables,
+--   2. merge the duplicated summary rows left by the former read-modify-write path,
+--   3. add the unique keys,
+--   4. seed the ledger with the current summary amounts as opening balances, so the reconciliation rebuilds the
+--      historical amounts unchanged.
+-- Steps 1 to 4 can be re-run safely.
+
+SET time_zone = '+08:00';
+
+-- 1. Ledger tables.
+
+CREATE TABLE IF NOT EXISTS income_ledger (
+    id              VARCHAR(64) NOT NULL,
+    user_id         VARCHAR(64) NOT NULL,
+    supporter_id    VARCHAR(64),
+    reference_id    VARCHAR(64) NOT NULL,
+    month_timestamp BIGINT      NOT NULL,
+    amount_in_cents BIGINT      NOT NULL,
+    is_deleted      TINYINT(1)  NOT NULL DEFAULT 0,
+    created_time    BIGINT,
+    updated_time    BIGINT,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_income_ledger_reference (reference_id),
+    KEY idx_income_ledger_user_month (user_id, month_timestamp)
+);
+
+CREATE TABLE IF NOT EXISTS income_monthly_supporter (
+    id              VARCHAR(64) NOT NULL,
+    user_id         VARCHAR(64) NOT NULL,
+    supporter_id    VARCHAR(64) NOT NULL,
+    month_timestamp BIGINT      NOT NULL,
+    created_time    BIGINT,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_income_monthly_supporter (user_id, supporter_id, month_timestamp)
+);
+
+-- 2. Merge duplicated summary rows into the row with the smallest id.
+
+UPDATE income_support s
+    JOIN (SELECT MIN(id) AS keep_id, SUM(cents) AS cents
+          FROM income_support GROUP BY user_id, supporter_id HAVING COUNT(*) > 1) d ON s.id = d.keep_id
+SET s.cents = d.cents;
+DELETE s FROM income_support s
+    JOIN (SELECT user_id, supporter_id, MIN(id) AS keep_id
+          FROM income_support GROUP BY user_id, supporter_id HAVING COUNT(*) > 1) d
+         ON s.user_id = d.user_id AND s.supporter_id = d.supporter_id AND s.id <> d.keep_id;
+
+UPDATE income_detail i
+    JOIN (SELECT MIN(id) AS keep_id, SUM(amount_in_cents) AS amount_in_cents, MAX(support_count) AS support_count
+          FROM income_detail GROUP BY user_id, month_timestamp HAVING COUNT(*) > 1) d ON i.id = d.keep_id
+SET i.amount_in_cents = d.amount_in_cents, i.support_count = d.support_count;
+DELETE i FROM income_detail i
+    JOIN (SELECT user_id, month_timestamp, MIN(id) AS keep_id
+          FROM income_detail GROUP BY user_id, month_timestamp HAVING COUNT(*) > 1) d
+         ON i.user_id = d.user_id AND i.month_timestamp = d.month_timestamp AND i.id <> d.keep_id;
+
+UPDATE income_profile p
+    JOIN (SELECT MIN(id) AS keep_id, SUM(amount_in_cents) AS amount_in_cents, MAX(support_count_real) AS support_count
+          FROM income_profile GROUP BY user_id HAVING COUNT(*) > 1) d ON p.id = d.keep_id
+SET p.amount_in_cents = d.amount_in_cents, p.support_count_real = d.support_count, p.support_count_show = d.support_count;
+DELETE p FROM income_profile p
+    JOIN (SELECT user_id, MIN(id) AS keep_id
+          FROM income_profile GROUP BY user_id HAVING COUNT(*) > 1) d
+         ON p.user_id = d.user_id AND p.id <> d.keep_id;
+
+-- 3. Unique keys. Each ALTER fails if step 2 left a duplicate, and can be skipped if the key already exists.
+
+ALTER TABLE income_support ADD UNIQUE KEY uk_income_support_user_supporter (user_id, supporter_id);
+ALTER TABLE income_detail ADD UNIQUE KEY uk_income_detail_user_month (user_id, month_timestamp);
+ALTER TABLE income_profile ADD UNIQUE KEY uk_income_profile_user (user_id);
+
+-- 4. Opening balances. The payment rows cannot rebuild the history: shell payments carry no order id and iOS
+-- payments no amount, while the summaries were credited with the sku price for both. The summary amounts are
+-- carried over instead, with no supporter:
+--   - one entry per payee and month, the monthly amount of income_detail,
+--   - one entry per payee with no month, the part of the income_profile amount not covered by the monthly rows.
+-- The monthly and overall sums of the ledger then equal the summary amounts at the time of the migration. Run it
+-- with vanga stopped, right before deploying: a payment applied in between would be counted in both.
+
+INSERT INTO income_ledger (id, user_id, supporter_id, reference_id, month_timestamp, amount_in_cents, is_deleted, created_time, updated_time)
+SELECT CONCAT('opening-', user_id, '-', month_timestamp), user_id, NULL, CONCAT('opening-', user_id, '-', month_timestamp),
+       month_timestamp, amount_in_cents, FALSE, UNIX_TIMESTAMP() * 1000, UNIX_TIMESTAMP() * 1000
+FROM income_detail
+WHERE is_deleted = FALSE AND amount_in_cents <> 0
+ON DUPLICATE KEY UPDATE id = id;
+
+INSERT INTO income_ledger (id, user_id, supporter_id, reference_id, month_timestamp, amount_in_cents, is_deleted, created_time, updated_time)
+SELECT CONCAT('opening-', p.user_id), p.user_id, NULL, CONCAT('opening-', p.user_id),
+       0, p.amount_in_cents - COALESCE(d.amount_in_cents, 0), FALSE, UNIX_TIMESTAMP() * 1000, UNIX_TIMESTAMP() * 1000
+FROM income_profile p
+    LEFT JOIN (SELECT user_id, SUM(amount_in_cents) AS amount_in_cents
+               FROM income_detail WHERE is_deleted = FALSE GROUP BY user_id) d ON p.user_id = d.user_id
+WHERE p.is_deleted = FALSE AND p.amount_in_cents <> COALESCE(d.amount_in_cents, 0)
+ON DUPLICATE KEY UPDATE id = id;
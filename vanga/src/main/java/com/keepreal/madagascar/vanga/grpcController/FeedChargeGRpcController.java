@@ -2,6 +2,8 @@ package com.keepreal.madagascar.vanga.grpcController;
 
 import com.keepreal.madagascar.common.exceptions.ErrorCode;
 import com.keepreal.madagascar.vanga.FeedChargeServiceGrpc;
+import com.keepreal.madagascar.vanga.RetrieveFeedChargeAccessByFeedIdsRequest;
+import com.keepreal.madagascar.vanga.RetrieveFeedChargeAccessByFeedIdsResponse;
 import com.keepreal.madagascar.vanga.RetrieveFeedChargeRequest;
 import com.keepreal.madagascar.vanga.RetrieveFeedChargeResponse;
 import com.keepreal.madagascar.vanga.RetrieveHasAccessFeedIdRequest;
@@ -12,6 +14,7 @@ import com.keepreal.madagascar.vanga.util.CommonStatusUtils;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
 
+import java.util.Collections;
 import java.util.List;
 
 @GRpcService
@@ -53,4 +56,17 @@ public class FeedChargeGRpcController extends FeedChargeServiceGrpc.FeedChargeSe
                 .build());
         responseObserver.onCompleted();
     }
+
+    @Override
+    public void retrieveFeedChargeAccessByFeedIds(RetrieveFeedChargeAccessByFeedIdsRequest request, StreamObserver<RetrieveFeedChargeAccessByFeedIdsResponse> responseObserver) {
+        List<String> feedIds = request.getFeedIdsCount() == 0 ?
+                Collections.emptyList() :
+                this.feedChargeService.findHasAccessFeedIdByFeedIds(request.getUserId(), request.getFeedIdsList());
+
+        responseObserver.onNext(RetrieveFeedChargeAccessByFeedIdsResponse.newBuilder()
+                .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC))
+                .addAllFeedIds(feedIds)
+                .build());
+        responseObserver.onCompleted();
+    }
 }
@@ -10,6 +10,8 @@ import com.keepreal.madagascar.vanga.RetrieveIncomeDetailRequest;
 import com.keepreal.madagascar.vanga.RetrieveIncomeDetailResponse;
 import com.keepreal.madagascar.vanga.RetrieveIncomeMonthlyResponse;
 import com.keepreal.madagascar.vanga.RetrieveIncomeProfileResponse;
+import com.keepreal.madagascar.vanga.RetrieveIncomeProfilesRequest;
+import com.keepreal.madagascar.vanga.RetrieveIncomeProfilesResponse;
 import com.keepreal.madagascar.vanga.RetrieveMyIncomeRequest;
 import com.keepreal.madagascar.vanga.RetrieveSupportListRequest;
 import com.keepreal.madagascar.vanga.RetrieveSupportListResponse;
@@ -31,6 +33,8 @@ import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @GRpcService
@@ -66,6 +70,22 @@ public class IncomeGRpcController extends IncomeServiceGrpc.IncomeServiceImplBas
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void retrieveIncomeProfiles(RetrieveIncomeProfilesRequest request, StreamObserver<RetrieveIncomeProfilesResponse> responseObserver) {
+        Map<String, IncomeProfile> incomeProfileMap = this.incomeService.findIncomeProfilesByUserIds(request.getUserIdsList())
+                .stream()
+                .collect(Collectors.toMap(IncomeProfile::getUserId, Function.identity(), (profile1, profile2) -> profile1));
+
+        responseObserver.onNext(RetrieveIncomeProfilesResponse.newBuilder()
+                .setStatus(CommonStatusUtils.buildCommonStatus(ErrorCode.REQUEST_SUCC))
+                .putAllMessages(request.getUserIdsList().stream()
+                        .distinct()
+                        .collect(Collectors.toMap(Function.identity(),
+                                userId -> this.incomeMessageFactory.profileValueOf(userId, incomeProfileMap.get(userId)))))
+                .build());
+        responseObserver.onCompleted();
+    }
+
     @Override
     public void retrieveSupportList(RetrieveSupportListRequest request, StreamObserver<RetrieveSupportListResponse> responseObserver) {
         String userId = request.getUserId();
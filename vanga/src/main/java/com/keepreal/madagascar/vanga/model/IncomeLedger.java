@@ -0,0 +1,48 @@
+package com.keepreal.madagascar.vanga.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Represents the append-only income ledger, one entry per income reference (order or transaction), plus the opening
+ * balances carried over from the summaries by the migration, which have no supporter.
+ * Unique keys: (reference_id), see sql/income_unique_keys.sql.
+ */
+@Builder
+@Data
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Table(name = "income_ledger", uniqueConstraints = @UniqueConstraint(columnNames = {"reference_id"}))
+public class IncomeLedger {
+
+    @Id
+    private String id;
+    private String userId;
+    private String supporterId;
+    private String referenceId;
+    private Long monthTimestamp;
+    private Long amountInCents;
+    @Column(name = "is_deleted")
+    @Builder.Default
+    private Boolean deleted = false;
+    @CreatedDate
+    private Long createdTime;
+    @LastModifiedDate
+    private Long updatedTime;
+}
@@ -0,0 +1,39 @@
+package com.keepreal.madagascar.vanga.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Represents a supporter seen by a payee within a month, used to count distinct supporters incrementally.
+ * Unique keys: (user_id, supporter_id, month_timestamp), see sql/income_unique_keys.sql.
+ */
+@Builder
+@Data
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Table(name = "income_monthly_supporter",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "supporter_id", "month_timestamp"}))
+public class IncomeMonthlySupporter {
+
+    @Id
+    private String id;
+    private String userId;
+    private String supporterId;
+    private Long monthTimestamp;
+    @CreatedDate
+    private Long createdTime;
+}
@@ -14,6 +14,7 @@ import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 @Builder
 @Data
@@ -22,7 +23,7 @@ import javax.persistence.Table;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode
-@Table(name = "income_support")
+@Table(name = "income_support", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "supporter_id"}))
 public class IncomeSupport {
 
     @Id
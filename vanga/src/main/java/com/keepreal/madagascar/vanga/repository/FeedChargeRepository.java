@@ -12,6 +12,9 @@ public interface FeedChargeRepository extends JpaRepository<FeedCharge, String>
 
     FeedCharge findFeedChargeByUserIdAndFeedIdAndDeletedIsFalse(String userId, String feedId);
 
+    @Query(value = "SELECT feed_id FROM feed_charge WHERE user_id = ?1 AND feed_id IN ?2 AND is_deleted = FALSE", nativeQuery = true)
+    List<String> findFeedIdByUserIdAndFeedIdIn(String userId, Iterable<String> feedIds);
+
     @Query(value = "SELECT feed_id FROM feed_charge WHERE user_id = ?1 AND island_id = ?2 AND feed_created_at > ?3 ORDER BY feed_created_at DESC", nativeQuery = true)
     List<String> findFeedIdByUserIdAndIslandIdTimestampAfter(String userId, String islandId, Long timestamp);
 
@@ -2,7 +2,10 @@ package com.keepreal.madagascar.vanga.repository;
 
 import com.keepreal.madagascar.vanga.model.IncomeDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,4 +15,27 @@ public interface IncomeDetailRepository extends JpaRepository<IncomeDetail, Stri
     List<IncomeDetail> findIncomeDetailsByUserIdAndDeletedIsFalseOrderByMonthTimestampDesc(String userId);
 
     IncomeDetail findIncomeDetailByUserIdAndMonthTimestampAndDeletedIsFalse(String userId, Long monthTimestamp);
+
+    /**
+     * Adds the amount and support count onto the monthly row, creating it if absent.
+     * Relies on the (user_id, month_timestamp) unique key.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO income_detail (id, user_id, month_timestamp, amount_in_cents, support_count, is_deleted, created_time, updated_time) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5, FALSE, ?6, ?6) " +
+            "ON DUPLICATE KEY UPDATE amount_in_cents = amount_in_cents + VALUES(amount_in_cents), " +
+            "support_count = support_count + VALUES(support_count), updated_time = VALUES(updated_time)", nativeQuery = true)
+    void upsertAddIncome(String id, String userId, long monthTimestamp, long amountInCents, int supportCount, long timestamp);
+
+    /**
+     * Rebuilds the amount of the monthly row from the ledger in the same statement that sets the support count, so
+     * an income applied concurrently is either counted by the sum or added after it, never overwritten.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE income_detail SET amount_in_cents = (SELECT COALESCE(SUM(amount_in_cents), 0) FROM income_ledger " +
+            "WHERE user_id = ?1 AND month_timestamp = ?2 AND is_deleted = FALSE), support_count = ?3, updated_time = ?4 " +
+            "WHERE user_id = ?1 AND month_timestamp = ?2 AND is_deleted = FALSE", nativeQuery = true)
+    void rebuildIncome(String userId, long monthTimestamp, int supportCount, long timestamp);
 }
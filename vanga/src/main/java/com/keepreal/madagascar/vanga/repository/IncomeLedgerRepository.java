@@ -0,0 +1,31 @@
+package com.keepreal.madagascar.vanga.repository;
+
+import com.keepreal.madagascar.vanga.model.IncomeLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Represents the income ledger repository.
+ */
+@Repository
+public interface IncomeLedgerRepository extends JpaRepository<IncomeLedger, String> {
+
+    /**
+     * Appends a ledger entry, left untouched if the reference id has been recorded. Relies on the (reference_id)
+     * unique key; whether the entry is new is told by looking up its id afterwards.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO income_ledger (id, user_id, supporter_id, reference_id, month_timestamp, amount_in_cents, is_deleted, created_time, updated_time) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5, ?6, FALSE, ?7, ?7) " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    void appendIfAbsent(String id, String userId, String supporterId, String referenceId, long monthTimestamp, long amountInCents, long timestamp);
+
+    @Query(value = "SELECT DISTINCT user_id FROM income_ledger WHERE month_timestamp = ?1 AND is_deleted = FALSE", nativeQuery = true)
+    List<String> findUserIdsByMonthTimestamp(long monthTimestamp);
+}
@@ -0,0 +1,27 @@
+package com.keepreal.madagascar.vanga.repository;
+
+import com.keepreal.madagascar.vanga.model.IncomeMonthlySupporter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Represents the income monthly supporter repository.
+ */
+@Repository
+public interface IncomeMonthlySupporterRepository extends JpaRepository<IncomeMonthlySupporter, String> {
+
+    /**
+     * Marks the supporter for the payee and month, left untouched if already marked. Relies on the
+     * (user_id, supporter_id, month_timestamp) unique key; whether the mark is new is told by looking up its id
+     * afterwards.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO income_monthly_supporter (id, user_id, supporter_id, month_timestamp, created_time) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5) " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    void markIfAbsent(String id, String userId, String supporterId, long monthTimestamp, long timestamp);
+}
@@ -2,10 +2,40 @@ package com.keepreal.madagascar.vanga.repository;
 
 import com.keepreal.madagascar.vanga.model.IncomeProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface IncomeProfileRepository extends JpaRepository<IncomeProfile, String> {
 
     IncomeProfile findIncomeProfileByUserIdAndDeletedIsFalse(String userId);
+
+    List<IncomeProfile> findIncomeProfilesByUserIdInAndDeletedIsFalse(Collection<String> userIds);
+
+    /**
+     * Adds the amount and support count onto the profile row, creating it if absent. Relies on the (user_id) unique key.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO income_profile (id, user_id, amount_in_cents, support_count_real, support_count_show, is_deleted, created_time, updated_time) " +
+            "VALUES (?1, ?2, ?3, ?4, ?4, FALSE, ?5, ?5) " +
+            "ON DUPLICATE KEY UPDATE amount_in_cents = amount_in_cents + VALUES(amount_in_cents), " +
+            "support_count_real = support_count_real + VALUES(support_count_real), " +
+            "support_count_show = support_count_show + VALUES(support_count_show), updated_time = VALUES(updated_time)", nativeQuery = true)
+    void upsertAddIncome(String id, String userId, long amountInCents, int supportCount, long timestamp);
+
+    /**
+     * Rebuilds the amount of the profile row from the ledger in the same statement that sets the support counts.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE income_profile SET amount_in_cents = (SELECT COALESCE(SUM(amount_in_cents), 0) FROM income_ledger " +
+            "WHERE user_id = ?1 AND is_deleted = FALSE), support_count_real = ?2, support_count_show = ?2, updated_time = ?3 " +
+            "WHERE user_id = ?1 AND is_deleted = FALSE", nativeQuery = true)
+    void rebuildIncome(String userId, int supportCount, long timestamp);
 }
@@ -4,7 +4,10 @@ import com.keepreal.madagascar.vanga.model.IncomeSupport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface IncomeSupportRepository extends JpaRepository<IncomeSupport, String> {
@@ -12,4 +15,15 @@ public interface IncomeSupportRepository extends JpaRepository<IncomeSupport, St
     Page<IncomeSupport> findIncomeSupportsByUserIdAndDeletedIsFalseOrderByCentsDesc(String userId, Pageable pageable);
 
     IncomeSupport findIncomeSupportByUserIdAndSupporterIdAndDeletedIsFalse(String userId, String supporterId);
+
+    /**
+     * Adds the cents onto the supporter row, creating it if absent. Relies on the (user_id, supporter_id) unique key;
+     * whether the row is new is told by looking up its id afterwards.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO income_support (id, user_id, supporter_id, cents, is_deleted, created_time, updated_time) " +
+            "VALUES (?1, ?2, ?3, ?4, FALSE, ?5, ?5) " +
+            "ON DUPLICATE KEY UPDATE cents = cents + VALUES(cents), updated_time = VALUES(updated_time)", nativeQuery = true)
+    void upsertAddCents(String id, String userId, String supporterId, long cents, long timestamp);
 }
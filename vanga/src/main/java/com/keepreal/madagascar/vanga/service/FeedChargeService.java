@@ -72,7 +72,7 @@ public class FeedChargeService {
         this.paymentService.updateAll(paymentList);
         this.saveFeedCharge(order.getUserId(), order.getPropertyId());
 
-        this.incomeService.updateIncomeAll(payment.getPayeeId(), order.getUserId(), System.currentTimeMillis(), payment.getAmountInCents());
+        this.incomeService.updateIncomeAll(payment.getPayeeId(), order.getUserId(), order.getId(), System.currentTimeMillis(), payment.getAmountInCents());
 
         this.notificationEventProducerService.produceNewFeedPaymentNotificationEventAsync(payment.getUserId(),
                 payment.getPayeeId(),
@@ -84,6 +84,10 @@ public class FeedChargeService {
         return this.feedChargeRepository.findFeedChargeByUserIdAndFeedIdAndDeletedIsFalse(userId, feedId);
     }
 
+    public List<String> findHasAccessFeedIdByFeedIds(String userId, Iterable<String> feedIds) {
+        return this.feedChargeRepository.findFeedIdByUserIdAndFeedIdIn(userId, feedIds);
+    }
+
     public List<String> findHasAccessFeedIdTimestampBefore(String userId, String islandId, Long timestamp) {
         return this.feedChargeRepository.findFeedIdByUserIdAndIslandIdTimestampBefore(userId, islandId, timestamp);
     }
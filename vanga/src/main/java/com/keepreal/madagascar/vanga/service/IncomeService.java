@@ -5,24 +5,35 @@ import com.keepreal.madagascar.vanga.model.IncomeDetail;
 import com.keepreal.madagascar.vanga.model.IncomeProfile;
 import com.keepreal.madagascar.vanga.model.IncomeSupport;
 import com.keepreal.madagascar.vanga.repository.IncomeDetailRepository;
+import com.keepreal.madagascar.vanga.repository.IncomeLedgerRepository;
+import com.keepreal.madagascar.vanga.repository.IncomeMonthlySupporterRepository;
 import com.keepreal.madagascar.vanga.repository.IncomeProfileRepository;
 import com.keepreal.madagascar.vanga.repository.IncomeSupportRepository;
 import com.keepreal.madagascar.vanga.repository.PaymentRepository;
 import com.keepreal.madagascar.vanga.util.AutoRedisLock;
 import com.keepreal.madagascar.vanga.util.DateUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RedissonClient;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.Objects;
 
+@Slf4j
 @Service
 public class IncomeService {
 
     private final IncomeDetailRepository incomeDetailRepository;
     private final IncomeProfileRepository incomeProfileRepository;
     private final IncomeSupportRepository incomeSupportRepository;
+    private final IncomeLedgerRepository incomeLedgerRepository;
+    private final IncomeMonthlySupporterRepository incomeMonthlySupporterRepository;
     private final PaymentRepository paymentRepository;
     private final RedissonClient redissonClient;
     private final LongIdGenerator idGenerator;
@@ -30,12 +41,16 @@ public class IncomeService {
     public IncomeService(IncomeDetailRepository incomeDetailRepository,
                          IncomeProfileRepository incomeProfileRepository,
                          IncomeSupportRepository incomeSupportRepository,
+                         IncomeLedgerRepository incomeLedgerRepository,
+                         IncomeMonthlySupporterRepository incomeMonthlySupporterRepository,
                          PaymentRepository paymentRepository,
                          RedissonClient redissonClient,
                          LongIdGenerator idGenerator) {
         this.incomeDetailRepository = incomeDetailRepository;
         this.incomeProfileRepository = incomeProfileRepository;
         this.incomeSupportRepository = incomeSupportRepository;
+        this.incomeLedgerRepository = incomeLedgerRepository;
+        this.incomeMonthlySupporterRepository = incomeMonthlySupporterRepository;
         this.paymentRepository = paymentRepository;
         this.redissonClient = redissonClient;
         this.idGenerator = idGenerator;
@@ -45,6 +60,10 @@ public class IncomeService {
         return this.incomeProfileRepository.findIncomeProfileByUserIdAndDeletedIsFalse(userId);
     }
 
+    public List<IncomeProfile> findIncomeProfilesByUserIds(Collection<String> userIds) {
+        return this.incomeProfileRepository.findIncomeProfilesByUserIdInAndDeletedIsFalse(userIds);
+    }
+
     public List<IncomeDetail> findIncomeDetailsByUserId(String userId) {
         return this.incomeDetailRepository.findIncomeDetailsByUserIdAndDeletedIsFalseOrderByMonthTimestampDesc(userId);
     }
@@ -53,79 +72,78 @@ public class IncomeService {
         return this.incomeSupportRepository.findIncomeSupportsByUserIdAndDeletedIsFalseOrderByCentsDesc(userId, pageable);
     }
 
-    public void updateIncomeAll(String userId, String supporterId, long timestamp, long amountInCents) {
-        this.updateIncomeProfile(userId, amountInCents);
-        this.updateIncomeDetail(userId, timestamp, amountInCents);
-        this.updateIncomeSupport(userId, supporterId, amountInCents);
-    }
+    /**
+     * Records an income into the ledger and applies it onto the summary rows, all inside the caller's transaction.
+     * Each summary row is updated with a single upsert, so no lock or recount is needed, and a reference that has
+     * already been recorded is skipped, so replayed payment callbacks do not double count.
+     *
+     * @param userId        Payee id.
+     * @param supporterId   Supporter id.
+     * @param referenceId   Order or transaction id of the income, null if there is none.
+     * @param timestamp     Income timestamp.
+     * @param amountInCents Amount in cents.
+     */
+    @Transactional
+    public void updateIncomeAll(String userId, String supporterId, String referenceId, long timestamp, long amountInCents) {
+        long currentTimestamp = System.currentTimeMillis();
+        long monthTimestamp = DateUtils.startOfMonthTimestamp(timestamp);
+        String ledgerId = String.valueOf(this.idGenerator.nextId());
 
-    public IncomeDetail updateIncomeDetail(String userId, long timestamp, long amountInCents) {
-        try (AutoRedisLock ignored = new AutoRedisLock(this.redissonClient, String.format("income-detail-%s", userId))) {
-            long startTimestamp = DateUtils.startOfMonthTimestamp(timestamp);
-            IncomeDetail incomeDetail = this.incomeDetailRepository.findIncomeDetailByUserIdAndMonthTimestampAndDeletedIsFalse(userId, startTimestamp);
-            if (incomeDetail == null) {
-                incomeDetail = new IncomeDetail();
-                incomeDetail.setAmountInCents(amountInCents);
-                incomeDetail.setSupportCount(1);
-                incomeDetail.setMonthTimestamp(startTimestamp);
-                incomeDetail.setUserId(userId);
-                return this.createIncomeDetail(incomeDetail);
-            } else {
-                incomeDetail.setSupportCount(this.paymentRepository.countSupportCountByPayeeIdAndTimestamp(userId, DateUtils.startOfMonthTimestamp(timestamp), DateUtils.endOfMonthTimestamp(timestamp)));
-                incomeDetail.setAmountInCents(incomeDetail.getAmountInCents() + amountInCents);
-                return this.incomeDetailRepository.save(incomeDetail);
-            }
+        this.incomeLedgerRepository.appendIfAbsent(ledgerId, userId, supporterId,
+                Objects.isNull(referenceId) ? ledgerId : referenceId, monthTimestamp, amountInCents, currentTimestamp);
+        if (!this.incomeLedgerRepository.existsById(ledgerId)) {
+            return;
         }
-    }
 
-    public IncomeProfile updateIncomeProfile(String userId, long amountInCents) {
-        try (AutoRedisLock ignored = new AutoRedisLock(this.redissonClient, String.format("income-profile-%s", userId))) {
-            IncomeProfile incomeProfile = this.incomeProfileRepository.findIncomeProfileByUserIdAndDeletedIsFalse(userId);
-            if (incomeProfile == null) {
-                incomeProfile = new IncomeProfile();
-                incomeProfile.setSupportCountReal(1);
-                incomeProfile.setSupportCountShow(1);
-                incomeProfile.setAmountInCents(amountInCents);
-                incomeProfile.setUserId(userId);
-                return this.createIncomeProfile(incomeProfile);
-            } else {
-                Integer supportCount = this.paymentRepository.countSupportCountByPayeeIdAndTimestamp(userId, 0, DateUtils.endOfMonthTimestamp());
-                incomeProfile.setSupportCountReal(supportCount);
-                incomeProfile.setSupportCountShow(supportCount);
-                incomeProfile.setAmountInCents(incomeProfile.getAmountInCents() + amountInCents);
-                return this.incomeProfileRepository.save(incomeProfile);
-            }
-        }
-    }
+        String supportId = String.valueOf(this.idGenerator.nextId());
+        this.incomeSupportRepository.upsertAddCents(supportId, userId, supporterId, amountInCents, currentTimestamp);
+        boolean isNewSupporter = this.incomeSupportRepository.existsById(supportId);
 
-    public IncomeSupport updateIncomeSupport(String userId, String supporterId, long cents) {
-        try (AutoRedisLock ignored = new AutoRedisLock(this.redissonClient, String.format("income-support-%s", userId))) {
-            IncomeSupport incomeSupport = this.incomeSupportRepository.findIncomeSupportByUserIdAndSupporterIdAndDeletedIsFalse(userId, supporterId);
-            if (incomeSupport == null) {
-                incomeSupport = new IncomeSupport();
-                incomeSupport.setUserId(userId);
-                incomeSupport.setSupporterId(supporterId);
-                incomeSupport.setCents(cents);
-                return this.createIncomeSupport(incomeSupport);
-            } else {
-                incomeSupport.setCents(incomeSupport.getCents() + cents);
-                return this.incomeSupportRepository.save(incomeSupport);
-            }
-        }
-    }
+        String monthlySupporterId = String.valueOf(this.idGenerator.nextId());
+        this.incomeMonthlySupporterRepository.markIfAbsent(monthlySupporterId, userId, supporterId, monthTimestamp, currentTimestamp);
+        boolean isNewMonthlySupporter = this.incomeMonthlySupporterRepository.existsById(monthlySupporterId);
 
-    private IncomeDetail createIncomeDetail(IncomeDetail incomeDetail) {
-        incomeDetail.setId(String.valueOf(this.idGenerator.nextId()));
-        return this.incomeDetailRepository.save(incomeDetail);
+        this.incomeDetailRepository.upsertAddIncome(String.valueOf(this.idGenerator.nextId()),
+                userId, monthTimestamp, amountInCents, isNewMonthlySupporter ? 1 : 0, currentTimestamp);
+        this.incomeProfileRepository.upsertAddIncome(String.valueOf(this.idGenerator.nextId()),
+                userId, amountInCents, isNewSupporter ? 1 : 0, currentTimestamp);
     }
 
-    private IncomeProfile createIncomeProfile(IncomeProfile incomeProfile) {
-        incomeProfile.setId(String.valueOf(this.idGenerator.nextId()));
-        return this.incomeProfileRepository.save(incomeProfile);
+    /**
+     * Reconciles the income summaries of payees with income this month: the amounts against the ledger and the
+     * support counts against the balance logs.
+     */
+    @Scheduled(cron = "0 30 4 * * ?")
+    public void reconcileIncomes() {
+        try (AutoRedisLock ignored = new AutoRedisLock(this.redissonClient, "income-reconcile", 500, 30 * 60 * 1000)) {
+            long monthTimestamp = DateUtils.startOfMonthTimestamp();
+            this.incomeLedgerRepository.findUserIdsByMonthTimestamp(monthTimestamp).forEach(userId -> {
+                try {
+                    this.rebuildIncome(userId, monthTimestamp);
+                } catch (Exception e) {
+                    log.error("Failed to reconcile income for user {}.", userId, e);
+                }
+            });
+        } catch (ConcurrentModificationException e) {
+            log.info("Income reconciliation is running on another instance, skipped.");
+        }
     }
 
-    private IncomeSupport createIncomeSupport(IncomeSupport incomeSupport) {
-        incomeSupport.setId(String.valueOf(this.idGenerator.nextId()));
-        return this.incomeSupportRepository.save(incomeSupport);
+    /**
+     * Rebuilds the monthly and overall income of a payee, the amounts from the ledger and the support counts from
+     * the balance logs.
+     *
+     * @param userId         Payee id.
+     * @param monthTimestamp Start of month timestamp.
+     */
+    public void rebuildIncome(String userId, long monthTimestamp) {
+        long currentTimestamp = System.currentTimeMillis();
+        Integer monthlySupportCount = this.paymentRepository.countSupportCountByPayeeIdAndTimestamp(userId,
+                monthTimestamp, DateUtils.endOfMonthTimestamp(monthTimestamp));
+        Integer supportCount = this.paymentRepository.countSupportCountByPayeeIdAndTimestamp(userId, 0, DateUtils.endOfMonthTimestamp());
+
+        this.incomeDetailRepository.rebuildIncome(userId, monthTimestamp,
+                Objects.isNull(monthlySupportCount) ? 0 : monthlySupportCount, currentTimestamp);
+        this.incomeProfileRepository.rebuildIncome(userId, Objects.isNull(supportCount) ? 0 : supportCount, currentTimestamp);
     }
 }
@@ -68,7 +68,7 @@ public class SupportService {
         this.sponsorHistoryService.addSponsorHistoryWithOrderAndPayment(order, payment);
         this.sendAsyncMessage(payment.getUserId(), payment.getPayeeId(), payment.getAmountInCents());
 
-        this.incomeService.updateIncomeAll(payment.getPayeeId(), order.getUserId(), System.currentTimeMillis(), payment.getAmountInCents());
+        this.incomeService.updateIncomeAll(payment.getPayeeId(), order.getUserId(), order.getId(), System.currentTimeMillis(), payment.getAmountInCents());
     }
 
     private void sendAsyncMessage(String userId, String payeeId, Long priceInCents) {